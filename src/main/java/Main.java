@@ -1,4 +1,7 @@
+import walkGenerators.base.MemoryParser;
+import walkGenerators.base.NtMemoryParser;
 import walkGenerators.base.WalkGenerationMode;
+import walkGenerators.base.WalkGenerator;
 import walkGenerators.classic.DBpedia.DBpediaWalkGenerator;
 import walkGenerators.base.IWalkGenerator;
 import walkGenerators.classic.DBnary.DbnaryWalkGenerator;
@@ -6,9 +9,22 @@ import walkGenerators.classic.WalkGeneratorDefault;
 import walkGenerators.classic.alod.applications.alodRandomWalks.generationInMemory.controller.WalkGeneratorClassicWalks;
 import walkGenerators.classic.babelnet.BabelNetWalkGenerator;
 import walkGenerators.classic.wordnet.WordNetWalkGenerator;
+import walkGenerators.dataStructure.GraphSnapshot;
+import walkGenerators.dataStructure.IndexProfile;
+import walkGenerators.dataStructure.MemoryReport;
+import walkGenerators.dataStructure.NodeOrder;
+import walkGenerators.dataStructure.TripleDataSet;
+import walkGenerators.dataStructure.TripleDataSetCsr;
+import walkGenerators.dataStructure.TripleDataSetDelta;
+import walkGenerators.dataStructure.TripleDataSetMemory;
 import walkGenerators.light.DBpedia.DBpediaWalkGeneratorLight;
 import walkGenerators.light.WalkGeneratorLight;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -40,6 +56,59 @@ public class Main {
      */
     private static String rdf2vecLightEntityFile;
 
+    /**
+     * The in-memory triple store to be used: {@code memory} (default), {@code csr} (compact, dictionary-encoded),
+     * {@code compressed} (csr with compressed adjacency lists), or {@code tiered} (csr whose low-degree adjacency lists
+     * are spilled to memory-mapped files).
+     */
+    private static String tripleStore = "memory";
+
+    /**
+     * Heap budget in MB for the adjacency lists of the {@code tiered} store (default: a quarter of the maximal heap).
+     */
+    private static long heapBudget = Runtime.getRuntime().maxMemory() / 4 / (1024 * 1024);
+
+    /**
+     * Directory for the spill files of the {@code tiered} store.
+     */
+    private static String spillDirectory = "./spill";
+
+    /**
+     * Directory of the binary graph snapshot (optional). If the snapshot exists, it is memory-mapped instead of parsing
+     * the resource; otherwise, it is written after parsing. Implies the {@code csr} store.
+     */
+    private static String snapshotDirectory;
+
+    /**
+     * Indicator whether the data set of the last {@link Main#createTripleDataSet(boolean)} call was opened from the
+     * snapshot.
+     */
+    private static boolean isSnapshotOpened;
+
+    /**
+     * Indicator whether duplicate triples (e.g. triples contained in multiple files) shall be removed after loading.
+     */
+    private static boolean isDeduplicate;
+
+    /**
+     * Diff file or directory of diff files (optional) that are applied on top of the loaded graph
+     * (see {@link NtMemoryParser#applyDiff(File)}).
+     */
+    private static String diffPath;
+
+    /**
+     * File to which the memory report of the loaded graph is written as JSON (optional,
+     * see {@link TripleDataSet#getMemoryReport()}).
+     */
+    private static String memoryReportFile;
+
+    /**
+     * Order in which the nodes are renumbered after loading (optional, csr and tiered store only,
+     * see {@link TripleDataSetCsr#relabel(NodeOrder)}).
+     */
+    private static NodeOrder nodeOrder;
+
+
     public static void main(String[] args) {
         if (args.length == 0 || args[0].equalsIgnoreCase("-h") || args[0].equalsIgnoreCase("--h") || args[0].equalsIgnoreCase("-help")) {
             System.out.println(getHelp());
@@ -196,6 +265,65 @@ public class Main {
 
             String writtenMode = getValue("-mode", args);
             modeOfWalkGeneration = modeOfWalkGeneration.getMode(writtenMode);
+
+            String tripleStoreWritten = getValue("-store", args);
+            if (tripleStoreWritten != null) {
+                if (tripleStoreWritten.equalsIgnoreCase("memory") || tripleStoreWritten.equalsIgnoreCase("csr")
+                        || tripleStoreWritten.equalsIgnoreCase("compressed") || tripleStoreWritten.equalsIgnoreCase("tiered")) {
+                    tripleStore = tripleStoreWritten.toLowerCase();
+                } else {
+                    System.out.println("Unknown store '" + tripleStoreWritten + "'. Using default (memory).");
+                }
+            }
+
+            String heapBudgetWritten = getValue("-heapBudget", args);
+            if (heapBudgetWritten != null) {
+                heapBudget = Long.valueOf(heapBudgetWritten);
+            }
+
+            String spillDirectoryWritten = getValue("-spill", args);
+            if (spillDirectoryWritten != null) {
+                spillDirectory = spillDirectoryWritten;
+            }
+
+            isDeduplicate = false;
+            String isDeduplicateWritten = getValue("-deduplicate", args);
+            if (isDeduplicateWritten != null) {
+                if ((isDeduplicateWritten.equalsIgnoreCase("true") || isDeduplicateWritten.equalsIgnoreCase("false"))) {
+                    isDeduplicate = Boolean.valueOf(isDeduplicateWritten);
+                }
+            }
+
+            diffPath = getValue("-diff", args);
+
+            memoryReportFile = getValue("-memoryReport", args);
+
+            String nodeOrderWritten = getValue("-relabel", args);
+            if (nodeOrderWritten != null) {
+                try {
+                    nodeOrder = NodeOrder.valueOf(nodeOrderWritten.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Unknown node order '" + nodeOrderWritten + "'. The nodes will not be relabeled.");
+                }
+            }
+
+            snapshotDirectory = getValue("-snapshot", args);
+            if (snapshotDirectory != null && tripleStore.equals("memory")) {
+                System.out.println("A snapshot requires the csr store. Using csr.");
+                tripleStore = "csr";
+            }
+
+            if (resourcePath != null && isHdtFile(resourcePath)) {
+                // HDT files are imported into a read-only csr store (see WalkGeneratorDefault)
+                if (tripleStore.equals("compressed") || tripleStore.equals("tiered")) {
+                    System.out.println("The " + tripleStore + " store is not supported for HDT files. The HDT file is imported into the csr store.");
+                    tripleStore = "csr";
+                }
+                if (isDeduplicate) {
+                    System.out.println("HDT files are duplicate-free. Option -deduplicate is ignored.");
+                    isDeduplicate = false;
+                }
+            }
         } // end of args interpretation
 
         // print configuration for verification
@@ -212,21 +340,52 @@ public class Main {
                     generatorExecution(lightGenerator);
                 } else {
                     // default rdf2vec configuration
-                    WalkGeneratorDefault classicGenerator = new WalkGeneratorDefault(resourcePath);
+                    TripleDataSet classicData = createTripleDataSet(true);
+                    WalkGeneratorDefault classicGenerator = new WalkGeneratorDefault(resourcePath, classicData);
+                    if (!isSnapshotUsable(classicGenerator)) {
+                        classicData = createTripleDataSet(false);
+                        classicGenerator = new WalkGeneratorDefault(resourcePath, classicData);
+                    }
+                    classicData = getLoadedData(classicGenerator, classicData);
+                    relabelIfRequired(classicData);
+                    writeSnapshotIfRequired(classicData, classicGenerator);
+                    applyDiffsIfRequired(classicData, classicGenerator);
+                    writeMemoryReportIfRequired(classicData);
                     generatorExecution(classicGenerator);
+                    printTieringStatistics(classicData);
                 }
                 break;
             case "babelnet":
-                BabelNetWalkGenerator babelnetGenerator = new BabelNetWalkGenerator(resourcePath, isEnglishOnly);
+                TripleDataSet babelnetData = createTripleDataSet(true);
+                BabelNetWalkGenerator babelnetGenerator = new BabelNetWalkGenerator(resourcePath, isEnglishOnly, babelnetData);
+                if (!isSnapshotUsable(babelnetGenerator)) {
+                    babelnetData = createTripleDataSet(false);
+                    babelnetGenerator = new BabelNetWalkGenerator(resourcePath, isEnglishOnly, babelnetData);
+                }
+                relabelIfRequired(babelnetData);
+                writeSnapshotIfRequired(babelnetData, babelnetGenerator);
+                applyDiffsIfRequired(babelnetData, babelnetGenerator);
+                writeMemoryReportIfRequired(babelnetData);
                 generatorExecution(babelnetGenerator);
+                printTieringStatistics(babelnetData);
                 break;
             case "dbpedia":
                 if(isRdf2vecLight) {
                     DBpediaWalkGeneratorLight dBpediaWalkGeneratorLight = new DBpediaWalkGeneratorLight(resourcePath, rdf2vecLightEntityFile);
                     generatorExecution(dBpediaWalkGeneratorLight);
                 } else {
-                    DBpediaWalkGenerator dBpediaWalkGenerator = new DBpediaWalkGenerator(resourcePath);
+                    TripleDataSet dbpediaData = createTripleDataSet(true);
+                    DBpediaWalkGenerator dBpediaWalkGenerator = new DBpediaWalkGenerator(resourcePath, dbpediaData);
+                    if (!isSnapshotUsable(dBpediaWalkGenerator)) {
+                        dbpediaData = createTripleDataSet(false);
+                        dBpediaWalkGenerator = new DBpediaWalkGenerator(resourcePath, dbpediaData);
+                    }
+                    relabelIfRequired(dbpediaData);
+                    writeSnapshotIfRequired(dbpediaData, dBpediaWalkGenerator);
+                    applyDiffsIfRequired(dbpediaData, dBpediaWalkGenerator);
+                    writeMemoryReportIfRequired(dbpediaData);
                     generatorExecution(dBpediaWalkGenerator);
+                    printTieringStatistics(dbpediaData);
                 }
                 break;
             case "wordnet":
@@ -270,6 +429,181 @@ public class Main {
         }
     }
 
+    /**
+     * Check whether the given resource is imported from HDT (see {@link WalkGeneratorDefault}).
+     * @param resource Path of the resource.
+     * @return True for HDT files and their index files.
+     */
+    private static boolean isHdtFile(String resource) {
+        String name = resource.toLowerCase();
+        return name.endsWith(".hdt") || name.endsWith(".hdt.index.v1-1");
+    }
+
+    /**
+     * Create the in-memory triple store as configured via {@code -store}, {@code -snapshot}, {@code -diff}, and
+     * {@code -mode}. The parser configuration of a snapshot is only known once the walk generator exists; check it with
+     * {@link Main#isSnapshotUsable(WalkGenerator)}.
+     * @param isUseSnapshot True if an existing snapshot of the resource shall be opened.
+     * @return Empty triple data set or the data set of an existing snapshot.
+     */
+    private static TripleDataSet createTripleDataSet(boolean isUseSnapshot) {
+        // build only the indexes that are required by the walk generation mode
+        IndexProfile indexProfile = modeOfWalkGeneration == null ? IndexProfile.FULL : modeOfWalkGeneration.getIndexProfile();
+        TripleDataSet result = null;
+        isSnapshotOpened = false;
+        if (isUseSnapshot && snapshotDirectory != null && GraphSnapshot.exists(new File(snapshotDirectory))) {
+            TripleDataSetCsr snapshot = GraphSnapshot.open(new File(snapshotDirectory), new File(resourcePath), null);
+            if (snapshot != null && snapshot.getIndexProfile().covers(indexProfile)) {
+                result = snapshot;
+                isSnapshotOpened = true;
+            } else if (snapshot != null) {
+                System.out.println("The snapshot does not contain the indexes required for mode " + modeOfWalkGeneration + ". The resource will be parsed.");
+            } else {
+                System.out.println("Could not open snapshot or the snapshot is outdated. The resource will be parsed.");
+            }
+        }
+        if (result == null) {
+            result = createEmptyTripleDataSet(indexProfile);
+        }
+        if (diffPath != null) {
+            // diffs are recorded in a delta on top of the loaded graph and compacted into a new store in the background
+            result = new TripleDataSetDelta(result, () -> createEmptyTripleDataSet(indexProfile));
+        }
+        return result;
+    }
+
+    /**
+     * Obtain the data set into which the generator loaded the triples. The generator replaces the given data set if it
+     * imports an HDT file or if it falls back to another parser after a failed load.
+     * @param generator The generator.
+     * @param data The data set that was given to the generator.
+     * @return The data set of the generator's parser (the given data set if the parser is not memory based).
+     */
+    private static TripleDataSet getLoadedData(WalkGenerator generator, TripleDataSet data) {
+        return generator.parser instanceof MemoryParser ? ((MemoryParser) generator.parser).getData() : data;
+    }
+
+    /**
+     * Create an empty in-memory triple store as configured via {@code -store}.
+     * @param indexProfile The indexes to be built.
+     * @return Empty triple data set.
+     */
+    private static TripleDataSet createEmptyTripleDataSet(IndexProfile indexProfile) {
+        if (tripleStore.equals("csr")) {
+            return new TripleDataSetCsr(indexProfile, false, isDeduplicate);
+        } else if (tripleStore.equals("tiered")) {
+            return new TripleDataSetCsr(indexProfile, isDeduplicate, new File(spillDirectory), heapBudget * 1024 * 1024);
+        } else if (tripleStore.equals("compressed")) {
+            return new TripleDataSetCsr(indexProfile, true, isDeduplicate);
+        }
+        return new TripleDataSetMemory(indexProfile, isDeduplicate);
+    }
+
+    /**
+     * Description of the settings that determine the content of a snapshot besides the resource: the parser
+     * configuration (URI shortener, skip condition, datatype properties) and the removal of duplicate triples.
+     * @param generator The walk generator that parses the resource.
+     * @return Configuration description.
+     */
+    private static String getSnapshotConfiguration(WalkGenerator generator) {
+        // the NxParser and the RIOT parser skip literals like the NtParser in its default configuration
+        NtMemoryParser parser = generator.parser instanceof NtMemoryParser ? (NtMemoryParser) generator.parser : new NtMemoryParser(generator);
+        return parser.getCacheConfiguration() + ";deduplicate=" + isDeduplicate;
+    }
+
+    /**
+     * Check whether the data set of the given generator can be used if it was opened from the snapshot, i.e., whether
+     * the snapshot was written with the parser configuration of the generator.
+     * @param generator The walk generator that was created on the data set of {@link Main#createTripleDataSet(boolean)}.
+     * @return False if the resource has to be parsed instead.
+     */
+    private static boolean isSnapshotUsable(WalkGenerator generator) {
+        if (!isSnapshotOpened) return true;
+        if (GraphSnapshot.isUpToDate(new File(snapshotDirectory), new File(resourcePath), getSnapshotConfiguration(generator))) return true;
+        System.out.println("The snapshot was written with a different configuration (parser or -deduplicate). The resource will be parsed.");
+        return false;
+    }
+
+    /**
+     * Write the given data set as snapshot if {@code -snapshot} is set and there is no up-to-date snapshot yet.
+     * @param data The loaded data set.
+     * @param generator The walk generator that parsed the resource.
+     */
+    private static void writeSnapshotIfRequired(TripleDataSet data, WalkGenerator generator) {
+        if (snapshotDirectory == null) return;
+        String configuration = getSnapshotConfiguration(generator);
+        if (GraphSnapshot.isUpToDate(new File(snapshotDirectory), new File(resourcePath), configuration)) return;
+        if (data instanceof TripleDataSetDelta) {
+            // the snapshot contains the graph without the diffs
+            data = ((TripleDataSetDelta) data).getBase();
+        }
+        if (!(data instanceof TripleDataSetCsr) || data.getSize() == 0) return;
+        try {
+            GraphSnapshot.write((TripleDataSetCsr) data, new File(snapshotDirectory), new File(resourcePath), configuration);
+        } catch (IOException e) {
+            System.out.println("Could not write snapshot to " + snapshotDirectory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Renumber the nodes of the given data set if {@code -relabel} is set (only for the {@code csr} and {@code tiered}
+     * store; diffs are recorded by String and are therefore not affected).
+     * @param data The loaded data set.
+     */
+    private static void relabelIfRequired(TripleDataSet data) {
+        if (nodeOrder == null) return;
+        if (data instanceof TripleDataSetDelta) data = ((TripleDataSetDelta) data).getBase();
+        if (!(data instanceof TripleDataSetCsr) || data.getSize() == 0) return;
+        try {
+            ((TripleDataSetCsr) data).relabel(nodeOrder);
+        } catch (UnsupportedOperationException e) {
+            System.out.println("The nodes are not relabeled: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Print the share of edge reads that were served from the spill files (only for the {@code tiered} store).
+     * @param data The data set used for the walk generation.
+     */
+    private static void printTieringStatistics(TripleDataSet data) {
+        if (data instanceof TripleDataSetDelta) data = ((TripleDataSetDelta) data).getBase();
+        if (!(data instanceof TripleDataSetCsr)) return;
+        String statistics = ((TripleDataSetCsr) data).getTieringStatistics();
+        if (statistics != null) System.out.println("Tiered store: " + statistics + ".");
+    }
+
+    /**
+     * Print the memory report of the given data set and write it as JSON if {@code -memoryReport} is set.
+     * @param data The loaded data set.
+     */
+    private static void writeMemoryReportIfRequired(TripleDataSet data) {
+        MemoryReport report = data.getMemoryReport();
+        System.out.println("Memory: " + report);
+        if (memoryReportFile == null) return;
+        try {
+            Files.write(new File(memoryReportFile).toPath(), report.toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Could not write memory report to " + memoryReportFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply the diff file(s) given via {@code -diff} (in the order of their names).
+     * @param data The loaded data set.
+     * @param generator The generator (used to shorten the URIs of the diff in the same way as the loaded graph).
+     */
+    private static void applyDiffsIfRequired(TripleDataSet data, WalkGenerator generator) {
+        if (diffPath == null || !(data instanceof TripleDataSetDelta)) return;
+        File diff = new File(diffPath);
+        File[] diffFiles = diff.isDirectory() ? diff.listFiles() : new File[]{diff};
+        if (diffFiles == null) return;
+        Arrays.sort(diffFiles);
+        NtMemoryParser diffParser = new NtMemoryParser(generator, data);
+        for (File diffFile : diffFiles) {
+            if (diffFile.isFile()) diffParser.applyDiff(diffFile);
+        }
+    }
+
     /**
      * Prints the current configuration.
      */
@@ -279,6 +613,13 @@ public class Main {
                 "- walks per entity: " + numberOfWalks + "\n" +
                 "- mode: " + modeOfWalkGeneration + "\n" +
                 "- depth of each walk: " + depth + "\n" +
+                "- triple store: " + tripleStore + (tripleStore.equals("tiered") ? " (heap budget: " + heapBudget + " MB, spill directory: " + spillDirectory + ")" : "") + "\n" +
+                "- indexes: " + (modeOfWalkGeneration == null ? IndexProfile.FULL : modeOfWalkGeneration.getIndexProfile()) + "\n" +
+                "- snapshot directory: " + (snapshotDirectory == null ? "none" : snapshotDirectory) + "\n" +
+                "- remove duplicate triples: " + isDeduplicate + "\n" +
+                "- diff: " + (diffPath == null ? "none" : diffPath) + "\n" +
+                "- memory report: " + (memoryReportFile == null ? "none" : memoryReportFile) + "\n" +
+                "- node order: " + (nodeOrder == null ? "none" : nodeOrder) + "\n" +
                 "- rdf2vec LIGHT: " + isRdf2vecLight + "\n";
 
         if(isRdf2vecLight){
@@ -304,6 +645,23 @@ public class Main {
         String result = "-set " + dataSet + " -res \"" + resourcePath + "\" -threads " + numberOfThreads + " -walks " + numberOfWalks + " -depth " + depth;
         result += " -unifyAnonymousNodes " + isUnifyAnonymousNodes;
         result += " -mode " + modeOfWalkGeneration;
+        result += " -store " + tripleStore;
+        if (tripleStore.equals("tiered")) {
+            result += " -heapBudget " + heapBudget + " -spill \"" + spillDirectory + "\"";
+        }
+        result += " -deduplicate " + isDeduplicate;
+        if (snapshotDirectory != null) {
+            result += " -snapshot \"" + snapshotDirectory + "\"";
+        }
+        if (diffPath != null) {
+            result += " -diff \"" + diffPath + "\"";
+        }
+        if (memoryReportFile != null) {
+            result += " -memoryReport \"" + memoryReportFile + "\"";
+        }
+        if (nodeOrder != null) {
+            result += " -relabel " + nodeOrder.toString().toLowerCase();
+        }
         if (fileToWrite != null) {
             result += " -file \"" + fileToWrite + "\"";
         }
@@ -385,6 +743,49 @@ public class Main {
                         "-rdf2vecLightEntityFile <path_to_file>\n" +
                         "The path to the entity file containing the entities for which walk shall be generated. the file must contain only one entity per line.\n\n" +
 
+                        "-store <store>\n" +
+                        "The in-memory data structure used for the triples. Default: memory.\n" +
+                        "Values for <store>\n" +
+                        "\tmemory\n" +
+                        "\tcsr (compact, dictionary-encoded; requires considerably less RAM)\n" +
+                        "\tcompressed (csr with delta/varint-compressed adjacency lists; smallest, but slower walks)\n" +
+                        "\ttiered (csr that keeps only the adjacency lists of high-degree nodes on the heap and spills the rest to memory-mapped files)\n\n" +
+
+                        "-heapBudget <megabytes>\n" +
+                        "Heap budget for the adjacency lists of the tiered store. Default: a quarter of the maximal heap (-Xmx).\n\n" +
+
+                        "-spill <path_to_directory>\n" +
+                        "Directory for the spill files of the tiered store (deleted on exit). Default: ./spill\n\n" +
+
+                        "-snapshot <path_to_directory>\n" +
+                        "Directory of a binary snapshot of the loaded graph (csr and compressed store only). If the snapshot does not exist, it is written\n" +
+                        "after the resource has been parsed. Later runs memory-map the snapshot and skip parsing. The snapshot is written\n" +
+                        "again if the resource, its size or modification time, or the data set (-set) changes.\n\n" +
+
+                        "-diff <path_to_file_or_directory>\n" +
+                        "Diff file (or directory of diff files, applied in the order of their names) that is applied on top of the loaded graph\n" +
+                        "(or snapshot). Each line of a diff is an N-Triples statement prefixed by 'A ' (add) or 'D ' (delete), e.g.\n" +
+                        "A <s> <p> <o> .\n" +
+                        "Large diffs are folded into the graph in the background.\n\n" +
+
+                        "-memoryReport <path_to_file>\n" +
+                        "File to which the estimated memory footprint of the loaded graph (per index, dictionary, and triple) is written\n" +
+                        "as JSON. The footprint is also printed after loading and logged periodically while loading.\n\n" +
+
+                        "-relabel <order>\n" +
+                        "Renumber the nodes after loading so that the adjacency lists that are visited together are stored together\n" +
+                        "(csr and tiered store only; a snapshot is written in the new order). Default: no relabeling.\n" +
+                        "Values for <order>\n" +
+                        "\tdegree (nodes sorted by descending degree)\n" +
+                        "\tbfs (breadth-first traversal starting at the nodes with the highest degree)\n\n" +
+
+                        "-deduplicate <bool>\n" +
+                        "Indicator whether duplicate triples (e.g. triples that occur in multiple files) shall be removed after loading.\n" +
+                        "Duplicates over-weight the respective edge in random walks. Default: False.\n" +
+                        "Values for <bool>\n" +
+                        "\ttrue\n" +
+                        "\tfalse\n\n" +
+
                         "-en <bool>\n" +
                         "Required only for BabelNet. Indicator whether only English lemmas shall be used for the walk generation.\n" +
                         "Values for <bool>\n" +
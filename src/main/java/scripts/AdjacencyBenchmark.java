@@ -0,0 +1,102 @@
+package scripts;
+
+import walkGenerators.dataStructure.IndexProfile;
+import walkGenerators.dataStructure.PackedEdge;
+import walkGenerators.dataStructure.TripleDataSetCsr;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares memory consumption and random walk throughput of the uncompressed, the compressed, and the tiered
+ * adjacency layout of {@link TripleDataSetCsr} on a synthetic graph with skewed (power-law like) degree distribution.
+ * For the tiered layout, the heap budget is a quarter of the size of the uncompressed edges; the share of edge reads
+ * from the spill file is reported.
+ *
+ * Arguments (optional): number of nodes, number of triples, number of walks. Run with a fixed heap size (e.g. -Xmx8g)
+ * for comparable results.
+ */
+public class AdjacencyBenchmark {
+
+    public static void main(String[] args) {
+        int numberOfNodes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int numberOfTriples = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        int numberOfWalks = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        int depth = 4;
+
+        for (String layout : new String[]{"uncompressed", "compressed", "tiered"}) {
+            long heapBefore = usedHeap();
+            TripleDataSetCsr data = layout.equals("tiered") ?
+                    new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT, false, new File(System.getProperty("java.io.tmpdir")), 2L * 8 * numberOfTriples / 4) :
+                    new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT, layout.equals("compressed"));
+            fill(data, numberOfNodes, numberOfTriples);
+            long startTime = System.currentTimeMillis();
+            data.compile();
+            long compileTime = System.currentTimeMillis() - startTime;
+            long heapAfter = usedHeap();
+
+            startTime = System.nanoTime();
+            long checksum = walk(data, numberOfWalks, depth);
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            System.out.println(layout + ": "
+                    + String.format("%.1f", (heapAfter - heapBefore) / (double) numberOfTriples) + " bytes/triple (incl. dictionary), "
+                    + "compile: " + compileTime + " ms, "
+                    + String.format("%.0f", numberOfWalks / seconds) + " walks/s (checksum " + checksum + ")"
+                    + (data.getTieringStatistics() == null ? "" : ", " + data.getTieringStatistics()));
+            data = null;
+        }
+    }
+
+    /**
+     * Add a synthetic graph. Subjects and objects are drawn with a skewed distribution so that some nodes have a very
+     * high degree.
+     * @param data Target.
+     * @param numberOfNodes Number of nodes.
+     * @param numberOfTriples Number of triples.
+     */
+    private static void fill(TripleDataSetCsr data, int numberOfNodes, int numberOfTriples) {
+        Random random = new Random(42);
+        for (int i = 0; i < numberOfTriples; i++) {
+            int subject = (int) (numberOfNodes * Math.pow(random.nextDouble(), 2));
+            int object = (int) (numberOfNodes * Math.pow(random.nextDouble(), 4));
+            int predicate = (int) (100 * Math.pow(random.nextDouble(), 3));
+            data.add("http://example.org/node/" + subject, "http://example.org/p" + predicate, "http://example.org/node/" + object);
+        }
+    }
+
+    /**
+     * Generate random walks via the ID API (as the memory parser does).
+     * @param data Data set.
+     * @param numberOfWalks Number of walks.
+     * @param depth Depth of each walk.
+     * @return Checksum so that the walks are not optimized away.
+     */
+    private static long walk(TripleDataSetCsr data, int numberOfWalks, int depth) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int numberOfNodes = data.getNumberOfNodes();
+        long checksum = 0;
+        for (int i = 0; i < numberOfWalks; i++) {
+            int node = random.nextInt(numberOfNodes);
+            for (int step = 0; step < depth; step++) {
+                int degree = data.getOutDegree(node);
+                if (degree == 0) break;
+                long edge = data.getOutEdge(node, random.nextInt(degree));
+                checksum += PackedEdge.getPredicate(edge);
+                node = PackedEdge.getNode(edge);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Obtain the used heap after garbage collection.
+     * @return Used heap in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
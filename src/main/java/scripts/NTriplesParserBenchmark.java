@@ -0,0 +1,174 @@
+package scripts;
+
+import walkGenerators.base.DummyWalkGenerator;
+import walkGenerators.base.NTriplesTokenizer;
+import walkGenerators.base.NtMemoryParser;
+import walkGenerators.dataStructure.TripleDataSetCsr;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the parse throughput of the former String/regex-based line parsing of {@link NtMemoryParser} with
+ * {@link NTriplesTokenizer} on a synthetic N-Triples file (DBpedia-like IRIs, one in five statements has a literal
+ * object and is skipped). Both variants are measured parse-only (terms are decoded but not stored) and including the
+ * insertion into a {@link TripleDataSetCsr}. Finally, loading with {@link NtMemoryParser} on one thread is compared
+ * with chunked parallel loading ({@link NtMemoryParser#readNTriplesParallel(File, int)}) and, for the gzipped file,
+ * with pipelined loading ({@link NtMemoryParser#readNTriplesPipelined(File, int)}).
+ *
+ * Arguments (optional): number of lines, number of rounds, number of threads.
+ */
+public class NTriplesParserBenchmark {
+
+    /**
+     * Skip pattern of the former parser (statements with literals).
+     */
+    private static final Pattern LITERAL_PATTERN = Pattern.compile("\".*\"");
+
+    public static void main(String[] args) throws IOException {
+        int numberOfLines = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        File file = File.createTempFile("benchmark", ".nt");
+        file.deleteOnExit();
+        write(file, numberOfLines);
+        System.out.println("File: " + numberOfLines + " lines, " + (file.length() >> 20) + " MB");
+
+        for (boolean isStore : new boolean[]{false, true}) {
+            double bestLegacy = 0;
+            double bestTokenizer = 0;
+            for (int round = 0; round < rounds; round++) {
+                long startTime = System.nanoTime();
+                long checksum = parseLegacy(file, isStore ? new TripleDataSetCsr() : null);
+                bestLegacy = Math.max(bestLegacy, numberOfLines / ((System.nanoTime() - startTime) / 1e9));
+
+                startTime = System.nanoTime();
+                long checksum2 = parseTokenizer(file, isStore ? new TripleDataSetCsr() : null);
+                bestTokenizer = Math.max(bestTokenizer, numberOfLines / ((System.nanoTime() - startTime) / 1e9));
+                if (checksum != checksum2) throw new IllegalStateException("Different parse results.");
+            }
+            String variant = isStore ? "parse + store" : "parse only";
+            System.out.println(variant + ": regex " + String.format("%.0f", bestLegacy) + " lines/s, tokenizer "
+                    + String.format("%.0f", bestTokenizer) + " lines/s (" + String.format("%.1f", bestTokenizer / bestLegacy) + "x)");
+        }
+
+        double bestSequential = 0;
+        double bestParallel = 0;
+        for (int round = 0; round < rounds; round++) {
+            NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetCsr());
+            parser.setNumberOfParsingThreads(1);
+            long startTime = System.nanoTime();
+            parser.readNTriples(file, false);
+            bestSequential = Math.max(bestSequential, numberOfLines / ((System.nanoTime() - startTime) / 1e9));
+            long size = parser.getData().getSize();
+
+            parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetCsr());
+            startTime = System.nanoTime();
+            parser.readNTriplesParallel(file, threads);
+            bestParallel = Math.max(bestParallel, numberOfLines / ((System.nanoTime() - startTime) / 1e9));
+            if (size != parser.getData().getSize()) throw new IllegalStateException("Different parse results.");
+        }
+        System.out.println("load: sequential " + String.format("%.0f", bestSequential) + " lines/s, " + threads
+                + " threads " + String.format("%.0f", bestParallel) + " lines/s (" + String.format("%.1f", bestParallel / bestSequential) + "x)");
+
+        File gzippedFile = File.createTempFile("benchmark", ".nt.gz");
+        gzippedFile.deleteOnExit();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gzippedFile))) {
+            Files.copy(file.toPath(), out);
+        }
+        bestSequential = 0;
+        double bestPipelined = 0;
+        for (int round = 0; round < rounds; round++) {
+            NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetCsr());
+            parser.setNumberOfParsingThreads(1);
+            long startTime = System.nanoTime();
+            parser.readNTriples(gzippedFile, true);
+            bestSequential = Math.max(bestSequential, numberOfLines / ((System.nanoTime() - startTime) / 1e9));
+            long size = parser.getData().getSize();
+
+            parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetCsr());
+            startTime = System.nanoTime();
+            parser.readNTriplesPipelined(gzippedFile, threads);
+            bestPipelined = Math.max(bestPipelined, numberOfLines / ((System.nanoTime() - startTime) / 1e9));
+            if (size != parser.getData().getSize()) throw new IllegalStateException("Different parse results.");
+        }
+        System.out.println("gzip load: sequential " + String.format("%.0f", bestSequential) + " lines/s, pipelined ("
+                + threads + " parser threads) " + String.format("%.0f", bestPipelined) + " lines/s ("
+                + String.format("%.1f", bestPipelined / bestSequential) + "x)");
+    }
+
+    /**
+     * Parse the file in the way of the former parser: skip regex, terminator regex, split, and tag removal.
+     * @param file N-Triples file.
+     * @param data Target (null for parse-only).
+     * @return Checksum of the parsed terms.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long parseLegacy(File file, TripleDataSetCsr data) throws IOException {
+        long checksum = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().startsWith("#") || line.trim().equals("") || LITERAL_PATTERN.matcher(line).find()) continue;
+                line = line.replaceAll("(?<=>)*[ ]*.[ ]*$", "");
+                String[] spo = line.split(" ");
+                if (spo.length != 3) continue;
+                String subject = NtMemoryParser.removeTags(spo[0]);
+                String predicate = NtMemoryParser.removeTags(spo[1]);
+                String object = NtMemoryParser.removeTags(spo[2]);
+                checksum += subject.length() + predicate.length() + object.length();
+                if (data != null) data.add(subject, predicate, object);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Parse the file with {@link NTriplesTokenizer}.
+     * @param file N-Triples file.
+     * @param data Target (null for parse-only).
+     * @return Checksum of the parsed terms.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long parseTokenizer(File file, TripleDataSetCsr data) throws IOException {
+        long checksum = 0;
+        try (InputStream in = new FileInputStream(file)) {
+            NTriplesTokenizer tokenizer = new NTriplesTokenizer(in);
+            while (tokenizer.nextLine()) {
+                if (tokenizer.isCommentOrBlank() || tokenizer.containsLiteral() || !tokenizer.tokenize(false)) continue;
+                String subject = tokenizer.getTerm(0);
+                String predicate = tokenizer.getTerm(1);
+                String object = tokenizer.getTerm(2);
+                checksum += subject.length() + predicate.length() + object.length();
+                if (data != null) data.add(subject, predicate, object);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Write a synthetic N-Triples file.
+     * @param file Target.
+     * @param numberOfLines Number of lines.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void write(File file, int numberOfLines) throws IOException {
+        Random random = new Random(42);
+        int numberOfEntities = Math.max(1, numberOfLines / 5);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < numberOfLines; i++) {
+                String subject = "<http://dbpedia.org/resource/Entity_" + (i / 5) + ">";
+                String predicate = "<http://dbpedia.org/ontology/property" + random.nextInt(50) + ">";
+                if (i % 5 == 4) {
+                    writer.write(subject + " " + predicate + " \"Some literal value " + i + "\"@en .\n");
+                } else {
+                    writer.write(subject + " " + predicate + " <http://dbpedia.org/resource/Entity_" + random.nextInt(numberOfEntities) + "> .\n");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package scripts;
+
+import walkGenerators.dataStructure.IndexProfile;
+import walkGenerators.dataStructure.NodeOrder;
+import walkGenerators.dataStructure.PackedEdge;
+import walkGenerators.dataStructure.TripleDataSetCsr;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Compares the random walk throughput of {@link TripleDataSetCsr} before and after relabeling the nodes
+ * (see {@link TripleDataSetCsr#relabel(NodeOrder)}) on the pizza ontology and on a synthetic graph with power-law
+ * degree distribution. The walks are generated via the ID API (as the memory parser does); the start nodes are
+ * drawn uniformly, so the work is the same for all orders.
+ *
+ * Arguments (optional): path to the pizza ontology (N-Triples), number of nodes and number of triples of the synthetic
+ * graph, number of walks. Run with a fixed heap size (e.g. -Xmx8g) for comparable results.
+ */
+public class RelabelingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String pizzaFile = args.length > 0 ? args[0] : "./src/test/resources/pizza.owl.nt";
+        int numberOfNodes = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int numberOfTriples = args.length > 2 ? Integer.parseInt(args[2]) : 30_000_000;
+        int numberOfWalks = args.length > 3 ? Integer.parseInt(args[3]) : 5_000_000;
+
+        TripleDataSetCsr pizza = new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT);
+        readNTriples(pizza, new File(pizzaFile));
+        run("pizza", pizza, numberOfWalks);
+
+        TripleDataSetCsr synthetic = new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT);
+        fill(synthetic, numberOfNodes, numberOfTriples);
+        run("power-law", synthetic, numberOfWalks);
+    }
+
+    /**
+     * Measure the walk throughput in insertion order, then relabel the data set in each order and measure again.
+     * @param name Name of the graph.
+     * @param data Data set.
+     * @param numberOfWalks Number of walks per measurement.
+     */
+    private static void run(String name, TripleDataSetCsr data, int numberOfWalks) {
+        data.compile();
+        System.out.println(name + ": " + data.getSize() + " triples, " + data.getNumberOfNodes() + " nodes");
+        measure(name, "original", data, numberOfWalks);
+        for (NodeOrder order : NodeOrder.values()) {
+            long startTime = System.currentTimeMillis();
+            data.relabel(order);
+            System.out.println(name + ": relabeling (" + order + ") took " + (System.currentTimeMillis() - startTime) + " ms");
+            measure(name, order.toString(), data, numberOfWalks);
+        }
+    }
+
+    /**
+     * Generate walks (one warm-up round, then the best of three rounds) and print the throughput.
+     * @param name Name of the graph.
+     * @param order Name of the node order.
+     * @param data Data set.
+     * @param numberOfWalks Number of walks per round.
+     */
+    private static void measure(String name, String order, TripleDataSetCsr data, int numberOfWalks) {
+        walk(data, numberOfWalks / 10, 1);
+        double best = 0;
+        long checksum = 0;
+        for (int round = 0; round < 3; round++) {
+            long startTime = System.nanoTime();
+            checksum += walk(data, numberOfWalks, 42 + round);
+            best = Math.max(best, numberOfWalks / ((System.nanoTime() - startTime) / 1e9));
+        }
+        System.out.println(name + " / " + order + ": " + String.format("%.0f", best) + " walks/s (checksum " + checksum + ")");
+    }
+
+    /**
+     * Read an N-Triples file (literals are skipped).
+     * @param data Target.
+     * @param file N-Triples file.
+     * @throws IOException If the file cannot be read.
+     */
+    private static void readNTriples(TripleDataSetCsr data, File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] spo = line.split(" ", 3);
+                if (spo.length < 3 || spo[2].startsWith("\"")) continue;
+                data.add(spo[0], spo[1], spo[2].substring(0, spo[2].lastIndexOf(' ') < 0 ? spo[2].length() : spo[2].lastIndexOf(' ')));
+            }
+        }
+    }
+
+    /**
+     * Add a synthetic graph whose subjects and objects are drawn from a power-law distribution, so that few nodes have
+     * a very high degree.
+     * @param data Target.
+     * @param numberOfNodes Number of nodes.
+     * @param numberOfTriples Number of triples.
+     */
+    private static void fill(TripleDataSetCsr data, int numberOfNodes, int numberOfTriples) {
+        Random random = new Random(42);
+        for (int i = 0; i < numberOfTriples; i++) {
+            int subject = (int) (numberOfNodes * Math.pow(random.nextDouble(), 3));
+            int object = (int) (numberOfNodes * Math.pow(random.nextDouble(), 3));
+            int predicate = (int) (100 * Math.pow(random.nextDouble(), 3));
+            data.add("http://example.org/node/" + subject, "http://example.org/p" + predicate, "http://example.org/node/" + object);
+        }
+    }
+
+    /**
+     * Generate random walks of depth 8 via the ID API.
+     * @param data Data set.
+     * @param numberOfWalks Number of walks.
+     * @param seed Random seed.
+     * @return Checksum so that the walks are not optimized away.
+     */
+    private static long walk(TripleDataSetCsr data, int numberOfWalks, long seed) {
+        Random random = new Random(seed);
+        int numberOfNodes = data.getNumberOfNodes();
+        long checksum = 0;
+        for (int i = 0; i < numberOfWalks; i++) {
+            int node = random.nextInt(numberOfNodes);
+            for (int step = 0; step < 8; step++) {
+                int degree = data.getOutDegree(node);
+                if (degree == 0) break;
+                long edge = data.getOutEdge(node, random.nextInt(degree));
+                checksum += PackedEdge.getPredicate(edge);
+                node = PackedEdge.getNode(edge);
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,191 @@
+package walkGenerators.base;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Matches a fixed set of patterns against UTF-8 bytes (see {@link StatementFilter}). The patterns are compiled into an
+ * Aho-Corasick automaton with a dense transition table, so a substring search is one table lookup per input byte.
+ * The same automaton answers prefix and exact matches: a transition is part of the trie if it leads one level deeper.
+ *
+ * The transition table is indexed by byte class rather than by byte: bytes that do not occur in any pattern share
+ * one class. For substring searches, there is a second table with pre-multiplied states where states with output are
+ * negative, and bytes that cannot start a pattern are skipped in a tight loop while the automaton is in its root.
+ * Instances are immutable and thread-safe.
+ */
+class ByteMatcher {
+
+    /**
+     * Byte to byte class (0 for bytes that do not occur in any pattern).
+     */
+    private final int[] byteClass = new int[256];
+
+    /**
+     * Number of byte classes.
+     */
+    private final int numberOfClasses;
+
+    /**
+     * Transitions: state * numberOfClasses + byte class to the next state (state 0 is the root).
+     */
+    private final int[] transitions;
+
+    /**
+     * Transitions for substring searches: state * numberOfClasses + byte class to next state * numberOfClasses, or
+     * to -1 if a pattern ends at the next state.
+     */
+    private final int[] searchTransitions;
+
+    /**
+     * Indicator whether a byte is the first byte of a pattern.
+     */
+    private final boolean[] isFirstByte = new boolean[256];
+
+    /**
+     * Depth of each state in the trie.
+     */
+    private final int[] depth;
+
+    /**
+     * Indicator whether a pattern ends at the state.
+     */
+    private final boolean[] isPatternEnd;
+
+    /**
+     * Constructor
+     * @param patterns The patterns (encoded as UTF-8).
+     */
+    ByteMatcher(Collection<String> patterns) {
+        byte[][] encoded = new byte[patterns.size()][];
+        int numberOfBytes = 0;
+        int i = 0;
+        for (String pattern : patterns) {
+            encoded[i] = pattern.getBytes(StandardCharsets.UTF_8);
+            numberOfBytes += encoded[i].length;
+            for (byte b : encoded[i]) {
+                if (byteClass[b & 0xFF] == 0) byteClass[b & 0xFF] = -1;
+            }
+            if (encoded[i].length > 0) isFirstByte[encoded[i][0] & 0xFF] = true;
+            i++;
+        }
+        int classes = 1;
+        for (int b = 0; b < 256; b++) {
+            if (byteClass[b] == -1) byteClass[b] = classes++;
+        }
+        numberOfClasses = classes;
+
+        // build the trie; -1 marks a missing transition
+        int maxStates = numberOfBytes + 1;
+        int[] table = new int[maxStates * numberOfClasses];
+        Arrays.fill(table, -1);
+        int[] stateDepth = new int[maxStates];
+        boolean[] patternEnd = new boolean[maxStates];
+        int numberOfStates = 1;
+        for (byte[] pattern : encoded) {
+            int state = 0;
+            for (byte b : pattern) {
+                int slot = state * numberOfClasses + byteClass[b & 0xFF];
+                if (table[slot] < 0) {
+                    stateDepth[numberOfStates] = stateDepth[state] + 1;
+                    table[slot] = numberOfStates++;
+                }
+                state = table[slot];
+            }
+            patternEnd[state] = true;
+        }
+
+        // breadth-first: failure links, outputs (a pattern ends at the state or at one of its suffixes), and
+        // completion of the transition table
+        int[] failure = new int[numberOfStates];
+        boolean[] output = Arrays.copyOf(patternEnd, numberOfStates);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < numberOfClasses; c++) {
+            if (table[c] < 0) {
+                table[c] = 0;
+            } else {
+                failure[table[c]] = 0;
+                queue.add(table[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] |= output[failure[state]];
+            for (int c = 0; c < numberOfClasses; c++) {
+                int slot = state * numberOfClasses + c;
+                int fallback = table[failure[state] * numberOfClasses + c];
+                if (table[slot] < 0) {
+                    table[slot] = fallback;
+                } else {
+                    failure[table[slot]] = fallback;
+                    queue.add(table[slot]);
+                }
+            }
+        }
+        transitions = Arrays.copyOf(table, numberOfStates * numberOfClasses);
+        depth = Arrays.copyOf(stateDepth, numberOfStates);
+        isPatternEnd = Arrays.copyOf(patternEnd, numberOfStates);
+        searchTransitions = new int[transitions.length];
+        for (int slot = 0; slot < transitions.length; slot++) {
+            int next = transitions[slot];
+            searchTransitions[slot] = output[next] ? -1 : next * numberOfClasses;
+        }
+    }
+
+    /**
+     * Check whether any pattern occurs within the given range.
+     * @param bytes The input.
+     * @param start Start (inclusive).
+     * @param end End (exclusive).
+     * @return True if a pattern occurs.
+     */
+    boolean containsAny(byte[] bytes, int start, int end) {
+        int state = 0;
+        int i = start;
+        while (i < end) {
+            if (state == 0) {
+                while (i < end && !isFirstByte[bytes[i] & 0xFF]) i++;
+                if (i == end) return false;
+            }
+            state = searchTransitions[state + byteClass[bytes[i++] & 0xFF]];
+            if (state < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the given range starts with any pattern.
+     * @param bytes The input.
+     * @param start Start (inclusive).
+     * @param end End (exclusive).
+     * @return True if a pattern is a prefix of the range.
+     */
+    boolean matchesPrefix(byte[] bytes, int start, int end) {
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            if (isPatternEnd[state]) return true;
+            int next = transitions[state * numberOfClasses + byteClass[bytes[i] & 0xFF]];
+            if (depth[next] != depth[state] + 1) return false;
+            state = next;
+        }
+        return isPatternEnd[state];
+    }
+
+    /**
+     * Check whether the given range equals any pattern.
+     * @param bytes The input.
+     * @param start Start (inclusive).
+     * @param end End (exclusive).
+     * @return True if the range is a pattern.
+     */
+    boolean matchesExactly(byte[] bytes, int start, int end) {
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            int next = transitions[state * numberOfClasses + byteClass[bytes[i] & 0xFF]];
+            if (depth[next] != depth[state] + 1) return false;
+            state = next;
+        }
+        return isPatternEnd[state];
+    }
+}
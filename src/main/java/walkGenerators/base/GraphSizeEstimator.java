@@ -0,0 +1,166 @@
+package walkGenerators.base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import walkGenerators.dataStructure.GraphSizeEstimate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Estimates the size of an N-Triples graph from the file sizes and a sample of the lines of each file (see
+ * {@link GraphSizeEstimate}). The number of triples of a file is extrapolated from the number of (compressed) bytes
+ * that were consumed for the sample. The number of distinct subjects, objects, and nodes is extrapolated from their
+ * share in the sample. As N-Triples files are usually grouped by subject, this is accurate for subjects; for objects,
+ * which repeat across the whole file, the estimate is an upper bound.
+ */
+public class GraphSizeEstimator {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphSizeEstimator.class);
+
+    /**
+     * Maximal number of lines that are sampled over all files.
+     */
+    static final int SAMPLE_LINES = 200_000;
+
+    /**
+     * Minimal number of lines that are sampled per file.
+     */
+    private static final int MIN_SAMPLE_LINES_PER_FILE = 1_000;
+
+    /**
+     * Estimate the size of the graph in the given files.
+     * @param files N-Triples files (gzipped if the name ends with .gz).
+     * @return Estimate or null if no file could be sampled.
+     */
+    public static GraphSizeEstimate estimate(List<File> files) {
+        return estimate(files, SAMPLE_LINES);
+    }
+
+    /**
+     * Estimate the size of the graph in the given files.
+     * @param files N-Triples files (gzipped if the name ends with .gz).
+     * @param sampleLines Maximal number of lines that are sampled over all files.
+     * @return Estimate or null if no file could be sampled.
+     */
+    static GraphSizeEstimate estimate(List<File> files, int sampleLines) {
+        int linesPerFile = Math.max(MIN_SAMPLE_LINES_PER_FILE, sampleLines / Math.max(1, files.size()));
+        Map<String, Integer> objectDegrees = new HashMap<>();
+        Map<String, Integer> subjectDegrees = new HashMap<>();
+        long sampledLines = 0;
+        double numberOfTriples = 0;
+        for (File file : files) {
+            try (CountingInputStream counter = new CountingInputStream(new FileInputStream(file))) {
+                InputStream in = file.getName().endsWith(".gz") ? new GZIPInputStream(counter) : counter;
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line = null;
+                long lines = 0;
+                while (lines < linesPerFile && (line = reader.readLine()) != null) {
+                    String[] spo = split(line);
+                    if (spo == null) continue;
+                    lines++;
+                    subjectDegrees.merge(spo[0], 1, Integer::sum);
+                    objectDegrees.merge(spo[2], 1, Integer::sum);
+                }
+                if (lines == 0) continue;
+                sampledLines += lines;
+                if (line == null) {
+                    // the complete file was read
+                    numberOfTriples += lines;
+                } else {
+                    numberOfTriples += (double) lines / Math.max(1, counter.getCount()) * file.length();
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not sample file " + file.getName() + " for the size estimation.", e);
+            }
+        }
+        if (sampledLines == 0) return null;
+
+        long numberOfNodes = subjectDegrees.size();
+        for (String object : objectDegrees.keySet()) {
+            if (!subjectDegrees.containsKey(object)) numberOfNodes++;
+        }
+        double scale = numberOfTriples / sampledLines;
+        GraphSizeEstimate result = new GraphSizeEstimate((long) numberOfTriples, (long) (subjectDegrees.size() * scale),
+                (long) (objectDegrees.size() * scale), (long) (numberOfNodes * scale),
+                median(subjectDegrees.values()), median(objectDegrees.values()));
+        LOGGER.info("Estimated graph size: " + result + ".");
+        return result;
+    }
+
+    /**
+     * Split an N-Triples line into subject, predicate, and object without further parsing.
+     * @param line Line
+     * @return Array of length 3 or null if the line is no statement.
+     */
+    static String[] split(String line) {
+        if (line.isEmpty() || line.charAt(0) == '#') return null;
+        int subjectEnd = line.indexOf(' ');
+        if (subjectEnd < 0) return null;
+        int predicateEnd = line.indexOf(' ', subjectEnd + 1);
+        if (predicateEnd < 0) return null;
+        int objectEnd = line.lastIndexOf(" .");
+        if (objectEnd <= predicateEnd) objectEnd = line.length();
+        return new String[]{line.substring(0, subjectEnd), line.substring(subjectEnd + 1, predicateEnd),
+                line.substring(predicateEnd + 1, objectEnd)};
+    }
+
+    /**
+     * Obtain the median of the given values.
+     * @param values Values
+     * @return Median; 1 if there are no values.
+     */
+    private static int median(Collection<Integer> values) {
+        if (values.isEmpty()) return 1;
+        List<Integer> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    /**
+     * Input stream that counts the bytes read from the underlying stream.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) count++;
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) count += result;
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long result = super.skip(n);
+            count += result;
+            return result;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
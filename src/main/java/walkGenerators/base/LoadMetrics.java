@@ -0,0 +1,468 @@
+package walkGenerators.base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Live metrics of a load (see {@link MemoryParser#getLoadMetrics()}): bytes read, lines, accepted statements, rejected
+ * statements by reason, growth of the dictionary, and the estimated remaining time. The counters are kept per file
+ * ({@link FileMetrics}) and aggregated on request, so the loading threads only update the counters of their own file.
+ *
+ * Bytes are counted on disk, i.e., compressed bytes for gzipped files, so the remaining time is estimated from the
+ * position within the compressed file. While the load is running, the metrics are logged together with the memory
+ * report (see {@link MemoryParser#logMemoryReportIfDue()}) and registered as MBean
+ * {@code walkGenerators:type=LoadMetrics,name=<parser>} at the platform MBean server (e.g. for JConsole).
+ */
+public class LoadMetrics implements LoadMetricsMBean {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadMetrics.class);
+
+    /**
+     * Name of the parser (part of the MBean name).
+     */
+    private final String name;
+
+    /**
+     * Current size of the dictionary (-1 if unknown).
+     */
+    private final LongSupplier dictionarySize;
+
+    private final long dictionarySizeAtStart;
+
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * End of the load (-1 while running).
+     */
+    private volatile long endTime = -1;
+
+    /**
+     * Size on disk of all files of the load, including the files that are not started yet.
+     */
+    private final Map<File, Long> expectedBytes = new ConcurrentHashMap<>();
+
+    /**
+     * Metrics of the started files in the order in which they were started.
+     */
+    private final List<FileMetrics> files = new CopyOnWriteArrayList<>();
+
+    /**
+     * Name of the registered MBean (null if not registered).
+     */
+    private ObjectName objectName;
+
+    /**
+     * Constructor
+     * @param name Name of the parser.
+     * @param dictionarySize Supplies the current size of the dictionary (-1 if unknown); it is called while loading.
+     */
+    LoadMetrics(String name, LongSupplier dictionarySize) {
+        this.name = name;
+        this.dictionarySize = dictionarySize;
+        this.dictionarySizeAtStart = dictionarySize.getAsLong();
+    }
+
+    /**
+     * Register the files of the load so that the remaining time accounts for files that are not started yet.
+     * @param files The files.
+     */
+    void expectFiles(Collection<File> files) {
+        for (File file : files) {
+            expectedBytes.putIfAbsent(file.getAbsoluteFile(), file.length());
+        }
+    }
+
+    /**
+     * Start a file.
+     * @param file The file.
+     * @return The metrics of the file.
+     */
+    FileMetrics startFile(File file) {
+        expectedBytes.putIfAbsent(file.getAbsoluteFile(), file.length());
+        FileMetrics result = new FileMetrics(file);
+        files.add(result);
+        return result;
+    }
+
+    /**
+     * Remove a started file whose metrics shall not be counted (e.g. because it is read again in another way).
+     * @param file The metrics of the file.
+     */
+    void discardFile(FileMetrics file) {
+        files.remove(file);
+    }
+
+    /**
+     * Register the metrics at the platform MBean server; problems are logged.
+     */
+    void register() {
+        try {
+            objectName = new ObjectName("walkGenerators:type=LoadMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+            server.registerMBean(this, objectName);
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warn("Could not register the load metrics as MBean. They are logged only.", e);
+            objectName = null;
+        }
+    }
+
+    /**
+     * End the load: the metrics are unregistered from the MBean server and logged.
+     */
+    void finish() {
+        endTime = System.currentTimeMillis();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException | RuntimeException e) {
+                LOGGER.warn("Could not unregister the load metrics MBean.", e);
+            }
+            objectName = null;
+        }
+        LOGGER.info("Load finished. " + this);
+    }
+
+    @Override
+    public long getBytesRead() {
+        long result = 0;
+        for (FileMetrics file : files) result += file.getBytesRead();
+        return result;
+    }
+
+    @Override
+    public long getBytesTotal() {
+        long result = 0;
+        for (long bytes : expectedBytes.values()) result += bytes;
+        return result;
+    }
+
+    @Override
+    public long getLinesRead() {
+        long result = 0;
+        for (FileMetrics file : files) result += file.getLinesRead();
+        return result;
+    }
+
+    @Override
+    public double getLinesPerSecond() {
+        return perSecond(getLinesRead(), getElapsedMilliseconds());
+    }
+
+    @Override
+    public long getTriplesAccepted() {
+        long result = 0;
+        for (FileMetrics file : files) result += file.getTriplesAccepted();
+        return result;
+    }
+
+    @Override
+    public long getTriplesRejectedBySkipCondition() {
+        long result = 0;
+        for (FileMetrics file : files) result += file.getTriplesRejectedBySkipCondition();
+        return result;
+    }
+
+    @Override
+    public long getTriplesRejectedAsMalformed() {
+        long result = 0;
+        for (FileMetrics file : files) result += file.getTriplesRejectedAsMalformed();
+        return result;
+    }
+
+    @Override
+    public long getTriplesRejectedByException() {
+        long result = 0;
+        for (FileMetrics file : files) result += file.getTriplesRejectedByException();
+        return result;
+    }
+
+    @Override
+    public long getDictionarySize() {
+        return dictionarySize.getAsLong();
+    }
+
+    @Override
+    public long getDictionaryGrowth() {
+        long size = getDictionarySize();
+        return size < 0 || dictionarySizeAtStart < 0 ? -1 : size - dictionarySizeAtStart;
+    }
+
+    @Override
+    public long getElapsedSeconds() {
+        return getElapsedMilliseconds() / 1000;
+    }
+
+    private long getElapsedMilliseconds() {
+        long end = endTime;
+        return (end < 0 ? System.currentTimeMillis() : end) - startTime;
+    }
+
+    /**
+     * The remaining time is extrapolated from the throughput of the load so far (in bytes on disk).
+     * @return Estimated remaining time in seconds (-1 if nothing was read yet).
+     */
+    @Override
+    public long getEstimatedSecondsRemaining() {
+        if (!isRunning()) return 0;
+        return estimateSecondsRemaining(getElapsedMilliseconds(), getBytesRead(), getBytesTotal());
+    }
+
+    @Override
+    public int getFilesCompleted() {
+        int result = 0;
+        for (FileMetrics file : files) {
+            if (!file.isRunning()) result++;
+        }
+        return result;
+    }
+
+    @Override
+    public String[] getFilesInProgress() {
+        List<String> result = new ArrayList<>();
+        for (FileMetrics file : files) {
+            if (file.isRunning()) result.add(file.toString());
+        }
+        return result.toArray(new String[0]);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return endTime < 0;
+    }
+
+    /**
+     * Obtain the metrics of the started files.
+     * @return Metrics in the order in which the files were started.
+     */
+    public List<FileMetrics> getFiles() {
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Aggregated metrics followed by the files in progress (one per line).
+     * @return Description.
+     */
+    @Override
+    public String toString() {
+        long elapsed = getElapsedMilliseconds();
+        StringBuilder result = new StringBuilder();
+        result.append(getFilesCompleted()).append(" of ").append(expectedBytes.size()).append(" files completed, ")
+                .append(describe(getBytesRead(), getBytesTotal(), getLinesRead(), elapsed, getTriplesAccepted(),
+                        getTriplesRejectedBySkipCondition(), getTriplesRejectedAsMalformed(),
+                        getTriplesRejectedByException()));
+        long dictionary = getDictionarySize();
+        if (dictionary >= 0) {
+            result.append(", dictionary: ").append(dictionary).append(" entries");
+            long growth = getDictionaryGrowth();
+            if (growth >= 0) {
+                result.append(" (+").append(growth).append(", ")
+                        .append(String.format("%.0f", perSecond(growth, elapsed))).append("/s)");
+            }
+        }
+        result.append(", ").append(seconds(elapsed / 1000)).append(" elapsed");
+        if (isRunning()) result.append(", ").append(seconds(getEstimatedSecondsRemaining())).append(" remaining");
+        for (String file : getFilesInProgress()) {
+            result.append("\n  ").append(file);
+        }
+        return result.toString();
+    }
+
+    private static String describe(long bytesRead, long bytesTotal, long lines, long milliseconds, long accepted,
+                                   long skipped, long malformed, long failed) {
+        return String.format("%.1f of %.1f MB, %d lines (%.0f lines/s), %d triples accepted, rejected: %d by skip "
+                        + "condition, %d malformed, %d by exception", bytesRead / (1024.0 * 1024.0),
+                bytesTotal / (1024.0 * 1024.0), lines, perSecond(lines, milliseconds), accepted, skipped, malformed, failed);
+    }
+
+    private static double perSecond(long count, long milliseconds) {
+        return milliseconds == 0 ? 0 : count * 1000.0 / milliseconds;
+    }
+
+    private static String seconds(long seconds) {
+        return seconds < 0 ? "unknown time" : seconds + " s";
+    }
+
+    /**
+     * Extrapolate the remaining time.
+     * @param milliseconds Time that it took to read the given bytes.
+     * @param bytesRead Bytes read.
+     * @param bytesTotal Bytes to be read.
+     * @return Remaining time in seconds (-1 if nothing was read yet).
+     */
+    static long estimateSecondsRemaining(long milliseconds, long bytesRead, long bytesTotal) {
+        if (bytesRead <= 0) return -1;
+        return (long) (milliseconds / 1000.0 * Math.max(0, bytesTotal - bytesRead) / bytesRead);
+    }
+
+    /**
+     * Metrics of a single file. Loaders update the counters while parsing; the counters can be read concurrently.
+     */
+    public static class FileMetrics {
+
+        private final File file;
+
+        /**
+         * Size of the file on disk.
+         */
+        private final long bytes;
+
+        private final long startTime = System.currentTimeMillis();
+
+        /**
+         * End of the file (-1 while running).
+         */
+        private volatile long endTime = -1;
+
+        private final LongAdder bytesRead = new LongAdder();
+
+        private final LongAdder lines = new LongAdder();
+
+        private final LongAdder accepted = new LongAdder();
+
+        private final LongAdder rejectedBySkipCondition = new LongAdder();
+
+        private final LongAdder rejectedAsMalformed = new LongAdder();
+
+        private final LongAdder rejectedByException = new LongAdder();
+
+        FileMetrics(File file) {
+            this.file = file;
+            this.bytes = file.length();
+        }
+
+        /**
+         * Count the bytes that are read from the given stream. Wrap the stream of the file on disk, i.e., below the
+         * decompression.
+         * @param in The stream.
+         * @return Counting stream.
+         */
+        InputStream count(InputStream in) {
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    int result = super.read();
+                    if (result >= 0) bytesRead.increment();
+                    return result;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int result = super.read(b, off, len);
+                    if (result > 0) bytesRead.add(result);
+                    return result;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long result = super.skip(n);
+                    if (result > 0) bytesRead.add(result);
+                    return result;
+                }
+            };
+        }
+
+        void addBytesRead(long bytes) {
+            bytesRead.add(bytes);
+        }
+
+        void addLines(long count) {
+            lines.add(count);
+        }
+
+        void addAccepted(long count) {
+            accepted.add(count);
+        }
+
+        void addRejectedBySkipCondition() {
+            rejectedBySkipCondition.increment();
+        }
+
+        void addRejectedAsMalformed() {
+            rejectedAsMalformed.increment();
+        }
+
+        void addRejectedByException() {
+            rejectedByException.increment();
+        }
+
+        void finish() {
+            endTime = System.currentTimeMillis();
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getBytesTotal() {
+            return bytes;
+        }
+
+        public long getBytesRead() {
+            return bytesRead.sum();
+        }
+
+        public long getLinesRead() {
+            return lines.sum();
+        }
+
+        public long getTriplesAccepted() {
+            return accepted.sum();
+        }
+
+        public long getTriplesRejectedBySkipCondition() {
+            return rejectedBySkipCondition.sum();
+        }
+
+        public long getTriplesRejectedAsMalformed() {
+            return rejectedAsMalformed.sum();
+        }
+
+        public long getTriplesRejectedByException() {
+            return rejectedByException.sum();
+        }
+
+        public boolean isRunning() {
+            return endTime < 0;
+        }
+
+        /**
+         * @return Estimated remaining time in seconds (0 if completed, -1 if nothing was read yet).
+         */
+        public long getEstimatedSecondsRemaining() {
+            if (!isRunning()) return 0;
+            return estimateSecondsRemaining(System.currentTimeMillis() - startTime, getBytesRead(), bytes);
+        }
+
+        @Override
+        public String toString() {
+            long end = endTime;
+            long elapsed = (end < 0 ? System.currentTimeMillis() : end) - startTime;
+            return "File " + file.getName() + ": "
+                    + describe(getBytesRead(), bytes, getLinesRead(), elapsed, getTriplesAccepted(),
+                    getTriplesRejectedBySkipCondition(), getTriplesRejectedAsMalformed(), getTriplesRejectedByException())
+                    + (end < 0 ? ", " + seconds(elapsed / 1000) + " elapsed, " + seconds(getEstimatedSecondsRemaining())
+                    + " remaining" : ", completed in " + seconds(elapsed / 1000));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package walkGenerators.base;
+
+/**
+ * Management interface of {@link LoadMetrics}. The values are aggregated over all files of the load; sizes are in bytes
+ * on disk (i.e., compressed bytes for gzipped files) and times are in seconds.
+ */
+public interface LoadMetricsMBean {
+
+    long getBytesRead();
+
+    long getBytesTotal();
+
+    long getLinesRead();
+
+    double getLinesPerSecond();
+
+    long getTriplesAccepted();
+
+    long getTriplesRejectedBySkipCondition();
+
+    long getTriplesRejectedAsMalformed();
+
+    long getTriplesRejectedByException();
+
+    /**
+     * @return Number of dictionary entries (-1 if the data set does not count them while loading).
+     */
+    long getDictionarySize();
+
+    /**
+     * @return Number of dictionary entries that were added during the load (-1 if unknown).
+     */
+    long getDictionaryGrowth();
+
+    long getElapsedSeconds();
+
+    /**
+     * @return Estimated remaining time in seconds (-1 if it cannot be estimated yet).
+     */
+    long getEstimatedSecondsRemaining();
+
+    int getFilesCompleted();
+
+    String[] getFilesInProgress();
+
+    boolean isRunning();
+}
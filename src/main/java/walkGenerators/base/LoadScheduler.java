@@ -0,0 +1,215 @@
+package walkGenerators.base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import walkGenerators.dataStructure.ParallelExecution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads multiple files on a fixed number of threads. The files are started in the order of their size on disk (i.e.,
+ * the compressed size of gzipped files), largest first: the large files determine the total time, if they are started
+ * last, a single thread works on them alone at the end.
+ *
+ * The throughput of each file and the time after which no file was waiting anymore (from then on, threads run idle)
+ * are logged so that the files that cause the tail can be identified.
+ */
+public class LoadScheduler {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadScheduler.class);
+
+    /**
+     * Loads a single file into the data set. Problems should be logged and not thrown; thrown exceptions are logged
+     * and the remaining files are loaded nevertheless.
+     */
+    public interface FileLoader {
+        void load(File file);
+    }
+
+    /**
+     * Number of files that are loaded concurrently.
+     */
+    private final int parallelism;
+
+    /**
+     * Constructor
+     * @param parallelism Number of files that are loaded concurrently.
+     */
+    public LoadScheduler(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Load the given files (largest first) and wait for completion. If the load is stopped, the method returns only
+     * after the files that are already running are finished so that the data set is not written concurrently
+     * afterwards.
+     * @param files The files.
+     * @param loader Loads a single file.
+     * @return Statistics of the files in the order in which they were started.
+     * @throws IllegalStateException If a file failed with an error (exceptions are logged, see {@link FileLoader}) or
+     * the thread was interrupted. The remaining files are not loaded in this case.
+     */
+    public List<FileStatistics> load(List<File> files, FileLoader loader) {
+        List<FileStatistics> statistics = new ArrayList<>(files.size());
+        for (File file : files) statistics.add(new FileStatistics(file));
+        statistics.sort(Comparator.comparingLong((FileStatistics file) -> file.bytes).reversed());
+        if (statistics.isEmpty()) return statistics;
+
+        int numberOfThreads = Math.min(parallelism, statistics.size());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
+                0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(statistics.size()),
+                runnable -> new Thread(runnable, "load-" + threadNumber.incrementAndGet()));
+        LOGGER.info("Loading " + statistics.size() + " files on " + numberOfThreads + " threads (largest first).");
+        long startTime = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>(statistics.size());
+        for (FileStatistics file : statistics) {
+            futures.add(pool.submit(() -> load(file, loader, startTime)));
+        }
+        pool.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            ParallelExecution.stop(pool);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the files to be loaded.", e);
+        } catch (ExecutionException e) {
+            ParallelExecution.stop(pool);
+            throw new IllegalStateException("Loading files failed.", e.getCause());
+        }
+        logSummary(statistics, System.currentTimeMillis() - startTime);
+        return statistics;
+    }
+
+    /**
+     * Load a single file and record its statistics.
+     * @param file Statistics of the file.
+     * @param loader The loader.
+     * @param startTime Start of the complete load.
+     */
+    private static void load(FileStatistics file, FileLoader loader, long startTime) {
+        file.start = System.currentTimeMillis() - startTime;
+        try {
+            loader.load(file.file);
+        } catch (RuntimeException e) {
+            file.isFailed = true;
+            LOGGER.error("Problem while loading file " + file.file.getName() + ". Continuing with the other files.", e);
+        }
+        file.end = System.currentTimeMillis() - startTime;
+        LOGGER.info(file.toString());
+    }
+
+    /**
+     * Log the total time and the files that were still running after the last file had been started.
+     * @param statistics Statistics of all files.
+     * @param totalTime Total time in milliseconds.
+     */
+    private void logSummary(List<FileStatistics> statistics, long totalTime) {
+        long lastStart = 0;
+        long bytes = 0;
+        for (FileStatistics file : statistics) {
+            lastStart = Math.max(lastStart, file.start);
+            bytes += file.bytes;
+        }
+        List<FileStatistics> tail = new ArrayList<>();
+        for (FileStatistics file : statistics) {
+            if (file.end > lastStart) tail.add(file);
+        }
+        tail.sort(Comparator.comparingLong((FileStatistics file) -> file.end).reversed());
+        StringBuilder tailFiles = new StringBuilder();
+        for (FileStatistics file : tail.subList(0, Math.min(tail.size(), parallelism))) {
+            if (tailFiles.length() > 0) tailFiles.append(", ");
+            tailFiles.append(file.file.getName()).append(" (until ").append(seconds(file.end)).append(")");
+        }
+        LOGGER.info("Loaded " + statistics.size() + " files (" + megabytes(bytes) + ") in " + seconds(totalTime) + " ("
+                + megabytesPerSecond(bytes, totalTime) + "). All files were started after " + seconds(lastStart)
+                + ", afterwards the following files were still running: " + tailFiles);
+    }
+
+    private static String seconds(long milliseconds) {
+        return String.format("%.1f s", milliseconds / 1000.0);
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static String megabytesPerSecond(long bytes, long milliseconds) {
+        return String.format("%.1f MB/s", milliseconds == 0 ? 0.0 : bytes / (1024.0 * 1024.0) / (milliseconds / 1000.0));
+    }
+
+    /**
+     * Timing of a single file. Times are in milliseconds since the start of the complete load.
+     */
+    public static class FileStatistics {
+
+        private final File file;
+
+        /**
+         * Size of the file on disk.
+         */
+        private final long bytes;
+
+        private volatile long start;
+
+        private volatile long end;
+
+        private volatile boolean isFailed;
+
+        FileStatistics(File file) {
+            this.file = file;
+            this.bytes = file.length();
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public boolean isFailed() {
+            return isFailed;
+        }
+
+        /**
+         * Obtain the throughput.
+         * @return Bytes (on disk) per second.
+         */
+        public double getThroughput() {
+            long duration = end - start;
+            return duration == 0 ? 0 : bytes * 1000.0 / duration;
+        }
+
+        @Override
+        public String toString() {
+            return "File " + file.getName() + (isFailed ? " FAILED" : " loaded") + ": " + megabytes(bytes) + " in "
+                    + seconds(end - start) + " (" + megabytesPerSecond(bytes, end - start) + "), started after "
+                    + seconds(start) + ", finished after " + seconds(end) + ".";
+        }
+    }
+}
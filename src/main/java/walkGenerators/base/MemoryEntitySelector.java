@@ -1,6 +1,6 @@
 package walkGenerators.base;
 
-import walkGenerators.dataStructure.TripleDataSetMemory;
+import walkGenerators.dataStructure.TripleDataSet;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -11,11 +11,11 @@ public class MemoryEntitySelector implements EntitySelector {
      * Constructor.
      * @param data Triple data set to be used.
      */
-    public MemoryEntitySelector(TripleDataSetMemory data){
+    public MemoryEntitySelector(TripleDataSet data){
         this.data = data;
     }
 
-    private TripleDataSetMemory data;
+    private TripleDataSet data;
 
     @Override
     public Set<String> getEntities() {
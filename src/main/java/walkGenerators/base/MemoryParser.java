@@ -2,22 +2,29 @@ package walkGenerators.base;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import walkGenerators.dataStructure.IdTripleDataSet;
+import walkGenerators.dataStructure.PackedEdge;
 import walkGenerators.dataStructure.Triple;
-import walkGenerators.dataStructure.TripleDataSetMemory;
+import walkGenerators.dataStructure.TripleDataSet;
+import walkGenerators.dataStructure.TripleDataSetCsr;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Memory based parser using the {@link TripleDataSetMemory} data structure.
+ * Memory based parser using a {@link TripleDataSet} data structure.
  * These kind of parsers load the complete model into memory.
+ * If the data structure is an {@link IdTripleDataSet}, walks are generated on the ID level.
  */
 public abstract class MemoryParser implements IParser {
 
     /**
      * the actual data structure
      */
-    TripleDataSetMemory data;
+    TripleDataSet data;
 
     /**
      * Default logger
@@ -41,6 +48,144 @@ public abstract class MemoryParser implements IParser {
      */
     boolean isUnifiyAnonymousNodes = false;
 
+    /**
+     * Number of lines after which loaders check whether a memory report is due.
+     */
+    static final long MEMORY_CHECK_LINES = 1 << 20;
+
+    /**
+     * Number of lines after which loaders add their line counts to the load metrics (a divisor of
+     * {@link MemoryParser#MEMORY_CHECK_LINES}).
+     */
+    static final long METRICS_LINES = 1 << 14;
+
+    /**
+     * Minimal time in milliseconds between two memory reports while loading.
+     */
+    private static final long MEMORY_LOG_INTERVAL = 60_000;
+
+    /**
+     * Earliest time of the next memory report (shared by all loading threads).
+     */
+    private final AtomicLong nextMemoryLog = new AtomicLong(System.currentTimeMillis() + MEMORY_LOG_INTERVAL);
+
+    /**
+     * Number of parsers created so far (used to name the MBeans of the load metrics).
+     */
+    private static final AtomicInteger NUMBER_OF_PARSERS = new AtomicInteger();
+
+    /**
+     * Name of the parser for the load metrics.
+     */
+    private final String parserName = getClass().getSimpleName() + "-" + NUMBER_OF_PARSERS.incrementAndGet();
+
+    /**
+     * Metrics of the running or the last load (null if nothing was loaded yet).
+     */
+    private volatile LoadMetrics loadMetrics;
+
+    /**
+     * Number of running loads; nested loads (e.g. the files of a directory) belong to the outermost load.
+     */
+    private int numberOfRunningLoads = 0;
+
+    /**
+     * Log the memory report of the data set (see {@link TripleDataSet#getMemoryReport()}) and the load metrics if the
+     * last report is at least {@link MemoryParser#MEMORY_LOG_INTERVAL} ms old. Loaders call this method every
+     * {@link MemoryParser#MEMORY_CHECK_LINES} lines. It is thread-safe; if multiple threads are loading, only one of
+     * them logs.
+     */
+    void logMemoryReportIfDue() {
+        long now = System.currentTimeMillis();
+        long next = nextMemoryLog.get();
+        if (now < next || !nextMemoryLog.compareAndSet(next, now + MEMORY_LOG_INTERVAL)) return;
+        logMemoryReport();
+        LoadMetrics metrics = loadMetrics;
+        if (metrics != null && metrics.isRunning()) LOGGER.info("Load: " + metrics);
+    }
+
+    /**
+     * Start a load (or join the running load) of the given files. Each call must be followed by a call of
+     * {@link MemoryParser#finishLoad()}.
+     *
+     * @param files The files that will be read.
+     * @return Metrics of the load.
+     */
+    synchronized LoadMetrics startLoad(Collection<File> files) {
+        if (numberOfRunningLoads++ == 0) {
+            loadMetrics = new LoadMetrics(parserName, this::getDictionarySize);
+            loadMetrics.register();
+        }
+        loadMetrics.expectFiles(files);
+        return loadMetrics;
+    }
+
+    /**
+     * End a load; the metrics are logged once the outermost load ends.
+     */
+    synchronized void finishLoad() {
+        if (--numberOfRunningLoads == 0) loadMetrics.finish();
+    }
+
+    /**
+     * Start reading a single file (within the running load or as a load of its own). Each call must be followed by a
+     * call of {@link MemoryParser#finishFile(LoadMetrics.FileMetrics)}.
+     *
+     * @param file The file.
+     * @return Metrics of the file.
+     */
+    LoadMetrics.FileMetrics startFile(File file) {
+        return startLoad(Collections.singletonList(file)).startFile(file);
+    }
+
+    /**
+     * End reading a single file; its metrics are logged.
+     *
+     * @param file Metrics of the file.
+     */
+    void finishFile(LoadMetrics.FileMetrics file) {
+        file.finish();
+        LOGGER.info(file.toString());
+        finishLoad();
+    }
+
+    /**
+     * Discard a started file whose metrics shall not be counted (e.g. because it is read again in another way).
+     *
+     * @param file Metrics of the file.
+     */
+    synchronized void discardFile(LoadMetrics.FileMetrics file) {
+        loadMetrics.discardFile(file);
+        finishLoad();
+    }
+
+    /**
+     * Obtain the load metrics. They are also registered as MBean while a load is running (see {@link LoadMetrics}).
+     *
+     * @return Metrics of the running or the last load (null if nothing was loaded yet).
+     */
+    public LoadMetrics getLoadMetrics() {
+        return loadMetrics;
+    }
+
+    /**
+     * Obtain the number of dictionary entries for the load metrics. This method is called while loading.
+     *
+     * @return Number of entries or -1 if the data set does not count them while loading.
+     */
+    long getDictionarySize() {
+        if (data instanceof TripleDataSetCsr) return ((TripleDataSetCsr) data).getNumberOfLoadedNodes();
+        return -1;
+    }
+
+    /**
+     * Log the memory report of the data set.
+     */
+    void logMemoryReport() {
+        LOGGER.info("Memory: " + data.getMemoryReport());
+    }
+
+
 
     /**
      * Generates walks that are ready to be processed further (already concatenated, space-separated).
@@ -100,6 +245,9 @@ public abstract class MemoryParser implements IParser {
      * @return One walk as list where each element is a walk component.
      */
     public List<String> generateMidWalkForEntity(String entity, int depth) {
+        if (data instanceof IdTripleDataSet) {
+            return generateMidWalkForEntityIdBased((IdTripleDataSet) data, entity, depth);
+        }
 
         LinkedList<String> result = new LinkedList<>();
 
@@ -120,7 +268,7 @@ public abstract class MemoryParser implements IParser {
 
             if (randomPickZeroOne == 0) {
                 // predecessor
-                ArrayList<Triple> candidates = data.getTriplesInvolvingObject(nextElementPredecessor);
+                List<Triple> candidates = data.getTriplesInvolvingObject(nextElementPredecessor);
 
                 if (candidates != null && candidates.size() > 0) {
                     Triple drawnTriple = randomDrawFromList(candidates);
@@ -134,7 +282,7 @@ public abstract class MemoryParser implements IParser {
 
             } else {
                 // successor
-                ArrayList<Triple> candidates = data.getTriplesInvolvingSubject(nextElementSuccessor);
+                List<Triple> candidates = data.getTriplesInvolvingSubject(nextElementSuccessor);
                 if (candidates != null && candidates.size() > 0) {
                     Triple tripleToAdd = randomDrawFromList(candidates);
 
@@ -150,6 +298,110 @@ public abstract class MemoryParser implements IParser {
     }
 
 
+    /**
+     * ID-based variant of {@link MemoryParser#generateMidWalkForEntity(String, int)}.
+     * Strings are only looked up once the walk is complete.
+     *
+     * @param idData The data set to be used.
+     * @param entity The entity for which a walk shall be generated.
+     * @param depth  The depth of the walk.
+     * @return One walk as list where each element is a walk component.
+     */
+    private List<String> generateMidWalkForEntityIdBased(IdTripleDataSet idData, String entity, int depth) {
+        int entityId = idData.getNodeId(entity);
+        if (entityId < 0) {
+            LinkedList<String> result = new LinkedList<>();
+            result.add(entity);
+            return result;
+        }
+
+        // node and predicate IDs in walk order; predecessors are prepended, successors appended
+        int[] walk = new int[4 * depth + 1];
+        int head = 2 * depth;
+        int tail = 2 * depth;
+        walk[head] = entityId;
+
+        int nextElementPredecessor = entityId;
+        int nextElementSuccessor = entityId;
+        for (int currentDepth = 0; currentDepth < depth; currentDepth++) {
+            if (ThreadLocalRandom.current().nextInt(2) == 0) {
+                // predecessor
+                int degree = idData.getInDegree(nextElementPredecessor);
+                if (degree > 0) {
+                    long edge = idData.getInEdge(nextElementPredecessor, ThreadLocalRandom.current().nextInt(degree));
+                    walk[--head] = PackedEdge.getPredicate(edge);
+                    walk[--head] = PackedEdge.getNode(edge);
+                    nextElementPredecessor = PackedEdge.getNode(edge);
+                }
+            } else {
+                // successor
+                int degree = idData.getOutDegree(nextElementSuccessor);
+                if (degree > 0) {
+                    long edge = idData.getOutEdge(nextElementSuccessor, ThreadLocalRandom.current().nextInt(degree));
+                    walk[++tail] = PackedEdge.getPredicate(edge);
+                    walk[++tail] = PackedEdge.getNode(edge);
+                    nextElementSuccessor = PackedEdge.getNode(edge);
+                }
+            }
+        }
+
+        // translate to Strings: positions with the same parity as the entity position are nodes
+        LinkedList<String> result = new LinkedList<>();
+        for (int i = head; i <= tail; i++) {
+            if (((i - head) & 1) == 0) result.add(idData.getNode(walk[i]));
+            else result.add(idData.getPredicate(walk[i]));
+        }
+        return result;
+    }
+
+
+    /**
+     * Indicator whether walks are generated on the ID level (see {@link IdTripleDataSet}).
+     *
+     * @return True if the data set is dictionary-encoded.
+     */
+    public boolean isIdBased() {
+        return data instanceof IdTripleDataSet;
+    }
+
+    /**
+     * Generates random walks on the ID level (requires {@link MemoryParser#isIdBased()}). Node and predicate Strings
+     * are only looked up (and shortened) once a walk is written.
+     *
+     * @param entity        The entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth         The maximal number of hops of each walk.
+     * @return Walks, elements are separated by spaces. Walks that could not be continued are shorter; walks without any
+     * hop are omitted.
+     */
+    public List<String> generateRandomWalksForEntityIdBased(String entity, int numberOfWalks, int depth) {
+        IdTripleDataSet idData = (IdTripleDataSet) data;
+        List<String> result = new ArrayList<>(numberOfWalks);
+        int entityId = idData.getNodeId(entity);
+        if (entityId < 0) return result;
+        String entityShort = specificWalkGenerator.shortenUri(entity);
+        int[] walk = new int[2 * depth];
+        for (int walkNumber = 0; walkNumber < numberOfWalks; walkNumber++) {
+            int length = 0;
+            int current = entityId;
+            while (length < 2 * depth) {
+                int degree = idData.getOutDegree(current);
+                if (degree == 0) break;
+                long edge = idData.getOutEdge(current, ThreadLocalRandom.current().nextInt(degree));
+                walk[length++] = PackedEdge.getPredicate(edge);
+                walk[length++] = current = PackedEdge.getNode(edge);
+            }
+            if (length == 0) continue;
+            StringBuilder builder = new StringBuilder(entityShort);
+            for (int i = 0; i < length; i += 2) {
+                builder.append(' ').append(specificWalkGenerator.shortenUri(idData.getPredicate(walk[i])));
+                builder.append(' ').append(specificWalkGenerator.shortenUri(idData.getNode(walk[i + 1])));
+            }
+            result.add(builder.toString());
+        }
+        return result;
+    }
+
     /**
      * Draw a random value from a List. This method is thread-safe.
      *
@@ -172,7 +424,7 @@ public abstract class MemoryParser implements IParser {
     public Triple getRandomTripleForSubject(String subject) {
         if (subject == null) return null;
         subject = specificWalkGenerator.shortenUri(removeTags(subject));
-        ArrayList<Triple> queryResult = data.getTriplesInvolvingSubject(subject);
+        List<Triple> queryResult = data.getTriplesInvolvingSubject(subject);
         if (queryResult == null) {
             // no triple found
             return null;
@@ -193,13 +445,16 @@ public abstract class MemoryParser implements IParser {
      * spaces.
      */
     public List<String> generateDuplicateFreeRandomWalksForEntity(String entity, int numberOfWalks, int depth) {
+        if (data instanceof IdTripleDataSet) {
+            return generateDuplicateFreeRandomWalksForEntityIdBased((IdTripleDataSet) data, entity, numberOfWalks, depth);
+        }
         List<String> result = new ArrayList<>();
         List<List<Triple>> walks = new ArrayList();
         boolean isFirstIteration = true;
         for (int currentDepth = 0; currentDepth < depth; currentDepth++) {
             // initialize with first node
             if (isFirstIteration) {
-                ArrayList<Triple> neighbours = data.getTriplesInvolvingSubject(entity);
+                List<Triple> neighbours = data.getTriplesInvolvingSubject(entity);
                 if (neighbours == null || neighbours.size() == 0) {
                     return result;
                 }
@@ -218,7 +473,7 @@ public abstract class MemoryParser implements IParser {
                 for (List<Triple> walk : walks_tmp) {
                     // get last entity
                     Triple lastTriple = walk.get(walk.size() - 1);
-                    ArrayList<Triple> nextIteration = data.getTriplesInvolvingSubject(lastTriple.object);
+                    List<Triple> nextIteration = data.getTriplesInvolvingSubject(lastTriple.object);
                     if (nextIteration != null) {
                         walks.remove(walk); // check whether this works
                         for (Triple nextStep : nextIteration) {
@@ -259,6 +514,80 @@ public abstract class MemoryParser implements IParser {
     }
 
 
+    /**
+     * ID-based implementation of {@link MemoryParser#generateDuplicateFreeRandomWalksForEntity(String, int, int)}.
+     * A walk is an array of packed edges (see {@link PackedEdge}), so there is no {@link Triple} object per hop;
+     * Strings are only looked up for the final walks.
+     *
+     * @param idData        Dictionary-encoded data set.
+     * @param entity        The entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth         The number of hops to nodes (!).
+     * @return A list of walks where each element in the list represents a walk. The walk elements are separated by
+     * spaces.
+     */
+    private List<String> generateDuplicateFreeRandomWalksForEntityIdBased(IdTripleDataSet idData, String entity, int numberOfWalks, int depth) {
+        List<String> result = new ArrayList<>();
+        int entityId = idData.getNodeId(entity);
+        int degree = idData.getOutDegree(entityId);
+        if (degree == 0 || depth < 1) {
+            return result;
+        }
+        List<long[]> walks = new ArrayList<>(degree);
+        for (int i = 0; i < degree; i++) {
+            walks.add(new long[]{idData.getOutEdge(entityId, i)});
+        }
+        trimWalks(walks, numberOfWalks);
+        for (int currentDepth = 1; currentDepth < depth; currentDepth++) {
+            List<long[]> extendedWalks = new ArrayList<>(walks.size());
+            for (long[] walk : walks) {
+                int lastNode = PackedEdge.getNode(walk[walk.length - 1]);
+                int lastDegree = idData.getOutDegree(lastNode);
+                if (lastDegree == 0) {
+                    // the walk cannot be continued
+                    extendedWalks.add(walk);
+                    continue;
+                }
+                for (int i = 0; i < lastDegree; i++) {
+                    long[] newWalk = Arrays.copyOf(walk, walk.length + 1);
+                    newWalk[walk.length] = idData.getOutEdge(lastNode, i);
+                    extendedWalks.add(newWalk);
+                }
+            }
+            walks = extendedWalks;
+            trimWalks(walks, numberOfWalks);
+        }
+
+        // now we need to translate our walks into strings
+        for (long[] walk : walks) {
+            StringBuilder finalSentence = new StringBuilder(entity);
+            for (long edge : walk) {
+                String object = idData.getNode(PackedEdge.getNode(edge));
+                if (this.isUnifiyAnonymousNodes() && isAnonymousNode(object)) {
+                    object = "ANode";
+                }
+                finalSentence.append(' ').append(idData.getPredicate(PackedEdge.getPredicate(edge))).append(' ').append(object);
+            }
+            result.add(finalSentence.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Remove randomly drawn walks until there are not more than the given number of walks.
+     *
+     * @param walks         Walks.
+     * @param numberOfWalks Maximal number of walks.
+     */
+    private static void trimWalks(List<long[]> walks, int numberOfWalks) {
+        while (walks.size() > numberOfWalks) {
+            int randomNumber = ThreadLocalRandom.current().nextInt(walks.size());
+            // the order of the walks does not matter, so the last walk is moved to the free position
+            walks.set(randomNumber, walks.get(walks.size() - 1));
+            walks.remove(walks.size() - 1);
+        }
+    }
+
     /**
      * Returns true if the given parameter follows the schema of an anonymous node
      *
@@ -283,7 +612,16 @@ public abstract class MemoryParser implements IParser {
      */
     public Triple getRandomTripleForSubjectWithoutTags(String subject) {
         if (subject == null) return null;
-        ArrayList<Triple> queryResult = data.getTriplesInvolvingSubject(subject);
+        if (data instanceof IdTripleDataSet) {
+            IdTripleDataSet idData = (IdTripleDataSet) data;
+            int subjectId = idData.getNodeId(subject);
+            if (subjectId < 0) return null;
+            int degree = idData.getOutDegree(subjectId);
+            if (degree == 0) return null;
+            long edge = idData.getOutEdge(subjectId, ThreadLocalRandom.current().nextInt(degree));
+            return new Triple(subject, idData.getPredicate(PackedEdge.getPredicate(edge)), idData.getNode(PackedEdge.getNode(edge)));
+        }
+        List<Triple> queryResult = data.getTriplesInvolvingSubject(subject);
         if (queryResult == null) {
             // no triple found
             return null;
@@ -329,7 +667,7 @@ public abstract class MemoryParser implements IParser {
         this.specificWalkGenerator = specificWalkGenerator;
     }
 
-    public TripleDataSetMemory getData() {
+    public TripleDataSet getData() {
         return data;
     }
 }
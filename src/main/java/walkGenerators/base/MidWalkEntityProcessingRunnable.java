@@ -55,10 +55,8 @@ public class MidWalkEntityProcessingRunnable implements Runnable {
     public void run() {
         if (walkGenerator.parser.getClass() == HdtParser.class) {
             walkGenerator.writeToFile(((HdtParser) walkGenerator.parser).generateMidWalksForEntity(walkGenerator.shortenUri(entity), this.depth, this.numberOfWalks));
-        } else if (walkGenerator.parser.getClass() == NtMemoryParser.class) {
-            walkGenerator.writeToFile(((NtMemoryParser) walkGenerator.parser).generateMidWalksForEntity(walkGenerator.shortenUri(entity), this.depth, this.numberOfWalks));
-        } else if (walkGenerator.parser.getClass() == NxMemoryParser.class) {
-            walkGenerator.writeToFile(((NxMemoryParser) walkGenerator.parser).generateMidWalksForEntity(walkGenerator.shortenUri(entity), this.depth, this.numberOfWalks));
+        } else if (walkGenerator.parser instanceof MemoryParser) {
+            walkGenerator.writeToFile(((MemoryParser) walkGenerator.parser).generateMidWalksForEntity(walkGenerator.shortenUri(entity), this.depth, this.numberOfWalks));
         } else LOGGER.error("NOT YET IMPLEMENTED FOR THE CURRENT PARSER!");
     }
 }
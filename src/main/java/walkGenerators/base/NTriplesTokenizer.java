@@ -0,0 +1,276 @@
+package walkGenerators.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass tokenizer for N-Triples that works on the UTF-8 bytes of the input. Lines are located in a byte buffer
+ * and split into subject, predicate, and object by scanning for the delimiters; there is no regular expression and no
+ * String for the line. Each term is decoded exactly once (without the enclosing tags).
+ *
+ * The tokenization follows the line-based parsing of {@link NtMemoryParser}: the statement terminator (the last
+ * character with surrounding spaces) is removed, the terms are separated by single spaces, and if datatype properties
+ * are included, spaces from the first quote onwards are replaced by underscores. Lines are terminated by {@code \n}
+ * (an optional preceding {@code \r} is removed).
+ *
+ * This class is not thread-safe; use one instance per input.
+ */
+public class NTriplesTokenizer {
+
+    /**
+     * Initial size of the buffer; the buffer grows if a line does not fit.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The input.
+     */
+    private final InputStream in;
+
+    /**
+     * Buffered input bytes.
+     */
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * Number of valid bytes in the buffer.
+     */
+    private int bufferEnd;
+
+    /**
+     * Start of the next line in the buffer.
+     */
+    private int position;
+
+    /**
+     * Indicator whether the input is exhausted.
+     */
+    private boolean isEndOfInput;
+
+    /**
+     * Start of the current line (inclusive).
+     */
+    private int lineStart;
+
+    /**
+     * End of the current line (exclusive, without the line terminator).
+     */
+    private int lineEnd;
+
+    /**
+     * Start of each term of the current line (inclusive).
+     */
+    private final int[] termStart = new int[3];
+
+    /**
+     * End of each term of the current line (exclusive).
+     */
+    private final int[] termEnd = new int[3];
+
+    /**
+     * Position of the first quote from which on spaces are replaced by underscores; -1 if there is no replacement.
+     */
+    private int replacementStart;
+
+    /**
+     * Buffer for terms whose spaces are replaced.
+     */
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Constructor
+     * @param in The input (N-Triples, UTF-8). The stream is not closed by this class.
+     */
+    public NTriplesTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Constructor for input that is already in memory (the bytes are not copied).
+     * @param bytes The input (N-Triples, UTF-8).
+     * @param length Number of valid bytes.
+     */
+    public NTriplesTokenizer(byte[] bytes, int length) {
+        this.in = null;
+        this.buffer = bytes;
+        this.bufferEnd = length;
+        this.isEndOfInput = true;
+    }
+
+    /**
+     * Advance to the next line.
+     * @return True if there is a next line, false if the input is exhausted.
+     * @throws IOException If the input cannot be read.
+     */
+    public boolean nextLine() throws IOException {
+        int scanned = position;
+        while (true) {
+            for (int i = scanned; i < bufferEnd; i++) {
+                if (buffer[i] == '\n') {
+                    setLine(position, i);
+                    position = i + 1;
+                    return true;
+                }
+            }
+            if (isEndOfInput) {
+                if (position == bufferEnd) return false;
+                // last line without terminator
+                setLine(position, bufferEnd);
+                position = bufferEnd;
+                return true;
+            }
+            scanned = bufferEnd - position;
+            fill();
+        }
+    }
+
+    /**
+     * Set the bounds of the current line.
+     * @param start Start (inclusive).
+     * @param end End (exclusive), i.e., the position of the line terminator.
+     */
+    private void setLine(int start, int end) {
+        if (end > start && buffer[end - 1] == '\r') end--;
+        lineStart = start;
+        lineEnd = end;
+    }
+
+    /**
+     * Move the unprocessed bytes to the beginning of the buffer (the buffer is enlarged if it is full) and read more
+     * bytes.
+     * @throws IOException If the input cannot be read.
+     */
+    private void fill() throws IOException {
+        int remaining = bufferEnd - position;
+        if (remaining == buffer.length) {
+            byte[] enlarged = new byte[buffer.length * 2];
+            System.arraycopy(buffer, position, enlarged, 0, remaining);
+            buffer = enlarged;
+        } else {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        }
+        position = 0;
+        bufferEnd = remaining;
+        int read = in.read(buffer, bufferEnd, buffer.length - bufferEnd);
+        if (read < 0) {
+            isEndOfInput = true;
+        } else {
+            bufferEnd += read;
+        }
+    }
+
+    /**
+     * Check whether the current line is empty or a comment (like {@code line.trim()} being empty or starting with
+     * {@code #}).
+     * @return True if the line contains no statement.
+     */
+    public boolean isCommentOrBlank() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if ((buffer[i] & 0xFF) > ' ') return buffer[i] == '#';
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the current line contains a literal (i.e., at least two quotes).
+     * @return True if there is a literal.
+     */
+    public boolean containsLiteral() {
+        boolean isQuoteFound = false;
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (buffer[i] == '"') {
+                if (isQuoteFound) return true;
+                isQuoteFound = true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluate the given filter on the bytes of the current line.
+     * @param filter The filter.
+     * @return True if the line shall be skipped.
+     */
+    public boolean isSkipped(StatementFilter filter) {
+        return filter.isHit(buffer, lineStart, lineEnd);
+    }
+
+    /**
+     * Split the current line into subject, predicate, and object.
+     * @param isIncludeDatatypeProperties True if spaces within literals shall be replaced by underscores.
+     * @return True if the line consists of exactly three terms; if false, the terms are undefined.
+     */
+    public boolean tokenize(boolean isIncludeDatatypeProperties) {
+        // remove the statement terminator: trailing spaces, the last character, and the spaces in front of it
+        int end = lineEnd;
+        while (end > lineStart && buffer[end - 1] == ' ') end--;
+        if (end == lineStart) return false;
+        end--;
+        while (end > lineStart && (buffer[end] & 0xC0) == 0x80) end--;
+        while (end > lineStart && buffer[end - 1] == ' ') end--;
+
+        replacementStart = -1;
+        if (isIncludeDatatypeProperties) {
+            for (int i = lineStart; i < end; i++) {
+                if (buffer[i] == '"') {
+                    replacementStart = i;
+                    break;
+                }
+            }
+        }
+        int separatorEnd = replacementStart < 0 ? end : replacementStart;
+        int term = 0;
+        int start = lineStart;
+        for (int i = lineStart; i < separatorEnd; i++) {
+            if (buffer[i] == ' ') {
+                if (term == 2) return false;
+                setTerm(term++, start, i);
+                start = i + 1;
+            }
+        }
+        if (term != 2) return false;
+        setTerm(2, start, end);
+        return true;
+    }
+
+    /**
+     * Set the bounds of a term without the enclosing tags.
+     * @param term Index of the term.
+     * @param start Start (inclusive).
+     * @param end End (exclusive).
+     */
+    private void setTerm(int term, int start, int end) {
+        if (start < end && buffer[start] == '<') start++;
+        if (start < end && buffer[end - 1] == '>') end--;
+        termStart[term] = start;
+        termEnd[term] = end;
+    }
+
+    /**
+     * Obtain a term of the current line (after {@link NTriplesTokenizer#tokenize(boolean)}).
+     * @param term 0 for the subject, 1 for the predicate, 2 for the object.
+     * @return The term without the enclosing tags.
+     */
+    public String getTerm(int term) {
+        int start = termStart[term];
+        int length = termEnd[term] - start;
+        if (replacementStart < 0 || termEnd[term] <= replacementStart) {
+            return new String(buffer, start, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        for (int i = 0; i < length; i++) {
+            byte b = buffer[start + i];
+            scratch[i] = b == ' ' && start + i >= replacementStart ? (byte) '_' : b;
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Obtain the current line (e.g. for logging or for custom skip conditions).
+     * @return The line.
+     */
+    public String getLine() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+}
@@ -4,17 +4,34 @@ import org.apache.jena.ontology.OntModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scripts.IsearchCondition;
+import walkGenerators.dataStructure.GraphSizeEstimate;
+import walkGenerators.dataStructure.IdTripleDataSet;
+import walkGenerators.dataStructure.LiteralStore;
+import walkGenerators.dataStructure.StringPool;
+import walkGenerators.dataStructure.TripleDataSet;
+import walkGenerators.dataStructure.TripleDataSetDelta;
 import walkGenerators.dataStructure.TripleDataSetMemory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * A parser for NT files. Mainly implemented to support {@link NtMemoryParser#getRandomTripleForSubject(String)} in
@@ -32,33 +49,118 @@ public class NtMemoryParser extends MemoryParser {
      */
     private IsearchCondition skipCondition;
 
+    /**
+     * Default skip condition: comments, empty lines, and statements with literals.
+     */
+    private static final IsearchCondition DEFAULT_SKIP_CONDITION = new IsearchCondition() {
+        Pattern pattern = Pattern.compile("\".*\"");
+
+        @Override
+        public boolean isHit(String input) {
+            if (input.trim().startsWith("#")) return true; // just a comment line
+            if (input.trim().equals("")) return true; // empty line
+            Matcher matcher = pattern.matcher(input);
+            if (matcher.find()) return true;
+            return false;
+        }
+    };
+
+    /**
+     * Skip condition if datatype properties are included: comments and empty lines.
+     */
+    private static final IsearchCondition DATATYPE_SKIP_CONDITION = new IsearchCondition() {
+        @Override
+        public boolean isHit(String input) {
+            if (input.trim().startsWith("#")) return true; // just a comment line
+            if (input.trim().equals("")) return true; // empty line
+            return false;
+        }
+    };
 
     /**
-     * Indicator whether an optimized file shall be written for quick parsing later on (will be written in ./optimized/)
+     * Pattern for the literal of a statement (only required if datatype properties shall be included).
+     */
+    private static final Pattern DATATYPE_PATTERN = Pattern.compile("\".*");
+
+
+    /**
+     * Indicator whether an optimized file shall be written for quick parsing later on (will be written in ./optimized/,
+     * see {@link TripleCache})
      */
     boolean isWriteOptimizedFile = false;
 
+    /**
+     * Uncompressed files of at least this size (in bytes) are split into chunks that are parsed in parallel (see
+     * {@link NtMemoryParser#readNTriplesParallel(File, int)}).
+     */
+    public static final long PARALLEL_PARSING_THRESHOLD = 256L << 20;
+
+    /**
+     * Maximal size of a chunk in bytes (a mapped buffer cannot exceed 2 GB).
+     */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    /**
+     * Number of chunks per thread so that threads that finish early can take over work.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Number of threads used to parse a single large uncompressed file.
+     */
+    private int numberOfParsingThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of files of a directory that are loaded concurrently.
+     */
+    private int numberOfLoadingThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Size of the blocks into which gzipped files are inflated (blocks are extended for longer lines).
+     */
+    private static final int PIPELINE_BLOCK_SIZE = 1 << 22;
+
+    /**
+     * Number of statements that are handed from the parser threads to the insert stage at once.
+     */
+    private static final int PIPELINE_BATCH_SIZE = 1 << 12;
+
+    /**
+     * Marks the end of the inflated blocks (one per parser thread).
+     */
+    private static final byte[] END_OF_BLOCKS = new byte[0];
+
+    /**
+     * Marks the end of the statement batches (one per parser thread).
+     */
+    private static final List<String[]> END_OF_BATCHES = new ArrayList<>();
+
+    /**
+     * De-duplicates the Strings of data sets that are not dictionary-encoded while loading (instead of
+     * {@link String#intern()}). Created upon the first load, see {@link NtMemoryParser#releaseStringPool()}.
+     */
+    private volatile StringPool stringPool;
+
     /**
      * Default Constructor
      * @param walkGenerator The walk generator is used to derive a data set specific URI shortener (if desired).
      *                      Therefore, method {@link WalkGenerator#shortenUri(String)} has to be implemented.
      */
     public NtMemoryParser(WalkGenerator walkGenerator) {
-        data = new TripleDataSetMemory();
+        this(walkGenerator, new TripleDataSetMemory());
+    }
+
+    /**
+     * Constructor
+     * @param walkGenerator The walk generator is used to derive a data set specific URI shortener (if desired).
+     *                      Therefore, method {@link WalkGenerator#shortenUri(String)} has to be implemented.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public NtMemoryParser(WalkGenerator walkGenerator, TripleDataSet data) {
+        this.data = data;
 
         specificWalkGenerator = walkGenerator;
-        skipCondition = new IsearchCondition() {
-            Pattern pattern = Pattern.compile("\".*\"");
-
-            @Override
-            public boolean isHit(String input) {
-                if (input.trim().startsWith("#")) return true; // just a comment line
-                if (input.trim().equals("")) return true; // empty line
-                Matcher matcher = pattern.matcher(input);
-                if (matcher.find()) return true;
-                return false;
-            }
-        };
+        skipCondition = DEFAULT_SKIP_CONDITION;
     }
 
 
@@ -71,6 +173,7 @@ public class NtMemoryParser extends MemoryParser {
     public NtMemoryParser(String pathToTripleFile, WalkGenerator walkGenerator) {
         this(walkGenerator);
         readNTriples(pathToTripleFile);
+        releaseStringPool();
     }
 
     /**
@@ -82,6 +185,20 @@ public class NtMemoryParser extends MemoryParser {
     public NtMemoryParser(File tripleFile, WalkGenerator walkGenerator) {
         this(walkGenerator);
         readNTriples(tripleFile, false);
+        releaseStringPool();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param tripleFile The nt file to be read (not zipped).
+     * @param walkGenerator Walk generator to be used.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public NtMemoryParser(File tripleFile, WalkGenerator walkGenerator, TripleDataSet data) {
+        this(walkGenerator, data);
+        readNTriples(tripleFile, false);
+        releaseStringPool();
     }
 
     /**
@@ -130,6 +247,14 @@ public class NtMemoryParser extends MemoryParser {
             LOGGER.error("The given pathToDirectory is no directory, aborting. (given: " + pathToDirectory + ")");
             return;
         }
+        // pre-size for all files, not only for the first one
+        List<File> filesToRead = new ArrayList<>();
+        for (File file : directoryOfDataSets.listFiles()) {
+            String name = file.getName();
+            if (name.endsWith(".gz") || name.endsWith(".nt") || name.endsWith(".ttl")) filesToRead.add(file);
+        }
+        presize(filesToRead);
+
         for (File file : directoryOfDataSets.listFiles()) {
             LOGGER.info("Processing file " + file.getName());
             if (file.getName().endsWith(".gz")) {
@@ -145,7 +270,8 @@ public class NtMemoryParser extends MemoryParser {
 
 
     /**
-     * A new thread will be opened for each file.
+     * The files are loaded concurrently (see {@link NtMemoryParser#setNumberOfLoadingThreads(int)} and
+     * {@link LoadScheduler}).
      *
      * @param pathToDirectory The path to the directory in which the individual data files reside.
      * @param isWriteOptimizedFile Indicator whether an optimized file shall be written for quick parsing later on
@@ -159,7 +285,8 @@ public class NtMemoryParser extends MemoryParser {
 
 
     /**
-     * A new thread will be opened for each file.
+     * The files are loaded concurrently (see {@link NtMemoryParser#setNumberOfLoadingThreads(int)}); the largest files
+     * are started first (see {@link LoadScheduler}).
      *
      * @param directoryOfDataSets The directory in which the individual data files reside.
      * @param isWriteOptimizedFile Indicator whether an optimized file shall be written for quick parsing later on
@@ -183,67 +310,89 @@ public class NtMemoryParser extends MemoryParser {
             }
         }
 
-        ArrayList<Thread> allThreads = new ArrayList<>();
+        List<File> filesToRead = getFilesToRead(directoryOfDataSets);
+        presize(filesToRead);
+
         for (File fileOriginal : directoryOfDataSets.listFiles()) {
-            if (optimizedFiles.containsKey(fileOriginal.getName())) {
-                LOGGER.info("Found optimized file for " + fileOriginal.getName() + ", will use that one.");
-                FileReaderThread zThread = new FileReaderThread(this, optimizedFiles.get(fileOriginal.getName()), true, true);
-                zThread.start();
-                allThreads.add(zThread);
-            } else if (fileOriginal.getName().endsWith(".gz")) {
-                FileReaderThread zThread = new FileReaderThread(this, fileOriginal, true, false);
-                zThread.start();
-                allThreads.add(zThread);
-            } else if (fileOriginal.getName().endsWith(".nt") || fileOriginal.getName().endsWith(".ttl")) {
-                FileReaderThread zThread = new FileReaderThread(this, fileOriginal, false, false);
-                zThread.start();
-                allThreads.add(zThread);
-            } else {
-                LOGGER.info("Skipping file: " + fileOriginal.getName());
-                continue;
+            if (!filesToRead.contains(fileOriginal)) LOGGER.info("Skipping file: " + fileOriginal.getName());
+            else if (optimizedFiles.containsKey(fileOriginal.getName())) {
+                LOGGER.info("Found optimized file for " + fileOriginal.getName() + ", will use that one if it is up to date.");
             }
         }
-
-        // wait for thread completion
+        startLoad(filesToRead);
         try {
-            for (Thread thread : allThreads) {
-                thread.join();
-            }
-        } catch (InterruptedException ie) {
-            LOGGER.error("Problem waiting for thread...", ie);
+            new LoadScheduler(numberOfLoadingThreads).load(filesToRead,
+                    file -> readFile(file, file.getName().endsWith(".gz"), optimizedFiles.get(file.getName())));
+        } finally {
+            finishLoad();
         }
-        LOGGER.info("Data read.");
+        LOGGER.info("Data read. Building indexes.");
+        releaseStringPool();
+        data.compile();
+        LOGGER.info("Indexes built.");
+        logMemoryReport();
     }
 
 
     /**
-     * Thread that allows concurrent file parsing (used for data sets that consist of multiple, potentially zipped
-     * files).
+     * Indicator whether an up-to-date optimized file (see {@link TripleCache}) exists in ./optimized/ for at least one
+     * of the files that {@link NtMemoryParser#readNtTriplesFromDirectoryMultiThreaded(File, boolean)} reads from the
+     * given directory. Optimized files are only supported by this parser.
+     *
+     * @param directoryOfDataSets The directory in which the individual data files reside.
+     * @return True if an optimized file can be used for the directory.
      */
-    class FileReaderThread extends Thread {
+    public boolean hasOptimizedFiles(File directoryOfDataSets) {
+        for (File file : getFilesToRead(directoryOfDataSets)) {
+            if (TripleCache.isUpToDate(new File("./optimized/" + file.getName()), file, getCacheConfiguration())) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        public FileReaderThread(NtMemoryParser parser, File fileToRead, boolean gzipped, boolean optimized) {
-            this.fileToRead = fileToRead;
-            this.parser = parser;
-            this.isGzipped = gzipped;
-            this.isOptimizedFile = optimized;
+    /**
+     * The files of the given directory that are read by
+     * {@link NtMemoryParser#readNtTriplesFromDirectoryMultiThreaded(File, boolean)}.
+     *
+     * @param directoryOfDataSets The directory.
+     * @return Files ending with .gz, .nt, or .ttl.
+     */
+    private static List<File> getFilesToRead(File directoryOfDataSets) {
+        List<File> filesToRead = new ArrayList<>();
+        File[] files = directoryOfDataSets.listFiles();
+        if (files == null) return filesToRead;
+        for (File fileOriginal : files) {
+            String name = fileOriginal.getName();
+            if (name.endsWith(".gz") || name.endsWith(".nt") || name.endsWith(".ttl")) filesToRead.add(fileOriginal);
         }
+        return filesToRead;
+    }
 
-        private boolean isOptimizedFile;
-        private NtMemoryParser parser;
-        private File fileToRead;
-        private boolean isGzipped;
 
-        @Override
-        public void run() {
-            if (!isOptimizedFile) {
-                LOGGER.info("STARTED thread for file " + fileToRead.getName());
-                parser.readNTriples(fileToRead, isGzipped);
-            } else {
-                LOGGER.info("STARTED (optimized) thread for file " + fileToRead.getName());
-                parser.readNTriplesOptimized(fileToRead);
+    /**
+     * Read a single file of a data set that consists of multiple, potentially zipped files (called concurrently by
+     * the {@link LoadScheduler}).
+     *
+     * @param fileToRead    The file.
+     * @param isGzipped     Indicator whether the file is gzipped.
+     * @param optimizedFile Optimized file of the given file (null if there is none).
+     */
+    private void readFile(File fileToRead, boolean isGzipped, File optimizedFile) {
+        if (optimizedFile != null) {
+            LOGGER.info("STARTED (optimized) file " + fileToRead.getName());
+            if (readNTriplesOptimized(optimizedFile, fileToRead)) {
+                return;
             }
-            LOGGER.info("Thread for file " + fileToRead.getName() + " completed.");
+            LOGGER.info("The optimized file cannot be used. Parsing " + fileToRead.getName() + " instead.");
+        } else {
+            LOGGER.info("STARTED file " + fileToRead.getName());
+        }
+        if (isGzipped && !isWriteOptimizedFile && numberOfParsingThreads > 1) {
+            // the other files are loaded concurrently, hence a single parser thread per file
+            readNTriplesPipelined(fileToRead, 1);
+        } else {
+            readNTriplesSequential(fileToRead, isGzipped);
         }
     }
 
@@ -255,139 +404,677 @@ public class NtMemoryParser extends MemoryParser {
      * @param isGzippedFile Indicator whether the given file is gzipped.
      */
     public void readNTriples(String pathToFile, boolean isGzippedFile) {
-        File fileToReadFrom = new File(pathToFile);
-        readNTriples(fileToReadFrom, isGzippedFile);
+        readNTriples(new File(pathToFile), isGzippedFile);
+    }
+
+    /**
+     * Pre-size the data set for the given files if it is still empty (see {@link GraphSizeEstimator}).
+     *
+     * @param files The files that will be read.
+     */
+    private void presize(List<File> files) {
+        if (files.isEmpty() || data.getSize() > 0) return;
+        GraphSizeEstimate estimate = GraphSizeEstimator.estimate(files);
+        if (estimate != null) data.presize(estimate);
     }
 
 
     /**
-     * read form an optimized file.
-     * @param fileToReadFrom Optimized file.
+     * Read from an optimized file (see {@link TripleCache}). The file is only used if it was written from the given
+     * source file in its current state and with the current parser configuration
+     * (see {@link NtMemoryParser#getCacheConfiguration()}).
+     * @param optimizedFile Optimized file.
+     * @param sourceFile The file from which the optimized file was written.
+     * @return True if the optimized file was read, false if it is invalid or outdated (nothing is added then).
      */
-    public void readNTriplesOptimized(File fileToReadFrom) {
-        if (!fileToReadFrom.exists()) {
+    public boolean readNTriplesOptimized(File optimizedFile, File sourceFile) {
+        if (!optimizedFile.exists()) {
             LOGGER.error("File does not exist. Cannot parse.");
-            return;
+            return false;
         }
+        StringPool pool = data instanceof IdTripleDataSet ? null : getStringPool();
+        LoadMetrics.FileMetrics metrics = startFile(sourceFile);
+        boolean isRead = false;
         try {
-            GZIPInputStream gzip = new GZIPInputStream(new FileInputStream(fileToReadFrom));
-            BufferedReader reader = new BufferedReader(new InputStreamReader(gzip, StandardCharsets.UTF_8));
-
-            String readLine;
-            //int lineNumber = 0;
-            while ((readLine = reader.readLine()) != null) {
-                //lineNumber += 1;
-                String[] parsed = readLine.split(" ");
-                if (parsed.length != 3) {
-                    LOGGER.error("Problem with line: \n" + readLine);
-                } else {
-                    String subject = parsed[0];
-                    String predicate = parsed[1];
-                    String object = parsed[2];
-                    data.add(subject, predicate, object);
-                }
-            }
-        } catch (IOException ioe) {
-            LOGGER.error("Could not initialize optimized reader for file " + fileToReadFrom.getName());
+            isRead = TripleCache.read(optimizedFile, sourceFile, getCacheConfiguration(), data, pool);
+            // the optimized file replaces the source file; the statements are not counted
+            if (isRead) metrics.addBytesRead(sourceFile.length());
+            return isRead;
+        } finally {
+            if (isRead) finishFile(metrics);
+            else discardFile(metrics);
         }
     }
 
+    /**
+     * Description of the settings that determine the parsed statements (URI shortener, skip condition, datatype
+     * properties). It is stored in optimized files so that outdated files are not used.
+     * @return Configuration description.
+     */
+    public String getCacheConfiguration() {
+        String skip;
+        if (skipCondition == DEFAULT_SKIP_CONDITION) skip = "default";
+        else if (skipCondition == DATATYPE_SKIP_CONDITION) skip = "datatype";
+        else if (skipCondition instanceof StatementFilter) skip = skipCondition.toString();
+        else skip = skipCondition.getClass().getName();
+        return "shortener=" + specificWalkGenerator.getClass().getName() + ";skip=" + skip
+                + ";datatypeProperties=" + isIncludeDatatypeProperties;
+    }
+
 
     /**
      * Read the given nt file into memory. This method will add the data in the file to the existing {@link NtMemoryParser#data} store.
+     * Uncompressed files of at least {@link NtMemoryParser#PARALLEL_PARSING_THRESHOLD} bytes are parsed in parallel,
+     * gzipped files are loaded in a pipeline (unless an optimized file shall be written). An empty data set is pre-sized
+     * for the file first.
      *
      * @param fileToReadFrom the file.
      * @param isGzippedFile  Indicator whether the given file is gzipped.
      */
     public void readNTriples(File fileToReadFrom, boolean isGzippedFile) {
+        if (fileToReadFrom.exists()) presize(Collections.singletonList(fileToReadFrom));
+        if (isWriteOptimizedFile || numberOfParsingThreads <= 1) {
+            readNTriplesSequential(fileToReadFrom, isGzippedFile);
+        } else if (isGzippedFile) {
+            readNTriplesPipelined(fileToReadFrom, numberOfParsingThreads);
+        } else if (fileToReadFrom.length() >= PARALLEL_PARSING_THRESHOLD) {
+            readNTriplesParallel(fileToReadFrom, numberOfParsingThreads);
+        } else {
+            readNTriplesSequential(fileToReadFrom, isGzippedFile);
+        }
+    }
+
+    /**
+     * Read the given nt file into memory on the calling thread.
+     *
+     * @param fileToReadFrom the file.
+     * @param isGzippedFile  Indicator whether the given file is gzipped.
+     */
+    private void readNTriplesSequential(File fileToReadFrom, boolean isGzippedFile) {
         if (!fileToReadFrom.exists()) {
             LOGGER.error("File does not exist. Cannot parse.");
             return;
         }
 
-        BufferedWriter writer = null; // the writer used to write the optimized file
+        TripleCache.Writer writer = null; // the writer used to write the optimized file
         if (isWriteOptimizedFile) {
             try {
-                File fileToWrite = new File("./optimized/" + fileToReadFrom.getName());
-                fileToWrite.getParentFile().mkdirs();
-                GZIPOutputStream gzip = new GZIPOutputStream(new FileOutputStream(fileToWrite));
-                writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+                writer = new TripleCache.Writer(new File("./optimized/" + fileToReadFrom.getName()), fileToReadFrom, getCacheConfiguration());
                 LOGGER.info("Writer initialized.");
-            } catch (FileNotFoundException fnfe) {
-                LOGGER.error("Could not initialize gzip output stream.", fnfe);
             } catch (IOException e) {
-                LOGGER.error("Problem initializing gzip output stream.", e);
+                LOGGER.error("Problem initializing the writer for the optimized file.", e);
             }
         }
 
-        Pattern datatypePattern = Pattern.compile("\".*");
+        LoadMetrics.FileMetrics metrics = startFile(fileToReadFrom);
         try {
-            BufferedReader reader;
+            InputStream in = metrics.count(new FileInputStream(fileToReadFrom));
             if (isGzippedFile) {
-                GZIPInputStream gzip = new GZIPInputStream(new FileInputStream(fileToReadFrom));
-                reader = new BufferedReader(new InputStreamReader(gzip, StandardCharsets.UTF_8));
-            } else {
-                reader = new BufferedReader(new InputStreamReader(new FileInputStream(fileToReadFrom), StandardCharsets.UTF_8));
+                in = new GZIPInputStream(in, 1 << 16);
             }
-            String readLine;
-            long lineNumber = 0;
-            Matcher datatypeMatcher; // only required if datatype properties shall be included
-            nextLine:
-            while ((readLine = reader.readLine()) != null) {
-                try {
-                    lineNumber++;
-                    if (skipCondition.isHit(readLine)) {
-                        continue nextLine;
+            readStatements(new NTriplesTokenizer(in), fileToReadFrom.getName(), writer, metrics);
+            LOGGER.info("File " + fileToReadFrom.getName() + " successfully read. " + data.getSize() + " subjects loaded.");
+            if (writer != null) {
+                writer.close();
+            }
+            in.close();
+        } catch (Exception e) {
+            LOGGER.error("Error while parsing file.", e);
+        } finally {
+            finishFile(metrics);
+        }
+    }
+
+    /**
+     * Read the given uncompressed nt file into memory using multiple threads. The file is split into byte ranges
+     * whose boundaries are moved to the next line break; each range is memory-mapped and parsed by one of the threads.
+     * Line numbers in log messages refer to the chunk. No optimized file is written.
+     *
+     * @param fileToReadFrom  The file (N-Triples, not zipped).
+     * @param numberOfThreads Number of parsing threads.
+     */
+    public void readNTriplesParallel(File fileToReadFrom, int numberOfThreads) {
+        if (!fileToReadFrom.exists()) {
+            LOGGER.error("File does not exist. Cannot parse.");
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numberOfThreads));
+        LoadMetrics.FileMetrics metrics = startFile(fileToReadFrom);
+        try (FileChannel channel = new RandomAccessFile(fileToReadFrom, "r").getChannel()) {
+            long[] boundaries = getChunkBoundaries(channel, numberOfThreads * CHUNKS_PER_THREAD);
+            LOGGER.info("Parsing file " + fileToReadFrom.getName() + " in " + (boundaries.length - 1) + " chunks using "
+                    + numberOfThreads + " threads.");
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < boundaries.length - 1; i++) {
+                long start = boundaries[i];
+                long end = boundaries[i + 1];
+                if (start == end) continue;
+                String chunkName = fileToReadFrom.getName() + " (chunk " + (i + 1) + ")";
+                futures.add(executor.submit(() -> {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    readStatements(new NTriplesTokenizer(new ByteBufferInputStream(buffer)), chunkName, null, metrics);
+                    metrics.addBytesRead(end - start);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            LOGGER.info("File " + fileToReadFrom.getName() + " successfully read. " + data.getSize() + " subjects loaded.");
+        } catch (IOException | ExecutionException e) {
+            LOGGER.error("Error while parsing file.", e);
+        } catch (InterruptedException ie) {
+            LOGGER.error("Interrupted while parsing file.", ie);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            finishFile(metrics);
+        }
+    }
+
+    /**
+     * Split the file into chunks that end with a line break (or the end of the file).
+     *
+     * @param channel        Channel of the file.
+     * @param numberOfChunks Desired number of chunks; more chunks are used if a chunk would exceed
+     *                       {@link NtMemoryParser#MAX_CHUNK_SIZE}.
+     * @return Boundaries: chunk i spans [boundaries[i], boundaries[i + 1]); chunks may be empty.
+     * @throws IOException If the file cannot be read.
+     */
+    static long[] getChunkBoundaries(FileChannel channel, int numberOfChunks) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(1, (size + numberOfChunks - 1) / Math.max(1, numberOfChunks)));
+        int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+        long[] boundaries = new long[chunks + 1];
+        boundaries[chunks] = size;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(i * chunkSize, boundaries[i - 1]);
+            boundaries[i] = size;
+            search:
+            while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) break;
+                for (int j = 0; j < read; j++) {
+                    if (buffer.get(j) == '\n') {
+                        boundaries[i] = position + j + 1;
+                        break search;
                     }
+                }
+                position += read;
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * Parse all lines of the given tokenizer and add the statements to {@link NtMemoryParser#data}.
+     *
+     * @param tokenizer  The tokenizer.
+     * @param sourceName Name of the file or chunk (for logging).
+     * @param writer     Writer for the optimized file (null if no optimized file is written).
+     * @param metrics    Metrics of the file.
+     * @throws IOException If the input cannot be read.
+     */
+    private void readStatements(NTriplesTokenizer tokenizer, String sourceName, TripleCache.Writer writer,
+                                LoadMetrics.FileMetrics metrics) throws IOException {
+        boolean isDictionaryEncoded = data instanceof IdTripleDataSet;
+        long lineNumber = 0;
+        long accepted = 0; // not yet added to the metrics
+        nextLine:
+        while (tokenizer.nextLine()) {
+            try {
+                lineNumber++;
+                if (lineNumber % METRICS_LINES == 0) {
+                    metrics.addLines(METRICS_LINES);
+                    metrics.addAccepted(accepted);
+                    accepted = 0;
+                    if (lineNumber % MEMORY_CHECK_LINES == 0) logMemoryReportIfDue();
+                }
+                String[] spo = parseStatement(tokenizer, sourceName, lineNumber, metrics);
+                if (spo == null) {
+                    continue nextLine;
+                }
+                addStatement(spo, isDictionaryEncoded);
+                accepted++;
 
-                    // remove the dot at the end of a statement
-                    readLine = readLine.replaceAll("(?<=>)*[ ]*.[ ]*$", "");
+                if (writer != null) {
+                    writer.add(spo[0], spo[1], spo[2]);
+                }
 
+            } catch (Exception e) {
+                // it is important that the parsing continues no matter what happens
+                metrics.addRejectedByException();
+                LOGGER.error("A problem occurred while parsing line number " + lineNumber + " of file " + sourceName, e);
+                LOGGER.error("The problem occurred in the following line:\n" + tokenizer.getLine());
+            }
+        } // end of while loop
+        metrics.addLines(lineNumber % METRICS_LINES);
+        metrics.addAccepted(accepted);
+    }
 
-                    if (isIncludeDatatypeProperties) {
-                        datatypeMatcher = datatypePattern.matcher(readLine);
-                        if (datatypeMatcher.find()) {
-                            String datatypeValue = datatypeMatcher.group(0);
-                            String newDatatypeValue = datatypeValue.replaceAll(" ", "_");
-                            readLine = readLine.replace(datatypeValue, newDatatypeValue);
-                        }
+    /**
+     * Add a parsed statement to {@link NtMemoryParser#data}.
+     *
+     * @param spo                 Subject, predicate, and object.
+     * @param isDictionaryEncoded True if the data set is dictionary-encoded (the Strings are not interned then).
+     */
+    private void addStatement(String[] spo, boolean isDictionaryEncoded) {
+        String subject = spo[0];
+        String predicate = spo[1];
+        String object = spo[2];
+        if (!isDictionaryEncoded) {
+            // the Strings are referenced by the triples, dictionary-encoded data sets do not need this
+            StringPool pool = getStringPool();
+            subject = pool.canonicalize(subject);
+            predicate = pool.canonicalize(predicate);
+            // literals are mostly unique, pooling them would only fill the pool
+            if (!LiteralStore.isLiteral(object)) object = pool.canonicalize(object);
+        }
+        data.add(subject, predicate, object);
+    }
+
+    /**
+     * Obtain the String pool of the current load (it is created if required).
+     *
+     * @return String pool.
+     */
+    private StringPool getStringPool() {
+        StringPool pool = stringPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (stringPool == null) stringPool = new StringPool();
+                pool = stringPool;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Discard the String pool that de-duplicates Strings while loading (the pooled Strings stay referenced by the
+     * data set). Call this method once all files are loaded; it is called automatically by the constructors that
+     * read a file and by {@link NtMemoryParser#readNtTriplesFromDirectoryMultiThreaded(File, boolean)}. Later loads
+     * start with a new pool.
+     */
+    public synchronized void releaseStringPool() {
+        if (stringPool == null) return;
+        LOGGER.info("Releasing String pool: " + stringPool);
+        stringPool = null;
+    }
+
+    /**
+     * Data sets that are not dictionary-encoded are measured by the String pool of the current load (nodes and
+     * predicates).
+     *
+     * @return Number of entries.
+     */
+    @Override
+    long getDictionarySize() {
+        if (data instanceof IdTripleDataSet) return super.getDictionarySize();
+        StringPool pool = stringPool;
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * Read the given gzipped nt file into memory in a pipeline of three stages that are connected by bounded queues:
+     * one thread inflates the file into blocks of complete lines, the parser threads tokenize the blocks, and the
+     * calling thread adds the parsed statements in batches to {@link NtMemoryParser#data}. Line numbers in log
+     * messages refer to the block. No optimized file is written. If a thread fails (e.g. with an {@link Error}), the
+     * complete pipeline is stopped and the error is logged; the file is then only read partially.
+     *
+     * @param fileToReadFrom        The file (N-Triples, gzipped).
+     * @param numberOfParserThreads Number of parser threads.
+     */
+    public void readNTriplesPipelined(File fileToReadFrom, int numberOfParserThreads) {
+        readNTriplesPipelined(fileToReadFrom, numberOfParserThreads, PIPELINE_BLOCK_SIZE);
+    }
+
+    /**
+     * See {@link NtMemoryParser#readNTriplesPipelined(File, int)}.
+     *
+     * @param fileToReadFrom        The file (N-Triples, gzipped).
+     * @param numberOfParserThreads Number of parser threads.
+     * @param blockSize             Size of the inflated blocks in bytes.
+     */
+    void readNTriplesPipelined(File fileToReadFrom, int numberOfParserThreads, int blockSize) {
+        if (!fileToReadFrom.exists()) {
+            LOGGER.error("File does not exist. Cannot parse.");
+            return;
+        }
+        int parsers = Math.max(1, numberOfParserThreads);
+        BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(2 * parsers);
+        BlockingQueue<List<String[]>> batches = new ArrayBlockingQueue<>(8 * parsers);
+        ExecutorService executor = Executors.newFixedThreadPool(parsers + 1);
+        LoadMetrics.FileMetrics metrics = startFile(fileToReadFrom);
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> {
+            boolean isStopped = false;
+            try (InputStream in = new GZIPInputStream(metrics.count(new FileInputStream(fileToReadFrom)), 1 << 16)) {
+                inflate(in, blocks, blockSize);
+            } catch (InterruptedException ie) {
+                // the pipeline was stopped, nobody waits for the end of the blocks
+                isStopped = true;
+                throw ie;
+            } finally {
+                if (!isStopped) {
+                    for (int i = 0; i < parsers; i++) blocks.put(END_OF_BLOCKS);
+                }
+            }
+            return null;
+        }));
+        for (int i = 0; i < parsers; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    parseBlocks(fileToReadFrom.getName(), blocks, batches, metrics);
+                } catch (Throwable t) {
+                    // the file cannot be read completely: stop the inflater and the other parsers, which would
+                    // otherwise wait forever for each other
+                    executor.shutdownNow();
+                    throw t;
+                }
+                batches.put(END_OF_BATCHES);
+                return null;
+            }));
+        }
+
+        boolean isDictionaryEncoded = data instanceof IdTripleDataSet;
+        long statementNumber = 0;
+        try {
+            int finishedParsers = 0;
+            while (finishedParsers < parsers) {
+                List<String[]> batch = batches.poll(1, TimeUnit.SECONDS);
+                if (batch == null) {
+                    // stopped parsers do not deliver the end of their batches
+                    if (executor.isShutdown() && isDone(futures)) break;
+                    continue;
+                }
+                if (batch == END_OF_BATCHES) {
+                    finishedParsers++;
+                    continue;
+                }
+                long accepted = 0;
+                for (String[] spo : batch) {
+                    try {
+                        addStatement(spo, isDictionaryEncoded);
+                        accepted++;
+                    } catch (Exception e) {
+                        // it is important that the parsing continues no matter what happens
+                        metrics.addRejectedByException();
+                        LOGGER.error("A problem occurred while adding a statement of file " + fileToReadFrom.getName(), e);
                     }
+                    if (++statementNumber % MEMORY_CHECK_LINES == 0) logMemoryReportIfDue();
+                }
+                metrics.addAccepted(accepted);
+            }
+            ExecutionException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // report the cause rather than the interruption of the other threads
+                    if (failure == null || failure.getCause() instanceof InterruptedException) failure = e;
+                }
+            }
+            if (failure != null) throw failure;
+            LOGGER.info("File " + fileToReadFrom.getName() + " successfully read. " + data.getSize() + " subjects loaded.");
+        } catch (ExecutionException e) {
+            LOGGER.error("Error while parsing file.", e);
+        } catch (InterruptedException ie) {
+            LOGGER.error("Interrupted while parsing file.", ie);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            finishFile(metrics);
+        }
+    }
+
+    /**
+     * Check whether all given tasks are done.
+     *
+     * @param futures The tasks.
+     * @return True if no task is running anymore.
+     */
+    private static boolean isDone(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Split the given (inflated) stream into blocks that end with a line break (except for the last block).
+     *
+     * @param in        The stream.
+     * @param blocks    Queue to which the blocks are added.
+     * @param blockSize Size of the blocks in bytes.
+     * @throws IOException          If the stream cannot be read.
+     * @throws InterruptedException If interrupted while waiting for free space in the queue.
+     */
+    private static void inflate(InputStream in, BlockingQueue<byte[]> blocks, int blockSize) throws IOException, InterruptedException {
+        byte[] block = new byte[blockSize];
+        int length = 0;
+        int read;
+        while ((read = in.read(block, length, block.length - length)) >= 0) {
+            length += read;
+            if (length < block.length) continue;
+            int end = length;
+            while (end > 0 && block[end - 1] != '\n') end--;
+            if (end == 0) {
+                // the line does not fit into the block
+                block = Arrays.copyOf(block, block.length * 2);
+                continue;
+            }
+            byte[] next = new byte[Math.max(blockSize, 2 * (length - end))];
+            System.arraycopy(block, end, next, 0, length - end);
+            blocks.put(end == block.length ? block : Arrays.copyOf(block, end));
+            block = next;
+            length -= end;
+        }
+        if (length > 0) blocks.put(Arrays.copyOf(block, length));
+    }
 
-                    String[] spo = readLine.split(" ");
-                    if (spo.length != 3) {
-                        LOGGER.error("Error in file " + fileToReadFrom.getName() + " in line " + lineNumber + " while parsing the following line:\n" + readLine + "\n Required tokens: 3\nActual tokens: " + spo.length);
-                        int i = 1;
-                        for (String token : spo) {
-                            LOGGER.error("Token " + i++ + ": " + token);
+    /**
+     * Parse the blocks of the given queue until {@link NtMemoryParser#END_OF_BLOCKS} is taken.
+     *
+     * @param fileName Name of the file (for logging).
+     * @param blocks   Queue of blocks of complete lines.
+     * @param batches  Queue to which the parsed statements are added in batches.
+     * @param metrics  Metrics of the file.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private void parseBlocks(String fileName, BlockingQueue<byte[]> blocks, BlockingQueue<List<String[]>> batches,
+                             LoadMetrics.FileMetrics metrics) throws InterruptedException {
+        String sourceName = fileName + " (block)";
+        byte[] block;
+        while ((block = blocks.take()) != END_OF_BLOCKS) {
+            NTriplesTokenizer tokenizer = new NTriplesTokenizer(block, block.length);
+            List<String[]> batch = new ArrayList<>(PIPELINE_BATCH_SIZE);
+            long lineNumber = 0;
+            try {
+                while (tokenizer.nextLine()) {
+                    lineNumber++;
+                    try {
+                        String[] spo = parseStatement(tokenizer, sourceName, lineNumber, metrics);
+                        if (spo == null) continue;
+                        batch.add(spo);
+                        if (batch.size() == PIPELINE_BATCH_SIZE) {
+                            batches.put(batch);
+                            batch = new ArrayList<>(PIPELINE_BATCH_SIZE);
                         }
-                        LOGGER.error("Line is ignored. Parsing continues.");
-                        continue nextLine;
+                    } catch (RuntimeException e) {
+                        // it is important that the parsing continues no matter what happens
+                        metrics.addRejectedByException();
+                        LOGGER.error("A problem occurred while parsing line number " + lineNumber + " of " + sourceName, e);
+                        LOGGER.error("The problem occurred in the following line:\n" + tokenizer.getLine());
                     }
-                    String subject = specificWalkGenerator.shortenUri(removeTags(spo[0])).intern();
-                    String predicate = specificWalkGenerator.shortenUri(removeTags(spo[1]).intern());
-                    String object = specificWalkGenerator.shortenUri(removeTags(spo[2])).intern();
+                }
+            } catch (IOException ioe) {
+                // cannot happen for in-memory input
+                LOGGER.error("Problem reading block of file " + fileName, ioe);
+            }
+            metrics.addLines(lineNumber);
+            if (!batch.isEmpty()) batches.put(batch);
+        }
+    }
 
-                    data.add(subject, predicate, object);
+    /**
+     * Input stream over a (memory-mapped) byte buffer.
+     */
+    private static class ByteBufferInputStream extends InputStream {
 
-                    if (isWriteOptimizedFile) {
-                        writer.write(subject + " " + predicate + " " + object + "\n");
-                    }
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+
+    /**
+     * Parse the current line of the given tokenizer. This is equivalent to
+     * {@link NtMemoryParser#parseStatement(String, String, long, LoadMetrics.FileMetrics)} but works on the bytes of the line; the known skip
+     * conditions and {@link StatementFilter}s are evaluated on the bytes as well. Lines that cannot be tokenized are handed to the String-based
+     * parser for error reporting.
+     *
+     * @param tokenizer  Tokenizer positioned on the line to be parsed.
+     * @param fileName   Name of the file (for logging).
+     * @param lineNumber Line number (for logging).
+     * @param metrics    Metrics of the file (skipped and malformed lines are counted).
+     * @return Subject, predicate, and object (without tags and shortened) or null if the line is to be skipped.
+     */
+    private String[] parseStatement(NTriplesTokenizer tokenizer, String fileName, long lineNumber, LoadMetrics.FileMetrics metrics) {
+        boolean isSkipped;
+        if (skipCondition == DEFAULT_SKIP_CONDITION) {
+            isSkipped = tokenizer.isCommentOrBlank() || tokenizer.containsLiteral();
+        } else if (skipCondition == DATATYPE_SKIP_CONDITION) {
+            isSkipped = tokenizer.isCommentOrBlank();
+        } else if (skipCondition instanceof StatementFilter) {
+            isSkipped = tokenizer.isSkipped((StatementFilter) skipCondition);
+        } else {
+            isSkipped = skipCondition.isHit(tokenizer.getLine());
+        }
+        if (isSkipped) {
+            metrics.addRejectedBySkipCondition();
+            return null;
+        }
+        if (!tokenizer.tokenize(isIncludeDatatypeProperties)) {
+            return parseStatement(tokenizer.getLine(), fileName, lineNumber, metrics);
+        }
+        return new String[]{
+                specificWalkGenerator.shortenUri(tokenizer.getTerm(0)),
+                specificWalkGenerator.shortenUri(tokenizer.getTerm(1)),
+                specificWalkGenerator.shortenUri(tokenizer.getTerm(2))
+        };
+    }
+
+    /**
+     * Parse a single N-Triples statement.
+     *
+     * @param readLine   The line to be parsed.
+     * @param fileName   Name of the file (for logging).
+     * @param lineNumber Line number (for logging).
+     * @param metrics    Metrics of the file (skipped and malformed lines are counted).
+     * @return Subject, predicate, and object (without tags and shortened) or null if the line is to be skipped.
+     */
+    private String[] parseStatement(String readLine, String fileName, long lineNumber, LoadMetrics.FileMetrics metrics) {
+        if (skipCondition.isHit(readLine)) {
+            metrics.addRejectedBySkipCondition();
+            return null;
+        }
+
+        // remove the dot at the end of a statement
+        readLine = readLine.replaceAll("(?<=>)*[ ]*.[ ]*$", "");
 
-                } catch (Exception e) {
-                    // it is important that the parsing continues no matter what happens
-                    LOGGER.error("A problem occurred while parsing line number " + lineNumber + " of file " + fileToReadFrom.getName(), e);
-                    LOGGER.error("The problem occurred in the following line:\n" + readLine);
+        if (isIncludeDatatypeProperties) {
+            Matcher datatypeMatcher = DATATYPE_PATTERN.matcher(readLine);
+            if (datatypeMatcher.find()) {
+                String datatypeValue = datatypeMatcher.group(0);
+                String newDatatypeValue = datatypeValue.replaceAll(" ", "_");
+                readLine = readLine.replace(datatypeValue, newDatatypeValue);
+            }
+        }
+
+        String[] spo = readLine.split(" ");
+        if (spo.length != 3) {
+            LOGGER.error("Error in file " + fileName + " in line " + lineNumber + " while parsing the following line:\n" + readLine + "\n Required tokens: 3\nActual tokens: " + spo.length);
+            int i = 1;
+            for (String token : spo) {
+                LOGGER.error("Token " + i++ + ": " + token);
+            }
+            LOGGER.error("Line is ignored. Parsing continues.");
+            metrics.addRejectedAsMalformed();
+            return null;
+        }
+        return new String[]{
+                specificWalkGenerator.shortenUri(removeTags(spo[0])),
+                specificWalkGenerator.shortenUri(removeTags(spo[1])),
+                specificWalkGenerator.shortenUri(removeTags(spo[2]))
+        };
+    }
+
+    /**
+     * Apply a diff file to the data set which has to be a {@link TripleDataSetDelta}. The file follows the RDF Patch
+     * notation: each change is an N-Triples statement prefixed by {@code A} (add) or {@code D} (delete), e.g.
+     * {@code A <s> <p> <o> .}; all other lines (headers, transaction markers, comments) are ignored.
+     * Files ending with {@code .gz} are read as gzipped files.
+     *
+     * @param diffFile The diff file.
+     */
+    public void applyDiff(File diffFile) {
+        if (!(data instanceof TripleDataSetDelta)) {
+            LOGGER.error("Diffs can only be applied to a TripleDataSetDelta. The diff is ignored.");
+            return;
+        }
+        if (!diffFile.exists()) {
+            LOGGER.error("Diff file does not exist. Cannot parse.");
+            return;
+        }
+        TripleDataSetDelta delta = (TripleDataSetDelta) data;
+        delta.compile();
+        long added = 0;
+        long deleted = 0;
+        LoadMetrics.FileMetrics metrics = startFile(diffFile);
+        try (BufferedReader reader = diffFile.getName().endsWith(".gz") ?
+                new BufferedReader(new InputStreamReader(new GZIPInputStream(metrics.count(new FileInputStream(diffFile))), StandardCharsets.UTF_8)) :
+                new BufferedReader(new InputStreamReader(metrics.count(new FileInputStream(diffFile)), StandardCharsets.UTF_8))) {
+            String readLine;
+            long lineNumber = 0;
+            while ((readLine = reader.readLine()) != null) {
+                lineNumber++;
+                metrics.addLines(1);
+                boolean isAddition = readLine.startsWith("A ");
+                if (!isAddition && !readLine.startsWith("D ")) continue;
+                String[] spo = parseStatement(readLine.substring(2), diffFile.getName(), lineNumber, metrics);
+                if (spo == null) continue;
+                metrics.addAccepted(1);
+                if (isAddition) {
+                    delta.add(spo[0], spo[1], spo[2]);
+                    added++;
+                } else if (delta.delete(spo[0], spo[1], spo[2])) {
+                    deleted++;
                 }
-            } // end of while loop
-            LOGGER.info("File " + fileToReadFrom.getName() + " successfully read. " + data.getSize() + " subjects loaded.");
-            if (isWriteOptimizedFile) {
-                writer.flush();
-                writer.close();
             }
-            reader.close();
-        } catch (Exception e) {
-            LOGGER.error("Error while parsing file.", e);
+        } catch (IOException e) {
+            LOGGER.error("Error while parsing diff file.", e);
+        } finally {
+            finishFile(metrics);
         }
+        LOGGER.info("Diff " + diffFile.getName() + " applied: " + added + " additions, " + deleted + " deletions. "
+                + delta.getSize() + " triples, " + delta.getDeltaSize() + " changes not yet compacted.");
     }
 
     public IsearchCondition getSkipCondition() {
@@ -398,6 +1085,30 @@ public class NtMemoryParser extends MemoryParser {
         this.skipCondition = skipCondition;
     }
 
+    public int getNumberOfParsingThreads() {
+        return numberOfParsingThreads;
+    }
+
+    /**
+     * @param numberOfParsingThreads Number of threads used to parse a single large uncompressed file; 1 disables
+     *                               parallel parsing.
+     */
+    public void setNumberOfParsingThreads(int numberOfParsingThreads) {
+        this.numberOfParsingThreads = numberOfParsingThreads;
+    }
+
+    public int getNumberOfLoadingThreads() {
+        return numberOfLoadingThreads;
+    }
+
+    /**
+     * @param numberOfLoadingThreads Number of files of a directory that are loaded concurrently (see
+     *                               {@link NtMemoryParser#readNtTriplesFromDirectoryMultiThreaded(File, boolean)}).
+     */
+    public void setNumberOfLoadingThreads(int numberOfLoadingThreads) {
+        this.numberOfLoadingThreads = numberOfLoadingThreads;
+    }
+
     /**
      * This method will remove a leading less-than and a trailing greater-than sign (tags).
      *
@@ -419,14 +1130,7 @@ public class NtMemoryParser extends MemoryParser {
      */
     public void setIncludeDatatypeProperties(boolean includeDatatypeProperties) {
         LOGGER.warn("Overwriting skip condition.");
-        skipCondition = new IsearchCondition() {
-            @Override
-            public boolean isHit(String input) {
-                if (input.trim().startsWith("#")) return true; // just a comment line
-                if (input.trim().equals("")) return true; // empty line
-                return false;
-            }
-        };
+        skipCondition = DATATYPE_SKIP_CONDITION;
         isIncludeDatatypeProperties = includeDatatypeProperties;
     }
 }
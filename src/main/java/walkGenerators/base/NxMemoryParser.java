@@ -4,11 +4,18 @@ import org.semanticweb.yars.nx.Node;
 import org.semanticweb.yars.nx.parser.NxParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import walkGenerators.dataStructure.GraphSizeEstimate;
+import walkGenerators.dataStructure.TripleDataSet;
 import walkGenerators.dataStructure.TripleDataSetMemory;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 
 /**
@@ -21,14 +28,28 @@ public class NxMemoryParser extends MemoryParser {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(NxMemoryParser.class);
 
+    /**
+     * Number of threads used to parse the files of a directory.
+     */
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
 
     /**
      * Constructor
      * @param walkGenerator Walk Generator to be used.
      */
     public NxMemoryParser(WalkGenerator walkGenerator){
+        this(walkGenerator, new TripleDataSetMemory());
+    }
+
+    /**
+     * Constructor
+     * @param walkGenerator Walk Generator to be used.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public NxMemoryParser(WalkGenerator walkGenerator, TripleDataSet data){
         this.specificWalkGenerator = walkGenerator;
-        data = new TripleDataSetMemory();
+        this.data = data;
     }
 
     /**
@@ -50,34 +71,177 @@ public class NxMemoryParser extends MemoryParser {
         readNtriples(nTripleFile);
     }
 
+    /**
+     * Constructor
+     * @param nTripleFile File to be parsed.
+     * @param specificWalkGenerator Walk Generator to be used.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public NxMemoryParser(File nTripleFile, WalkGenerator specificWalkGenerator, TripleDataSet data){
+        this(specificWalkGenerator, data);
+        readNtriples(nTripleFile);
+    }
 
+
+    /**
+     * Read the given file or directory into memory. Supported are N-Triples files ({@code .nt}, {@code .ttl}) and
+     * gzipped files ({@code .gz}). The files of a directory are parsed in parallel (see
+     * {@link NxMemoryParser#readNtriplesFromDirectory(File)}).
+     *
+     * @param fileToReadFrom File or directory.
+     * @throws RuntimeException If a single file cannot be parsed (e.g. because of a malformed line) or read
+     * ({@link UncheckedIOException}); the statements read until then remain in the data set. For a directory, see
+     * {@link NxMemoryParser#readNtriplesFromDirectory(File)}.
+     */
     public void readNtriples(File fileToReadFrom){
         if (!fileToReadFrom.exists()) {
             LOGGER.error("File does not exist. Cannot parse.");
             return;
         }
+        if (fileToReadFrom.isDirectory()) {
+            readNtriplesFromDirectory(fileToReadFrom);
+        } else if (isSupportedFile(fileToReadFrom)) {
+            readNtriplesFile(fileToReadFrom);
+        } else {
+            LOGGER.error("File " + fileToReadFrom.getName() + " is not supported (expected: .nt, .ttl, or .gz). Cannot parse.");
+        }
+    }
 
-        if(fileToReadFrom.getName().endsWith(".nt") || fileToReadFrom.getName().endsWith(".ttl")){
-            NxParser parser = new NxParser();
-            try {
-                parser.parse(new FileInputStream(fileToReadFrom));
-
-                String subject, predicate, object;
-                for (Node[] nx : parser) {
-                    if(nx[2].toString().startsWith("\"")) continue;
-                    subject = specificWalkGenerator.shortenUri(removeTags(nx[0].toString()));
-                    predicate = specificWalkGenerator.shortenUri(removeTags(nx[1].toString()));
-                    object = specificWalkGenerator.shortenUri(removeTags(nx[2].toString()));
-                    data.add(subject, predicate, object);
+    /**
+     * Read all supported files of the given directory into memory. The files are parsed in parallel (one file per
+     * thread, see {@link NxMemoryParser#setNumberOfThreads(int)}), largest first (see {@link LoadScheduler}), into the
+     * same data set. The indexes are built once all files are read.
+     *
+     * @param directory The directory.
+     * @throws IllegalStateException If a file could not be parsed or read. Failures are logged and the other files are
+     * loaded nevertheless (see {@link LoadScheduler}); the indexes are not built and the statements read until then
+     * remain in the data set.
+     */
+    public void readNtriplesFromDirectory(File directory){
+        List<File> files = new ArrayList<>();
+        File[] directoryFiles = directory.listFiles();
+        if (directoryFiles != null) {
+            for (File file : directoryFiles) {
+                if (file.isFile() && isSupportedFile(file)) {
+                    files.add(file);
+                } else {
+                    LOGGER.info("Skipping file: " + file.getName());
                 }
-            } catch (FileNotFoundException fnfe){
-                LOGGER.error("Could not find file " + fileToReadFrom.getAbsolutePath(), fnfe);
             }
         }
+        if (files.isEmpty()) {
+            LOGGER.error("No files to parse in directory " + directory.getAbsolutePath());
+            return;
+        }
+        if (data.getSize() == 0) {
+            GraphSizeEstimate estimate = GraphSizeEstimator.estimate(files);
+            if (estimate != null) data.presize(estimate);
+        }
 
+        List<LoadScheduler.FileStatistics> statistics;
+        startLoad(files);
+        try {
+            statistics = new LoadScheduler(numberOfThreads).load(files, this::readNtriplesFile);
+        } finally {
+            finishLoad();
+        }
+        List<String> failedFiles = new ArrayList<>();
+        for (LoadScheduler.FileStatistics file : statistics) {
+            if (file.isFailed()) failedFiles.add(file.getFile().getName());
+        }
+        if (!failedFiles.isEmpty()) {
+            throw new IllegalStateException("Could not parse the files " + failedFiles + " of directory " + directory.getAbsolutePath());
+        }
+        LOGGER.info("Data read. Building indexes.");
+        data.compile();
+        LOGGER.info("Indexes built.");
+        logMemoryReport();
+    }
 
+    /**
+     * Read a single (potentially gzipped) file into memory. The NxParser does not report malformed lines, so the load
+     * metrics count statements as lines and literals as skipped statements.
+     *
+     * @param fileToReadFrom The file.
+     * @throws UncheckedIOException If the file cannot be read.
+     * @throws RuntimeException If the file cannot be parsed; the statements read until then remain in the data set.
+     */
+    private void readNtriplesFile(File fileToReadFrom){
+        LOGGER.info("Parsing file " + fileToReadFrom.getName());
+        LoadMetrics.FileMetrics metrics = startFile(fileToReadFrom);
+        long statementNumber = 0;
+        long accepted = 0; // not yet added to the metrics
+        try (InputStream in = open(fileToReadFrom, metrics)) {
+            NxParser parser = new NxParser();
+            parser.parse(in);
+
+            String subject, predicate, object;
+            for (Node[] nx : parser) {
+                if(++statementNumber % METRICS_LINES == 0) {
+                    metrics.addLines(METRICS_LINES);
+                    metrics.addAccepted(accepted);
+                    accepted = 0;
+                    if(statementNumber % MEMORY_CHECK_LINES == 0) logMemoryReportIfDue();
+                }
+                if(nx[2].toString().startsWith("\"")) {
+                    metrics.addRejectedBySkipCondition();
+                    continue;
+                }
+                subject = specificWalkGenerator.shortenUri(removeTags(nx[0].toString()));
+                predicate = specificWalkGenerator.shortenUri(removeTags(nx[1].toString()));
+                object = specificWalkGenerator.shortenUri(removeTags(nx[2].toString()));
+                data.add(subject, predicate, object);
+                accepted++;
+            }
+            LOGGER.info("File " + fileToReadFrom.getName() + " successfully read.");
+        } catch (IOException e){
+            metrics.addRejectedByException();
+            throw new UncheckedIOException("Could not read file " + fileToReadFrom.getAbsolutePath(), e);
+        } catch (RuntimeException e){
+            metrics.addRejectedByException();
+            throw e;
+        } finally {
+            metrics.addLines(statementNumber % METRICS_LINES);
+            metrics.addAccepted(accepted);
+            finishFile(metrics);
+        }
     }
 
+    /**
+     * Open the given file for reading; gzipped files are decompressed.
+     *
+     * @param file The file.
+     * @param metrics Metrics of the file (the bytes on disk are counted).
+     * @return Input stream.
+     * @throws IOException If the file cannot be opened.
+     */
+    private static InputStream open(File file, LoadMetrics.FileMetrics metrics) throws IOException {
+        InputStream in = metrics.count(new FileInputStream(file));
+        if (file.getName().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        return in;
+    }
+
+    /**
+     * Check whether the given file can be parsed.
+     *
+     * @param file The file.
+     * @return True for N-Triples files and gzipped files.
+     */
+    static boolean isSupportedFile(File file){
+        String name = file.getName();
+        return name.endsWith(".nt") || name.endsWith(".ttl") || name.endsWith(".gz");
+    }
 
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
 
+    /**
+     * @param numberOfThreads Number of threads used to parse the files of a directory.
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
 }
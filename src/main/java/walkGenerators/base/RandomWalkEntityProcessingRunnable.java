@@ -64,6 +64,10 @@ public class RandomWalkEntityProcessingRunnable implements Runnable {
      * This method generates the random walks for each entity.
      */
     private void processEntity() {
+        if (walkGenerator.parser instanceof MemoryParser && ((MemoryParser) walkGenerator.parser).isIdBased()) {
+            finalList.addAll(((MemoryParser) walkGenerator.parser).generateRandomWalksForEntityIdBased(entity, numberOfWalks, walkLength));
+            return;
+        }
         int currentDepth;
         String currentWalk;
         int currentWalkNumber = 0;
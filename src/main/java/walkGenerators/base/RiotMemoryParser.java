@@ -0,0 +1,221 @@
+package walkGenerators.base;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import walkGenerators.dataStructure.IdTripleDataSet;
+import walkGenerators.dataStructure.StringPool;
+import walkGenerators.dataStructure.TripleDataSet;
+import walkGenerators.dataStructure.TripleDataSetMemory;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Parser for all RDF serializations supported by Jena RIOT (e.g. Turtle and RDF/XML). The statements are streamed
+ * from the RIOT parser into the {@link TripleDataSet}; no Jena model is built. Like {@link NxMemoryParser},
+ * statements with literal objects are skipped. Blank nodes are represented as {@code _:label}.
+ */
+public class RiotMemoryParser extends MemoryParser {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RiotMemoryParser.class);
+
+    /**
+     * De-duplicates the Strings of the current file if the data set is not dictionary-encoded (null otherwise).
+     */
+    private volatile StringPool stringPool;
+
+    /**
+     * Constructor
+     * @param walkGenerator Walk Generator to be used.
+     */
+    public RiotMemoryParser(WalkGenerator walkGenerator){
+        this(walkGenerator, new TripleDataSetMemory());
+    }
+
+    /**
+     * Constructor
+     * @param walkGenerator Walk Generator to be used.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public RiotMemoryParser(WalkGenerator walkGenerator, TripleDataSet data){
+        this.specificWalkGenerator = walkGenerator;
+        this.data = data;
+    }
+
+    /**
+     * Constructor
+     * @param rdfFile File to be parsed.
+     * @param lang Serialization of the file.
+     * @param walkGenerator Walk Generator to be used.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public RiotMemoryParser(File rdfFile, Lang lang, WalkGenerator walkGenerator, TripleDataSet data){
+        this(walkGenerator, data);
+        readRdf(rdfFile, lang);
+    }
+
+    /**
+     * Read the given file into memory. The serialization is derived from the file extension (a trailing {@code .gz}
+     * is ignored).
+     *
+     * @param fileToReadFrom The file.
+     * @throws UncheckedIOException If the file cannot be read.
+     * @throws RuntimeException If the file cannot be parsed.
+     */
+    public void readRdf(File fileToReadFrom){
+        String name = fileToReadFrom.getName();
+        if (name.endsWith(".gz")) name = name.substring(0, name.length() - 3);
+        Lang lang = RDFLanguages.filenameToLang(name);
+        if (lang == null) {
+            LOGGER.error("Could not determine the RDF serialization of file " + fileToReadFrom.getName() + ". Cannot parse.");
+            return;
+        }
+        readRdf(fileToReadFrom, lang);
+    }
+
+    /**
+     * Read the given file into memory. Gzipped files ({@code .gz}) are decompressed while parsing.
+     *
+     * @param fileToReadFrom The file.
+     * @param lang Serialization of the file.
+     * @throws UncheckedIOException If the file cannot be read.
+     * @throws RuntimeException If the file cannot be parsed (RIOT stops at the first syntax error); the statements
+     * read until then remain in the data set, so it must not be used for walk generation.
+     */
+    public void readRdf(File fileToReadFrom, Lang lang){
+        if (!fileToReadFrom.exists()) {
+            LOGGER.error("File does not exist. Cannot parse.");
+            return;
+        }
+        stringPool = data instanceof IdTripleDataSet ? null : new StringPool();
+        LoadMetrics.FileMetrics metrics = startFile(fileToReadFrom);
+        StatementSink sink = new StatementSink(stringPool, metrics);
+        try (InputStream in = open(fileToReadFrom, metrics)) {
+            RDFDataMgr.parse(sink, in, lang);
+            LOGGER.info("File " + fileToReadFrom.getName() + " successfully read (" + lang.getLabel() + "). "
+                    + sink.numberOfStatements + " statements, " + sink.numberOfSkippedStatements + " with literals skipped.");
+        } catch (IOException e) {
+            metrics.addRejectedByException();
+            throw new UncheckedIOException("Could not read file " + fileToReadFrom.getAbsolutePath(), e);
+        } catch (RuntimeException e) {
+            // RIOT stops at the first syntax error
+            metrics.addRejectedAsMalformed();
+            LOGGER.error("Could not parse file " + fileToReadFrom.getAbsolutePath() + ". The data set is incomplete.");
+            throw e;
+        } finally {
+            sink.flushMetrics();
+            finishFile(metrics);
+            stringPool = null;
+        }
+    }
+
+    /**
+     * The String pool of the current file (nodes and predicates) is measured for data sets that are not
+     * dictionary-encoded.
+     *
+     * @return Number of entries.
+     */
+    @Override
+    long getDictionarySize() {
+        if (data instanceof IdTripleDataSet) return super.getDictionarySize();
+        StringPool pool = stringPool;
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * Open the given file for reading; gzipped files are decompressed.
+     *
+     * @param file The file.
+     * @param metrics Metrics of the file (the bytes on disk are counted).
+     * @return Input stream.
+     * @throws IOException If the file cannot be opened.
+     */
+    private static InputStream open(File file, LoadMetrics.FileMetrics metrics) throws IOException {
+        InputStream in = metrics.count(new FileInputStream(file));
+        if (file.getName().endsWith(".gz")) {
+            return new GZIPInputStream(in, 1 << 16);
+        }
+        return new BufferedInputStream(in, 1 << 16);
+    }
+
+    /**
+     * Receives the statements from the RIOT parser and adds them to {@link MemoryParser#data}. Statements are counted
+     * as lines in the load metrics.
+     */
+    private class StatementSink extends StreamRDFBase {
+
+        /**
+         * De-duplicates the Strings of data sets that are not dictionary-encoded (null otherwise).
+         */
+        private final StringPool pool;
+
+        private final LoadMetrics.FileMetrics metrics;
+
+        private long numberOfStatements = 0;
+
+        private long numberOfSkippedStatements = 0;
+
+        private long numberOfAddedStatements = 0;
+
+        /**
+         * Number of statements and of added statements that are already counted in the metrics.
+         */
+        private long numberOfCountedStatements = 0;
+
+        private long numberOfCountedAddedStatements = 0;
+
+        StatementSink(StringPool pool, LoadMetrics.FileMetrics metrics) {
+            this.pool = pool;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            if (++numberOfStatements % METRICS_LINES == 0) {
+                flushMetrics();
+                if (numberOfStatements % MEMORY_CHECK_LINES == 0) logMemoryReportIfDue();
+            }
+            if (triple.getObject().isLiteral()) {
+                numberOfSkippedStatements++;
+                metrics.addRejectedBySkipCondition();
+                return;
+            }
+            data.add(toString(triple.getSubject()), toString(triple.getPredicate()), toString(triple.getObject()));
+            numberOfAddedStatements++;
+        }
+
+        /**
+         * Add the statements that were received since the last call to the metrics.
+         */
+        void flushMetrics() {
+            metrics.addLines(numberOfStatements - numberOfCountedStatements);
+            metrics.addAccepted(numberOfAddedStatements - numberOfCountedAddedStatements);
+            numberOfCountedStatements = numberOfStatements;
+            numberOfCountedAddedStatements = numberOfAddedStatements;
+        }
+
+        /**
+         * Convert a node (IRI or blank node) into the String that is stored.
+         * @param node The node.
+         * @return Shortened IRI or {@code _:label}.
+         */
+        private String toString(Node node) {
+            String value = node.isBlank() ? "_:" + node.getBlankNodeLabel() : specificWalkGenerator.shortenUri(node.getURI());
+            return pool == null ? value : pool.canonicalize(value);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package walkGenerators.base;
+
+import scripts.IsearchCondition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Declarative skip condition for N-Triples statements. The filter is evaluated on the raw UTF-8 bytes of a line before
+ * the line is tokenized (see {@link NTriplesTokenizer#isSkipped(StatementFilter)}), so rejected lines cost one pass over
+ * their bytes and no Strings. A line is skipped if
+ * <ul>
+ *     <li>it is empty or a comment,</li>
+ *     <li>it contains a literal and literals are skipped,</li>
+ *     <li>it contains a denied pattern (anywhere in the line),</li>
+ *     <li>its predicate is denied or, if there are allowed predicates, not allowed,</li>
+ *     <li>its subject or its (IRI) object is in a denied namespace or, if there are allowed namespaces, not in an
+ *     allowed namespace.</li>
+ * </ul>
+ * Predicates and namespaces are given as full IRIs without tags and are matched before the URIs are shortened. Blank
+ * nodes can be addressed via the namespace {@code _:}.
+ *
+ * The lists are compiled into {@link ByteMatcher}s upon the first use after a change. Configure the filter before
+ * parsing; evaluating the filter is thread-safe.
+ */
+public class StatementFilter implements IsearchCondition {
+
+    private boolean isSkipLiterals = true;
+
+    private final TreeSet<String> deniedPatterns = new TreeSet<>();
+
+    private final TreeSet<String> deniedPredicates = new TreeSet<>();
+
+    private final TreeSet<String> allowedPredicates = new TreeSet<>();
+
+    private final TreeSet<String> deniedNamespaces = new TreeSet<>();
+
+    private final TreeSet<String> allowedNamespaces = new TreeSet<>();
+
+    /**
+     * The compiled lists (null if the filter was changed since the last compilation).
+     */
+    private volatile CompiledFilter compiled;
+
+    /**
+     * @param skipLiterals True if statements with literals shall be skipped (default: true).
+     */
+    public synchronized void setSkipLiterals(boolean skipLiterals) {
+        this.isSkipLiterals = skipLiterals;
+        compiled = null;
+    }
+
+    public boolean isSkipLiterals() {
+        return isSkipLiterals;
+    }
+
+    /**
+     * Skip all lines that contain the given pattern.
+     * @param pattern The pattern (a plain String, no regular expression).
+     */
+    public void addDeniedPattern(String pattern) {
+        add(deniedPatterns, pattern);
+    }
+
+    /**
+     * Skip all statements with the given predicate.
+     * @param predicate The predicate IRI.
+     */
+    public void addDeniedPredicate(String predicate) {
+        add(deniedPredicates, predicate);
+    }
+
+    /**
+     * Skip all statements whose predicate is not allowed (once at least one predicate is allowed).
+     * @param predicate The predicate IRI.
+     */
+    public void addAllowedPredicate(String predicate) {
+        add(allowedPredicates, predicate);
+    }
+
+    /**
+     * Skip all statements whose subject or object starts with the given namespace.
+     * @param namespace The namespace (IRI prefix).
+     */
+    public void addDeniedNamespace(String namespace) {
+        add(deniedNamespaces, namespace);
+    }
+
+    /**
+     * Skip all statements whose subject or (IRI) object does not start with an allowed namespace (once at least one
+     * namespace is allowed).
+     * @param namespace The namespace (IRI prefix).
+     */
+    public void addAllowedNamespace(String namespace) {
+        add(allowedNamespaces, namespace);
+    }
+
+    private synchronized void add(Collection<String> list, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Filter entries must not be empty.");
+        }
+        list.add(value);
+        compiled = null;
+    }
+
+    /**
+     * Check whether the given line shall be skipped.
+     * @param input The line.
+     * @return True if the line shall be skipped.
+     */
+    @Override
+    public boolean isHit(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        return isHit(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Check whether the given line shall be skipped.
+     * @param bytes Buffer holding the UTF-8 bytes of the line.
+     * @param start Start of the line (inclusive).
+     * @param end End of the line (exclusive, without line terminator).
+     * @return True if the line shall be skipped.
+     */
+    public boolean isHit(byte[] bytes, int start, int end) {
+        CompiledFilter filter = getCompiled();
+
+        // subject
+        int position = skipSpaces(bytes, start, end);
+        if (position == end || bytes[position] == '#') return true; // empty line or comment
+        if (filter.isSkipLiterals && containsLiteral(bytes, position, end)) return true;
+        if (filter.deniedPatterns != null && filter.deniedPatterns.containsAny(bytes, position, end)) return true;
+        int termEnd = nextSpace(bytes, position, end);
+        if (!isAllowedNode(filter, bytes, position, termEnd)) return true;
+
+        // predicate
+        position = skipSpaces(bytes, termEnd, end);
+        termEnd = nextSpace(bytes, position, end);
+        if (filter.deniedPredicates != null || filter.allowedPredicates != null) {
+            int iriStart = position;
+            int iriEnd = termEnd;
+            if (iriStart < iriEnd && bytes[iriStart] == '<') iriStart++;
+            if (iriStart < iriEnd && bytes[iriEnd - 1] == '>') iriEnd--;
+            if (filter.deniedPredicates != null && filter.deniedPredicates.matchesExactly(bytes, iriStart, iriEnd)) return true;
+            if (filter.allowedPredicates != null && !filter.allowedPredicates.matchesExactly(bytes, iriStart, iriEnd)) return true;
+        }
+
+        // object (literals have no namespace)
+        position = skipSpaces(bytes, termEnd, end);
+        if (position < end && bytes[position] == '"') return false;
+        return !isAllowedNode(filter, bytes, position, nextSpace(bytes, position, end));
+    }
+
+    /**
+     * Check the namespace lists for a subject or object.
+     * @param filter The compiled filter.
+     * @param bytes The input.
+     * @param start Start of the term (including the tag).
+     * @param end End of the term.
+     * @return True if the node passes the namespace lists.
+     */
+    private static boolean isAllowedNode(CompiledFilter filter, byte[] bytes, int start, int end) {
+        if (start < end && bytes[start] == '<') start++;
+        if (filter.deniedNamespaces != null && filter.deniedNamespaces.matchesPrefix(bytes, start, end)) return false;
+        return filter.allowedNamespaces == null || filter.allowedNamespaces.matchesPrefix(bytes, start, end);
+    }
+
+    private static int skipSpaces(byte[] bytes, int position, int end) {
+        while (position < end && (bytes[position] & 0xFF) <= ' ') position++;
+        return position;
+    }
+
+    private static int nextSpace(byte[] bytes, int position, int end) {
+        while (position < end && bytes[position] != ' ' && bytes[position] != '\t') position++;
+        return position;
+    }
+
+    /**
+     * Check whether the range contains a literal (i.e., at least two quotes).
+     * @param bytes The input.
+     * @param start Start (inclusive).
+     * @param end End (exclusive).
+     * @return True if there is a literal.
+     */
+    private static boolean containsLiteral(byte[] bytes, int start, int end) {
+        boolean isQuoteFound = false;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == '"') {
+                if (isQuoteFound) return true;
+                isQuoteFound = true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtain the compiled lists (they are compiled if the filter was changed).
+     * @return Compiled filter.
+     */
+    private CompiledFilter getCompiled() {
+        CompiledFilter result = compiled;
+        if (result == null) {
+            synchronized (this) {
+                result = compiled;
+                if (result == null) {
+                    result = new CompiledFilter(this);
+                    compiled = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Description of the filter (e.g. to check whether a cache was built with the same filter).
+     * @return Description.
+     */
+    @Override
+    public synchronized String toString() {
+        List<String> parts = new ArrayList<>();
+        parts.add("literals=" + (isSkipLiterals ? "skip" : "keep"));
+        if (!deniedPatterns.isEmpty()) parts.add("deniedPatterns=" + deniedPatterns);
+        if (!deniedPredicates.isEmpty()) parts.add("deniedPredicates=" + deniedPredicates);
+        if (!allowedPredicates.isEmpty()) parts.add("allowedPredicates=" + allowedPredicates);
+        if (!deniedNamespaces.isEmpty()) parts.add("deniedNamespaces=" + deniedNamespaces);
+        if (!allowedNamespaces.isEmpty()) parts.add("allowedNamespaces=" + allowedNamespaces);
+        return "StatementFilter" + parts;
+    }
+
+    /**
+     * Immutable snapshot of the filter lists; a matcher is null if its list is empty.
+     */
+    private static class CompiledFilter {
+        final boolean isSkipLiterals;
+        final ByteMatcher deniedPatterns;
+        final ByteMatcher deniedPredicates;
+        final ByteMatcher allowedPredicates;
+        final ByteMatcher deniedNamespaces;
+        final ByteMatcher allowedNamespaces;
+
+        CompiledFilter(StatementFilter filter) {
+            isSkipLiterals = filter.isSkipLiterals;
+            deniedPatterns = compile(filter.deniedPatterns);
+            deniedPredicates = compile(filter.deniedPredicates);
+            allowedPredicates = compile(filter.allowedPredicates);
+            deniedNamespaces = compile(filter.deniedNamespaces);
+            allowedNamespaces = compile(filter.allowedNamespaces);
+        }
+
+        private static ByteMatcher compile(Collection<String> list) {
+            return list.isEmpty() ? null : new ByteMatcher(list);
+        }
+    }
+}
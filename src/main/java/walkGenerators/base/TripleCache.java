@@ -0,0 +1,409 @@
+package walkGenerators.base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import walkGenerators.dataStructure.StringPool;
+import walkGenerators.dataStructure.TripleDataSet;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary cache of a parsed N-Triples file (the "optimized" file of {@link NtMemoryParser}). The statements are stored
+ * after tokenization, tag removal, and URI shortening, so reloading is a sequential read without any parsing.
+ *
+ * Layout:
+ * <ul>
+ *     <li>Header: magic number, format version, parser configuration (e.g. the URI shortener in use), size and
+ *     modification time of the source file, number of terms, number of triples.</li>
+ *     <li>Body: the dictionary (each term as varint byte length followed by its UTF-8 bytes, the ID is the position)
+ *     followed by the triples (three varint term IDs each).</li>
+ *     <li>Trailer: CRC32 checksum of the body.</li>
+ * </ul>
+ * A cache is only used if the configuration and the source file match and the checksum is correct; otherwise the
+ * source file has to be parsed again.
+ */
+public class TripleCache {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripleCache.class);
+
+    /**
+     * Magic number at the beginning of a cache file.
+     */
+    private static final int MAGIC = 0x4B475443;
+
+    /**
+     * Version of the binary format. Increase upon incompatible changes.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Writes a cache file. The triples are written to a temporary file first; upon {@link Writer#close()}, the cache
+     * file is assembled (header, dictionary, triples, checksum) and moved to its final location so that incomplete
+     * caches are never picked up. The dictionary of the file is kept in memory while writing.
+     * Instances are not thread-safe.
+     */
+    public static class Writer implements Closeable {
+
+        private final File cacheFile;
+        private final File sourceFile;
+        private final String configuration;
+
+        /**
+         * Temporary file for the triple section.
+         */
+        private final File triplesFile;
+
+        private final OutputStream triples;
+
+        /**
+         * ID of each term.
+         */
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        /**
+         * Terms in the order of their IDs.
+         */
+        private final List<String> terms = new ArrayList<>();
+
+        private long numberOfTriples = 0;
+
+        /**
+         * Constructor
+         * @param cacheFile The cache file to be written (an existing file is replaced upon {@link Writer#close()}).
+         * @param sourceFile The N-Triples file from which the statements are parsed.
+         * @param configuration Parser configuration (see {@link NtMemoryParser#getCacheConfiguration()}).
+         * @throws IOException If the temporary file cannot be created.
+         */
+        public Writer(File cacheFile, File sourceFile, String configuration) throws IOException {
+            this.cacheFile = cacheFile;
+            this.sourceFile = sourceFile;
+            this.configuration = configuration;
+            File directory = cacheFile.getAbsoluteFile().getParentFile();
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Could not create cache directory " + directory.getAbsolutePath());
+            }
+            triplesFile = new File(directory, cacheFile.getName() + ".triples.tmp");
+            triples = new BufferedOutputStream(new FileOutputStream(triplesFile), 1 << 16);
+        }
+
+        /**
+         * Add a statement.
+         * @param subject Subject.
+         * @param predicate Predicate.
+         * @param object Object.
+         * @throws IOException In case of write errors.
+         */
+        public void add(String subject, String predicate, String object) throws IOException {
+            writeVarLong(triples, getId(subject));
+            writeVarLong(triples, getId(predicate));
+            writeVarLong(triples, getId(object));
+            numberOfTriples++;
+        }
+
+        private int getId(String term) {
+            Integer id = ids.get(term);
+            if (id == null) {
+                id = terms.size();
+                ids.put(term, id);
+                terms.add(term);
+            }
+            return id;
+        }
+
+        @Override
+        public void close() throws IOException {
+            triples.close();
+            File temporaryFile = new File(triplesFile.getParentFile(), cacheFile.getName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(configuration);
+                out.writeLong(sourceFile.length());
+                out.writeLong(sourceFile.lastModified());
+                out.writeInt(terms.size());
+                out.writeLong(numberOfTriples);
+
+                CRC32 crc = new CRC32();
+                for (String term : terms) {
+                    byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+                    byte[] length = varLong(bytes.length);
+                    crc.update(length);
+                    crc.update(bytes);
+                    out.write(length);
+                    out.write(bytes);
+                }
+                try (InputStream in = new FileInputStream(triplesFile)) {
+                    byte[] buffer = new byte[1 << 16];
+                    int read;
+                    while ((read = in.read(buffer)) >= 0) {
+                        crc.update(buffer, 0, read);
+                        out.write(buffer, 0, read);
+                    }
+                }
+                out.writeLong(crc.getValue());
+            } finally {
+                triplesFile.delete();
+            }
+            Files.move(temporaryFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Cache " + cacheFile.getName() + " written: " + numberOfTriples + " triples, " + terms.size() + " terms.");
+        }
+    }
+
+    /**
+     * Load the given cache file into the data set if it is valid for the given source file and configuration.
+     * The checksum is verified before anything is added.
+     * @param cacheFile The cache file.
+     * @param sourceFile The N-Triples file from which the cache was written.
+     * @param configuration Parser configuration (see {@link NtMemoryParser#getCacheConfiguration()}).
+     * @param data Data set to which the triples are added.
+     * @return True if the cache was loaded, false if the cache is invalid or outdated (nothing is added then).
+     */
+    public static boolean read(File cacheFile, File sourceFile, String configuration, TripleDataSet data) {
+        return read(cacheFile, sourceFile, configuration, data, null);
+    }
+
+    /**
+     * See {@link TripleCache#read(File, File, String, TripleDataSet)}.
+     * @param cacheFile The cache file.
+     * @param sourceFile The N-Triples file from which the cache was written.
+     * @param configuration Parser configuration (see {@link NtMemoryParser#getCacheConfiguration()}).
+     * @param data Data set to which the triples are added.
+     * @param pool Pool for the de-duplication of the terms across files (null if not required).
+     * @return True if the cache was loaded, false if the cache is invalid or outdated (nothing is added then).
+     */
+    public static boolean read(File cacheFile, File sourceFile, String configuration, TripleDataSet data, StringPool pool) {
+        try (CacheInput in = new CacheInput(new FileInputStream(cacheFile))) {
+            DataInputStream header = new DataInputStream(in);
+            if (!isHeaderValid(header, cacheFile, sourceFile, configuration)) return false;
+            int numberOfTerms = header.readInt();
+            long numberOfTriples = header.readLong();
+            if (!isChecksumValid(cacheFile, in.getPosition())) {
+                LOGGER.warn("Cache " + cacheFile.getName() + " is corrupt (checksum mismatch).");
+                return false;
+            }
+
+            String[] terms = new String[numberOfTerms];
+            for (int i = 0; i < numberOfTerms; i++) {
+                terms[i] = in.readString((int) in.readVarLong());
+                if (pool != null) terms[i] = pool.canonicalize(terms[i]);
+            }
+            for (long i = 0; i < numberOfTriples; i++) {
+                data.add(terms[(int) in.readVarLong()], terms[(int) in.readVarLong()], terms[(int) in.readVarLong()]);
+            }
+            LOGGER.info("Cache " + cacheFile.getName() + " read: " + numberOfTriples + " triples.");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Could not read cache " + cacheFile.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Check whether the given cache file was written for the given source file and configuration. Only the header is
+     * read, the checksum is verified upon {@link TripleCache#read(File, File, String, TripleDataSet)}.
+     * @param cacheFile The cache file.
+     * @param sourceFile The N-Triples file from which the cache was written.
+     * @param configuration Parser configuration (see {@link NtMemoryParser#getCacheConfiguration()}).
+     * @return True if the cache matches the source file and the configuration.
+     */
+    public static boolean isUpToDate(File cacheFile, File sourceFile, String configuration) {
+        if (!cacheFile.isFile()) return false;
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            return isHeaderValid(header, cacheFile, sourceFile, configuration);
+        } catch (IOException e) {
+            LOGGER.error("Could not read cache " + cacheFile.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Read the header of a cache file up to the source file attributes and compare it with the given source file and
+     * configuration.
+     * @param header Stream positioned at the beginning of the cache file.
+     * @param cacheFile The cache file.
+     * @param sourceFile The N-Triples file from which the cache was written.
+     * @param configuration Parser configuration.
+     * @return True if the header matches.
+     * @throws IOException If the header cannot be read.
+     */
+    private static boolean isHeaderValid(DataInputStream header, File cacheFile, File sourceFile, String configuration) throws IOException {
+        if (cacheFile.length() < 8 || header.readInt() != MAGIC) {
+            LOGGER.warn("File " + cacheFile.getName() + " is not a cache file.");
+            return false;
+        }
+        int version = header.readInt();
+        if (version != FORMAT_VERSION) {
+            LOGGER.warn("Cache version " + version + " of " + cacheFile.getName() + " is not supported (expected: " + FORMAT_VERSION + ").");
+            return false;
+        }
+        if (!configuration.equals(header.readUTF())) {
+            LOGGER.warn("Cache " + cacheFile.getName() + " was written with a different parser configuration (e.g. URI shortener).");
+            return false;
+        }
+        if (header.readLong() != sourceFile.length() || header.readLong() != sourceFile.lastModified()) {
+            LOGGER.warn("Cache " + cacheFile.getName() + " is outdated: the source file " + sourceFile.getName() + " changed.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compare the CRC32 checksum of the body with the one stored in the trailer.
+     * @param cacheFile The cache file.
+     * @param bodyStart Position of the body.
+     * @return True if the checksum matches.
+     * @throws IOException If the file cannot be read.
+     */
+    private static boolean isChecksumValid(File cacheFile, long bodyStart) throws IOException {
+        try (FileChannel channel = new RandomAccessFile(cacheFile, "r").getChannel()) {
+            long bodyEnd = channel.size() - 8;
+            if (bodyEnd < bodyStart) return false;
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            long position = bodyStart;
+            while (position < bodyEnd) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), bodyEnd - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) return false;
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(8);
+            channel.read(trailer, bodyEnd);
+            trailer.flip();
+            return trailer.remaining() == 8 && trailer.getLong() == crc.getValue();
+        }
+    }
+
+    /**
+     * Encode a non-negative value as varint (7 bits per byte, least significant group first).
+     * @param value Value.
+     * @return Encoded bytes.
+     */
+    private static byte[] varLong(long value) {
+        byte[] result = new byte[10];
+        int length = 0;
+        while ((value & ~0x7FL) != 0) {
+            result[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        result[length++] = (byte) value;
+        byte[] trimmed = new byte[length];
+        System.arraycopy(result, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    /**
+     * Write a non-negative value as varint.
+     * @param out Target.
+     * @param value Value.
+     * @throws IOException In case of write errors.
+     */
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Buffered input that decodes varints and strings directly from its buffer.
+     */
+    private static class CacheInput extends InputStream {
+
+        private final InputStream in;
+        private byte[] buffer = new byte[1 << 16];
+        private int position;
+        private int limit;
+
+        /**
+         * Number of bytes consumed before the current buffer.
+         */
+        private long bufferStart;
+
+        CacheInput(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Make sure that the given number of bytes is buffered.
+         * @param numberOfBytes Number of bytes.
+         * @throws IOException If the input ends before.
+         */
+        private void require(int numberOfBytes) throws IOException {
+            if (limit - position >= numberOfBytes) return;
+            if (numberOfBytes > buffer.length) {
+                byte[] enlarged = new byte[Math.max(numberOfBytes, buffer.length * 2)];
+                System.arraycopy(buffer, position, enlarged, 0, limit - position);
+                buffer = enlarged;
+            } else {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+            }
+            bufferStart += position;
+            limit -= position;
+            position = 0;
+            while (limit < numberOfBytes) {
+                int read = in.read(buffer, limit, buffer.length - limit);
+                if (read < 0) throw new EOFException();
+                limit += read;
+            }
+        }
+
+        long getPosition() {
+            return bufferStart + position;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position == limit) require(1);
+                b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        String readString(int length) throws IOException {
+            require(length);
+            String result = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return result;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit) {
+                try {
+                    require(1);
+                } catch (EOFException e) {
+                    return -1;
+                }
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
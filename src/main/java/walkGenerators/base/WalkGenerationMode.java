@@ -1,5 +1,7 @@
 package walkGenerators.base;
 
+import walkGenerators.dataStructure.IndexProfile;
+
 /**
  * Generation Mode
  */
@@ -40,6 +42,19 @@ public enum WalkGenerationMode {
         }
     }
 
+    /**
+     * Obtain the indexes that the triple data set requires for this mode.
+     * @return Index profile.
+     */
+    public IndexProfile getIndexProfile(){
+        switch (this){
+            case MID_WITH_DUPLICATES:
+                return IndexProfile.SUBJECT_OBJECT;
+            default:
+                return IndexProfile.SUBJECT;
+        }
+    }
+
     /**
      * Obtain all available options.
      * @return String of options, pipe separated.
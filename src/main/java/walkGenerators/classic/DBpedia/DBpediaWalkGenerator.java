@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 import walkGenerators.base.DuplicateFreeWalkEntityProcessingRunnable;
 import walkGenerators.base.NtMemoryParser;
 import walkGenerators.base.WalkGenerator;
+import walkGenerators.dataStructure.TripleDataSet;
+import walkGenerators.dataStructure.TripleDataSetMemory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -30,12 +32,22 @@ public class DBpediaWalkGenerator extends WalkGenerator {
      * @param pathToDirectory Path to unzipped (!) DBpedia 2016-10 files.
      */
     public DBpediaWalkGenerator(String pathToDirectory){
+        this(pathToDirectory, new TripleDataSetMemory());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pathToDirectory Path to unzipped (!) DBpedia 2016-10 files.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public DBpediaWalkGenerator(String pathToDirectory, TripleDataSet data){
         File resourcesDirectory = new File(pathToDirectory);
         if(!resourcesDirectory.isDirectory()){
             LOGGER.error("Resources directory is not a directory. ABORTING.");
             return;
         }
-        this.parser = new NtMemoryParser(this);
+        this.parser = new NtMemoryParser(this, data);
 
         for(File f : resourcesDirectory.listFiles()){
             // labels file handling
@@ -58,6 +70,10 @@ public class DBpediaWalkGenerator extends WalkGenerator {
             //    e.printStackTrace();
             //}
         }
+        if(data.getSize() > 0){
+            LOGGER.info("The data set is already loaded (e.g. from a snapshot). Skipping parsing.");
+            return;
+        }
         ((NtMemoryParser)this.parser).readNtTriplesFromDirectoryMultiThreaded(pathToDirectory, true);
     }
 
@@ -1,15 +1,19 @@
 package walkGenerators.classic;
 
-import org.apache.jena.ontology.OntModel;
+import org.apache.jena.riot.Lang;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import walkGenerators.base.*;
+import walkGenerators.dataStructure.HdtImporter;
+import walkGenerators.dataStructure.TripleDataSet;
+import walkGenerators.dataStructure.TripleDataSetCsr;
+import walkGenerators.dataStructure.TripleDataSetDelta;
+import walkGenerators.dataStructure.TripleDataSetMemory;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.net.MalformedURLException;
 import java.util.Set;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -26,11 +30,6 @@ public class WalkGeneratorDefault extends WalkGenerator {
      */
     Logger LOGGER = LoggerFactory.getLogger(WalkGeneratorDefault.class);
 
-    /**
-     * Central OntModel
-     */
-    private OntModel model;
-
 
     /**
      * Inject default entity selector.
@@ -55,55 +54,115 @@ public class WalkGeneratorDefault extends WalkGenerator {
      * @param tripleFile File to the NT file or, alternatively, to a directory of NT files.
      */
     public WalkGeneratorDefault(File tripleFile){
+        this(tripleFile, new TripleDataSetMemory());
+    }
+
+    /**
+     * Constructor
+     * @param tripleFile File to the NT file or, alternatively, to a directory of NT files.
+     * @param data The data structure into which the triples shall be loaded. HDT files are imported into a read-only
+     *             {@link TripleDataSetCsr} instead (only the index profile of the given data set is used; a
+     *             {@link TripleDataSetDelta} is kept on top of the imported data set). If the NxParser fails, the
+     *             triples are loaded into a new data set of the same configuration. Use the data set of the
+     *             {@link WalkGenerator#parser} afterwards.
+     */
+    public WalkGeneratorDefault(File tripleFile, TripleDataSet data){
         String pathToTripleFile = tripleFile.getAbsolutePath();
         if(!tripleFile.exists()){
             LOGGER.error("The resource file you specified does not exist. ABORT.");
             return;
         }
+        if(data.getSize() > 0){
+            LOGGER.info("The data set is already loaded (e.g. from a snapshot). Skipping parsing.");
+            this.parser = new NtMemoryParser(this, data);
+            this.entitySelector = new MemoryEntitySelector(data);
+            return;
+        }
         if(tripleFile.isDirectory()){
             LOGGER.warn("You specified a directory. Trying to parse files in the directory. The program will fail (later) " +
                     "if you use an entity selector that requires one ontology.");
-            this.parser = new NtMemoryParser(this);
-            ((NtMemoryParser) this.parser).readNtTriplesFromDirectoryMultiThreaded(tripleFile, false);
+            NtMemoryParser ntParser = new NtMemoryParser(this, data);
+            if (ntParser.hasOptimizedFiles(tripleFile)) {
+                // optimized files are only supported by the NtParser
+                LOGGER.info("Using NtParser (optimized files found).");
+                ntParser.readNtTriplesFromDirectoryMultiThreaded(tripleFile, false);
+                this.parser = ntParser;
+            } else {
+                try {
+                    LOGGER.info("Using NxParser (one thread per file).");
+                    this.parser = new NxMemoryParser(tripleFile, this, data);
+                } catch (Exception e){
+                    LOGGER.error("There was a problem using the default NxParser. Retry with NtParser.", e);
+                    // the partially loaded data set is discarded
+                    ntParser = new NtMemoryParser(this, data.createEmpty());
+                    ntParser.readNtTriplesFromDirectoryMultiThreaded(tripleFile, false);
+                    this.parser = ntParser;
+                }
+            }
             return;
         } else {
             // decide on parser depending on
-            try {
-                String fileName = tripleFile.getName();
-                if (fileName.toLowerCase().endsWith(".nt")) {
+            String fileName = tripleFile.getName();
+            if (fileName.toLowerCase().endsWith(".nt") && tripleFile.length() >= NtMemoryParser.PARALLEL_PARSING_THRESHOLD) {
+                // large single files are split into chunks that are parsed in parallel
+                LOGGER.info("Using parallel NtParser.");
+                this.parser = new NtMemoryParser(tripleFile, this, data);
+                this.entitySelector = new MemoryEntitySelector(((NtMemoryParser) parser).getData());
+            } else if (fileName.toLowerCase().endsWith(".nt")) {
+                try {
+                    LOGGER.info("Using NxParser.");
+                    this.parser = new NxMemoryParser(tripleFile, this, data);
+                    this.entitySelector = new MemoryEntitySelector(((NxMemoryParser) parser).getData());
+                } catch (Exception e){
+                    LOGGER.error("There was a problem using the default NxParser. Retry with slower NtParser.", e);
+                    // the partially loaded data set is discarded
+                    this.parser = new NtMemoryParser(tripleFile, this, data.createEmpty());
+                    this.entitySelector = new MemoryEntitySelector(((NtMemoryParser) parser).getData());
+                }
+            } else if (fileName.toLowerCase().endsWith(".gz")) {
+                try {
+                    LOGGER.info("Using NxParser for gzipped file.");
+                    this.parser = new NxMemoryParser(tripleFile, this, data);
+                    this.entitySelector = new MemoryEntitySelector(((NxMemoryParser) parser).getData());
+                } catch (Exception e){
+                    LOGGER.error("There was a problem using the default NxParser. Retry with NtParser.", e);
+                    // the partially loaded data set is discarded
+                    NtMemoryParser ntParser = new NtMemoryParser(this, data.createEmpty());
+                    ntParser.readNTriples(tripleFile, true);
+                    ntParser.releaseStringPool();
+                    this.parser = ntParser;
+                    this.entitySelector = new MemoryEntitySelector(ntParser.getData());
+                }
+            } else if (fileName.toLowerCase().endsWith(".ttl")) {
+                // the statements are streamed into the data set, the entities are derived from the data set
+                this.parser = new RiotMemoryParser(tripleFile, Lang.TURTLE, this, data);
+                this.entitySelector = new MemoryEntitySelector(((RiotMemoryParser) parser).getData());
+            } else if (fileName.toLowerCase().endsWith(".xml")) {
+                this.parser = new RiotMemoryParser(tripleFile, Lang.RDFXML, this, data);
+                this.entitySelector = new MemoryEntitySelector(((RiotMemoryParser) parser).getData());
+            } else if (fileName.toLowerCase().endsWith(".hdt") || fileName.toLowerCase().endsWith(".hdt.index.v1-1")){
+                LOGGER.info("HDT file detected. Importing the HDT IDs.");
+                // the triples are read from the HDT file, not from its index
+                File hdtFile = fileName.toLowerCase().endsWith(".hdt") ? tripleFile
+                        : new File(tripleFile.getParent(), fileName.substring(0, fileName.length() - ".index.v1-1".length()));
+                try {
+                    TripleDataSet hdtData = HdtImporter.importHdt(hdtFile, data.getIndexProfile(), false);
+                    if (data instanceof TripleDataSetDelta) {
+                        // diffs are recorded on top of the imported graph
+                        hdtData = ((TripleDataSetDelta) data).withBase(hdtData);
+                    }
+                    this.parser = new NtMemoryParser(this, hdtData);
+                    this.entitySelector = new MemoryEntitySelector(hdtData);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.error("Could not import the HDT file. Using the HDT parser (mid walks only).", e);
                     try {
-                        LOGGER.info("Using NxParser.");
-                        this.parser = new NxMemoryParser(pathToTripleFile, this);
-                        this.entitySelector = new MemoryEntitySelector(((NxMemoryParser) parser).getData());
-                    } catch (Exception e){
-                        LOGGER.error("There was a problem using the default NxParser. Retry with slower NtParser.");
-                        this.parser = new NtMemoryParser(pathToTripleFile, this);
-                        this.entitySelector = new MemoryEntitySelector(((NtMemoryParser) parser).getData());
+                        this.parser = new HdtParser(pathToTripleFile);
+                    } catch (IOException ioe){
+                        LOGGER.error("Propagated HDT Initializer Exception", ioe);
                     }
-                } else if (fileName.toLowerCase().endsWith(".ttl")) {
-                    this.model = readOntology(pathToTripleFile, "TTL");
-                    this.entitySelector = new OntModelEntitySelector(this.model);
-                    File newResourceFile = new File(tripleFile.getParent(), fileName.substring(0, fileName.length() - 3) + "nt");
-                    NtMemoryParser.saveAsNt(this.model, newResourceFile);
-                    this.parser = new NtMemoryParser(newResourceFile, this);
-                } else if (fileName.toLowerCase().endsWith(".xml")) {
-                    this.model = readOntology(pathToTripleFile, "RDFXML");
-                    this.entitySelector = new OntModelEntitySelector(this.model);
-                    File newResourceFile = new File(tripleFile.getParent(), fileName.substring(0, fileName.length() - 3) + "nt");
-                    NtMemoryParser.saveAsNt(this.model, newResourceFile);
-                    this.parser = new NtMemoryParser(newResourceFile, this);
-                } else if (fileName.toLowerCase().endsWith(".hdt") || fileName.toLowerCase().endsWith(".hdt.index.v1-1")){
-                    LOGGER.info("HDT file detected. Using HDT parser.");
-                        try {
-                            this.parser = new HdtParser(pathToTripleFile);
-                        } catch (IOException ioe){
-                            LOGGER.error("Propagated HDT Initializer Exception", ioe);
-                        }
                 }
-                LOGGER.info("Model read into memory.");
-            } catch (MalformedURLException mue) {
-                LOGGER.error("Path seems to be invalid. Generator not functional.", mue);
             }
+            LOGGER.info("Model read into memory.");
         }
     }
 
@@ -115,6 +174,16 @@ public class WalkGeneratorDefault extends WalkGenerator {
         this(new File(pathToTripleFile));
     }
 
+    /**
+     * Constructor
+     * @param pathToTripleFile The path to the NT file.
+     * @param data The data structure into which the triples shall be loaded (for HDT files, see
+     *             {@link WalkGeneratorDefault#WalkGeneratorDefault(File, TripleDataSet)}).
+     */
+    public WalkGeneratorDefault(String pathToTripleFile, TripleDataSet data) {
+        this(new File(pathToTripleFile), data);
+    }
+
     @Override
     public void generateRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
         generateRandomWalks(numberOfThreads, numberOfWalksPerEntity, depth, DEFAULT_WALK_FILE_TO_BE_WRITTEN);
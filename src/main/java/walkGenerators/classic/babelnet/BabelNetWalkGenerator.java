@@ -2,9 +2,11 @@ package walkGenerators.classic.babelnet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import scripts.IsearchCondition;
 import walkGenerators.base.NtMemoryParser;
+import walkGenerators.base.StatementFilter;
 import walkGenerators.base.WalkGenerator;
+import walkGenerators.dataStructure.TripleDataSet;
+import walkGenerators.dataStructure.TripleDataSetMemory;
 
 import java.io.*;
 import java.util.HashSet;
@@ -47,30 +49,34 @@ public class BabelNetWalkGenerator extends WalkGenerator {
      * @param isEnglishEntitiesOnly Indicator whether only English lemmas shall be considered.
      */
     public BabelNetWalkGenerator(String pathToNtFiles, boolean isEnglishEntitiesOnly) {
+        this(pathToNtFiles, isEnglishEntitiesOnly, new TripleDataSetMemory());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pathToNtFiles The file path to the NT files.
+     * @param isEnglishEntitiesOnly Indicator whether only English lemmas shall be considered.
+     * @param data The data structure into which the triples shall be loaded.
+     */
+    public BabelNetWalkGenerator(String pathToNtFiles, boolean isEnglishEntitiesOnly, TripleDataSet data) {
         this.babelnetEntities = getBabelNetEntities(pathToNtFiles, isEnglishEntitiesOnly);
-        this.parser = new NtMemoryParser(this);
+        this.parser = new NtMemoryParser(this, data);
         this.pathToNtDirectory = pathToNtFiles;
         this.isEnglishEntitiesOnly = isEnglishEntitiesOnly;
 
-        // set a search skip condition
-        ((NtMemoryParser)this.parser).setSkipCondition(new IsearchCondition() {
-            Pattern pattern = Pattern.compile("\".*\"");
-            Pattern glossPattern = Pattern.compile("_Gloss[0-9]"); // _Gloss[0-9]
-            Matcher matcher;
-
-            @Override
-            public boolean isHit(String input) {
-                if (input.contains("http://purl.org/dc/terms/license")) return true;
-                if (input.contains("http://purl.org/dc/elements/1.1/source")) return true;
-                if (input.trim().startsWith("#")) return true; // just a comment line
-                if (input.trim().equals("")) return true; // empty line
-                matcher = pattern.matcher(input);
-                if (matcher.find()) return true;
-                matcher = glossPattern.matcher(input);
-                if (matcher.find()) return true;
-                return false;
-            }
-        });
+        // set a search skip condition (evaluated on the bytes of each line, comments and empty lines are skipped as well)
+        StatementFilter filter = new StatementFilter();
+        filter.setSkipLiterals(true);
+        // the license and source IRIs are skipped wherever they occur in the line (not only as predicate)
+        filter.addDeniedPattern("http://purl.org/dc/terms/license");
+        filter.addDeniedPattern("http://purl.org/dc/elements/1.1/source");
+        for (int i = 0; i < 10; i++) filter.addDeniedPattern("_Gloss" + i);
+        ((NtMemoryParser)this.parser).setSkipCondition(filter);
+        if(data.getSize() > 0){
+            LOGGER.info("The data set is already loaded (e.g. from a snapshot). Skipping parsing.");
+            return;
+        }
         ((NtMemoryParser)this.parser).readNtTriplesFromDirectoryMultiThreaded(pathToNtFiles, true);
     }
 
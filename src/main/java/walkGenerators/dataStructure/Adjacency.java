@@ -0,0 +1,47 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Adjacency lists of a graph with dense int node IDs. The edges of a node are packed according to {@link PackedEdge}
+ * and sorted in ascending order.
+ */
+public interface Adjacency {
+
+    /**
+     * Obtain the number of nodes covered by this adjacency.
+     * @return Number of nodes.
+     */
+    int getNumberOfNodes();
+
+    /**
+     * Obtain the number of edges of the given node.
+     * @param nodeId Node ID.
+     * @return Degree; 0 if the node is not covered.
+     */
+    int getDegree(int nodeId);
+
+    /**
+     * Obtain an edge of the given node.
+     * @param nodeId Node ID.
+     * @param index Index of the edge in the range [0, getDegree(nodeId)).
+     * @return Packed edge.
+     */
+    long getEdge(int nodeId, int index);
+
+    /**
+     * Obtain the total number of edges.
+     * @return Number of edges.
+     */
+    long getNumberOfEdges();
+
+    /**
+     * Obtain the number of bytes on the heap (see {@link MemoryReport}).
+     * @return Heap bytes.
+     */
+    long getHeapBytes();
+
+    /**
+     * Obtain the number of bytes in memory-mapped files.
+     * @return Mapped bytes.
+     */
+    long getMappedBytes();
+}
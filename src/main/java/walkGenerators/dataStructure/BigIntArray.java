@@ -0,0 +1,82 @@
+package walkGenerators.dataStructure;
+
+import java.util.Arrays;
+
+/**
+ * An int array that is split into chunks so that it can hold more than {@link Integer#MAX_VALUE} elements.
+ * The array can be appended to; appending never copies more than the first chunk.
+ * See also {@link BigLongArray}.
+ */
+public class BigIntArray {
+
+    /**
+     * The actual data.
+     */
+    private int[][] chunks;
+
+    /**
+     * Number of elements in the array.
+     */
+    private long size;
+
+    /**
+     * Constructor for an empty array that is filled via {@link BigIntArray#add(int)}.
+     */
+    public BigIntArray() {
+        chunks = new int[][]{new int[1024]};
+        size = 0;
+    }
+
+    /**
+     * Append a value.
+     * @param value Value to be appended.
+     */
+    public void add(int value) {
+        int chunk = (int) (size >>> BigLongArray.CHUNK_BITS);
+        int index = (int) (size & BigLongArray.CHUNK_MASK);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunk] = new int[BigLongArray.CHUNK_SIZE];
+        } else if (index == chunks[chunk].length) {
+            chunks[chunk] = Arrays.copyOf(chunks[chunk], Math.min(BigLongArray.CHUNK_SIZE, chunks[chunk].length * 2));
+        }
+        chunks[chunk][index] = value;
+        size++;
+    }
+
+    /**
+     * Obtain the value at the given position.
+     * @param index Position.
+     * @return Value.
+     */
+    public int get(long index) {
+        return chunks[(int) (index >>> BigLongArray.CHUNK_BITS)][(int) (index & BigLongArray.CHUNK_MASK)];
+    }
+
+    /**
+     * Set the value at the given position.
+     * @param index Position (must be smaller than {@link BigIntArray#size()}).
+     * @param value Value.
+     */
+    public void set(long index, int value) {
+        chunks[(int) (index >>> BigLongArray.CHUNK_BITS)][(int) (index & BigLongArray.CHUNK_MASK)] = value;
+    }
+
+    /**
+     * Returns the number of elements.
+     * @return Number of elements.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Obtain the number of bytes on the heap (including unused capacity).
+     * @return Heap bytes.
+     */
+    public long getHeapBytes() {
+        long result = MemoryReport.arrayBytes(chunks.length, MemoryReport.REFERENCE_BYTES);
+        for (int[] chunk : chunks) result += MemoryReport.arrayBytes(chunk.length, 4);
+        return result;
+    }
+}
@@ -0,0 +1,153 @@
+package walkGenerators.dataStructure;
+
+import java.util.Arrays;
+
+/**
+ * A long array that is split into chunks so that it can hold more than {@link Integer#MAX_VALUE} elements.
+ * The array can be appended to; appending never copies more than the first chunk.
+ */
+public class BigLongArray implements LongArray {
+
+    /**
+     * Number of bits used for the index within a chunk.
+     */
+    static final int CHUNK_BITS = 24;
+
+    /**
+     * Number of elements per chunk.
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * Mask to obtain the index within a chunk.
+     */
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The actual data.
+     */
+    private long[][] chunks;
+
+    /**
+     * Number of elements in the array.
+     */
+    private long size;
+
+    /**
+     * Constructor for an empty array that is filled via {@link BigLongArray#add(long)}.
+     */
+    public BigLongArray() {
+        chunks = new long[][]{new long[1024]};
+        size = 0;
+    }
+
+    /**
+     * Constructor for an array of fixed size that is filled via {@link BigLongArray#set(long, long)}.
+     * @param size The number of elements.
+     */
+    public BigLongArray(long size) {
+        int numberOfChunks = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        chunks = new long[Math.max(1, numberOfChunks)][];
+        for (int i = 0; i < numberOfChunks; i++) {
+            long remaining = size - ((long) i << CHUNK_BITS);
+            chunks[i] = new long[(int) Math.min(CHUNK_SIZE, remaining)];
+        }
+        if (numberOfChunks == 0) chunks[0] = new long[0];
+        this.size = size;
+    }
+
+    /**
+     * Append a value.
+     * @param value Value to be appended.
+     */
+    public void add(long value) {
+        int chunk = (int) (size >>> CHUNK_BITS);
+        int index = (int) (size & CHUNK_MASK);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunk] = new long[CHUNK_SIZE];
+        } else if (index == chunks[chunk].length) {
+            // only the first chunk grows, all further chunks are allocated with full size
+            chunks[chunk] = Arrays.copyOf(chunks[chunk], Math.min(CHUNK_SIZE, chunks[chunk].length * 2));
+        }
+        chunks[chunk][index] = value;
+        size++;
+    }
+
+    /**
+     * Obtain the value at the given position.
+     * @param index Position.
+     * @return Value.
+     */
+    @Override
+    public long get(long index) {
+        return chunks[(int) (index >>> CHUNK_BITS)][(int) (index & CHUNK_MASK)];
+    }
+
+    /**
+     * Set the value at the given position.
+     * @param index Position.
+     * @param value Value.
+     */
+    public void set(long index, long value) {
+        chunks[(int) (index >>> CHUNK_BITS)][(int) (index & CHUNK_MASK)] = value;
+    }
+
+    /**
+     * Sort the values in the given range in ascending order.
+     * @param fromIndex Start of the range (inclusive).
+     * @param toIndex End of the range (exclusive).
+     */
+    public void sort(long fromIndex, long toIndex) {
+        if (toIndex - fromIndex < 2) return;
+        int fromChunk = (int) (fromIndex >>> CHUNK_BITS);
+        int lastChunk = (int) ((toIndex - 1) >>> CHUNK_BITS);
+        if (fromChunk == lastChunk) {
+            Arrays.sort(chunks[fromChunk], (int) (fromIndex & CHUNK_MASK), (int) (((toIndex - 1) & CHUNK_MASK) + 1));
+            return;
+        }
+        // range spans multiple chunks: sort a copy
+        long[] copy = new long[(int) (toIndex - fromIndex)];
+        for (int i = 0; i < copy.length; i++) copy[i] = get(fromIndex + i);
+        Arrays.sort(copy);
+        for (int i = 0; i < copy.length; i++) set(fromIndex + i, copy[i]);
+    }
+
+    /**
+     * Shrink the array to the given size; the elements behind are discarded.
+     * @param newSize New number of elements (not larger than the current size).
+     */
+    public void truncate(long newSize) {
+        if (newSize >= size) return;
+        int numberOfChunks = (int) ((newSize + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        chunks = Arrays.copyOf(chunks, Math.max(1, numberOfChunks));
+        if (numberOfChunks == 0) {
+            chunks[0] = new long[0];
+        } else {
+            int lastChunkSize = (int) (newSize - ((long) (numberOfChunks - 1) << CHUNK_BITS));
+            chunks[numberOfChunks - 1] = Arrays.copyOf(chunks[numberOfChunks - 1], lastChunkSize);
+        }
+        size = newSize;
+    }
+
+    /**
+     * Returns the number of elements.
+     * @return Number of elements.
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        long result = MemoryReport.arrayBytes(chunks.length, MemoryReport.REFERENCE_BYTES);
+        for (long[] chunk : chunks) result += MemoryReport.arrayBytes(chunk.length, 8);
+        return result;
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return 0;
+    }
+}
@@ -0,0 +1,124 @@
+package walkGenerators.dataStructure;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered writer for little-endian binary files that are read via {@link MappedFile}.
+ */
+public class BinaryFileWriter implements Closeable {
+
+    /**
+     * Target channel.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Write buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of bytes written so far (including the buffer).
+     */
+    private long position = 0;
+
+    /**
+     * Constructor. An existing file will be overwritten.
+     * @param file The file to be written.
+     * @throws IOException If the file cannot be opened.
+     */
+    public BinaryFileWriter(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Write a long.
+     * @param value Value.
+     * @throws IOException In case of write errors.
+     */
+    public void putLong(long value) throws IOException {
+        ensureSpace(8);
+        buffer.putLong(value);
+        position += 8;
+    }
+
+    /**
+     * Write an int.
+     * @param value Value.
+     * @throws IOException In case of write errors.
+     */
+    public void putInt(int value) throws IOException {
+        ensureSpace(4);
+        buffer.putInt(value);
+        position += 4;
+    }
+
+    /**
+     * Write a byte.
+     * @param value Value.
+     * @throws IOException In case of write errors.
+     */
+    public void putByte(byte value) throws IOException {
+        ensureSpace(1);
+        buffer.put(value);
+        position += 1;
+    }
+
+    /**
+     * Write a byte array.
+     * @param values Values.
+     * @throws IOException In case of write errors.
+     */
+    public void putBytes(byte[] values) throws IOException {
+        for (byte value : values) putByte(value);
+    }
+
+    /**
+     * Pad with zeros up to the next multiple of 8 bytes.
+     * @throws IOException In case of write errors.
+     */
+    public void align() throws IOException {
+        while ((position & 7) != 0) putByte((byte) 0);
+    }
+
+    /**
+     * Number of bytes written so far.
+     * @return Position in bytes.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Make sure that the buffer can take the given number of bytes.
+     * @param numberOfBytes Number of bytes.
+     * @throws IOException In case of write errors.
+     */
+    private void ensureSpace(int numberOfBytes) throws IOException {
+        if (buffer.remaining() < numberOfBytes) flush();
+    }
+
+    /**
+     * Write the buffer to the channel.
+     * @throws IOException In case of write errors.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.force(false);
+        channel.close();
+    }
+}
@@ -0,0 +1,235 @@
+package walkGenerators.dataStructure;
+
+import java.util.Arrays;
+
+/**
+ * Compressed alternative to {@link CsrAdjacency}. The sorted packed edges of each node are delta-encoded and stored as
+ * variable-length integers (7 bits per byte, the highest bit indicates that another byte follows).
+ *
+ * The edges of a node are split into blocks of {@link CompressedAdjacency#BLOCK_SIZE} edges. The first edge of each
+ * block is stored as absolute value so that the k-th edge can be obtained by decoding at most one block.
+ * Layout per node:
+ * <pre>
+ * varint  degree
+ * int[]   byte offset of blocks 1..n-1 relative to the first block (only if there is more than one block)
+ * varint  blocks of edges
+ * </pre>
+ */
+public class CompressedAdjacency implements Adjacency {
+
+    /**
+     * Number of bits for the position within a block.
+     */
+    private static final int BLOCK_BITS = 4;
+
+    /**
+     * Number of edges per block.
+     */
+    static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    /**
+     * Byte position of the data of each node; nodeOffsets[numberOfNodes] is the size of the data.
+     */
+    private final BigLongArray nodeOffsets;
+
+    /**
+     * The encoded data.
+     */
+    private final BigByteArray data;
+
+    /**
+     * Total number of edges.
+     */
+    private final long numberOfEdges;
+
+    /**
+     * Constructor
+     * @param nodeOffsets Byte position of the data of each node.
+     * @param data Encoded data.
+     * @param numberOfEdges Total number of edges.
+     */
+    private CompressedAdjacency(BigLongArray nodeOffsets, BigByteArray data, long numberOfEdges) {
+        this.nodeOffsets = nodeOffsets;
+        this.data = data;
+        this.numberOfEdges = numberOfEdges;
+    }
+
+    /**
+     * Compress the given adjacency.
+     * @param source The adjacency to be compressed (edges must be sorted in ascending order for each node).
+     * @return Compressed adjacency.
+     */
+    public static CompressedAdjacency compress(Adjacency source) {
+        int numberOfNodes = source.getNumberOfNodes();
+        BigLongArray nodeOffsets = new BigLongArray(numberOfNodes + 1L);
+        BigByteArray data = new BigByteArray();
+        byte[][] blocks = new byte[0][];
+        byte[] buffer = new byte[BLOCK_SIZE * 10];
+        for (int node = 0; node < numberOfNodes; node++) {
+            nodeOffsets.set(node, data.size());
+            int degree = source.getDegree(node);
+            writeVarLong(data, degree);
+            if (degree == 0) continue;
+
+            // encode the blocks first so that the skip table can be written in front of them
+            int numberOfBlocks = ((degree - 1) >>> BLOCK_BITS) + 1;
+            if (blocks.length < numberOfBlocks) blocks = new byte[numberOfBlocks][];
+            for (int block = 0; block < numberOfBlocks; block++) {
+                int length = 0;
+                long previous = 0;
+                int end = Math.min(degree, (block + 1) << BLOCK_BITS);
+                for (int i = block << BLOCK_BITS; i < end; i++) {
+                    long edge = source.getEdge(node, i);
+                    length = writeVarLong(buffer, length, edge - previous);
+                    previous = edge;
+                }
+                blocks[block] = Arrays.copyOf(buffer, length);
+            }
+            int relativeOffset = 0;
+            for (int block = 1; block < numberOfBlocks; block++) {
+                relativeOffset += blocks[block - 1].length;
+                writeInt(data, relativeOffset);
+            }
+            for (int block = 0; block < numberOfBlocks; block++) {
+                for (byte b : blocks[block]) data.add(b);
+            }
+        }
+        nodeOffsets.set(numberOfNodes, data.size());
+        data.trimToSize();
+        return new CompressedAdjacency(nodeOffsets, data, source.getNumberOfEdges());
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return (int) (nodeOffsets.size() - 1);
+    }
+
+    @Override
+    public int getDegree(int nodeId) {
+        if (nodeId < 0 || nodeId >= nodeOffsets.size() - 1) return 0;
+        return (int) readVarLong(nodeOffsets.get(nodeId));
+    }
+
+    @Override
+    public long getEdge(int nodeId, int index) {
+        long position = nodeOffsets.get(nodeId);
+        int degree = (int) readVarLong(position);
+        position += varLongLength(degree);
+        int numberOfBlocks = ((degree - 1) >>> BLOCK_BITS) + 1;
+        long blocksStart = position + 4L * (numberOfBlocks - 1);
+        int block = index >>> BLOCK_BITS;
+        position = block == 0 ? blocksStart : blocksStart + readInt(position + 4L * (block - 1));
+
+        long value = 0;
+        for (int i = 0; i <= (index & (BLOCK_SIZE - 1)); i++) {
+            long delta = readVarLong(position);
+            position += varLongLength(delta);
+            value += delta;
+        }
+        return value;
+    }
+
+    @Override
+    public long getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
+    /**
+     * Obtain the size of the encoded data.
+     * @return Size in bytes (without the node offsets).
+     */
+    public long getDataSize() {
+        return data.size();
+    }
+
+    /**
+     * Decode a variable-length long.
+     * @param position Byte position.
+     * @return Value.
+     */
+    private long readVarLong(long position) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get(position++);
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return result;
+    }
+
+    /**
+     * Read a fixed-length int (little-endian).
+     * @param position Byte position.
+     * @return Value.
+     */
+    private int readInt(long position) {
+        return (data.get(position) & 0xFF)
+                | (data.get(position + 1) & 0xFF) << 8
+                | (data.get(position + 2) & 0xFF) << 16
+                | (data.get(position + 3) & 0xFF) << 24;
+    }
+
+    /**
+     * Number of bytes of the encoded value.
+     * @param value Non-negative value.
+     * @return Number of bytes.
+     */
+    private static int varLongLength(long value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) length++;
+        return length;
+    }
+
+    /**
+     * Encode a variable-length long.
+     * @param target Target array.
+     * @param value Non-negative value.
+     */
+    private static void writeVarLong(BigByteArray target, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target.add((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.add((byte) value);
+    }
+
+    /**
+     * Encode a variable-length long.
+     * @param target Target buffer (must be large enough).
+     * @param position Position at which the value is written.
+     * @param value Non-negative value.
+     * @return Position after the value.
+     */
+    private static int writeVarLong(byte[] target, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Encode a fixed-length int (little-endian).
+     * @param target Target array.
+     * @param value Value.
+     */
+    private static void writeInt(BigByteArray target, int value) {
+        target.add((byte) value);
+        target.add((byte) (value >>> 8));
+        target.add((byte) (value >>> 16));
+        target.add((byte) (value >>> 24));
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return nodeOffsets.getHeapBytes() + data.getHeapBytes();
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return 0;
+    }
+}
@@ -0,0 +1,141 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Adjacency lists in compressed-sparse-row layout: the edges of node {@code i} are stored in
+ * {@code edges[offsets[i]]} to {@code edges[offsets[i + 1] - 1]}. Edges are packed according to {@link PackedEdge}
+ * and sorted in ascending order for each node.
+ */
+public class CsrAdjacency implements Adjacency {
+
+    /**
+     * Start position of the edges of each node; offsets[numberOfNodes] is the total number of edges.
+     */
+    private final LongArray offsets;
+
+    /**
+     * Packed edges.
+     */
+    private final LongArray edges;
+
+    /**
+     * Constructor
+     * @param offsets Offsets array of size numberOfNodes + 1.
+     * @param edges Packed edges.
+     */
+    CsrAdjacency(LongArray offsets, LongArray edges) {
+        this.offsets = offsets;
+        this.edges = edges;
+    }
+
+    /**
+     * Number of tasks for sorting the edges in parallel (more tasks than cores to balance skewed degrees).
+     */
+    private static final int SORT_TASKS = 256;
+
+    /**
+     * Build the adjacency from parallel source/edge arrays. The input may be split into multiple segments (e.g. one
+     * per loading thread); segment i consists of sources[i], targets[i], and predicates[i].
+     * @param numberOfNodes The number of nodes.
+     * @param sources Node to which each edge belongs (edges with a negative source are skipped).
+     * @param targets The neighbour node of each edge.
+     * @param predicates The predicate of each edge.
+     * @return Built adjacency.
+     */
+    static CsrAdjacency build(int numberOfNodes, BigIntArray[] sources, BigIntArray[] targets, BigIntArray[] predicates) {
+        // count degrees and compute prefix sums; edges of negative sources (literals) are skipped
+        BigLongArray offsets = new BigLongArray(numberOfNodes + 1L);
+        for (BigIntArray segment : sources) {
+            for (long i = 0; i < segment.size(); i++) {
+                int position = segment.get(i) + 1;
+                if (position > 0) offsets.set(position, offsets.get(position) + 1);
+            }
+        }
+        long[] cursor = new long[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) {
+            cursor[node] = offsets.get(node);
+            offsets.set(node + 1, offsets.get(node + 1) + offsets.get(node));
+        }
+        long numberOfEdges = offsets.get(numberOfNodes);
+
+        // fill the edges
+        BigLongArray edges = new BigLongArray(numberOfEdges);
+        for (int segment = 0; segment < sources.length; segment++) {
+            for (long i = 0; i < sources[segment].size(); i++) {
+                int source = sources[segment].get(i);
+                if (source < 0) continue;
+                edges.set(cursor[source]++, PackedEdge.pack(predicates[segment].get(i), targets[segment].get(i)));
+            }
+        }
+
+        // sort the edges of each node; the node ranges of the tasks are disjoint
+        ParallelExecution.run(SORT_TASKS, task -> {
+            int fromNode = (int) ((long) numberOfNodes * task / SORT_TASKS);
+            int toNode = (int) ((long) numberOfNodes * (task + 1) / SORT_TASKS);
+            for (int node = fromNode; node < toNode; node++) {
+                edges.sort(offsets.get(node), offsets.get(node + 1));
+            }
+        });
+        return new CsrAdjacency(offsets, edges);
+    }
+
+    /**
+     * Build the adjacency (see {@link CsrAdjacency#build(int, BigIntArray[], BigIntArray[], BigIntArray[])}) and
+     * remove duplicate edges. As the edges of each node are sorted, duplicates are adjacent and are removed by
+     * compacting the edge array in place; no additional memory is required.
+     * @param numberOfNodes The number of nodes.
+     * @param sources Node to which each edge belongs.
+     * @param targets The neighbour node of each edge.
+     * @param predicates The predicate of each edge.
+     * @return Built adjacency without duplicate edges.
+     */
+    static CsrAdjacency buildWithoutDuplicates(int numberOfNodes, BigIntArray[] sources, BigIntArray[] targets, BigIntArray[] predicates) {
+        CsrAdjacency result = build(numberOfNodes, sources, targets, predicates);
+        BigLongArray offsets = (BigLongArray) result.offsets;
+        BigLongArray edges = (BigLongArray) result.edges;
+        long write = 0;
+        long from = offsets.get(0);
+        for (int node = 0; node < numberOfNodes; node++) {
+            long to = offsets.get(node + 1);
+            offsets.set(node, write);
+            for (long read = from; read < to; read++) {
+                long edge = edges.get(read);
+                if (read == from || edge != edges.get(read - 1)) edges.set(write++, edge);
+            }
+            from = to;
+        }
+        offsets.set(numberOfNodes, write);
+        edges.truncate(write);
+        return result;
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return (int) (offsets.size() - 1);
+    }
+
+    @Override
+    public int getDegree(int nodeId) {
+        if (nodeId < 0 || nodeId >= offsets.size() - 1) return 0;
+        return (int) (offsets.get(nodeId + 1) - offsets.get(nodeId));
+    }
+
+    @Override
+    public long getEdge(int nodeId, int index) {
+        return edges.get(offsets.get(nodeId) + index);
+    }
+
+    @Override
+    public long getNumberOfEdges() {
+        return offsets.get(offsets.size() - 1);
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return offsets.getHeapBytes() + edges.getHeapBytes();
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return offsets.getMappedBytes() + edges.getMappedBytes();
+    }
+}
@@ -0,0 +1,344 @@
+package walkGenerators.dataStructure;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Read-only {@link IdDictionary} that stores its Strings front-coded in UTF-8, similar to the HDT dictionary.
+ * The Strings are sorted (IDs correspond to the sort order) and split into buckets of
+ * {@link FrontCodedDictionary#BUCKET_SIZE} entries. The first String of a bucket is stored completely, every further
+ * String as the length of the prefix it shares with its predecessor plus the remaining bytes. Long shared URI prefixes
+ * (namespaces) are therefore stored only once per bucket.
+ *
+ * Layout of a bucket:
+ * <pre>
+ * varint length, bytes                          (first String)
+ * varint prefix length, varint length, bytes    (each further String)
+ * </pre>
+ *
+ * A String object is only created upon {@link FrontCodedDictionary#getString(int)}.
+ */
+public class FrontCodedDictionary implements IdDictionary {
+
+    /**
+     * Number of bits for the position within a bucket.
+     */
+    private static final int BUCKET_BITS = 4;
+
+    /**
+     * Number of Strings per bucket.
+     */
+    static final int BUCKET_SIZE = 1 << BUCKET_BITS;
+
+    /**
+     * Byte position of each bucket.
+     */
+    private final BigLongArray bucketOffsets;
+
+    /**
+     * The encoded Strings.
+     */
+    private final BigByteArray data;
+
+    /**
+     * Number of entries.
+     */
+    private final int size;
+
+    /**
+     * Constructor
+     * @param bucketOffsets Byte position of each bucket.
+     * @param data Encoded Strings.
+     * @param size Number of entries.
+     */
+    private FrontCodedDictionary(BigLongArray bucketOffsets, BigByteArray data, int size) {
+        this.bucketOffsets = bucketOffsets;
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Build a front-coded dictionary.
+     * @param source The Strings to be encoded.
+     * @param sortedIds The IDs of the source in the order of {@link FrontCodedDictionary#compare(String, String)}
+     *                  (see {@link FrontCodedDictionary#sortIds(IdDictionary)}). The position in this array is the ID
+     *                  in the new dictionary.
+     * @return Front-coded dictionary.
+     */
+    public static FrontCodedDictionary build(IdDictionary source, int[] sortedIds) {
+        int size = sortedIds.length;
+        BigLongArray bucketOffsets = new BigLongArray(((long) size + BUCKET_SIZE - 1) >>> BUCKET_BITS);
+        BigByteArray data = new BigByteArray();
+        byte[] previous = new byte[0];
+        for (int id = 0; id < size; id++) {
+            byte[] current = source.getString(sortedIds[id]).getBytes(StandardCharsets.UTF_8);
+            if ((id & (BUCKET_SIZE - 1)) == 0) {
+                bucketOffsets.set(id >>> BUCKET_BITS, data.size());
+                writeVarInt(data, current.length);
+                for (byte b : current) data.add(b);
+            } else {
+                int prefix = 0;
+                int maxPrefix = Math.min(previous.length, current.length);
+                while (prefix < maxPrefix && previous[prefix] == current[prefix]) prefix++;
+                writeVarInt(data, prefix);
+                writeVarInt(data, current.length - prefix);
+                for (int i = prefix; i < current.length; i++) data.add(current[i]);
+            }
+            previous = current;
+        }
+        data.trimToSize();
+        return new FrontCodedDictionary(bucketOffsets, data, size);
+    }
+
+    /**
+     * Obtain all IDs of the given dictionary sorted in the order of {@link FrontCodedDictionary#compare(String, String)}.
+     * The IDs are sorted in parallel.
+     * @param source Dictionary.
+     * @return Sorted IDs.
+     */
+    public static int[] sortIds(IdDictionary source) {
+        int size = source.size();
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) ids[i] = i;
+        IntBinaryOperator comparator = (x, y) -> compare(source.getString(x), source.getString(y));
+        int[] buffer = new int[size];
+
+        // sort runs in parallel, then merge pairs of runs in parallel until there is one run
+        int numberOfRuns = Math.max(1, Math.min(size / 1024, Runtime.getRuntime().availableProcessors() * 4));
+        int[] bounds = new int[numberOfRuns + 1];
+        for (int i = 0; i <= numberOfRuns; i++) bounds[i] = (int) ((long) size * i / numberOfRuns);
+        ParallelExecution.run(numberOfRuns, run -> mergeSort(ids, buffer, bounds[run], bounds[run + 1], comparator));
+        for (int width = 1; width < numberOfRuns; width *= 2) {
+            final int step = width;
+            int numberOfMerges = (numberOfRuns + 2 * step - 1) / (2 * step);
+            ParallelExecution.run(numberOfMerges, merge -> {
+                int from = bounds[merge * 2 * step];
+                int middle = bounds[Math.min(numberOfRuns, merge * 2 * step + step)];
+                int to = bounds[Math.min(numberOfRuns, merge * 2 * step + 2 * step)];
+                merge(ids, buffer, from, middle, to, comparator);
+            });
+        }
+        return ids;
+    }
+
+    /**
+     * Compare two Strings by Unicode code points. This is the same order as the order of their UTF-8 bytes
+     * ({@link String#compareTo(String)} differs for supplementary characters).
+     * @param s1 First String.
+     * @param s2 Second String.
+     * @return Negative, zero, or positive value.
+     */
+    static int compare(String s1, String s2) {
+        int length = Math.min(s1.length(), s2.length());
+        for (int i = 0; i < length; i++) {
+            char c1 = s1.charAt(i);
+            char c2 = s2.charAt(i);
+            if (c1 != c2) {
+                return codePointOrder(c1) - codePointOrder(c2);
+            }
+        }
+        return s1.length() - s2.length();
+    }
+
+    /**
+     * Move surrogates behind all other characters of the basic multilingual plane.
+     * @param c UTF-16 char.
+     * @return Sort key.
+     */
+    private static int codePointOrder(char c) {
+        if (c < 0xD800) return c;
+        return c >= 0xE000 ? c - 0x800 : c + 0x2000;
+    }
+
+    @Override
+    public int getId(String value) {
+        if (value == null || size == 0) return -1;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        // find the last bucket whose first String is smaller than or equal to the value
+        int low = 0;
+        int high = (int) bucketOffsets.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (compareToFirst(middle, bytes) <= 0) low = middle;
+            else high = middle - 1;
+        }
+
+        // scan the bucket
+        long position = bucketOffsets.get(low);
+        int id = low << BUCKET_BITS;
+        int length = readVarInt(position);
+        position += varIntLength(length);
+        byte[] current = new byte[Math.max(length, 64)];
+        for (int i = 0; i < length; i++) current[i] = data.get(position++);
+        if (length == bytes.length && equals(current, bytes, length)) return id;
+        int end = Math.min(size, id + BUCKET_SIZE);
+        for (id = id + 1; id < end; id++) {
+            int prefix = readVarInt(position);
+            position += varIntLength(prefix);
+            int suffix = readVarInt(position);
+            position += varIntLength(suffix);
+            length = prefix + suffix;
+            if (current.length < length) current = Arrays.copyOf(current, length * 2);
+            for (int i = prefix; i < length; i++) current[i] = data.get(position++);
+            if (length == bytes.length && equals(current, bytes, length)) return id;
+        }
+        return -1;
+    }
+
+    @Override
+    public String getString(int id) {
+        long position = bucketOffsets.get(id >>> BUCKET_BITS);
+        int length = readVarInt(position);
+        position += varIntLength(length);
+        byte[] current = new byte[Math.max(length, 64)];
+        for (int i = 0; i < length; i++) current[i] = data.get(position++);
+        for (int i = 1; i <= (id & (BUCKET_SIZE - 1)); i++) {
+            int prefix = readVarInt(position);
+            position += varIntLength(prefix);
+            int suffix = readVarInt(position);
+            position += varIntLength(suffix);
+            length = prefix + suffix;
+            if (current.length < length) current = Arrays.copyOf(current, length * 2);
+            for (int j = prefix; j < length; j++) current[j] = data.get(position++);
+        }
+        return new String(current, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Obtain the size of the encoded Strings.
+     * @return Size in bytes (without the bucket offsets).
+     */
+    public long getDataSize() {
+        return data.size();
+    }
+
+    /**
+     * Compare the first String of the given bucket with the given bytes (unsigned).
+     * @param bucket Bucket
+     * @param bytes UTF-8 bytes.
+     * @return Negative, zero, or positive value.
+     */
+    private int compareToFirst(int bucket, byte[] bytes) {
+        long position = bucketOffsets.get(bucket);
+        int length = readVarInt(position);
+        position += varIntLength(length);
+        int common = Math.min(length, bytes.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (data.get(position + i) & 0xFF) - (bytes[i] & 0xFF);
+            if (difference != 0) return difference;
+        }
+        return length - bytes.length;
+    }
+
+    /**
+     * Compare the first bytes of two arrays.
+     * @param a First array.
+     * @param b Second array.
+     * @param length Number of bytes to be compared.
+     * @return True if equal.
+     */
+    private static boolean equals(byte[] a, byte[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decode a variable-length int.
+     * @param position Byte position.
+     * @return Value.
+     */
+    private int readVarInt(long position) {
+        int result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get(position++);
+            result |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return result;
+    }
+
+    /**
+     * Number of bytes of the encoded value.
+     * @param value Non-negative value.
+     * @return Number of bytes.
+     */
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) length++;
+        return length;
+    }
+
+    /**
+     * Encode a variable-length int.
+     * @param target Target array.
+     * @param value Non-negative value.
+     */
+    private static void writeVarInt(BigByteArray target, int value) {
+        while ((value & ~0x7F) != 0) {
+            target.add((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.add((byte) value);
+    }
+
+    /**
+     * Stable merge sort of ids[from, to).
+     */
+    private static void mergeSort(int[] ids, int[] buffer, int from, int to, IntBinaryOperator comparator) {
+        if (to - from < 16) {
+            // insertion sort for small ranges
+            for (int i = from + 1; i < to; i++) {
+                int current = ids[i];
+                int j = i - 1;
+                while (j >= from && comparator.applyAsInt(ids[j], current) > 0) {
+                    ids[j + 1] = ids[j];
+                    j--;
+                }
+                ids[j + 1] = current;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(ids, buffer, from, middle, comparator);
+        mergeSort(ids, buffer, middle, to, comparator);
+        merge(ids, buffer, from, middle, to, comparator);
+    }
+
+    /**
+     * Merge the sorted ranges ids[from, middle) and ids[middle, to).
+     */
+    private static void merge(int[] ids, int[] buffer, int from, int middle, int to, IntBinaryOperator comparator) {
+        if (from >= middle || middle >= to || comparator.applyAsInt(ids[middle - 1], ids[middle]) <= 0) return;
+        System.arraycopy(ids, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.applyAsInt(buffer[left], buffer[right]) <= 0)) {
+                ids[i] = buffer[left++];
+            } else {
+                ids[i] = buffer[right++];
+            }
+        }
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return bucketOffsets.getHeapBytes() + data.getHeapBytes();
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return 0;
+    }
+}
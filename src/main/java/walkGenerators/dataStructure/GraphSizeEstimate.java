@@ -0,0 +1,96 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Expected size of a graph before it is loaded (e.g. extrapolated from a sample of the input files). Used to pre-size
+ * the indexes of a {@link TripleDataSet} (see {@link TripleDataSet#presize(GraphSizeEstimate)}).
+ */
+public class GraphSizeEstimate {
+
+    /**
+     * Expected number of triples.
+     */
+    private final long numberOfTriples;
+
+    /**
+     * Expected number of distinct subjects.
+     */
+    private final long numberOfSubjects;
+
+    /**
+     * Expected number of distinct objects.
+     */
+    private final long numberOfObjects;
+
+    /**
+     * Expected number of distinct nodes (subjects and objects).
+     */
+    private final long numberOfNodes;
+
+    /**
+     * Median number of triples per subject.
+     */
+    private final int typicalOutDegree;
+
+    /**
+     * Median number of triples per object.
+     */
+    private final int typicalInDegree;
+
+    /**
+     * Constructor
+     * @param numberOfTriples Expected number of triples.
+     * @param numberOfSubjects Expected number of distinct subjects.
+     * @param numberOfObjects Expected number of distinct objects.
+     * @param numberOfNodes Expected number of distinct nodes (subjects and objects).
+     * @param typicalOutDegree Median number of triples per subject.
+     * @param typicalInDegree Median number of triples per object.
+     */
+    public GraphSizeEstimate(long numberOfTriples, long numberOfSubjects, long numberOfObjects, long numberOfNodes,
+                             int typicalOutDegree, int typicalInDegree) {
+        this.numberOfTriples = numberOfTriples;
+        this.numberOfSubjects = numberOfSubjects;
+        this.numberOfObjects = numberOfObjects;
+        this.numberOfNodes = numberOfNodes;
+        this.typicalOutDegree = typicalOutDegree;
+        this.typicalInDegree = typicalInDegree;
+    }
+
+    public long getNumberOfTriples() {
+        return numberOfTriples;
+    }
+
+    public long getNumberOfSubjects() {
+        return numberOfSubjects;
+    }
+
+    public long getNumberOfObjects() {
+        return numberOfObjects;
+    }
+
+    public long getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public int getTypicalOutDegree() {
+        return typicalOutDegree;
+    }
+
+    public int getTypicalInDegree() {
+        return typicalInDegree;
+    }
+
+    /**
+     * Convert an expected number of entries to an int capacity.
+     * @param expectedSize Expected number of entries.
+     * @return Capacity (capped so that hash tables can still be allocated).
+     */
+    static int toCapacity(long expectedSize) {
+        return (int) Math.max(0, Math.min(expectedSize, 1 << 30));
+    }
+
+    @Override
+    public String toString() {
+        return numberOfTriples + " triples, " + numberOfSubjects + " subjects, " + numberOfObjects + " objects, "
+                + numberOfNodes + " nodes, median out-degree " + typicalOutDegree + ", median in-degree " + typicalInDegree;
+    }
+}
@@ -0,0 +1,267 @@
+package walkGenerators.dataStructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+
+/**
+ * Binary snapshot of a {@link TripleDataSetCsr} (dictionaries and adjacency arrays). A snapshot is written once after
+ * the data has been parsed and is memory-mapped by later runs so that nothing has to be parsed or rebuilt on the heap.
+ *
+ * A snapshot is a directory with the following files:
+ * <ul>
+ *     <li>{@code nodes.dict}, {@code literals.dict}, {@code predicates.dict}: see {@link MappedDictionary}</li>
+ *     <li>{@code forward.csr}, {@code backward.csr} and {@code literals.csr} (only if the object index is built): long numberOfNodes, long numberOfEdges, long[] offsets, long[] edges</li>
+ *     <li>{@code snapshot.meta}: magic number, format version, source description (path, size and modification time
+ *     of the parsed resource, parser configuration), and statistics. The file is written last so that an incomplete
+ *     snapshot is not picked up.</li>
+ * </ul>
+ * A snapshot is only opened if it was written from the same resource in its current state and with the same parser
+ * configuration (e.g. the URI shortener); otherwise the resource has to be parsed again.
+ */
+public class GraphSnapshot {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphSnapshot.class);
+
+    /**
+     * Magic number at the beginning of the meta file.
+     */
+    private static final int MAGIC = 0x4B475653;
+
+    /**
+     * Version of the binary format. Increase upon incompatible changes.
+     */
+    static final int FORMAT_VERSION = 4;
+
+    static final String META_FILE = "snapshot.meta";
+    static final String NODES_FILE = "nodes.dict";
+    static final String LITERALS_FILE = "literals.dict";
+    static final String PREDICATES_FILE = "predicates.dict";
+    static final String FORWARD_FILE = "forward.csr";
+    static final String BACKWARD_FILE = "backward.csr";
+    static final String LITERALS_BACKWARD_FILE = "literals.csr";
+
+    /**
+     * Check whether there is a complete snapshot in the given directory.
+     * @param directory Snapshot directory.
+     * @return True if a snapshot exists.
+     */
+    public static boolean exists(File directory) {
+        return new File(directory, META_FILE).isFile();
+    }
+
+    /**
+     * Check whether there is a snapshot in the given directory that was written from the given source and
+     * configuration.
+     * @param directory Snapshot directory.
+     * @param source The parsed resource (file or directory).
+     * @param configuration Parser configuration (e.g. the URI shortener in use).
+     * @return True if an up-to-date snapshot exists.
+     */
+    public static boolean isUpToDate(File directory, File source, String configuration) {
+        File metaFile = new File(directory, META_FILE);
+        if (!metaFile.isFile()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(metaFile)))) {
+            return readHeader(in, directory, source, configuration);
+        } catch (IOException e) {
+            LOGGER.error("Could not read snapshot in " + directory.getAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Write the given data set as snapshot.
+     * @param dataSet The data set to be written.
+     * @param directory The target directory. It is created if it does not exist.
+     * @param source The parsed resource (file or directory).
+     * @param configuration Parser configuration (e.g. the URI shortener in use).
+     * @throws IOException In case of write errors.
+     */
+    public static void write(TripleDataSetCsr dataSet, File directory, File source, String configuration) throws IOException {
+        long startTime = System.currentTimeMillis();
+        dataSet.compile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create snapshot directory " + directory.getAbsolutePath());
+        }
+        File metaFile = new File(directory, META_FILE);
+        if (metaFile.exists() && !metaFile.delete()) {
+            throw new IOException("Could not delete " + metaFile.getAbsolutePath());
+        }
+        MappedDictionary.write(dataSet.getNodeDictionary(), new File(directory, NODES_FILE));
+        MappedDictionary.write(dataSet.getLiteralDictionary(), new File(directory, LITERALS_FILE));
+        MappedDictionary.write(dataSet.getPredicateDictionary(), new File(directory, PREDICATES_FILE));
+        writeAdjacency(dataSet.getForward(), new File(directory, FORWARD_FILE));
+        boolean hasBackward = dataSet.getBackward() != null;
+        if (hasBackward) {
+            writeAdjacency(dataSet.getBackward(), new File(directory, BACKWARD_FILE));
+            writeAdjacency(dataSet.getLiteralBackward(), new File(directory, LITERALS_BACKWARD_FILE));
+        } else {
+            new File(directory, BACKWARD_FILE).delete();
+            new File(directory, LITERALS_BACKWARD_FILE).delete();
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metaFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(source.getAbsolutePath());
+            out.writeLong(getSize(source));
+            out.writeLong(getLastModified(source));
+            out.writeUTF(configuration);
+            out.writeInt(dataSet.getNumberOfNodes());
+            out.writeInt(dataSet.getPredicateDictionary().size());
+            out.writeLong(dataSet.getSize());
+            out.writeInt(dataSet.getNumberOfSubjects());
+            out.writeBoolean(hasBackward);
+        }
+        LOGGER.info("Snapshot written to " + directory.getAbsolutePath() + " in " + (System.currentTimeMillis() - startTime) + " ms.");
+    }
+
+    /**
+     * Open the snapshot in the given directory. The files are memory-mapped, the returned data set is read-only.
+     * @param directory Snapshot directory.
+     * @param source The parsed resource (file or directory).
+     * @param configuration Parser configuration (e.g. the URI shortener in use); null if it is only known later and
+     *                      checked with {@link GraphSnapshot#isUpToDate(File, File, String)} then.
+     * @return Data set or null if there is no compatible and up-to-date snapshot.
+     */
+    public static TripleDataSetCsr open(File directory, File source, String configuration) {
+        File metaFile = new File(directory, META_FILE);
+        if (!metaFile.isFile()) {
+            LOGGER.info("No snapshot found in " + directory.getAbsolutePath());
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(metaFile)))) {
+            if (!readHeader(in, directory, source, configuration)) return null;
+            int numberOfNodes = in.readInt();
+            in.readInt();
+            long numberOfTriples = in.readLong();
+            int numberOfSubjects = in.readInt();
+            boolean hasBackward = in.readBoolean();
+
+            IdDictionary nodes = new MappedDictionary(new MappedFile(new File(directory, NODES_FILE)));
+            IdDictionary literals = new MappedDictionary(new MappedFile(new File(directory, LITERALS_FILE)));
+            IdDictionary predicates = new MappedDictionary(new MappedFile(new File(directory, PREDICATES_FILE)));
+            CsrAdjacency forward = openAdjacency(new File(directory, FORWARD_FILE));
+            CsrAdjacency backward = hasBackward ? openAdjacency(new File(directory, BACKWARD_FILE)) : null;
+            CsrAdjacency literalBackward = hasBackward ? openAdjacency(new File(directory, LITERALS_BACKWARD_FILE)) : null;
+            if (nodes.size() != numberOfNodes || forward.getNumberOfEdges() != numberOfTriples) {
+                LOGGER.error("Snapshot in " + directory.getAbsolutePath() + " is inconsistent. Please delete the snapshot.");
+                return null;
+            }
+            LOGGER.info("Opened snapshot of " + source.getAbsolutePath() + " with " + numberOfTriples + " triples and " + numberOfNodes + " nodes.");
+            return new TripleDataSetCsr(nodes, literals, predicates, forward, backward, literalBackward, numberOfSubjects);
+        } catch (IOException e) {
+            LOGGER.error("Could not open snapshot in " + directory.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Read the header of the meta file and check whether the snapshot was written from the given source and
+     * configuration.
+     * @param in Stream of the meta file (positioned at the beginning).
+     * @param directory Snapshot directory (for logging).
+     * @param source The parsed resource (file or directory).
+     * @param configuration Parser configuration (null if it shall not be checked).
+     * @return True if the snapshot can be used.
+     * @throws IOException In case of read errors.
+     */
+    private static boolean readHeader(DataInputStream in, File directory, File source, String configuration) throws IOException {
+        if (in.readInt() != MAGIC) {
+            LOGGER.error("File " + new File(directory, META_FILE).getAbsolutePath() + " is not a snapshot file.");
+            return false;
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            LOGGER.error("Snapshot version " + version + " is not supported (expected: " + FORMAT_VERSION + "). Please delete the snapshot.");
+            return false;
+        }
+        String sourcePath = in.readUTF();
+        if (!sourcePath.equals(source.getAbsolutePath())) {
+            LOGGER.warn("Snapshot in " + directory.getAbsolutePath() + " was written from a different resource (" + sourcePath + ").");
+            return false;
+        }
+        if (in.readLong() != getSize(source) || in.readLong() != getLastModified(source)) {
+            LOGGER.warn("Snapshot in " + directory.getAbsolutePath() + " is outdated: the resource " + sourcePath + " changed.");
+            return false;
+        }
+        String writtenConfiguration = in.readUTF();
+        if (configuration != null && !writtenConfiguration.equals(configuration)) {
+            LOGGER.warn("Snapshot in " + directory.getAbsolutePath() + " was written with a different parser configuration (e.g. URI shortener).");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Size of the given resource.
+     * @param source File or directory.
+     * @return Size of the file or total size of the files in the directory (recursively).
+     */
+    private static long getSize(File source) {
+        File[] files = source.listFiles();
+        if (files == null) return source.length();
+        long result = 0;
+        for (File file : files) result += getSize(file);
+        return result;
+    }
+
+    /**
+     * Modification time of the given resource.
+     * @param source File or directory.
+     * @return Modification time of the file or latest modification time in the directory (recursively).
+     */
+    private static long getLastModified(File source) {
+        long result = source.lastModified();
+        File[] files = source.listFiles();
+        if (files == null) return result;
+        for (File file : files) result = Math.max(result, getLastModified(file));
+        return result;
+    }
+
+    /**
+     * Write a single adjacency. The snapshot always uses the uncompressed layout of {@link CsrAdjacency}.
+     * @param adjacency Adjacency to be written.
+     * @param target Target file.
+     * @throws IOException In case of write errors.
+     */
+    private static void writeAdjacency(Adjacency adjacency, File target) throws IOException {
+        int numberOfNodes = adjacency.getNumberOfNodes();
+        try (BinaryFileWriter writer = new BinaryFileWriter(target)) {
+            writer.putLong(numberOfNodes);
+            writer.putLong(adjacency.getNumberOfEdges());
+            long offset = 0;
+            writer.putLong(offset);
+            for (int node = 0; node < numberOfNodes; node++) {
+                offset += adjacency.getDegree(node);
+                writer.putLong(offset);
+            }
+            for (int node = 0; node < numberOfNodes; node++) {
+                int degree = adjacency.getDegree(node);
+                for (int i = 0; i < degree; i++) {
+                    writer.putLong(adjacency.getEdge(node, i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Map a single adjacency.
+     * @param source File written by {@link GraphSnapshot#writeAdjacency(Adjacency, File)}.
+     * @return Adjacency.
+     * @throws IOException In case of read errors.
+     */
+    private static CsrAdjacency openAdjacency(File source) throws IOException {
+        MappedFile file = new MappedFile(source);
+        long numberOfNodes = file.getLong(0);
+        long numberOfEdges = file.getLong(8);
+        long offsetsStart = 16;
+        long edgesStart = offsetsStart + 8 * (numberOfNodes + 1);
+        return new CsrAdjacency(new MappedLongArray(file, offsetsStart, numberOfNodes + 1),
+                new MappedLongArray(file, edgesStart, numberOfEdges));
+    }
+}
@@ -0,0 +1,256 @@
+package walkGenerators.dataStructure;
+
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Imports an HDT file into a read-only {@link TripleDataSetCsr} without materializing Strings: the triples are read
+ * as IDs from the HDT triples and the node IDs are derived from the HDT dictionary IDs. The (memory-mapped) HDT
+ * dictionary serves as node, literal, and predicate dictionary of the data set, so Strings are only materialized when
+ * a walk is written or an entity is looked up.
+ *
+ * HDT IDs are 1-based per role. The dictionary consists of a shared section (nodes that are subject and object), a
+ * subject section, an object section, and a predicate section. The IDs are mapped as follows:
+ * <ul>
+ *     <li>shared and subject section: node ID = subject ID - 1, i.e. [0, number of subjects)</li>
+ *     <li>object section (without literals): node ID = number of subjects + position within the section</li>
+ *     <li>literals: literal ID = object ID - number of shared nodes - 1 (see {@link LiteralStore#toNodeId(int)})</li>
+ *     <li>predicates: predicate ID = HDT predicate ID - 1</li>
+ * </ul>
+ * The sections are sorted lexicographically. Literals start with a quote, which sorts before IRIs and blank nodes, so
+ * the literals are the first entries of the object section.
+ */
+public class HdtImporter {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HdtImporter.class);
+
+    /**
+     * Static helper, no instances.
+     */
+    private HdtImporter() {
+    }
+
+    /**
+     * Memory-map the given HDT file and import it.
+     * @param hdtFile The HDT file.
+     * @param indexProfile The indexes to be built.
+     * @param isIncludeLiterals True if triples with literal objects shall be imported.
+     * @return Read-only data set.
+     * @throws IOException If the HDT file cannot be mapped.
+     */
+    public static TripleDataSetCsr importHdt(File hdtFile, IndexProfile indexProfile, boolean isIncludeLiterals) throws IOException {
+        return importHdt(HDTManager.mapHDT(hdtFile.getAbsolutePath()), indexProfile, isIncludeLiterals);
+    }
+
+    /**
+     * Import the given HDT data set. The data set must not be closed as long as the returned data set is in use.
+     * @param hdt The HDT data set.
+     * @param indexProfile The indexes to be built.
+     * @param isIncludeLiterals True if triples with literal objects shall be imported.
+     * @return Read-only data set.
+     * @throws IllegalArgumentException If the graph has too many nodes for int IDs.
+     */
+    public static TripleDataSetCsr importHdt(HDT hdt, IndexProfile indexProfile, boolean isIncludeLiterals) {
+        long startTime = System.currentTimeMillis();
+        Dictionary dictionary = hdt.getDictionary();
+        long numberOfShared = dictionary.getNshared();
+        long numberOfLiterals = countLiterals(dictionary);
+        long numberOfNodes = dictionary.getNsubjects() + dictionary.getNobjects() - numberOfShared - numberOfLiterals;
+        if (numberOfNodes > Integer.MAX_VALUE || numberOfLiterals > Integer.MAX_VALUE || dictionary.getNpredicates() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The HDT data set has too many nodes for int IDs.");
+        }
+        int numberOfSubjectIds = (int) dictionary.getNsubjects();
+        long firstObjectId = numberOfShared + 1 + numberOfLiterals;
+
+        HdtSection subjects = new HdtSection(dictionary, TripleComponentRole.SUBJECT, 1, numberOfSubjectIds);
+        HdtSection objects = new HdtSection(dictionary, TripleComponentRole.OBJECT, firstObjectId, (int) (numberOfNodes - numberOfSubjectIds));
+        IdDictionary nodes = new HdtNodeDictionary(subjects, objects, dictionary.size());
+        IdDictionary literals = isIncludeLiterals ? new HdtSection(dictionary, TripleComponentRole.OBJECT, numberOfShared + 1, (int) numberOfLiterals)
+                : new LiteralStore();
+        IdDictionary predicates = new HdtSection(dictionary, TripleComponentRole.PREDICATE, 1, (int) dictionary.getNpredicates());
+
+        BigIntArray[] subjectIds = {new BigIntArray()};
+        BigIntArray[] predicateIds = {new BigIntArray()};
+        BigIntArray[] objectIds = {new BigIntArray()};
+        long numberOfSkippedTriples = 0;
+        IteratorTripleID iterator = hdt.getTriples().searchAll();
+        while (iterator.hasNext()) {
+            TripleID triple = iterator.next();
+            long object = triple.getObject();
+            int objectId;
+            if (object <= numberOfShared) {
+                objectId = (int) (object - 1);
+            } else if (object < firstObjectId) {
+                if (!isIncludeLiterals) {
+                    numberOfSkippedTriples++;
+                    continue;
+                }
+                objectId = LiteralStore.toNodeId((int) (object - numberOfShared - 1));
+            } else {
+                objectId = numberOfSubjectIds + (int) (object - firstObjectId);
+            }
+            subjectIds[0].add((int) (triple.getSubject() - 1));
+            predicateIds[0].add((int) (triple.getPredicate() - 1));
+            objectIds[0].add(objectId);
+        }
+
+        // HDT triples are duplicate-free, the adjacency is built like for a compiled data set
+        Adjacency forward = CsrAdjacency.build((int) numberOfNodes, subjectIds, objectIds, predicateIds);
+        Adjacency backward = null;
+        Adjacency literalBackward = null;
+        if (indexProfile.isObjectIndex()) {
+            backward = CsrAdjacency.build((int) numberOfNodes, objectIds, subjectIds, predicateIds);
+            if (literals.size() == 0) {
+                literalBackward = CsrAdjacency.build(0, new BigIntArray[0], new BigIntArray[0], new BigIntArray[0]);
+            } else {
+                TripleDataSetCsr.flipLiteralIds(objectIds);
+                literalBackward = CsrAdjacency.build(literals.size(), objectIds, subjectIds, predicateIds);
+            }
+        }
+        int numberOfSubjects = 0;
+        for (int node = 0; node < numberOfNodes; node++) {
+            if (forward.getDegree(node) > 0) numberOfSubjects++;
+        }
+        LOGGER.info("Imported " + forward.getNumberOfEdges() + " triples with " + numberOfNodes + " nodes and " + predicates.size()
+                + " predicates from HDT in " + (System.currentTimeMillis() - startTime) + " ms ("
+                + numberOfSkippedTriples + " triples with literals skipped).");
+        return new TripleDataSetCsr(nodes, literals, predicates, forward, backward, literalBackward, numberOfSubjects);
+    }
+
+    /**
+     * Count the literals of the object section (binary search for the first entry that does not start with a quote).
+     * @param dictionary The HDT dictionary.
+     * @return Number of literals.
+     */
+    static long countLiterals(Dictionary dictionary) {
+        long first = dictionary.getNshared() + 1;
+        long low = first;
+        long high = dictionary.getNobjects() + 1;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            CharSequence object = dictionary.idToString(middle, TripleComponentRole.OBJECT);
+            if (object != null && object.length() > 0 && object.charAt(0) == '"') {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - first;
+    }
+
+    /**
+     * A contiguous range of HDT IDs of one role as {@link IdDictionary}.
+     */
+    private static class HdtSection implements IdDictionary {
+
+        private final Dictionary dictionary;
+
+        private final TripleComponentRole role;
+
+        /**
+         * HDT ID of the entry with ID 0.
+         */
+        private final long firstHdtId;
+
+        private final int size;
+
+        HdtSection(Dictionary dictionary, TripleComponentRole role, long firstHdtId, int size) {
+            this.dictionary = dictionary;
+            this.role = role;
+            this.firstHdtId = firstHdtId;
+            this.size = size;
+        }
+
+        @Override
+        public int getId(String value) {
+            long hdtId = dictionary.stringToId(value, role);
+            if (hdtId < firstHdtId || hdtId >= firstHdtId + size) return -1;
+            return (int) (hdtId - firstHdtId);
+        }
+
+        @Override
+        public String getString(int id) {
+            return dictionary.idToString(firstHdtId + id, role).toString();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long getHeapBytes() {
+            return 0;
+        }
+
+        @Override
+        public long getMappedBytes() {
+            return 0;
+        }
+    }
+
+    /**
+     * Node dictionary: the subject section followed by the object section.
+     */
+    private static class HdtNodeDictionary implements IdDictionary {
+
+        private final HdtSection subjects;
+
+        private final HdtSection objects;
+
+        /**
+         * Size of the complete HDT dictionary in bytes.
+         */
+        private final long dictionaryBytes;
+
+        HdtNodeDictionary(HdtSection subjects, HdtSection objects, long dictionaryBytes) {
+            this.subjects = subjects;
+            this.objects = objects;
+            this.dictionaryBytes = dictionaryBytes;
+        }
+
+        @Override
+        public int getId(String value) {
+            int id = subjects.getId(value);
+            if (id >= 0) return id;
+            id = objects.getId(value);
+            return id < 0 ? -1 : subjects.size() + id;
+        }
+
+        @Override
+        public String getString(int id) {
+            return id < subjects.size() ? subjects.getString(id) : objects.getString(id - subjects.size());
+        }
+
+        @Override
+        public int size() {
+            return subjects.size() + objects.size();
+        }
+
+        @Override
+        public long getHeapBytes() {
+            return 0;
+        }
+
+        /**
+         * The HDT dictionary is memory-mapped; its size is accounted for the node dictionary only.
+         * @return Size of the HDT dictionary in bytes.
+         */
+        @Override
+        public long getMappedBytes() {
+            return dictionaryBytes;
+        }
+    }
+}
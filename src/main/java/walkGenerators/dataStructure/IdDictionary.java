@@ -0,0 +1,39 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Read access to a bidirectional mapping between Strings and dense int IDs.
+ */
+public interface IdDictionary {
+
+    /**
+     * Obtain the ID for the given String.
+     * @param value The String.
+     * @return ID or -1 if the String is unknown.
+     */
+    int getId(String value);
+
+    /**
+     * Obtain the String for the given ID.
+     * @param id The ID.
+     * @return String.
+     */
+    String getString(int id);
+
+    /**
+     * Number of entries.
+     * @return Number of entries.
+     */
+    int size();
+
+    /**
+     * Obtain the number of bytes on the heap (see {@link MemoryReport}).
+     * @return Heap bytes.
+     */
+    long getHeapBytes();
+
+    /**
+     * Obtain the number of bytes in memory-mapped files.
+     * @return Mapped bytes.
+     */
+    long getMappedBytes();
+}
@@ -0,0 +1,67 @@
+package walkGenerators.dataStructure;
+
+/**
+ * A {@link TripleDataSet} whose nodes and predicates are dictionary-encoded to ints.
+ * Walks can be generated on the ID level; Strings only have to be materialized when a walk is written.
+ * Edges are handed out in the packed representation of {@link PackedEdge}.
+ */
+public interface IdTripleDataSet extends TripleDataSet {
+
+    /**
+     * Obtain the ID of the given node.
+     * @param node The node (subject or object) as String.
+     * @return The ID of the node or -1 if the node is unknown.
+     */
+    int getNodeId(String node);
+
+    /**
+     * Obtain the String representation of the node with the given ID.
+     * @param nodeId The ID of the node.
+     * @return The node as String.
+     */
+    String getNode(int nodeId);
+
+    /**
+     * Obtain the String representation of the predicate with the given ID.
+     * @param predicateId The ID of the predicate.
+     * @return The predicate as String.
+     */
+    String getPredicate(int predicateId);
+
+    /**
+     * Obtain the number of distinct nodes (subjects and objects).
+     * @return Number of nodes. Node IDs are in the range [0, getNumberOfNodes()).
+     */
+    int getNumberOfNodes();
+
+    /**
+     * Obtain the number of triples where the given node is the subject.
+     * @param nodeId The ID of the subject.
+     * @return Out degree of the node.
+     */
+    int getOutDegree(int nodeId);
+
+    /**
+     * Obtain an outgoing edge of the given node.
+     * @param nodeId The ID of the subject.
+     * @param index Index of the edge in the range [0, getOutDegree(nodeId)).
+     * @return Packed edge consisting of predicate ID and object ID.
+     */
+    long getOutEdge(int nodeId, int index);
+
+    /**
+     * Obtain the number of triples where the given node is the object.
+     * @param nodeId The ID of the object.
+     * @return In degree of the node.
+     * @throws UnsupportedOperationException If the object index is not built.
+     */
+    int getInDegree(int nodeId);
+
+    /**
+     * Obtain an incoming edge of the given node.
+     * @param nodeId The ID of the object.
+     * @param index Index of the edge in the range [0, getInDegree(nodeId)).
+     * @return Packed edge consisting of predicate ID and subject ID.
+     */
+    long getInEdge(int nodeId, int index);
+}
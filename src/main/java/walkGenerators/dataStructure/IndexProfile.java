@@ -0,0 +1,48 @@
+package walkGenerators.dataStructure;
+
+/**
+ * The lookup indexes a triple data set builds. Indexes that are not required by the walk generation mode are not
+ * built in order to save memory (see {@link walkGenerators.base.WalkGenerationMode#getIndexProfile()}).
+ */
+public enum IndexProfile {
+
+    /**
+     * Subject index only (sufficient for random walks).
+     */
+    SUBJECT,
+
+    /**
+     * Subject and object index (required for mid walks).
+     */
+    SUBJECT_OBJECT,
+
+    /**
+     * Subject, predicate, and object index.
+     */
+    FULL;
+
+    /**
+     * Indicator whether triples can be looked up by their object.
+     * @return True if the object index is built.
+     */
+    public boolean isObjectIndex() {
+        return this != SUBJECT;
+    }
+
+    /**
+     * Indicator whether triples can be looked up by their predicate.
+     * @return True if the predicate index is built.
+     */
+    public boolean isPredicateIndex() {
+        return this == FULL;
+    }
+
+    /**
+     * Indicator whether all indexes of the given profile are also built by this profile.
+     * @param other The required profile.
+     * @return True if this profile covers the other one.
+     */
+    public boolean covers(IndexProfile other) {
+        return (isObjectIndex() || !other.isObjectIndex()) && (isPredicateIndex() || !other.isPredicateIndex());
+    }
+}
@@ -0,0 +1,242 @@
+package walkGenerators.dataStructure;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact, append-only column for literals (e.g. the values of datatype properties). Literals are never subjects and
+ * most of them occur only once, so they are kept apart from the node dictionary: there are no String objects and no
+ * adjacency slots for them.
+ *
+ * Each literal is split into its lexical form and its suffix (language tag or datatype, e.g. {@code @en} or
+ * {@code ^^<http://www.w3.org/2001/XMLSchema#string>}). The suffixes are dictionary-encoded; a literal is stored as
+ * varint suffix ID followed by the UTF-8 bytes of the lexical form. Literals are de-duplicated via an open-addressing
+ * hash table over the encoded bytes.
+ *
+ * Within the node ID space of a {@link TripleDataSetCsr}, literal IDs are encoded as negative numbers (see
+ * {@link LiteralStore#toNodeId(int)}) so that -1 keeps its meaning "unknown".
+ * Adding is thread-safe; reading while other threads add is not supported.
+ */
+public class LiteralStore implements IdDictionary {
+
+    /**
+     * Maximal load of the hash table before it is resized.
+     */
+    private static final float MAX_LOAD = 0.7f;
+
+    /**
+     * Encoded literals.
+     */
+    private final BigByteArray data = new BigByteArray();
+
+    /**
+     * Start position of each literal in {@link LiteralStore#data}; offsets[size] is the end of the last literal.
+     */
+    private final BigLongArray offsets = new BigLongArray();
+
+    /**
+     * Suffixes (language tags and datatypes).
+     */
+    private final NodeDictionary suffixes = new NodeDictionary(64);
+
+    /**
+     * Hash table holding ID + 1 for each slot (0 indicates an empty slot).
+     */
+    private int[] table = new int[1024];
+
+    /**
+     * Number of literals.
+     */
+    private int size;
+
+    /**
+     * Constructor
+     */
+    public LiteralStore() {
+        offsets.add(0);
+    }
+
+    /**
+     * Check whether the given node is a literal.
+     * @param node The node as String.
+     * @return True if the node is a literal.
+     */
+    public static boolean isLiteral(String node) {
+        return node.length() > 1 && node.charAt(0) == '"' && node.lastIndexOf('"') > 0;
+    }
+
+    /**
+     * Check whether the given node ID refers to a literal.
+     * @param nodeId Node ID.
+     * @return True if the ID is an encoded literal ID.
+     */
+    public static boolean isLiteralId(int nodeId) {
+        return nodeId <= -2;
+    }
+
+    /**
+     * Encode a literal ID as node ID.
+     * @param literalId ID within the literal store.
+     * @return Negative node ID.
+     */
+    public static int toNodeId(int literalId) {
+        return -2 - literalId;
+    }
+
+    /**
+     * Decode a node ID into a literal ID (the operation is its own inverse, see {@link LiteralStore#toNodeId(int)}).
+     * @param nodeId Negative node ID.
+     * @return ID within the literal store.
+     */
+    public static int toLiteralId(int nodeId) {
+        return -2 - nodeId;
+    }
+
+    /**
+     * Obtain the ID of the given literal. If the literal is not yet contained, it is added.
+     * @param literal The literal (including quotes and suffix, see {@link LiteralStore#isLiteral(String)}).
+     * @return ID of the literal.
+     */
+    public synchronized int getOrAdd(String literal) {
+        byte[] encoded = encode(literal, true);
+        int mask = table.length - 1;
+        int slot = hash(encoded) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (equalsBytes(entry - 1, encoded)) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        for (byte b : encoded) data.add(b);
+        offsets.add(data.size());
+        int id = size++;
+        table[slot] = id + 1;
+        if (size > table.length * MAX_LOAD) rehash(table.length * 2);
+        return id;
+    }
+
+    @Override
+    public int getId(String value) {
+        if (value == null || !isLiteral(value)) return -1;
+        byte[] encoded = encode(value, false);
+        if (encoded == null) return -1;
+        int mask = table.length - 1;
+        int slot = hash(encoded) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (equalsBytes(entry - 1, encoded)) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public String getString(int id) {
+        long position = offsets.get(id);
+        long end = offsets.get(id + 1);
+        int suffix = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get(position++);
+            suffix |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        byte[] lexicalForm = new byte[(int) (end - position)];
+        for (int i = 0; i < lexicalForm.length; i++) lexicalForm[i] = data.get(position + i);
+        return '"' + new String(lexicalForm, StandardCharsets.UTF_8) + '"' + suffixes.getString(suffix);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return data.getHeapBytes() + offsets.getHeapBytes() + MemoryReport.arrayBytes(table.length, 4) + suffixes.getHeapBytes();
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return 0;
+    }
+
+    /**
+     * Encode the literal as varint suffix ID and UTF-8 lexical form.
+     * @param literal The literal.
+     * @param isAddSuffix True if an unknown suffix shall be added, else null is returned for unknown suffixes.
+     * @return Encoded bytes.
+     */
+    private byte[] encode(String literal, boolean isAddSuffix) {
+        int closingQuote = literal.lastIndexOf('"');
+        String suffix = literal.substring(closingQuote + 1);
+        int suffixId = isAddSuffix ? suffixes.getOrAdd(suffix) : suffixes.getId(suffix);
+        if (suffixId < 0) return null;
+        byte[] lexicalForm = literal.substring(1, closingQuote).getBytes(StandardCharsets.UTF_8);
+        int suffixBytes = 1;
+        for (int v = suffixId >>> 7; v != 0; v >>>= 7) suffixBytes++;
+        byte[] result = new byte[suffixBytes + lexicalForm.length];
+        int position = 0;
+        int value = suffixId;
+        while ((value & ~0x7F) != 0) {
+            result[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        result[position++] = (byte) value;
+        System.arraycopy(lexicalForm, 0, result, position, lexicalForm.length);
+        return result;
+    }
+
+    /**
+     * Compare the stored literal of the given ID with the given encoded bytes.
+     * @param id ID
+     * @param encoded Encoded literal.
+     * @return True if equal, else false.
+     */
+    private boolean equalsBytes(int id, byte[] encoded) {
+        long start = offsets.get(id);
+        if (offsets.get(id + 1) - start != encoded.length) return false;
+        for (int i = 0; i < encoded.length; i++) {
+            if (data.get(start + i) != encoded[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hash the given encoded literal.
+     * @param encoded Encoded literal.
+     * @return Hash.
+     */
+    private static int hash(byte[] encoded) {
+        int h = 1;
+        for (byte b : encoded) h = 31 * h + b;
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Hash the stored literal of the given ID (see {@link LiteralStore#hash(byte[])}).
+     * @param id ID
+     * @return Hash.
+     */
+    private int hash(int id) {
+        int h = 1;
+        for (long i = offsets.get(id); i < offsets.get(id + 1); i++) h = 31 * h + data.get(i);
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Resize the hash table.
+     * @param newTableSize New size, must be a power of two.
+     */
+    private void rehash(int newTableSize) {
+        int[] newTable = new int[newTableSize];
+        int mask = newTableSize - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(id) & mask;
+            while (newTable[slot] != 0) slot = (slot + 1) & mask;
+            newTable[slot] = id + 1;
+        }
+        table = newTable;
+    }
+}
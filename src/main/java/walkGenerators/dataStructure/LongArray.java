@@ -0,0 +1,33 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Read access to a (potentially very large) array of longs. Implementations may live on the heap
+ * ({@link BigLongArray}) or in a memory-mapped file ({@link MappedLongArray}).
+ */
+public interface LongArray {
+
+    /**
+     * Obtain the value at the given position.
+     * @param index Position.
+     * @return Value.
+     */
+    long get(long index);
+
+    /**
+     * Returns the number of elements.
+     * @return Number of elements.
+     */
+    long size();
+
+    /**
+     * Obtain the number of bytes on the heap (see {@link MemoryReport}).
+     * @return Heap bytes.
+     */
+    long getHeapBytes();
+
+    /**
+     * Obtain the number of bytes in memory-mapped files.
+     * @return Mapped bytes.
+     */
+    long getMappedBytes();
+}
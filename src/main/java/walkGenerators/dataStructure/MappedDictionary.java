@@ -0,0 +1,169 @@
+package walkGenerators.dataStructure;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only {@link IdDictionary} that is backed by a {@link MappedFile}. Strings are decoded upon access; lookups
+ * use an open-addressing hash table that is part of the file so that nothing has to be rebuilt on the heap.
+ *
+ * File layout (little-endian, all sections 8-byte aligned):
+ * <pre>
+ * long   number of entries (n)
+ * long   hash table size (power of two)
+ * long[] n + 1 byte offsets into the string section
+ * int[]  hash table holding ID + 1 for each slot (0 indicates an empty slot), padded
+ * byte[] UTF-8 bytes of all strings
+ * </pre>
+ */
+public class MappedDictionary implements IdDictionary {
+
+    /**
+     * Maximal load of the hash table.
+     */
+    private static final float MAX_LOAD = 0.5f;
+
+    /**
+     * The file.
+     */
+    private final MappedFile file;
+
+    /**
+     * Number of entries.
+     */
+    private final int size;
+
+    /**
+     * Size of the hash table.
+     */
+    private final int tableSize;
+
+    /**
+     * Byte position of the offsets section.
+     */
+    private final long offsetsStart;
+
+    /**
+     * Byte position of the hash table section.
+     */
+    private final long tableStart;
+
+    /**
+     * Byte position of the string section.
+     */
+    private final long stringsStart;
+
+    /**
+     * Constructor
+     * @param file The mapped dictionary file.
+     */
+    public MappedDictionary(MappedFile file) {
+        this.file = file;
+        this.size = (int) file.getLong(0);
+        this.tableSize = (int) file.getLong(8);
+        this.offsetsStart = 16;
+        this.tableStart = offsetsStart + 8L * (size + 1);
+        this.stringsStart = tableStart + align(4L * tableSize);
+    }
+
+    /**
+     * Write the given dictionary to a file in the format that is read by this class.
+     * @param dictionary Dictionary to be written.
+     * @param target The file to be written.
+     * @throws IOException In case of write errors.
+     */
+    public static void write(IdDictionary dictionary, File target) throws IOException {
+        int size = dictionary.size();
+        int tableSize = 1;
+        while (tableSize < size / MAX_LOAD + 1) tableSize <<= 1;
+        int mask = tableSize - 1;
+        int[] table = new int[tableSize];
+        for (int id = 0; id < size; id++) {
+            int slot = NodeDictionary.hash(dictionary.getString(id)) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = id + 1;
+        }
+
+        try (BinaryFileWriter writer = new BinaryFileWriter(target)) {
+            writer.putLong(size);
+            writer.putLong(tableSize);
+            long offset = 0;
+            writer.putLong(offset);
+            for (int id = 0; id < size; id++) {
+                offset += dictionary.getString(id).getBytes(StandardCharsets.UTF_8).length;
+                writer.putLong(offset);
+            }
+            for (int entry : table) writer.putInt(entry);
+            writer.align();
+            for (int id = 0; id < size; id++) {
+                writer.putBytes(dictionary.getString(id).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Override
+    public int getId(String value) {
+        if (value == null || size == 0) return -1;
+        byte[] bytes = null;
+        int mask = tableSize - 1;
+        int slot = NodeDictionary.hash(value) & mask;
+        int entry;
+        while ((entry = file.getInt(tableStart + 4L * slot)) != 0) {
+            if (bytes == null) bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (equalsBytes(entry - 1, bytes)) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public String getString(int id) {
+        long start = file.getLong(offsetsStart + 8L * id);
+        long end = file.getLong(offsetsStart + 8L * (id + 1));
+        byte[] bytes = new byte[(int) (end - start)];
+        file.getBytes(stringsStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compare the stored string of the given ID with the given bytes.
+     * @param id ID
+     * @param bytes UTF-8 bytes.
+     * @return True if equal, else false.
+     */
+    private boolean equalsBytes(int id, byte[] bytes) {
+        long start = file.getLong(offsetsStart + 8L * id);
+        long end = file.getLong(offsetsStart + 8L * (id + 1));
+        if (end - start != bytes.length) return false;
+        long position = stringsStart + start;
+        for (int i = 0; i < bytes.length; i++) {
+            if (file.getByte(position + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Round up to the next multiple of 8.
+     * @param numberOfBytes Number of bytes.
+     * @return Aligned number of bytes.
+     */
+    private static long align(long numberOfBytes) {
+        return (numberOfBytes + 7) & ~7L;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return 0;
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return file.size();
+    }
+}
@@ -0,0 +1,138 @@
+package walkGenerators.dataStructure;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A memory-mapped file of arbitrary size. The file is mapped in segments of 1 GiB.
+ * Values are read in little-endian byte order (see {@link BinaryFileWriter}). Longs must be 8-byte aligned and
+ * ints 4-byte aligned so that no value spans two segments.
+ * Existing files are mapped read-only; new files (see {@link MappedFile#MappedFile(File, long)}) can also be written.
+ * All read methods are thread-safe, writes to distinct positions may be performed concurrently.
+ */
+public class MappedFile {
+
+    /**
+     * Number of bits for the position within a segment.
+     */
+    private static final int SEGMENT_BITS = 30;
+
+    /**
+     * Mask to obtain the position within a segment.
+     */
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    /**
+     * The mapped segments.
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Size of the file in bytes.
+     */
+    private final long size;
+
+    /**
+     * Constructor
+     * @param file The file to be mapped.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public MappedFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            size = channel.size();
+            segments = map(channel, FileChannel.MapMode.READ_ONLY, size);
+        }
+    }
+
+    /**
+     * Constructor for a new file that can be written via {@link MappedFile#putLong(long, long)}.
+     * @param file The file to be created (an existing file is overwritten).
+     * @param size Size of the file in bytes.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    public MappedFile(File file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.size = size;
+            segments = map(channel, FileChannel.MapMode.READ_WRITE, size);
+        }
+    }
+
+    /**
+     * Map the given channel in segments.
+     * @param channel Channel.
+     * @param mode Map mode.
+     * @param size Number of bytes to be mapped.
+     * @return Segments.
+     * @throws IOException If the channel cannot be mapped.
+     */
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        int numberOfSegments = (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+        MappedByteBuffer[] result = new MappedByteBuffer[Math.max(1, numberOfSegments)];
+        for (int i = 0; i < numberOfSegments; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            result[i] = channel.map(mode, start, Math.min(1L << SEGMENT_BITS, size - start));
+            result[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return result;
+    }
+
+    /**
+     * Read a long.
+     * @param position Byte position (8-byte aligned).
+     * @return Value.
+     */
+    public long getLong(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].getLong((int) (position & SEGMENT_MASK));
+    }
+
+    /**
+     * Write a long (only for files created via {@link MappedFile#MappedFile(File, long)}).
+     * @param position Byte position (8-byte aligned).
+     * @param value Value.
+     */
+    public void putLong(long position, long value) {
+        segments[(int) (position >>> SEGMENT_BITS)].putLong((int) (position & SEGMENT_MASK), value);
+    }
+
+    /**
+     * Read an int.
+     * @param position Byte position (4-byte aligned).
+     * @return Value.
+     */
+    public int getInt(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].getInt((int) (position & SEGMENT_MASK));
+    }
+
+    /**
+     * Read a byte.
+     * @param position Byte position.
+     * @return Value.
+     */
+    public byte getByte(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & SEGMENT_MASK));
+    }
+
+    /**
+     * Read multiple bytes.
+     * @param position Byte position of the first byte.
+     * @param target Array to be filled.
+     */
+    public void getBytes(long position, byte[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = getByte(position + i);
+        }
+    }
+
+    /**
+     * Size of the file.
+     * @return Size in bytes.
+     */
+    public long size() {
+        return size;
+    }
+}
@@ -0,0 +1,54 @@
+package walkGenerators.dataStructure;
+
+/**
+ * A {@link LongArray} that is backed by a section of a {@link MappedFile}.
+ */
+public class MappedLongArray implements LongArray {
+
+    /**
+     * The file.
+     */
+    private final MappedFile file;
+
+    /**
+     * Byte position of the first element.
+     */
+    private final long start;
+
+    /**
+     * Number of elements.
+     */
+    private final long size;
+
+    /**
+     * Constructor
+     * @param file The mapped file.
+     * @param start Byte position of the first element (8-byte aligned).
+     * @param size Number of elements.
+     */
+    public MappedLongArray(MappedFile file, long start, long size) {
+        this.file = file;
+        this.start = start;
+        this.size = size;
+    }
+
+    @Override
+    public long get(long index) {
+        return file.getLong(start + (index << 3));
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return 0;
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return size << 3;
+    }
+}
@@ -0,0 +1,266 @@
+package walkGenerators.dataStructure;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Estimated memory footprint of a {@link TripleDataSet}, split into components (e.g. indexes, dictionaries, and
+ * staging buffers). For each component, the bytes on the heap and the bytes in memory-mapped files are given.
+ *
+ * Sizes of primitive arrays are exact (up to the object layout of the JVM), sizes of object graphs such as Strings,
+ * map entries, and lists are estimated from samples. A 64 bit JVM with compressed references is assumed.
+ */
+public class MemoryReport {
+
+    /**
+     * Bytes of a reference.
+     */
+    static final int REFERENCE_BYTES = 4;
+
+    /**
+     * Bytes of an object header.
+     */
+    static final int OBJECT_HEADER_BYTES = 12;
+
+    /**
+     * Bytes of an array header.
+     */
+    static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Maximal number of objects that are inspected per component for estimations.
+     */
+    static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * Indicator whether the JVM stores Latin-1 Strings with one byte per character (Java 9 and later).
+     */
+    private static final boolean IS_COMPACT_STRINGS = !System.getProperty("java.specification.version", "").startsWith("1.");
+
+    /**
+     * Component name to {heap bytes, mapped bytes}.
+     */
+    private final Map<String, long[]> components = new LinkedHashMap<>();
+
+    /**
+     * Number of triples of the data set.
+     */
+    private final long numberOfTriples;
+
+    /**
+     * Constructor
+     * @param numberOfTriples The number of triples of the data set.
+     */
+    public MemoryReport(long numberOfTriples) {
+        this.numberOfTriples = numberOfTriples;
+    }
+
+    /**
+     * Add the footprint of a component. If the component already exists, the bytes are summed up.
+     * @param component Name of the component.
+     * @param heapBytes Bytes on the heap.
+     * @param mappedBytes Bytes in memory-mapped files.
+     */
+    public void add(String component, long heapBytes, long mappedBytes) {
+        long[] bytes = components.computeIfAbsent(component, key -> new long[2]);
+        bytes[0] += heapBytes;
+        bytes[1] += mappedBytes;
+    }
+
+    /**
+     * Obtain the names of all components in the order in which they were added.
+     * @return Component names.
+     */
+    public List<String> getComponents() {
+        return new ArrayList<>(components.keySet());
+    }
+
+    /**
+     * Obtain the heap bytes of a component.
+     * @param component Name of the component.
+     * @return Bytes; 0 if the component does not exist.
+     */
+    public long getHeapBytes(String component) {
+        long[] bytes = components.get(component);
+        return bytes == null ? 0 : bytes[0];
+    }
+
+    /**
+     * Obtain the mapped bytes of a component.
+     * @param component Name of the component.
+     * @return Bytes; 0 if the component does not exist.
+     */
+    public long getMappedBytes(String component) {
+        long[] bytes = components.get(component);
+        return bytes == null ? 0 : bytes[1];
+    }
+
+    /**
+     * Obtain the heap bytes of all components.
+     * @return Bytes.
+     */
+    public long getTotalHeapBytes() {
+        long result = 0;
+        for (long[] bytes : components.values()) result += bytes[0];
+        return result;
+    }
+
+    /**
+     * Obtain the mapped bytes of all components.
+     * @return Bytes.
+     */
+    public long getTotalMappedBytes() {
+        long result = 0;
+        for (long[] bytes : components.values()) result += bytes[1];
+        return result;
+    }
+
+    /**
+     * Obtain the number of triples of the data set.
+     * @return Number of triples.
+     */
+    public long getNumberOfTriples() {
+        return numberOfTriples;
+    }
+
+    /**
+     * Obtain the average number of heap bytes per triple.
+     * @return Bytes per triple; 0 if the data set is empty.
+     */
+    public double getHeapBytesPerTriple() {
+        return numberOfTriples == 0 ? 0 : (double) getTotalHeapBytes() / numberOfTriples;
+    }
+
+    /**
+     * Obtain the report as JSON object, e.g.
+     * <pre>
+     * {"triples": 10, "heapBytes": 1024, "mappedBytes": 0, "heapBytesPerTriple": 102.4,
+     *  "components": {"node dictionary": {"heapBytes": 512, "mappedBytes": 0}, ...}}
+     * </pre>
+     * @return JSON String.
+     */
+    public String toJson() {
+        StringBuilder result = new StringBuilder();
+        result.append("{\"triples\": ").append(numberOfTriples)
+                .append(", \"heapBytes\": ").append(getTotalHeapBytes())
+                .append(", \"mappedBytes\": ").append(getTotalMappedBytes())
+                .append(", \"heapBytesPerTriple\": ").append(String.format(Locale.ROOT, "%.1f", getHeapBytesPerTriple()))
+                .append(", \"components\": {");
+        boolean isFirst = true;
+        for (Map.Entry<String, long[]> entry : components.entrySet()) {
+            if (!isFirst) result.append(", ");
+            isFirst = false;
+            result.append('"').append(escapeJson(entry.getKey())).append("\": {\"heapBytes\": ").append(entry.getValue()[0])
+                    .append(", \"mappedBytes\": ").append(entry.getValue()[1]).append('}');
+        }
+        return result.append("}}").toString();
+    }
+
+    /**
+     * Escape the given String for a JSON String literal.
+     * @param value Value to be escaped.
+     * @return Escaped value.
+     */
+    private static String escapeJson(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') result.append('\\').append(c);
+            else if (c < 0x20) result.append(String.format("\\u%04x", (int) c));
+            else result.append(c);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(toMegabytes(getTotalHeapBytes())).append(" MB heap");
+        if (getTotalMappedBytes() > 0) result.append(" + ").append(toMegabytes(getTotalMappedBytes())).append(" MB mapped");
+        result.append(" for ").append(numberOfTriples).append(" triples (")
+                .append(String.format(Locale.ROOT, "%.1f", getHeapBytesPerTriple())).append(" heap bytes per triple)");
+        for (Map.Entry<String, long[]> entry : components.entrySet()) {
+            result.append("; ").append(entry.getKey()).append(": ").append(toMegabytes(entry.getValue()[0])).append(" MB");
+            if (entry.getValue()[1] > 0) result.append(" + ").append(toMegabytes(entry.getValue()[1])).append(" MB mapped");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Convert bytes to megabytes for logging.
+     * @param bytes Bytes.
+     * @return Megabytes with one decimal place.
+     */
+    private static String toMegabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Round the given size up to the object alignment (8 bytes).
+     * @param bytes Size.
+     * @return Aligned size.
+     */
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Obtain the heap bytes of an array.
+     * @param length Number of elements.
+     * @param elementBytes Bytes per element.
+     * @return Bytes.
+     */
+    static long arrayBytes(long length, int elementBytes) {
+        return align(ARRAY_HEADER_BYTES + length * elementBytes);
+    }
+
+    /**
+     * Obtain the heap bytes of an object with the given number of reference and primitive fields.
+     * @param fieldBytes Bytes of all fields.
+     * @return Bytes.
+     */
+    static long objectBytes(int fieldBytes) {
+        return align(OBJECT_HEADER_BYTES + fieldBytes);
+    }
+
+    /**
+     * Estimate the heap bytes of a String (object and character array).
+     * @param value The String.
+     * @return Bytes.
+     */
+    static long stringBytes(String value) {
+        int bytesPerChar = 2;
+        if (IS_COMPACT_STRINGS) {
+            bytesPerChar = 1;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > 0xFF) {
+                    bytesPerChar = 2;
+                    break;
+                }
+            }
+        }
+        return objectBytes(3 * REFERENCE_BYTES) + arrayBytes(value.length(), bytesPerChar);
+    }
+
+    /**
+     * Estimate the heap bytes of the first Strings of the given array from an evenly spaced sample.
+     * @param values Array of Strings (null entries are skipped).
+     * @param size Number of Strings to be covered.
+     * @return Bytes.
+     */
+    static long estimateStringBytes(String[] values, int size) {
+        size = Math.min(size, values.length);
+        if (size == 0) return 0;
+        int step = Math.max(1, size / SAMPLE_SIZE);
+        long sampledBytes = 0;
+        int sampled = 0;
+        for (int i = 0; i < size; i += step) {
+            if (values[i] == null) continue;
+            sampledBytes += stringBytes(values[i]);
+            sampled++;
+        }
+        return sampled == 0 ? 0 : (long) ((double) sampledBytes / sampled * size);
+    }
+}
@@ -0,0 +1,183 @@
+package walkGenerators.dataStructure;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary that maps Strings to dense int IDs (starting with 0) and back.
+ * Open addressing is used so that there are no entry objects or boxed Integers on the heap.
+ * This class is not thread-safe.
+ */
+public class NodeDictionary implements IdDictionary {
+
+    /**
+     * Maximal load of the hash table before it is resized.
+     */
+    private static final float MAX_LOAD = 0.7f;
+
+    /**
+     * ID to String.
+     */
+    private String[] idToString;
+
+    /**
+     * Hash table holding ID + 1 for each slot (0 indicates an empty slot).
+     */
+    private int[] table;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Constructor
+     */
+    public NodeDictionary() {
+        this(1024);
+    }
+
+    /**
+     * Constructor
+     * @param expectedSize The expected number of entries.
+     */
+    public NodeDictionary(int expectedSize) {
+        expectedSize = Math.max(16, expectedSize);
+        idToString = new String[expectedSize];
+        table = new int[tableSizeFor(expectedSize)];
+        size = 0;
+    }
+
+    /**
+     * Obtain the ID for the given String. If the String is not yet contained, it is added.
+     * @param value The String.
+     * @return ID of the String.
+     */
+    public int getOrAdd(String value) {
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (idToString[entry - 1].equals(value)) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        int id = size;
+        if (id == idToString.length) {
+            idToString = Arrays.copyOf(idToString, (int) Math.min(Integer.MAX_VALUE - 8, idToString.length * 3L / 2 + 1));
+        }
+        idToString[id] = value;
+        table[slot] = id + 1;
+        size++;
+        if (size > table.length * MAX_LOAD) rehash(table.length * 2);
+        return id;
+    }
+
+    /**
+     * Obtain the ID for the given String.
+     * @param value The String.
+     * @return ID or -1 if the String is unknown.
+     */
+    @Override
+    public int getId(String value) {
+        if (value == null) return -1;
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (idToString[entry - 1].equals(value)) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Obtain the String for the given ID.
+     * @param id The ID.
+     * @return String.
+     */
+    @Override
+    public String getString(int id) {
+        return idToString[id];
+    }
+
+    /**
+     * Number of entries.
+     * @return Number of entries.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Obtain the number of bytes on the heap. The size of the Strings is estimated from a sample.
+     * @return Heap bytes.
+     */
+    @Override
+    public long getHeapBytes() {
+        return MemoryReport.arrayBytes(idToString.length, MemoryReport.REFERENCE_BYTES) + MemoryReport.arrayBytes(table.length, 4)
+                + MemoryReport.estimateStringBytes(idToString, size);
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return 0;
+    }
+
+    /**
+     * Grow the arrays so that the given number of entries can be added without resizing.
+     * @param expectedSize The expected number of entries.
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > idToString.length) {
+            idToString = Arrays.copyOf(idToString, expectedSize);
+        }
+        int tableSize = tableSizeFor(expectedSize);
+        if (tableSize > table.length) rehash(tableSize);
+    }
+
+    /**
+     * Release the unused capacity of the ID to String array.
+     */
+    public void trimToSize() {
+        if (idToString.length > size) {
+            idToString = Arrays.copyOf(idToString, Math.max(16, size));
+        }
+    }
+
+    /**
+     * Resize the hash table.
+     * @param newTableSize New size, must be a power of two.
+     */
+    private void rehash(int newTableSize) {
+        int[] newTable = new int[newTableSize];
+        int mask = newTableSize - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(idToString[id]) & mask;
+            while (newTable[slot] != 0) slot = (slot + 1) & mask;
+            newTable[slot] = id + 1;
+        }
+        table = newTable;
+    }
+
+    /**
+     * Spread the String hash code so that linear probing works well on the lower bits.
+     * @param value String to be hashed.
+     * @return Hash.
+     */
+    static int hash(String value) {
+        int h = value.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Obtain the table size (power of two) for the given number of entries.
+     * @param expectedSize Expected number of entries.
+     * @return Table size.
+     */
+    private static int tableSizeFor(int expectedSize) {
+        long required = (long) (expectedSize / MAX_LOAD) + 1;
+        int result = 1;
+        while (result < required) result <<= 1;
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Order in which the nodes of a dictionary-encoded data set are numbered (see
+ * {@link TripleDataSetCsr#relabel(NodeOrder)}). Nodes with adjacent IDs have adjacent adjacency lists, so an order
+ * that places frequently visited nodes and their neighbours next to each other reduces cache misses during walks.
+ */
+public enum NodeOrder {
+
+    /**
+     * Nodes sorted by descending degree (in- plus out-degree): the adjacency lists of the hubs are contiguous.
+     */
+    DEGREE,
+
+    /**
+     * Breadth-first traversal over the forward and backward edges, starting at the node with the highest degree
+     * (further components are started at their node with the highest degree): the neighbours of a node receive
+     * consecutive IDs.
+     */
+    BFS
+}
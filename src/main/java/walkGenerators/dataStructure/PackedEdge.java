@@ -0,0 +1,43 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Helper methods for edges that are packed into a single long.
+ * The upper 32 bits hold the predicate ID, the lower 32 bits hold the ID of the neighbouring node
+ * (the object for outgoing edges, the subject for incoming edges).
+ */
+public final class PackedEdge {
+
+    /**
+     * Static helper, no instances.
+     */
+    private PackedEdge() {
+    }
+
+    /**
+     * Pack predicate and neighbour into one long.
+     * @param predicateId ID of the predicate.
+     * @param nodeId ID of the neighbouring node.
+     * @return Packed edge.
+     */
+    public static long pack(int predicateId, int nodeId) {
+        return ((long) predicateId << 32) | (nodeId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Obtain the predicate ID of the packed edge.
+     * @param edge Packed edge.
+     * @return Predicate ID.
+     */
+    public static int getPredicate(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    /**
+     * Obtain the ID of the neighbouring node of the packed edge.
+     * @param edge Packed edge.
+     * @return Node ID.
+     */
+    public static int getNode(long edge) {
+        return (int) edge;
+    }
+}
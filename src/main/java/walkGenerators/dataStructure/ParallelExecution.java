@@ -0,0 +1,72 @@
+package walkGenerators.dataStructure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs index-building tasks on all available cores. {@link ParallelExecution#stop(ThreadPoolExecutor)} is also used
+ * by other pools that must not be left with running tasks.
+ */
+public class ParallelExecution {
+
+    /**
+     * Execute the given task for each number in [0, numberOfTasks) and wait for completion.
+     * @param numberOfTasks Number of tasks.
+     * @param task The task, receives the task number.
+     * @throws IllegalStateException If a task failed or the thread was interrupted. The method returns only after the
+     * running tasks are finished.
+     */
+    static void run(int numberOfTasks, IntConsumer task) {
+        int numberOfThreads = Math.min(numberOfTasks, Runtime.getRuntime().availableProcessors());
+        if (numberOfThreads <= 1) {
+            for (int i = 0; i < numberOfTasks; i++) task.accept(i);
+            return;
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
+                0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(numberOfTasks));
+        List<Future<?>> futures = new ArrayList<>(numberOfTasks);
+        for (int i = 0; i < numberOfTasks; i++) {
+            final int taskNumber = i;
+            futures.add(pool.submit(() -> task.accept(taskNumber)));
+        }
+        pool.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            stop(pool);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for index building.", e);
+        } catch (ExecutionException e) {
+            stop(pool);
+            throw new IllegalStateException("Index building failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Discard the tasks that have not been started yet and wait until the running tasks are finished (they still
+     * write into shared data such as the arrays of the index). An interrupt while waiting does not end the wait, the
+     * interrupt flag is restored afterwards.
+     * @param pool The pool.
+     */
+    public static void stop(ThreadPoolExecutor pool) {
+        pool.shutdownNow();
+        boolean isInterrupted = false;
+        while (!pool.isTerminated()) {
+            try {
+                pool.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) Thread.currentThread().interrupt();
+    }
+}
@@ -0,0 +1,197 @@
+package walkGenerators.dataStructure;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe pool that de-duplicates Strings while data is loaded (a replacement for {@link String#intern()}).
+ * Unlike the JVM string table, the pool is scoped to one load and can be discarded afterwards; the canonical
+ * instances stay referenced by the data set only.
+ *
+ * Like {@link StripedNodeDictionary}, the pool is split into hash stripes ({@link NodeDictionary} instances) with one
+ * lock each. Besides the canonical instance, the pool can hand out a code per String. Hits and lookups are counted
+ * so that the effectiveness of the de-duplication can be reported.
+ */
+public class StringPool {
+
+    /**
+     * Number of bits for the stripe within a code.
+     */
+    private static final int STRIPE_BITS = 6;
+
+    /**
+     * Number of stripes.
+     */
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    /**
+     * Mask to obtain the stripe from a code.
+     */
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    /**
+     * Maximal number of entries per stripe.
+     */
+    private static final int MAX_STRIPE_SIZE = 1 << (31 - STRIPE_BITS);
+
+    /**
+     * The stripes.
+     */
+    private final NodeDictionary[] stripes;
+
+    /**
+     * Number of lookups.
+     */
+    private final LongAdder lookups = new LongAdder();
+
+    /**
+     * Number of lookups for which the String was already contained.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Constructor
+     */
+    public StringPool() {
+        this(1 << 16);
+    }
+
+    /**
+     * Constructor
+     * @param expectedSize The expected number of distinct Strings.
+     */
+    public StringPool(int expectedSize) {
+        stripes = new NodeDictionary[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new NodeDictionary(expectedSize / STRIPES);
+        }
+    }
+
+    /**
+     * Obtain the canonical instance of the given String. If the String is not yet contained, it becomes the
+     * canonical instance.
+     * @param value The String.
+     * @return The canonical instance (equal to the given String).
+     */
+    public String canonicalize(String value) {
+        NodeDictionary dictionary = stripes[stripe(value)];
+        String result;
+        boolean isHit;
+        synchronized (dictionary) {
+            int size = dictionary.size();
+            int position = dictionary.getOrAdd(value);
+            isHit = position < size;
+            result = isHit ? dictionary.getString(position) : value;
+        }
+        count(isHit);
+        return result;
+    }
+
+    /**
+     * Obtain the code of the given String. If the String is not yet contained, it is added. Codes are stable for the
+     * lifetime of the pool but not dense.
+     * @param value The String.
+     * @return Code of the String (see {@link StringPool#getString(int)}).
+     */
+    public int getOrAddCode(String value) {
+        int stripe = stripe(value);
+        NodeDictionary dictionary = stripes[stripe];
+        int position;
+        boolean isHit;
+        synchronized (dictionary) {
+            int size = dictionary.size();
+            position = dictionary.getOrAdd(value);
+            isHit = position < size;
+        }
+        if (position >= MAX_STRIPE_SIZE) {
+            throw new IllegalStateException("Pool capacity exceeded.");
+        }
+        count(isHit);
+        return (position << STRIPE_BITS) | stripe;
+    }
+
+    /**
+     * Obtain the canonical instance of the given code.
+     * @param code Code as returned by {@link StringPool#getOrAddCode(String)}.
+     * @return The String.
+     */
+    public String getString(int code) {
+        NodeDictionary dictionary = stripes[code & STRIPE_MASK];
+        synchronized (dictionary) {
+            return dictionary.getString(code >>> STRIPE_BITS);
+        }
+    }
+
+    /**
+     * Number of distinct Strings.
+     * @return Number of Strings.
+     */
+    public int size() {
+        int size = 0;
+        for (NodeDictionary dictionary : stripes) {
+            synchronized (dictionary) {
+                size += dictionary.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Number of lookups so far.
+     * @return Lookups.
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Number of lookups for which the String was already contained.
+     * @return Hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Share of the lookups for which the String was already contained.
+     * @return Hit rate between 0 and 1 (0 if there were no lookups).
+     */
+    public double getHitRate() {
+        long numberOfLookups = getLookups();
+        return numberOfLookups == 0 ? 0 : (double) getHits() / numberOfLookups;
+    }
+
+    /**
+     * Obtain the number of bytes on the heap (including the pooled Strings).
+     * @return Heap bytes.
+     */
+    public long getHeapBytes() {
+        long bytes = 0;
+        for (NodeDictionary dictionary : stripes) {
+            synchronized (dictionary) {
+                bytes += dictionary.getHeapBytes();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return size() + " distinct Strings, " + getLookups() + " lookups, hit rate "
+                + String.format("%.1f", getHitRate() * 100) + " %";
+    }
+
+    private void count(boolean isHit) {
+        lookups.increment();
+        if (isHit) hits.increment();
+    }
+
+    /**
+     * Stripe of the given String (the upper bits of the hash so that they are independent of the slot within the
+     * stripe).
+     * @param value The String.
+     * @return Stripe index.
+     */
+    private static int stripe(String value) {
+        return NodeDictionary.hash(value) >>> (32 - STRIPE_BITS);
+    }
+}
@@ -0,0 +1,227 @@
+package walkGenerators.dataStructure;
+
+/**
+ * Thread-safe dictionary that maps Strings to dense int IDs. The dictionary is split into hash stripes
+ * ({@link NodeDictionary} instances) with one lock each so that concurrent loading threads rarely block each other.
+ *
+ * While loading, {@link StripedNodeDictionary#getOrAddCode(String)} returns a preliminary code (stripe and position
+ * within the stripe). Dense IDs are assigned by {@link StripedNodeDictionary#assignIds()}: the IDs of a stripe
+ * follow the IDs of the previous stripe. The lookup methods of {@link IdDictionary} refer to the IDs of the last
+ * assignment.
+ */
+public class StripedNodeDictionary implements IdDictionary {
+
+    /**
+     * Number of bits for the stripe within a code.
+     */
+    private static final int STRIPE_BITS = 6;
+
+    /**
+     * Number of stripes.
+     */
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    /**
+     * Mask to obtain the stripe from a code.
+     */
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    /**
+     * Maximal number of entries per stripe.
+     */
+    private static final int MAX_STRIPE_SIZE = 1 << (31 - STRIPE_BITS);
+
+    /**
+     * The stripes.
+     */
+    private final NodeDictionary[] stripes;
+
+    /**
+     * ID of the first entry of each stripe; offsets[STRIPES] is the number of entries (as of the last assignment).
+     */
+    private volatile int[] offsets = new int[STRIPES + 1];
+
+    /**
+     * Constructor
+     * @param expectedSize The expected number of entries.
+     */
+    public StripedNodeDictionary(int expectedSize) {
+        stripes = new NodeDictionary[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new NodeDictionary(expectedSize / STRIPES);
+        }
+    }
+
+    /**
+     * Remove all entries. Must not be called concurrently to {@link StripedNodeDictionary#getOrAddCode(String)}.
+     */
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new NodeDictionary();
+        }
+        offsets = new int[STRIPES + 1];
+    }
+
+    /**
+     * Obtain the code for the given String. If the String is not yet contained, it is added. This method is
+     * thread-safe.
+     * @param value The String.
+     * @return Code of the String; use {@link StripedNodeDictionary#toId(int)} after {@link StripedNodeDictionary#assignIds()}
+     * to obtain the ID.
+     */
+    public int getOrAddCode(String value) {
+        int stripe = stripe(value);
+        NodeDictionary dictionary = stripes[stripe];
+        int position;
+        synchronized (dictionary) {
+            position = dictionary.getOrAdd(value);
+        }
+        if (position >= MAX_STRIPE_SIZE) {
+            throw new IllegalStateException("Dictionary capacity exceeded.");
+        }
+        return (position << STRIPE_BITS) | stripe;
+    }
+
+    /**
+     * Grow all stripes so that the given number of entries can be added without resizing.
+     * @param expectedSize The expected number of entries.
+     */
+    public void ensureCapacity(int expectedSize) {
+        for (NodeDictionary dictionary : stripes) {
+            synchronized (dictionary) {
+                dictionary.ensureCapacity(expectedSize / STRIPES + 1);
+            }
+        }
+    }
+
+    /**
+     * Release the unused capacity of all stripes.
+     */
+    public void trimToSize() {
+        for (NodeDictionary dictionary : stripes) {
+            synchronized (dictionary) {
+                dictionary.trimToSize();
+            }
+        }
+    }
+
+    /**
+     * Assign dense IDs to all entries. Must not be called concurrently to {@link StripedNodeDictionary#getOrAddCode(String)}.
+     */
+    public void assignIds() {
+        int[] newOffsets = new int[STRIPES + 1];
+        for (int i = 0; i < STRIPES; i++) {
+            newOffsets[i + 1] = newOffsets[i] + stripes[i].size();
+        }
+        offsets = newOffsets;
+    }
+
+    /**
+     * Convert a code into an ID (according to the last assignment).
+     * @param code Code as returned by {@link StripedNodeDictionary#getOrAddCode(String)}.
+     * @return ID
+     */
+    public int toId(int code) {
+        return offsets[code & STRIPE_MASK] + (code >>> STRIPE_BITS);
+    }
+
+    /**
+     * Convert an ID (according to the last assignment) into a code.
+     * @param id ID
+     * @return Code
+     */
+    public int toCode(int id) {
+        int stripe = stripeOfId(id);
+        return ((id - offsets[stripe]) << STRIPE_BITS) | stripe;
+    }
+
+    @Override
+    public int getId(String value) {
+        if (value == null) return -1;
+        int stripe = stripe(value);
+        int position = stripes[stripe].getId(value);
+        if (position < 0) return -1;
+        int[] currentOffsets = offsets;
+        // entries added after the last assignment do not have an ID yet
+        if (position >= currentOffsets[stripe + 1] - currentOffsets[stripe]) return -1;
+        return currentOffsets[stripe] + position;
+    }
+
+    @Override
+    public String getString(int id) {
+        int stripe = stripeOfId(id);
+        return stripes[stripe].getString(id - offsets[stripe]);
+    }
+
+    /**
+     * Number of entries including the entries that do not have an ID yet. This method can be called while other
+     * threads add entries.
+     * @return Number of entries.
+     */
+    public int getNumberOfEntries() {
+        int result = 0;
+        for (NodeDictionary dictionary : stripes) {
+            synchronized (dictionary) {
+                result += dictionary.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of entries (as of the last assignment).
+     * @return Number of entries.
+     */
+    @Override
+    public int size() {
+        return offsets[STRIPES];
+    }
+
+    /**
+     * Obtain the number of bytes on the heap (including the entries that do not have an ID yet). This method can be
+     * called while other threads add entries.
+     * @return Heap bytes.
+     */
+    @Override
+    public long getHeapBytes() {
+        long result = MemoryReport.arrayBytes(STRIPES + 1, 4) + MemoryReport.arrayBytes(STRIPES, MemoryReport.REFERENCE_BYTES);
+        for (NodeDictionary dictionary : stripes) {
+            synchronized (dictionary) {
+                result += dictionary.getHeapBytes();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return 0;
+    }
+
+    /**
+     * Obtain the stripe of the given ID by binary search over the offsets.
+     * @param id ID
+     * @return Stripe
+     */
+    private int stripeOfId(int id) {
+        int[] currentOffsets = offsets;
+        int low = 0;
+        int high = STRIPES - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (currentOffsets[middle] <= id) low = middle;
+            else high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * Obtain the stripe of the given String. The upper bits of the hash are used as {@link NodeDictionary} uses the
+     * lower bits.
+     * @param value String
+     * @return Stripe
+     */
+    private static int stripe(String value) {
+        return NodeDictionary.hash(value) >>> (32 - STRIPE_BITS);
+    }
+}
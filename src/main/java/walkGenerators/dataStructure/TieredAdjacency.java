@@ -0,0 +1,343 @@
+package walkGenerators.dataStructure;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adjacency lists that are split into a hot tier on the heap and a cold tier in a memory-mapped file so that graphs
+ * whose adjacency does not fit into the heap can be processed. All edges are written to the (spill) file in
+ * compressed-sparse-row layout; the lists of the nodes with the highest degree are additionally kept on the heap as
+ * long as they fit into the given heap budget. The long tail of low-degree nodes is read from the file, i.e., from
+ * the page cache of the operating system or from disk.
+ *
+ * The offsets (8 bytes per node) are always kept on the heap. The edge reads of both tiers are counted (see
+ * {@link TieredAdjacency#getHotReads()} and {@link TieredAdjacency#getColdReads()}) so that the I/O share can be
+ * reported.
+ */
+public class TieredAdjacency implements Adjacency {
+
+    /**
+     * Flag on the start offset of nodes whose edges are on the heap.
+     */
+    private static final long HOT_FLAG = 1L << 63;
+
+    /**
+     * Estimated heap bytes per hot node besides its edges (hash table slots).
+     */
+    private static final long HOT_NODE_OVERHEAD = 24;
+
+    /**
+     * Start position of the edges of each node in the file (see {@link CsrAdjacency}), flagged with
+     * {@link TieredAdjacency#HOT_FLAG} for hot nodes.
+     */
+    private final BigLongArray offsets;
+
+    /**
+     * All edges (8 bytes each).
+     */
+    private final MappedFile coldEdges;
+
+    /**
+     * The file of {@link TieredAdjacency#coldEdges}.
+     */
+    private final File spillFile;
+
+    /**
+     * Edges of the hot nodes.
+     */
+    private final BigLongArray hotEdges;
+
+    /**
+     * Hash table (open addressing) of the hot nodes: node ID + 1 (0 indicates an empty slot).
+     */
+    private final int[] hotNodes;
+
+    /**
+     * Start position of the edges in {@link TieredAdjacency#hotEdges} for each slot of
+     * {@link TieredAdjacency#hotNodes}.
+     */
+    private final long[] hotStarts;
+
+    /**
+     * Number of hot nodes.
+     */
+    private final int numberOfHotNodes;
+
+    /**
+     * Number of edge reads served from the heap.
+     */
+    private final LongAdder hotReads = new LongAdder();
+
+    /**
+     * Number of edge reads served from the file.
+     */
+    private final LongAdder coldReads = new LongAdder();
+
+    /**
+     * Constructor
+     * @param offsets Flagged offsets.
+     * @param coldEdges All edges.
+     * @param spillFile The file of the edges.
+     * @param hotEdges Edges of the hot nodes.
+     * @param hotNodes Hash table of the hot nodes.
+     * @param hotStarts Start positions of the hot nodes.
+     * @param numberOfHotNodes Number of hot nodes.
+     */
+    private TieredAdjacency(BigLongArray offsets, MappedFile coldEdges, File spillFile, BigLongArray hotEdges, int[] hotNodes,
+                            long[] hotStarts, int numberOfHotNodes) {
+        this.offsets = offsets;
+        this.coldEdges = coldEdges;
+        this.spillFile = spillFile;
+        this.hotEdges = hotEdges;
+        this.hotNodes = hotNodes;
+        this.hotStarts = hotStarts;
+        this.numberOfHotNodes = numberOfHotNodes;
+    }
+
+    /**
+     * Number of tasks for sorting the edges in parallel (more tasks than cores to balance skewed degrees).
+     */
+    private static final int SORT_TASKS = 256;
+
+    /**
+     * Build the adjacency from parallel source/edge arrays (see
+     * {@link CsrAdjacency#build(int, BigIntArray[], BigIntArray[], BigIntArray[])}). The edges are written directly
+     * to the spill file, so the complete edge array is never on the heap.
+     * @param numberOfNodes The number of nodes.
+     * @param sources Node to which each edge belongs (edges with a negative source are skipped).
+     * @param targets The neighbour node of each edge.
+     * @param predicates The predicate of each edge.
+     * @param isDuplicateFree True if duplicate edges shall be removed.
+     * @param heapBudget Maximal number of heap bytes for the hot edges.
+     * @param spillFile File for the edges (deleted on exit).
+     * @return Built adjacency.
+     * @throws IOException If the spill file cannot be written.
+     */
+    static TieredAdjacency build(int numberOfNodes, BigIntArray[] sources, BigIntArray[] targets, BigIntArray[] predicates,
+                                 boolean isDuplicateFree, long heapBudget, File spillFile) throws IOException {
+        // count degrees and compute prefix sums; edges of negative sources (literals) are skipped
+        BigLongArray offsets = new BigLongArray(numberOfNodes + 1L);
+        for (BigIntArray segment : sources) {
+            for (long i = 0; i < segment.size(); i++) {
+                int position = segment.get(i) + 1;
+                if (position > 0) offsets.set(position, offsets.get(position) + 1);
+            }
+        }
+        long[] cursor = new long[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) {
+            cursor[node] = offsets.get(node);
+            offsets.set(node + 1, offsets.get(node + 1) + offsets.get(node));
+        }
+        long numberOfEdges = offsets.get(numberOfNodes);
+
+        // fill the edges
+        spillFile.deleteOnExit();
+        MappedFile file = new MappedFile(spillFile, numberOfEdges << 3);
+        for (int segment = 0; segment < sources.length; segment++) {
+            for (long i = 0; i < sources[segment].size(); i++) {
+                int source = sources[segment].get(i);
+                if (source < 0) continue;
+                file.putLong((cursor[source]++) << 3, PackedEdge.pack(predicates[segment].get(i), targets[segment].get(i)));
+            }
+        }
+        cursor = null;
+
+        // sort the edges of each node; the node ranges of the tasks are disjoint
+        ParallelExecution.run(SORT_TASKS, task -> {
+            int fromNode = (int) ((long) numberOfNodes * task / SORT_TASKS);
+            int toNode = (int) ((long) numberOfNodes * (task + 1) / SORT_TASKS);
+            for (int node = fromNode; node < toNode; node++) {
+                long from = offsets.get(node);
+                int degree = (int) (offsets.get(node + 1) - from);
+                if (degree < 2) continue;
+                long[] edges = new long[degree];
+                for (int i = 0; i < degree; i++) edges[i] = file.getLong((from + i) << 3);
+                Arrays.sort(edges);
+                for (int i = 0; i < degree; i++) file.putLong((from + i) << 3, edges[i]);
+            }
+        });
+
+        if (isDuplicateFree) {
+            // compact in place, duplicates are adjacent
+            long write = 0;
+            long from = offsets.get(0);
+            for (int node = 0; node < numberOfNodes; node++) {
+                long to = offsets.get(node + 1);
+                offsets.set(node, write);
+                for (long read = from; read < to; read++) {
+                    long edge = file.getLong(read << 3);
+                    if (read == from || edge != file.getLong((read - 1) << 3)) file.putLong((write++) << 3, edge);
+                }
+                from = to;
+            }
+            offsets.set(numberOfNodes, write);
+        }
+        return selectHotNodes(numberOfNodes, offsets, file, spillFile, heapBudget);
+    }
+
+    /**
+     * Copy the edges of the nodes with the highest degree to the heap.
+     * @param numberOfNodes The number of nodes.
+     * @param offsets Offsets (not yet flagged).
+     * @param file All edges.
+     * @param spillFile The file of the edges.
+     * @param heapBudget Maximal number of heap bytes for the hot edges.
+     * @return Adjacency.
+     */
+    private static TieredAdjacency selectHotNodes(int numberOfNodes, BigLongArray offsets, MappedFile file, File spillFile, long heapBudget) {
+        // degree -> number of nodes; there are only few distinct degrees
+        TreeMap<Integer, Integer> histogram = new TreeMap<>();
+        for (int node = 0; node < numberOfNodes; node++) {
+            int degree = (int) (offsets.get(node + 1) - offsets.get(node));
+            if (degree > 0) histogram.merge(degree, 1, Integer::sum);
+        }
+
+        // determine the minimal degree of the hot nodes and how many nodes of that degree fit
+        int minimalDegree = Integer.MAX_VALUE;
+        int nodesWithMinimalDegree = 0;
+        long remainingBudget = heapBudget;
+        for (Map.Entry<Integer, Integer> entry : histogram.descendingMap().entrySet()) {
+            long bytesPerNode = 8L * entry.getKey() + HOT_NODE_OVERHEAD;
+            long fitting = Math.min(entry.getValue(), remainingBudget / bytesPerNode);
+            if (fitting == 0) break;
+            minimalDegree = entry.getKey();
+            nodesWithMinimalDegree = (int) fitting;
+            remainingBudget -= fitting * bytesPerNode;
+            if (fitting < entry.getValue()) break;
+        }
+
+        int numberOfHotNodes = 0;
+        long numberOfHotEdges = 0;
+        for (Map.Entry<Integer, Integer> entry : histogram.tailMap(minimalDegree, true).entrySet()) {
+            int count = entry.getKey() == minimalDegree ? nodesWithMinimalDegree : entry.getValue();
+            numberOfHotNodes += count;
+            numberOfHotEdges += (long) count * entry.getKey();
+        }
+
+        int tableSize = Integer.highestOneBit(Math.max(1, numberOfHotNodes) * 2 - 1) << 1;
+        int[] hotNodes = new int[tableSize];
+        long[] hotStarts = new long[tableSize];
+        BigLongArray hotEdges = new BigLongArray(numberOfHotEdges);
+        long hotPosition = 0;
+        int remainingWithMinimalDegree = nodesWithMinimalDegree;
+        for (int node = 0; node < numberOfNodes; node++) {
+            long from = offsets.get(node);
+            int degree = (int) ((offsets.get(node + 1) & ~HOT_FLAG) - from);
+            if (degree < minimalDegree || degree == 0) continue;
+            if (degree == minimalDegree && remainingWithMinimalDegree-- <= 0) continue;
+            int slot = hash(node) & (tableSize - 1);
+            while (hotNodes[slot] != 0) slot = (slot + 1) & (tableSize - 1);
+            hotNodes[slot] = node + 1;
+            hotStarts[slot] = hotPosition;
+            for (int i = 0; i < degree; i++) hotEdges.set(hotPosition++, file.getLong((from + i) << 3));
+            offsets.set(node, from | HOT_FLAG);
+        }
+        return new TieredAdjacency(offsets, file, spillFile, hotEdges, hotNodes, hotStarts, numberOfHotNodes);
+    }
+
+    /**
+     * Spread the node ID for the hash table.
+     * @param node Node ID.
+     * @return Hash.
+     */
+    private static int hash(int node) {
+        int h = node * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Obtain the start position of a hot node in {@link TieredAdjacency#hotEdges}.
+     * @param nodeId Node ID (must be hot).
+     * @return Start position.
+     */
+    private long getHotStart(int nodeId) {
+        int mask = hotNodes.length - 1;
+        int slot = hash(nodeId) & mask;
+        while (hotNodes[slot] != nodeId + 1) slot = (slot + 1) & mask;
+        return hotStarts[slot];
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return (int) (offsets.size() - 1);
+    }
+
+    @Override
+    public int getDegree(int nodeId) {
+        if (nodeId < 0 || nodeId >= offsets.size() - 1) return 0;
+        return (int) ((offsets.get(nodeId + 1) & ~HOT_FLAG) - (offsets.get(nodeId) & ~HOT_FLAG));
+    }
+
+    @Override
+    public long getEdge(int nodeId, int index) {
+        long start = offsets.get(nodeId);
+        if ((start & HOT_FLAG) != 0) {
+            hotReads.increment();
+            return hotEdges.get(getHotStart(nodeId) + index);
+        }
+        coldReads.increment();
+        return coldEdges.getLong((start + index) << 3);
+    }
+
+    @Override
+    public long getNumberOfEdges() {
+        return offsets.get(offsets.size() - 1) & ~HOT_FLAG;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return offsets.getHeapBytes() + hotEdges.getHeapBytes() + MemoryReport.arrayBytes(hotNodes.length, 4)
+                + MemoryReport.arrayBytes(hotStarts.length, 8);
+    }
+
+    @Override
+    public long getMappedBytes() {
+        return coldEdges.size();
+    }
+
+    /**
+     * Delete the spill file once the adjacency has been replaced; the adjacency must not be read afterwards. The
+     * mapping itself is released by the garbage collector (the disk space of the deleted file is freed then).
+     * @return True if the file was deleted (it is deleted on exit otherwise, e.g. if the file system does not allow to
+     * delete mapped files).
+     */
+    boolean deleteSpillFile() {
+        return spillFile.delete();
+    }
+
+    /**
+     * Obtain the number of nodes whose edges are on the heap.
+     * @return Number of hot nodes.
+     */
+    public int getNumberOfHotNodes() {
+        return numberOfHotNodes;
+    }
+
+    /**
+     * Obtain the number of edges on the heap.
+     * @return Number of hot edges.
+     */
+    public long getNumberOfHotEdges() {
+        return hotEdges.size();
+    }
+
+    /**
+     * Obtain the number of edge reads that were served from the heap.
+     * @return Number of reads.
+     */
+    public long getHotReads() {
+        return hotReads.sum();
+    }
+
+    /**
+     * Obtain the number of edge reads that were served from the spill file.
+     * @return Number of reads.
+     */
+    public long getColdReads() {
+        return coldReads.sum();
+    }
+}
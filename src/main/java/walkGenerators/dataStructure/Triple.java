@@ -26,9 +26,25 @@ public class Triple {
         return this.subject.equals(that.subject) && this.predicate.equals(that.predicate) && this.object.equals(that.object);
     }
 
+    /**
+     * The hash code equals {@code (subject + "_1").hashCode() + (predicate + "_2").hashCode() + (object + "_2").hashCode()}
+     * but is computed without concatenating Strings (the String hash of {@code s + "_x"} is
+     * {@code s.hashCode() * 31 * 31 + '_' * 31 + 'x'}).
+     * @return Hash code.
+     */
     @Override
     public int hashCode(){
-        return (subject + "_1").hashCode() + (predicate + "_2").hashCode() + (object + "_2").hashCode();
+        return suffixHash(subject, '1') + suffixHash(predicate, '2') + suffixHash(object, '2');
+    }
+
+    /**
+     * Obtain the String hash code of the given String with suffix {@code "_" + suffix} without creating the String.
+     * @param value String.
+     * @param suffix Last character of the suffix.
+     * @return Hash code.
+     */
+    private static int suffixHash(String value, char suffix){
+        return value.hashCode() * 961 + '_' * 31 + suffix;
     }
 
 }
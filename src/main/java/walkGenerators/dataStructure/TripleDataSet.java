@@ -0,0 +1,91 @@
+package walkGenerators.dataStructure;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An in-memory triple store that can be used by the memory parsers for walk generation.
+ */
+public interface TripleDataSet {
+
+    /**
+     * Add the given triple as specified by its components.
+     * @param subject Subject
+     * @param predicate Predicate
+     * @param object Object
+     */
+    void add(String subject, String predicate, String object);
+
+    /**
+     * Add the given triple.
+     * @param tripleToAdd Triple to be added.
+     */
+    void add(Triple tripleToAdd);
+
+    /**
+     * Build the lookup indexes from all triples added so far. Call this method once loading is completed (i.e., after
+     * all loading threads have been joined). Implementations call it lazily upon the first lookup if required.
+     */
+    void compile();
+
+    /**
+     * Obtain all triples where the given node is the subject.
+     * @param subject The subject.
+     * @return List of triples or null if there is no triple for the given subject.
+     */
+    List<Triple> getTriplesInvolvingSubject(String subject);
+
+    /**
+     * Obtain all triples where the given node is the object.
+     * @param object The object.
+     * @return List of triples or null if there is no triple for the given object.
+     * @throws UnsupportedOperationException If the object index is not built (see {@link TripleDataSet#getIndexProfile()}).
+     */
+    List<Triple> getTriplesInvolvingObject(String object);
+
+    /**
+     * Returns the number of managed triples.
+     * @return The number of managed triples.
+     */
+    long getSize();
+
+    /**
+     * Returns the number of duplicate triples that were removed upon compilation (if duplicate elimination is enabled)
+     * and that are not counted by {@link TripleDataSet#getSize()}.
+     * @return The number of removed duplicates.
+     */
+    long getNumberOfRemovedDuplicates();
+
+    /**
+     * Obtain a set of all subjects.
+     * @return Subject set.
+     */
+    Set<String> getUniqueSubjects();
+
+    /**
+     * Pre-size the indexes for the expected graph so that they do not have to be resized while loading. Call this
+     * method before adding triples; it has no effect on data sets that already contain triples.
+     * @param estimate Expected size of the graph.
+     */
+    void presize(GraphSizeEstimate estimate);
+
+    /**
+     * Estimate the memory footprint of this data set per component (indexes, dictionaries, and triples that are not
+     * yet compiled). The method can be called while triples are added; the result is approximate then.
+     * @return Memory report.
+     */
+    MemoryReport getMemoryReport();
+
+    /**
+     * Obtain the indexes that are built by this data set.
+     * @return Index profile.
+     */
+    IndexProfile getIndexProfile();
+
+    /**
+     * Create an empty data set with the same configuration (type, indexes, and options), e.g. to load the triples
+     * again after a failed load.
+     * @return Empty data set.
+     */
+    TripleDataSet createEmpty();
+}
@@ -0,0 +1,933 @@
+package walkGenerators.dataStructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compact alternative to {@link TripleDataSetMemory}.
+ * Nodes and predicates are dictionary-encoded to ints; forward (subject to object) and backward (object to subject)
+ * adjacency is kept in compressed-sparse-row arrays (see {@link CsrAdjacency}). There is no {@link Triple} object
+ * per statement.
+ * Optionally, the data set is compressed: the adjacency lists are delta/varint-compressed
+ * (see {@link CompressedAdjacency}) and the node dictionary is front-coded (see {@link FrontCodedDictionary}).
+ *
+ * Triples are staged as int codes while loading. Each loading thread has its own staging buffer, the dictionaries are
+ * hash-striped (see {@link StripedNodeDictionary}), so adding triples from multiple threads scales with the number of
+ * cores. The adjacency arrays are built by {@link TripleDataSetCsr#compile()} which is triggered automatically upon the
+ * first lookup. Triples added after that are merged by another compile run. Adding triples while other threads read
+ * from the data set is not supported.
+ *
+ * Alternatively, the data set is tiered: the adjacency lists of low-degree nodes are spilled to memory-mapped files
+ * and only the lists of high-degree nodes are kept on the heap within a given budget (see {@link TieredAdjacency}).
+ *
+ * Literal objects (e.g. the values of datatype properties) are kept in a separate {@link LiteralStore}: they are not
+ * part of the node dictionary and the node adjacency arrays. Walks can still end on a literal; within the ID API,
+ * literals have negative IDs (see {@link LiteralStore#toNodeId(int)}) with out-degree 0.
+ *
+ * After loading, the nodes of an uncompressed data set can be renumbered so that nodes that are visited together have
+ * adjacent adjacency lists (see {@link TripleDataSetCsr#relabel(NodeOrder)}).
+ *
+ * Optionally, duplicate triples are removed upon compilation (the edges of each node are sorted, so duplicates are
+ * adjacent).
+ *
+ * The backward adjacency is only built if the {@link IndexProfile} requires an object index. There is no predicate
+ * index, {@link IndexProfile#FULL} is treated like {@link IndexProfile#SUBJECT_OBJECT}.
+ *
+ * A compiled data set can be persisted via {@link GraphSnapshot} and memory-mapped in later runs.
+ */
+public class TripleDataSetCsr implements IdTripleDataSet {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripleDataSetCsr.class);
+
+    /**
+     * Dictionary for subjects and objects that is used for lookups. This is either the staging dictionary or, for
+     * compressed data sets, a {@link FrontCodedDictionary} that is built upon compilation.
+     */
+    private IdDictionary nodes;
+
+    /**
+     * Dictionary for subjects and objects that is used while loading (null for read-only data sets).
+     */
+    private final StripedNodeDictionary stagingNodes;
+
+    /**
+     * Literal objects (a {@link LiteralStore} for writable data sets).
+     */
+    private final IdDictionary literals;
+
+    /**
+     * Dictionary for predicates.
+     */
+    private final IdDictionary predicates;
+
+    /**
+     * The staging buffers of all threads that added triples.
+     */
+    private final List<Staging> stagings = new ArrayList<>();
+
+    /**
+     * The staging buffer of the current thread.
+     */
+    private final ThreadLocal<Staging> staging = ThreadLocal.withInitial(this::registerStaging);
+
+    /**
+     * Number of triples (compiled and staged).
+     */
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Subject to (predicate, object).
+     */
+    private Adjacency forward;
+
+    /**
+     * Object to (predicate, subject); null if the object index is not built.
+     */
+    private Adjacency backward;
+
+    /**
+     * Literal to (predicate, subject); null if the object index is not built.
+     */
+    private Adjacency literalBackward;
+
+    /**
+     * The indexes that are built.
+     */
+    private final IndexProfile indexProfile;
+
+    /**
+     * Indicator whether the adjacency lists are compressed (see {@link CompressedAdjacency}).
+     */
+    private final boolean isCompressed;
+
+    /**
+     * Indicator whether duplicate triples are removed upon compilation.
+     */
+    private final boolean isDuplicateFree;
+
+    /**
+     * Directory for the spill files of the tiered adjacency (null if the adjacency is kept on the heap completely).
+     */
+    private final File spillDirectory;
+
+    /**
+     * Maximal number of heap bytes for the edges of the tiered adjacency.
+     */
+    private final long adjacencyHeapBudget;
+
+    /**
+     * Number of duplicate triples removed so far.
+     */
+    private long numberOfRemovedDuplicates;
+
+    /**
+     * Number of nodes that occur as subject.
+     */
+    private int numberOfSubjects;
+
+    /**
+     * Indicator whether there are no staged triples.
+     */
+    private volatile boolean isCompiled = false;
+
+    /**
+     * Indicator whether triples can be added (false for data sets opened from a {@link GraphSnapshot}).
+     */
+    private final boolean isWritable;
+
+    /**
+     * Constructor (subject and object index are built).
+     */
+    public TripleDataSetCsr() {
+        this(IndexProfile.SUBJECT_OBJECT);
+    }
+
+    /**
+     * Constructor
+     * @param indexProfile The indexes to be built.
+     */
+    public TripleDataSetCsr(IndexProfile indexProfile) {
+        this(indexProfile, false);
+    }
+
+    /**
+     * Constructor
+     * @param indexProfile The indexes to be built.
+     * @param isCompressed True if the adjacency lists and the node dictionary shall be compressed. This saves memory
+     *                     at the cost of slower lookups.
+     */
+    public TripleDataSetCsr(IndexProfile indexProfile, boolean isCompressed) {
+        this(indexProfile, isCompressed, false);
+    }
+
+    /**
+     * Constructor
+     * @param indexProfile The indexes to be built.
+     * @param isCompressed True if the adjacency lists and the node dictionary shall be compressed. This saves memory
+     *                     at the cost of slower lookups.
+     * @param isDuplicateFree True if duplicate triples shall be removed upon compilation.
+     */
+    public TripleDataSetCsr(IndexProfile indexProfile, boolean isCompressed, boolean isDuplicateFree) {
+        this(indexProfile, isCompressed, isDuplicateFree, null, 0);
+    }
+
+    /**
+     * Constructor for a tiered data set (see {@link TieredAdjacency}).
+     * @param indexProfile The indexes to be built.
+     * @param isDuplicateFree True if duplicate triples shall be removed upon compilation.
+     * @param spillDirectory Directory for the spill files.
+     * @param adjacencyHeapBudget Maximal number of heap bytes for the edges of high-degree nodes (shared by the forward
+     *                            and the backward adjacency).
+     */
+    public TripleDataSetCsr(IndexProfile indexProfile, boolean isDuplicateFree, File spillDirectory, long adjacencyHeapBudget) {
+        this(indexProfile, false, isDuplicateFree, spillDirectory, adjacencyHeapBudget);
+    }
+
+    /**
+     * Constructor
+     * @param indexProfile The indexes to be built.
+     * @param isCompressed True if the adjacency lists and the node dictionary shall be compressed.
+     * @param isDuplicateFree True if duplicate triples shall be removed upon compilation.
+     * @param spillDirectory Directory for the spill files (null if the adjacency shall not be tiered).
+     * @param adjacencyHeapBudget Maximal number of heap bytes for the edges of the tiered adjacency.
+     */
+    private TripleDataSetCsr(IndexProfile indexProfile, boolean isCompressed, boolean isDuplicateFree, File spillDirectory, long adjacencyHeapBudget) {
+        this.isCompressed = isCompressed;
+        this.isDuplicateFree = isDuplicateFree;
+        this.spillDirectory = spillDirectory;
+        this.adjacencyHeapBudget = adjacencyHeapBudget;
+        this.indexProfile = indexProfile.isObjectIndex() ? IndexProfile.SUBJECT_OBJECT : IndexProfile.SUBJECT;
+        stagingNodes = new StripedNodeDictionary(1 << 16);
+        nodes = stagingNodes;
+        literals = new LiteralStore();
+        predicates = new StripedNodeDictionary(1024);
+        isWritable = true;
+    }
+
+    /**
+     * Constructor for a read-only data set from already compiled parts.
+     * @param nodes Node dictionary.
+     * @param literals Literal dictionary.
+     * @param predicates Predicate dictionary.
+     * @param forward Subject to (predicate, object).
+     * @param backward Object to (predicate, subject); null if there is no object index.
+     * @param literalBackward Literal to (predicate, subject); null if there is no object index.
+     * @param numberOfSubjects Number of nodes that occur as subject.
+     */
+    TripleDataSetCsr(IdDictionary nodes, IdDictionary literals, IdDictionary predicates, Adjacency forward, Adjacency backward,
+                     Adjacency literalBackward, int numberOfSubjects) {
+        this.nodes = nodes;
+        this.stagingNodes = null;
+        this.literals = literals;
+        this.predicates = predicates;
+        this.forward = forward;
+        this.backward = backward;
+        this.literalBackward = literalBackward;
+        this.indexProfile = backward == null ? IndexProfile.SUBJECT : IndexProfile.SUBJECT_OBJECT;
+        this.numberOfSubjects = numberOfSubjects;
+        this.isWritable = false;
+        this.isCompressed = false;
+        this.isDuplicateFree = false;
+        this.spillDirectory = null;
+        this.adjacencyHeapBudget = 0;
+        this.isCompiled = true;
+        this.size.add(forward.getNumberOfEdges());
+    }
+
+    @Override
+    public void add(String subject, String predicate, String object) {
+        addIds(subject, predicate, object);
+    }
+
+    @Override
+    public void add(Triple tripleToAdd) {
+        addIds(tripleToAdd.subject, tripleToAdd.predicate, tripleToAdd.object);
+    }
+
+    /**
+     * Pre-size the node dictionary for the expected number of nodes.
+     * @param estimate Expected size of the graph.
+     */
+    @Override
+    public void presize(GraphSizeEstimate estimate) {
+        if (!isWritable || getSize() > 0) return;
+        stagingNodes.ensureCapacity(GraphSizeEstimate.toCapacity(estimate.getNumberOfNodes()));
+    }
+
+    /**
+     * Stage the given triple. This method is thread-safe.
+     * @param subject Subject
+     * @param predicate Predicate
+     * @param object Object
+     */
+    private void addIds(String subject, String predicate, String object) {
+        if (!isWritable) {
+            throw new UnsupportedOperationException("The data set is read-only.");
+        }
+        Staging buffer = staging.get();
+        buffer.subjects.add(stagingNodes.getOrAddCode(subject));
+        buffer.predicates.add(buffer.getPredicateCode(predicate, (StripedNodeDictionary) predicates));
+        // literal IDs do not change upon compilation, so they are staged as (negative) node IDs
+        buffer.objects.add(LiteralStore.isLiteral(object) ? LiteralStore.toNodeId(((LiteralStore) literals).getOrAdd(object))
+                : stagingNodes.getOrAddCode(object));
+        size.increment();
+        if (isCompiled) isCompiled = false;
+    }
+
+    /**
+     * Obtain the number of distinct nodes including the nodes that were staged since the last compilation (literals
+     * are not counted). This method can be called while other threads add triples.
+     * @return Number of nodes.
+     */
+    public int getNumberOfLoadedNodes() {
+        if (stagingNodes == null) return nodes.size();
+        return Math.max(nodes.size(), stagingNodes.getNumberOfEntries());
+    }
+
+    /**
+     * Create and register the staging buffer of the current thread.
+     * @return New staging buffer.
+     */
+    private Staging registerStaging() {
+        Staging result = new Staging();
+        synchronized (stagings) {
+            stagings.add(result);
+        }
+        return result;
+    }
+
+    /**
+     * Build the adjacency arrays from the staged triples. Call this method once loading is completed (i.e., after all
+     * loading threads have been joined). It is also called lazily upon the first lookup.
+     */
+    @Override
+    public synchronized void compile() {
+        if (isCompiled) return;
+        long startTime = System.currentTimeMillis();
+        StripedNodeDictionary nodeDictionary = stagingNodes;
+        StripedNodeDictionary predicateDictionary = (StripedNodeDictionary) predicates;
+
+        List<Staging> segments;
+        synchronized (stagings) {
+            segments = new ArrayList<>(stagings);
+        }
+        if (forward != null) {
+            // IDs are re-assigned below, so the already compiled triples are staged as codes again
+            segments.add(restageCompiledTriples(nodeDictionary, predicateDictionary));
+        }
+        nodeDictionary.assignIds();
+        predicateDictionary.assignIds();
+        nodeDictionary.trimToSize();
+        int numberOfNodes = nodeDictionary.size();
+
+        // for compressed data sets, the final node IDs are the positions in the sorted front-coded dictionary
+        FrontCodedDictionary frontCodedNodes = null;
+        int[] rank = null;
+        if (isCompressed) {
+            int[] sortedIds = FrontCodedDictionary.sortIds(nodeDictionary);
+            frontCodedNodes = FrontCodedDictionary.build(nodeDictionary, sortedIds);
+            rank = new int[numberOfNodes];
+            for (int i = 0; i < numberOfNodes; i++) rank[sortedIds[i]] = i;
+        }
+        final int[] finalRank = rank;
+
+        BigIntArray[] subjects = new BigIntArray[segments.size()];
+        BigIntArray[] predicateIds = new BigIntArray[segments.size()];
+        BigIntArray[] objects = new BigIntArray[segments.size()];
+        long numberOfTriples = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Staging segment = segments.get(i);
+            subjects[i] = segment.subjects;
+            predicateIds[i] = segment.predicates;
+            objects[i] = segment.objects;
+            numberOfTriples += segment.subjects.size();
+            segment.clear();
+        }
+        ParallelExecution.run(segments.size(), i -> {
+            for (long j = 0; j < subjects[i].size(); j++) {
+                int subject = nodeDictionary.toId(subjects[i].get(j));
+                subjects[i].set(j, finalRank == null ? subject : finalRank[subject]);
+                predicateIds[i].set(j, predicateDictionary.toId(predicateIds[i].get(j)));
+                if (LiteralStore.isLiteralId(objects[i].get(j))) continue;
+                int object = nodeDictionary.toId(objects[i].get(j));
+                objects[i].set(j, finalRank == null ? object : finalRank[object]);
+            }
+        });
+
+        if (frontCodedNodes != null) {
+            // the Strings are only kept in the front-coded dictionary
+            nodeDictionary.clear();
+            nodes = frontCodedNodes;
+        } else {
+            // the IDs of a relabeled dictionary are no longer valid
+            nodes = nodeDictionary;
+        }
+        buildAdjacencies(numberOfNodes, subjects, predicateIds, objects);
+        long removed = numberOfTriples - forward.getNumberOfEdges();
+        if (removed > 0) {
+            numberOfRemovedDuplicates += removed;
+            size.add(-removed);
+            LOGGER.info("Removed " + removed + " duplicate triples.");
+        }
+        numberOfSubjects = 0;
+        for (int node = 0; node < numberOfNodes; node++) {
+            if (forward.getDegree(node) > 0) numberOfSubjects++;
+        }
+        isCompiled = true;
+        if (forward.getNumberOfEdges() > 0) LOGGER.info("Compiled " + forward.getNumberOfEdges() + " triples with " + numberOfNodes + " nodes and "
+                + predicates.size() + " predicates in " + (System.currentTimeMillis() - startTime) + " ms.");
+    }
+
+    /**
+     * Build the forward adjacency and, if required, the backward adjacencies of nodes and literals.
+     * @param numberOfNodes The number of nodes.
+     * @param subjects Subject IDs.
+     * @param predicateIds Predicate IDs.
+     * @param objects Object IDs (negative for literals).
+     */
+    private void buildAdjacencies(int numberOfNodes, BigIntArray[] subjects, BigIntArray[] predicateIds, BigIntArray[] objects) {
+        long heapBudget = indexProfile.isObjectIndex() ? adjacencyHeapBudget / 2 : adjacencyHeapBudget;
+        forward = buildAdjacency(numberOfNodes, subjects, objects, predicateIds, heapBudget);
+        if (!indexProfile.isObjectIndex()) {
+            backward = null;
+            literalBackward = null;
+            return;
+        }
+        // literal objects are negative and therefore skipped
+        backward = buildAdjacency(numberOfNodes, objects, subjects, predicateIds, heapBudget);
+        if (literals.size() == 0) {
+            literalBackward = CsrAdjacency.build(0, new BigIntArray[0], new BigIntArray[0], new BigIntArray[0]);
+            return;
+        }
+        // the literal index is built on the flipped objects (literal IDs become non-negative, node IDs negative),
+        // the flip is its own inverse
+        flipLiteralIds(objects);
+        literalBackward = buildAdjacency(literals.size(), objects, subjects, predicateIds, 0);
+        flipLiteralIds(objects);
+    }
+
+    /**
+     * Convert literal node IDs into literal IDs and node IDs into negative numbers (and vice versa).
+     * @param objects Object IDs.
+     */
+    static void flipLiteralIds(BigIntArray[] objects) {
+        ParallelExecution.run(objects.length, i -> {
+            for (long j = 0; j < objects[i].size(); j++) objects[i].set(j, LiteralStore.toLiteralId(objects[i].get(j)));
+        });
+    }
+
+    /**
+     * Build a single adjacency (compressed or tiered and without duplicates if configured).
+     * @param numberOfNodes The number of nodes.
+     * @param sources Node to which each edge belongs.
+     * @param targets The neighbour node of each edge.
+     * @param predicateIds The predicate of each edge.
+     * @param heapBudget Heap budget for a tiered adjacency.
+     * @return Adjacency.
+     */
+    private Adjacency buildAdjacency(int numberOfNodes, BigIntArray[] sources, BigIntArray[] targets, BigIntArray[] predicateIds, long heapBudget) {
+        if (spillDirectory != null) {
+            try {
+                spillDirectory.mkdirs();
+                TieredAdjacency result = TieredAdjacency.build(numberOfNodes, sources, targets, predicateIds, isDuplicateFree,
+                        heapBudget, File.createTempFile("adjacency", ".spill", spillDirectory));
+                LOGGER.info("Tiered adjacency: " + result.getNumberOfHotNodes() + " nodes with " + result.getNumberOfHotEdges()
+                        + " of " + result.getNumberOfEdges() + " edges on the heap, the remaining nodes are read from "
+                        + spillDirectory.getAbsolutePath() + ".");
+                return result;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write the spill file to " + spillDirectory.getAbsolutePath() + ".", e);
+            }
+        }
+        CsrAdjacency adjacency = isDuplicateFree ? CsrAdjacency.buildWithoutDuplicates(numberOfNodes, sources, targets, predicateIds)
+                : CsrAdjacency.build(numberOfNodes, sources, targets, predicateIds);
+        return isCompressed ? CompressedAdjacency.compress(adjacency) : adjacency;
+    }
+
+    /**
+     * Renumber the nodes in the given order and rebuild the adjacency arrays accordingly (see {@link NodeOrder}).
+     * Call this method once loading is completed; it must not be called while other threads read from the data set.
+     * The order is kept until further triples are added and compiled.
+     * @param order The node order.
+     * @throws UnsupportedOperationException If the data set is read-only or compressed (the node IDs of compressed
+     *                                       data sets are given by the sort order of the front-coded dictionary).
+     */
+    public synchronized void relabel(NodeOrder order) {
+        if (!isWritable) {
+            throw new UnsupportedOperationException("The data set is read-only.");
+        }
+        if (isCompressed) {
+            throw new UnsupportedOperationException("The node IDs of compressed data sets are given by the front-coded dictionary.");
+        }
+        ensureCompiled();
+        long startTime = System.currentTimeMillis();
+        int numberOfNodes = forward.getNumberOfNodes();
+        int[] newIds = order == NodeOrder.DEGREE ? getDegreeOrder(numberOfNodes) : getBfsOrder(numberOfNodes);
+
+        BigIntArray[] subjects = {new BigIntArray()};
+        BigIntArray[] predicateIds = {new BigIntArray()};
+        BigIntArray[] objects = {new BigIntArray()};
+        for (int subject = 0; subject < numberOfNodes; subject++) {
+            int degree = forward.getDegree(subject);
+            for (int i = 0; i < degree; i++) {
+                long edge = forward.getEdge(subject, i);
+                subjects[0].add(newIds[subject]);
+                predicateIds[0].add(PackedEdge.getPredicate(edge));
+                int object = PackedEdge.getNode(edge);
+                objects[0].add(LiteralStore.isLiteralId(object) ? object : newIds[object]);
+            }
+        }
+        releaseAdjacencies();
+
+        // the dictionary is rebuilt so that the IDs are the insertion positions
+        int[] oldIds = new int[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) oldIds[newIds[node]] = node;
+        newIds = null;
+        NodeDictionary relabeledNodes = new NodeDictionary(numberOfNodes);
+        for (int id = 0; id < numberOfNodes; id++) relabeledNodes.getOrAdd(nodes.getString(oldIds[id]));
+        stagingNodes.clear();
+        nodes = relabeledNodes;
+
+        buildAdjacencies(numberOfNodes, subjects, predicateIds, objects);
+        LOGGER.info("Relabeled " + numberOfNodes + " nodes in " + order + " order in " + (System.currentTimeMillis() - startTime) + " ms.");
+    }
+
+    /**
+     * Obtain the degree (in- plus out-degree) of each node.
+     * @param numberOfNodes The number of nodes.
+     * @return Degrees.
+     */
+    private int[] getDegrees(int numberOfNodes) {
+        int[] degrees = new int[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) {
+            int degree = forward.getDegree(node);
+            degrees[node] += degree;
+            for (int i = 0; i < degree; i++) {
+                int object = PackedEdge.getNode(forward.getEdge(node, i));
+                if (!LiteralStore.isLiteralId(object)) degrees[object]++;
+            }
+        }
+        return degrees;
+    }
+
+    /**
+     * Number the nodes by descending degree; nodes with the same degree keep their relative order.
+     * @param numberOfNodes The number of nodes.
+     * @return New ID of each node.
+     */
+    private int[] getDegreeOrder(int numberOfNodes) {
+        int[] degrees = getDegrees(numberOfNodes);
+        int maxDegree = 0;
+        for (int degree : degrees) maxDegree = Math.max(maxDegree, degree);
+
+        // counting sort, position 0 is the highest degree
+        int[] start = new int[maxDegree + 2];
+        for (int degree : degrees) start[maxDegree - degree + 1]++;
+        for (int i = 1; i < start.length; i++) start[i] += start[i - 1];
+        int[] newIds = new int[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) newIds[node] = start[maxDegree - degrees[node]]++;
+        return newIds;
+    }
+
+    /**
+     * Number the nodes in breadth-first order over the forward and (if built) backward edges. Each traversal starts at
+     * the unvisited node with the highest degree.
+     * @param numberOfNodes The number of nodes.
+     * @return New ID of each node.
+     */
+    private int[] getBfsOrder(int numberOfNodes) {
+        int[] degreeOrder = getDegreeOrder(numberOfNodes);
+        int[] seeds = new int[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) seeds[degreeOrder[node]] = node;
+        degreeOrder = null;
+
+        int[] newIds = new int[numberOfNodes];
+        Arrays.fill(newIds, -1);
+        // the queue holds the nodes in the order of their new IDs
+        int[] queue = new int[numberOfNodes];
+        int next = 0;
+        int head = 0;
+        for (int seed : seeds) {
+            if (newIds[seed] >= 0) continue;
+            newIds[seed] = next;
+            queue[next++] = seed;
+            while (head < next) {
+                int node = queue[head++];
+                for (Adjacency adjacency : new Adjacency[]{forward, backward}) {
+                    if (adjacency == null) continue;
+                    int degree = adjacency.getDegree(node);
+                    for (int i = 0; i < degree; i++) {
+                        int neighbour = PackedEdge.getNode(adjacency.getEdge(node, i));
+                        if (!LiteralStore.isLiteralId(neighbour) && newIds[neighbour] < 0) {
+                            newIds[neighbour] = next;
+                            queue[next++] = neighbour;
+                        }
+                    }
+                }
+            }
+        }
+        return newIds;
+    }
+
+    /**
+     * Convert the already compiled triples back to codes so that they are part of the next compile run.
+     * @param nodeDictionary Staging node dictionary (IDs as of the last compile run).
+     * @param predicateDictionary Predicate dictionary (IDs as of the last compile run).
+     * @return Staging buffer with the compiled triples.
+     */
+    private Staging restageCompiledTriples(StripedNodeDictionary nodeDictionary, StripedNodeDictionary predicateDictionary) {
+        // the staging dictionary is empty for compressed data sets, so the Strings are added again
+        int[] nodeCodes = new int[forward.getNumberOfNodes()];
+        for (int node = 0; node < nodeCodes.length; node++) {
+            nodeCodes[node] = nodes == nodeDictionary ? nodeDictionary.toCode(node) : nodeDictionary.getOrAddCode(nodes.getString(node));
+        }
+        Staging result = new Staging();
+        for (int subject = 0; subject < forward.getNumberOfNodes(); subject++) {
+            int degree = forward.getDegree(subject);
+            for (int i = 0; i < degree; i++) {
+                long edge = forward.getEdge(subject, i);
+                result.subjects.add(nodeCodes[subject]);
+                result.predicates.add(predicateDictionary.toCode(PackedEdge.getPredicate(edge)));
+                int object = PackedEdge.getNode(edge);
+                result.objects.add(LiteralStore.isLiteralId(object) ? object : nodeCodes[object]);
+            }
+        }
+        releaseAdjacencies();
+        return result;
+    }
+
+    /**
+     * Drop the adjacency arrays after their triples have been read for a rebuild. The spill files of a tiered
+     * adjacency are deleted so that they do not pile up until the JVM exits.
+     */
+    private void releaseAdjacencies() {
+        for (Adjacency adjacency : new Adjacency[]{forward, backward, literalBackward}) {
+            if (adjacency instanceof TieredAdjacency) ((TieredAdjacency) adjacency).deleteSpillFile();
+        }
+        forward = null;
+        backward = null;
+        literalBackward = null;
+    }
+
+    /**
+     * Make sure that the adjacency is up to date.
+     */
+    private void ensureCompiled() {
+        if (!isCompiled) compile();
+    }
+
+    @Override
+    public List<Triple> getTriplesInvolvingSubject(String subject) {
+        ensureCompiled();
+        int subjectId = nodes.getId(subject);
+        int degree = forward.getDegree(subjectId);
+        if (degree == 0) return null;
+        ArrayList<Triple> result = new ArrayList<>(degree);
+        for (int i = 0; i < degree; i++) {
+            long edge = forward.getEdge(subjectId, i);
+            result.add(new Triple(nodes.getString(subjectId), predicates.getString(PackedEdge.getPredicate(edge)), getNode(PackedEdge.getNode(edge))));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Triple> getTriplesInvolvingObject(String object) {
+        checkObjectIndex();
+        ensureCompiled();
+        boolean isLiteral = LiteralStore.isLiteral(object);
+        Adjacency adjacency = isLiteral ? literalBackward : backward;
+        int objectId = isLiteral ? literals.getId(object) : nodes.getId(object);
+        int degree = adjacency.getDegree(objectId);
+        if (degree == 0) return null;
+        ArrayList<Triple> result = new ArrayList<>(degree);
+        for (int i = 0; i < degree; i++) {
+            long edge = adjacency.getEdge(objectId, i);
+            result.add(new Triple(nodes.getString(PackedEdge.getNode(edge)), predicates.getString(PackedEdge.getPredicate(edge)), object));
+        }
+        return result;
+    }
+
+    @Override
+    public long getSize() {
+        return size.sum();
+    }
+
+    @Override
+    public long getNumberOfRemovedDuplicates() {
+        return numberOfRemovedDuplicates;
+    }
+
+    /**
+     * Obtain a set of all subjects. The set is a read-only view on the dictionary, no Strings are copied.
+     * @return Subject set.
+     */
+    @Override
+    public Set<String> getUniqueSubjects() {
+        ensureCompiled();
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    int next = advance(0);
+
+                    private int advance(int from) {
+                        while (from < forward.getNumberOfNodes() && forward.getDegree(from) == 0) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < forward.getNumberOfNodes();
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        String result = nodes.getString(next);
+                        next = advance(next + 1);
+                        return result;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && forward.getDegree(nodes.getId((String) o)) > 0;
+            }
+
+            @Override
+            public int size() {
+                return numberOfSubjects;
+            }
+        };
+    }
+
+    @Override
+    public int getNodeId(String node) {
+        ensureCompiled();
+        if (LiteralStore.isLiteral(node)) {
+            int literalId = literals.getId(node);
+            return literalId < 0 ? -1 : LiteralStore.toNodeId(literalId);
+        }
+        return nodes.getId(node);
+    }
+
+    @Override
+    public String getNode(int nodeId) {
+        return LiteralStore.isLiteralId(nodeId) ? literals.getString(LiteralStore.toLiteralId(nodeId)) : nodes.getString(nodeId);
+    }
+
+    @Override
+    public String getPredicate(int predicateId) {
+        return predicates.getString(predicateId);
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        ensureCompiled();
+        return forward.getNumberOfNodes();
+    }
+
+    @Override
+    public int getOutDegree(int nodeId) {
+        ensureCompiled();
+        return forward.getDegree(nodeId);
+    }
+
+    @Override
+    public long getOutEdge(int nodeId, int index) {
+        return forward.getEdge(nodeId, index);
+    }
+
+    @Override
+    public int getInDegree(int nodeId) {
+        checkObjectIndex();
+        ensureCompiled();
+        return LiteralStore.isLiteralId(nodeId) ? literalBackward.getDegree(LiteralStore.toLiteralId(nodeId)) : backward.getDegree(nodeId);
+    }
+
+    @Override
+    public long getInEdge(int nodeId, int index) {
+        return LiteralStore.isLiteralId(nodeId) ? literalBackward.getEdge(LiteralStore.toLiteralId(nodeId), index) : backward.getEdge(nodeId, index);
+    }
+
+    @Override
+    public IndexProfile getIndexProfile() {
+        return indexProfile;
+    }
+
+    /**
+     * Create an empty data set with the same configuration. For read-only data sets, a writable data set with the
+     * same indexes is created.
+     * @return Empty data set.
+     */
+    @Override
+    public TripleDataSet createEmpty() {
+        return new TripleDataSetCsr(indexProfile, isCompressed, isDuplicateFree, spillDirectory, adjacencyHeapBudget);
+    }
+
+    /**
+     * Make sure that the object index is built.
+     */
+    private void checkObjectIndex() {
+        if (!indexProfile.isObjectIndex()) {
+            throw new UnsupportedOperationException("The object index is not built (index profile: " + indexProfile + ").");
+        }
+    }
+
+    /**
+     * Obtain the memory footprint of the dictionaries, the staging buffers, and the adjacency arrays. Sizes of arrays
+     * are exact, the size of the Strings in the dictionaries is estimated from a sample. This method can be called
+     * while triples are added.
+     * @return Memory report.
+     */
+    @Override
+    public MemoryReport getMemoryReport() {
+        MemoryReport result = new MemoryReport(getSize());
+        IdDictionary currentNodes = nodes;
+        result.add("node dictionary", currentNodes.getHeapBytes(), currentNodes.getMappedBytes());
+        if (stagingNodes != null && stagingNodes != currentNodes) {
+            // cleared after compilation, but may be in use by a running compile run
+            result.add("node dictionary", stagingNodes.getHeapBytes(), 0);
+        }
+        result.add("literals", literals.getHeapBytes(), literals.getMappedBytes());
+        result.add("predicate dictionary", predicates.getHeapBytes(), predicates.getMappedBytes());
+        long stagingBytes = 0;
+        synchronized (stagings) {
+            for (Staging buffer : stagings) stagingBytes += buffer.getHeapBytes();
+        }
+        result.add("staging", stagingBytes, 0);
+        Adjacency currentForward = forward;
+        Adjacency currentBackward = backward;
+        if (currentForward != null) {
+            result.add("forward adjacency", currentForward.getHeapBytes(), currentForward.getMappedBytes());
+        }
+        if (currentBackward != null) {
+            result.add("backward adjacency", currentBackward.getHeapBytes(), currentBackward.getMappedBytes());
+        }
+        Adjacency currentLiteralBackward = literalBackward;
+        if (currentLiteralBackward != null) {
+            result.add("literals", currentLiteralBackward.getHeapBytes(), currentLiteralBackward.getMappedBytes());
+        }
+        return result;
+    }
+
+    /**
+     * Obtain how many edge reads were served from the heap and from the spill files.
+     * @return Statistics or null if the data set is not tiered.
+     */
+    public String getTieringStatistics() {
+        String result = null;
+        for (Adjacency adjacency : new Adjacency[]{forward, backward}) {
+            if (!(adjacency instanceof TieredAdjacency)) continue;
+            TieredAdjacency tiered = (TieredAdjacency) adjacency;
+            long reads = tiered.getHotReads() + tiered.getColdReads();
+            String statistics = (adjacency == forward ? "forward" : "backward") + " adjacency: " + reads + " edge reads, "
+                    + tiered.getColdReads() + " (" + String.format("%.1f", reads == 0 ? 0.0 : 100.0 * tiered.getColdReads() / reads)
+                    + "%) from the spill file";
+            result = result == null ? statistics : result + "; " + statistics;
+        }
+        return result;
+    }
+
+    /**
+     * Obtain the number of nodes that occur as subject.
+     * @return Number of subjects.
+     */
+    int getNumberOfSubjects() {
+        ensureCompiled();
+        return numberOfSubjects;
+    }
+
+    /**
+     * Obtain the node dictionary.
+     * @return Node dictionary.
+     */
+    IdDictionary getNodeDictionary() {
+        return nodes;
+    }
+
+    /**
+     * Obtain the literal dictionary.
+     * @return Literal dictionary.
+     */
+    IdDictionary getLiteralDictionary() {
+        return literals;
+    }
+
+    /**
+     * Obtain the predicate dictionary.
+     * @return Predicate dictionary.
+     */
+    IdDictionary getPredicateDictionary() {
+        return predicates;
+    }
+
+    /**
+     * Obtain the forward adjacency (subject to object).
+     * @return Forward adjacency.
+     */
+    Adjacency getForward() {
+        ensureCompiled();
+        return forward;
+    }
+
+    /**
+     * Obtain the backward adjacency (object to subject).
+     * @return Backward adjacency; null if the object index is not built.
+     */
+    Adjacency getBackward() {
+        ensureCompiled();
+        return backward;
+    }
+
+    /**
+     * Obtain the backward adjacency of the literals (literal to subject).
+     * @return Literal backward adjacency; null if the object index is not built.
+     */
+    Adjacency getLiteralBackward() {
+        ensureCompiled();
+        return literalBackward;
+    }
+
+    /**
+     * Triples added by a single thread (as dictionary codes).
+     */
+    private static class Staging {
+        BigIntArray subjects = new BigIntArray();
+        BigIntArray predicates = new BigIntArray();
+        BigIntArray objects = new BigIntArray();
+
+        /**
+         * Predicate codes of this thread; there are few predicates, so this avoids contention on the dictionary.
+         */
+        final HashMap<String, Integer> predicateCodes = new HashMap<>();
+
+        int getPredicateCode(String predicate, StripedNodeDictionary dictionary) {
+            Integer code = predicateCodes.get(predicate);
+            if (code == null) {
+                code = dictionary.getOrAddCode(predicate);
+                predicateCodes.put(predicate, code);
+            }
+            return code;
+        }
+
+        void clear() {
+            subjects = new BigIntArray();
+            predicates = new BigIntArray();
+            objects = new BigIntArray();
+        }
+
+        long getHeapBytes() {
+            return subjects.getHeapBytes() + predicates.getHeapBytes() + objects.getHeapBytes();
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package walkGenerators.dataStructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Mutable overlay on top of a base {@link TripleDataSet} that supports additions and deletions, e.g. to apply the
+ * diffs of a knowledge graph without rebuilding the complete graph.
+ *
+ * Triples that are added before the first {@link TripleDataSetDelta#compile()} are loaded into the base. After that,
+ * additions and deletions ({@link TripleDataSetDelta#delete(Triple)}) are recorded in a delta layer and lookups merge
+ * the base and the delta transparently. {@link TripleDataSetDelta#compact()} folds the delta into a new base that is
+ * created by the given factory. Lookups and updates continue during compaction: updates that arrive in the meantime
+ * are recorded in a new delta layer. Compaction is started in the background automatically once the delta reaches
+ * the compaction threshold; note that the old and the new base are kept in memory at the same time while compacting.
+ *
+ * Lookups do not require a lock, updates are serialized. Walks on this data set are generated on the String level,
+ * even if the base is an {@link IdTripleDataSet}.
+ */
+public class TripleDataSetDelta implements TripleDataSet {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripleDataSetDelta.class);
+
+    /**
+     * Default number of recorded changes after which the delta is compacted.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 5_000_000;
+
+    /**
+     * Creates an empty data set for compaction.
+     */
+    private final Supplier<TripleDataSet> baseFactory;
+
+    /**
+     * Number of recorded changes after which the delta is compacted in the background.
+     */
+    private final long compactionThreshold;
+
+    /**
+     * The current base and delta layers; replaced (not modified) upon compaction.
+     */
+    private volatile Layers layers;
+
+    /**
+     * Indicator whether the base is loaded (i.e., added triples are recorded in the delta).
+     */
+    private volatile boolean isSealed = false;
+
+    /**
+     * Lock for updates and layer changes.
+     */
+    private final Object updateLock = new Object();
+
+    /**
+     * Indicator whether a compaction is running.
+     */
+    private final AtomicBoolean isCompacting = new AtomicBoolean(false);
+
+    /**
+     * Constructor
+     * @param base The base data set (empty or already loaded).
+     * @param baseFactory Creates an empty data set for compaction (typically of the same type as the base).
+     */
+    public TripleDataSetDelta(TripleDataSet base, Supplier<TripleDataSet> baseFactory) {
+        this(base, baseFactory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructor
+     * @param base The base data set (empty or already loaded).
+     * @param baseFactory Creates an empty data set for compaction (typically of the same type as the base).
+     * @param compactionThreshold Number of recorded changes after which the delta is compacted in the background.
+     */
+    public TripleDataSetDelta(TripleDataSet base, Supplier<TripleDataSet> baseFactory, long compactionThreshold) {
+        this.baseFactory = baseFactory;
+        this.compactionThreshold = compactionThreshold;
+        this.layers = new Layers(base, null, new Delta());
+    }
+
+    /**
+     * Add the given triple. Before the first {@link TripleDataSetDelta#compile()}, the triple is added to the base;
+     * afterwards, the addition is recorded in the delta.
+     * @param subject Subject
+     * @param predicate Predicate
+     * @param object Object
+     */
+    @Override
+    public void add(String subject, String predicate, String object) {
+        add(new Triple(subject, predicate, object));
+    }
+
+    /**
+     * Add the given triple. Before the first {@link TripleDataSetDelta#compile()}, the triple is added to the base;
+     * afterwards, the addition is recorded in the delta.
+     * @param tripleToAdd Triple to be added.
+     */
+    @Override
+    public void add(Triple tripleToAdd) {
+        if (!isSealed) {
+            layers.base.add(tripleToAdd);
+            return;
+        }
+        synchronized (updateLock) {
+            Layers current = layers;
+            if (current.active.deleted.remove(tripleToAdd)) {
+                // the triple is contained in a lower layer
+                current.active.sizeChange++;
+            } else if (!contains(current.base, current.frozen, current.active, tripleToAdd)) {
+                current.active.addAdded(tripleToAdd);
+                current.active.sizeChange++;
+            }
+        }
+        compactIfRequired();
+    }
+
+    /**
+     * Delete the given triple (recorded in the delta).
+     * @param subject Subject
+     * @param predicate Predicate
+     * @param object Object
+     * @return True if the triple was contained.
+     */
+    public boolean delete(String subject, String predicate, String object) {
+        return delete(new Triple(subject, predicate, object));
+    }
+
+    /**
+     * Delete the given triple (recorded in the delta).
+     * @param tripleToDelete Triple to be deleted.
+     * @return True if the triple was contained.
+     */
+    public boolean delete(Triple tripleToDelete) {
+        ensureSealed();
+        boolean result = false;
+        synchronized (updateLock) {
+            Layers current = layers;
+            if (current.active.removeAdded(tripleToDelete)) {
+                current.active.sizeChange--;
+                result = true;
+            } else if (contains(current.base, current.frozen, null, tripleToDelete) && current.active.deleted.add(tripleToDelete)) {
+                current.active.sizeChange--;
+                result = true;
+            }
+        }
+        compactIfRequired();
+        return result;
+    }
+
+    /**
+     * Pre-size the base (only before the base is sealed).
+     * @param estimate Expected size of the graph.
+     */
+    @Override
+    public void presize(GraphSizeEstimate estimate) {
+        if (!isSealed) layers.base.presize(estimate);
+    }
+
+    /**
+     * Compile the base. Triples added after the first call are recorded in the delta.
+     */
+    @Override
+    public void compile() {
+        synchronized (updateLock) {
+            layers.base.compile();
+            isSealed = true;
+        }
+    }
+
+    /**
+     * Make sure that the base is compiled.
+     */
+    private void ensureSealed() {
+        if (!isSealed) compile();
+    }
+
+    /**
+     * Fold the delta into a new base. Lookups and updates can continue while this method runs. If another compaction
+     * is running, this method returns immediately.
+     */
+    public void compact() {
+        ensureSealed();
+        if (!isCompacting.compareAndSet(false, true)) return;
+        try {
+            Layers frozenLayers;
+            synchronized (updateLock) {
+                if (layers.active.isEmpty()) return;
+                frozenLayers = new Layers(layers.base, layers.active, new Delta());
+                layers = frozenLayers;
+            }
+            long startTime = System.currentTimeMillis();
+            TripleDataSet oldBase = frozenLayers.base;
+            Delta frozen = frozenLayers.frozen;
+            TripleDataSet newBase = baseFactory.get();
+            Set<String> baseSubjects = oldBase.getUniqueSubjects();
+            for (String subject : baseSubjects) {
+                addAll(newBase, getTriplesInvolvingSubject(oldBase, frozen, null, subject));
+            }
+            for (String subject : frozen.addedBySubject.keySet()) {
+                if (!baseSubjects.contains(subject)) {
+                    addAll(newBase, getTriplesInvolvingSubject(oldBase, frozen, null, subject));
+                }
+            }
+            newBase.compile();
+            synchronized (updateLock) {
+                layers = new Layers(newBase, null, layers.active);
+            }
+            LOGGER.info("Compacted the delta into a new base with " + newBase.getSize() + " triples in "
+                    + (System.currentTimeMillis() - startTime) + " ms.");
+        } finally {
+            isCompacting.set(false);
+        }
+    }
+
+    /**
+     * Start {@link TripleDataSetDelta#compact()} in a background thread.
+     * @return The started thread.
+     */
+    public Thread compactInBackground() {
+        Thread thread = new Thread(this::compact, "delta-compaction");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Start a background compaction if the delta reached the compaction threshold.
+     */
+    private void compactIfRequired() {
+        if (getDeltaSize() >= compactionThreshold && !isCompacting.get()) {
+            LOGGER.info("The delta reached " + getDeltaSize() + " changes. Starting compaction.");
+            compactInBackground();
+        }
+    }
+
+    /**
+     * Add the given triples.
+     * @param target Target data set.
+     * @param triples Triples to be added (may be null).
+     */
+    private static void addAll(TripleDataSet target, List<Triple> triples) {
+        if (triples == null) return;
+        for (Triple triple : triples) target.add(triple);
+    }
+
+    /**
+     * Obtain the number of changes that are recorded in the delta (and not yet compacted).
+     * @return Number of added plus number of deleted triples.
+     */
+    public long getDeltaSize() {
+        Layers current = layers;
+        return current.active.size() + (current.frozen == null ? 0 : current.frozen.size());
+    }
+
+    /**
+     * Indicator whether the given triple is contained.
+     * @param base Base data set.
+     * @param frozen Delta that is being compacted (may be null).
+     * @param active Current delta (may be null).
+     * @param triple Triple.
+     * @return True if contained.
+     */
+    private static boolean contains(TripleDataSet base, Delta frozen, Delta active, Triple triple) {
+        if (active != null) {
+            if (active.isAdded(triple)) return true;
+            if (active.deleted.contains(triple)) return false;
+        }
+        if (frozen != null) {
+            if (frozen.isAdded(triple)) return true;
+            if (frozen.deleted.contains(triple)) return false;
+        }
+        List<Triple> baseTriples = base.getTriplesInvolvingSubject(triple.subject);
+        return baseTriples != null && baseTriples.contains(triple);
+    }
+
+    /**
+     * Merge the triples of the given subject.
+     * @param base Base data set.
+     * @param frozen Delta that is being compacted (may be null).
+     * @param active Current delta (may be null).
+     * @param subject Subject.
+     * @return Triples or null if there is no triple.
+     */
+    private static List<Triple> getTriplesInvolvingSubject(TripleDataSet base, Delta frozen, Delta active, String subject) {
+        return merge(base.getTriplesInvolvingSubject(subject), frozen, active, subject, true);
+    }
+
+    /**
+     * Merge the triples of a lower layer with the deltas.
+     * @param lower Triples of the base (may be null).
+     * @param frozen Delta that is being compacted (may be null).
+     * @param active Current delta (may be null).
+     * @param key Subject or object.
+     * @param isSubject True if the key is a subject.
+     * @return Triples or null if there is no triple.
+     */
+    private static List<Triple> merge(List<Triple> lower, Delta frozen, Delta active, String key, boolean isSubject) {
+        List<Triple> result = new ArrayList<>();
+        if (lower != null) {
+            for (Triple triple : lower) {
+                if (frozen != null && frozen.deleted.contains(triple)) continue;
+                if (active != null && active.deleted.contains(triple)) continue;
+                result.add(triple);
+            }
+        }
+        if (frozen != null) {
+            Set<Triple> added = (isSubject ? frozen.addedBySubject : frozen.addedByObject).get(key);
+            if (added != null) {
+                for (Triple triple : added) {
+                    if (active == null || !active.deleted.contains(triple)) result.add(triple);
+                }
+            }
+        }
+        if (active != null) {
+            Set<Triple> added = (isSubject ? active.addedBySubject : active.addedByObject).get(key);
+            if (added != null) result.addAll(added);
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    @Override
+    public List<Triple> getTriplesInvolvingSubject(String subject) {
+        ensureSealed();
+        Layers current = layers;
+        if (current.isBaseOnly()) return current.base.getTriplesInvolvingSubject(subject);
+        return getTriplesInvolvingSubject(current.base, current.frozen, current.active, subject);
+    }
+
+    @Override
+    public List<Triple> getTriplesInvolvingObject(String object) {
+        ensureSealed();
+        Layers current = layers;
+        if (current.isBaseOnly()) return current.base.getTriplesInvolvingObject(object);
+        return merge(current.base.getTriplesInvolvingObject(object), current.frozen, current.active, object, false);
+    }
+
+    /**
+     * Returns the number of managed triples (base plus added minus deleted triples).
+     * @return The number of managed triples.
+     */
+    @Override
+    public long getSize() {
+        Layers current = layers;
+        return current.base.getSize() + current.active.sizeChange + (current.frozen == null ? 0 : current.frozen.sizeChange);
+    }
+
+    @Override
+    public long getNumberOfRemovedDuplicates() {
+        return layers.base.getNumberOfRemovedDuplicates();
+    }
+
+    /**
+     * Obtain a set of all subjects. If there is a delta, the set is a copy.
+     * @return Subject set.
+     */
+    @Override
+    public Set<String> getUniqueSubjects() {
+        ensureSealed();
+        Layers current = layers;
+        if (current.isBaseOnly()) return current.base.getUniqueSubjects();
+        Set<String> result = new HashSet<>(current.base.getUniqueSubjects());
+        for (Delta delta : new Delta[]{current.frozen, current.active}) {
+            if (delta == null) continue;
+            result.addAll(delta.addedBySubject.keySet());
+        }
+        for (Delta delta : new Delta[]{current.frozen, current.active}) {
+            if (delta == null) continue;
+            for (Triple triple : delta.deleted) {
+                if (getTriplesInvolvingSubject(current.base, current.frozen, current.active, triple.subject) == null) {
+                    result.remove(triple.subject);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtain the current base data set (without the delta).
+     * @return Base data set.
+     */
+    public TripleDataSet getBase() {
+        return layers.base;
+    }
+
+    @Override
+    public IndexProfile getIndexProfile() {
+        return layers.base.getIndexProfile();
+    }
+
+    /**
+     * Create a delta with the same configuration (base factory and compaction threshold) on top of the given base,
+     * e.g. for a graph that was imported into a new data set instead of being loaded into this delta.
+     * @param base The base data set (empty or already loaded).
+     * @return New delta.
+     */
+    public TripleDataSetDelta withBase(TripleDataSet base) {
+        return new TripleDataSetDelta(base, baseFactory, compactionThreshold);
+    }
+
+    @Override
+    public TripleDataSet createEmpty() {
+        return new TripleDataSetDelta(baseFactory.get(), baseFactory, compactionThreshold);
+    }
+
+    /**
+     * Obtain the memory report of the base extended by the estimated footprint of the delta layers.
+     * @return Memory report.
+     */
+    @Override
+    public MemoryReport getMemoryReport() {
+        Layers current = layers;
+        MemoryReport baseReport = current.base.getMemoryReport();
+        MemoryReport result = new MemoryReport(getSize());
+        for (String component : baseReport.getComponents()) {
+            result.add(component, baseReport.getHeapBytes(component), baseReport.getMappedBytes(component));
+        }
+        long deltaBytes = current.active.estimateHeapBytes() + (current.frozen == null ? 0 : current.frozen.estimateHeapBytes());
+        result.add("delta", deltaBytes, 0);
+        return result;
+    }
+
+    /**
+     * Base data set and delta layers.
+     */
+    private static class Layers {
+
+        final TripleDataSet base;
+
+        /**
+         * Delta that is being compacted into a new base (null if there is no compaction).
+         */
+        final Delta frozen;
+
+        /**
+         * Delta to which changes are recorded.
+         */
+        final Delta active;
+
+        Layers(TripleDataSet base, Delta frozen, Delta active) {
+            this.base = base;
+            this.frozen = frozen;
+            this.active = active;
+        }
+
+        boolean isBaseOnly() {
+            return frozen == null && active.isEmpty();
+        }
+    }
+
+    /**
+     * Added and deleted triples. A triple is only recorded as deleted if it is contained in a lower layer and only
+     * recorded as added if it is not contained in a lower layer.
+     */
+    private static class Delta {
+        final Map<String, Set<Triple>> addedBySubject = new ConcurrentHashMap<>();
+        final Map<String, Set<Triple>> addedByObject = new ConcurrentHashMap<>();
+        final Set<Triple> deleted = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Number of added triples.
+         */
+        volatile long numberOfAdded = 0;
+
+        /**
+         * Change of the number of triples compared to the lower layers.
+         */
+        volatile long sizeChange = 0;
+
+        boolean isAdded(Triple triple) {
+            Set<Triple> added = addedBySubject.get(triple.subject);
+            return added != null && added.contains(triple);
+        }
+
+        void addAdded(Triple triple) {
+            addedBySubject.computeIfAbsent(triple.subject, key -> ConcurrentHashMap.newKeySet()).add(triple);
+            addedByObject.computeIfAbsent(triple.object, key -> ConcurrentHashMap.newKeySet()).add(triple);
+            numberOfAdded++;
+        }
+
+        boolean removeAdded(Triple triple) {
+            Set<Triple> added = addedBySubject.get(triple.subject);
+            if (added == null || !added.remove(triple)) return false;
+            if (added.isEmpty()) addedBySubject.remove(triple.subject);
+            Set<Triple> addedForObject = addedByObject.get(triple.object);
+            addedForObject.remove(triple);
+            if (addedForObject.isEmpty()) addedByObject.remove(triple.object);
+            numberOfAdded--;
+            return true;
+        }
+
+        long size() {
+            return numberOfAdded + deleted.size();
+        }
+
+        boolean isEmpty() {
+            return numberOfAdded == 0 && deleted.isEmpty();
+        }
+
+        /**
+         * Estimate the heap bytes of this delta: a triple object and a set entry (node and table slot) per set that
+         * contains the triple, plus a map entry and a set per key.
+         * @return Bytes.
+         */
+        long estimateHeapBytes() {
+            long tripleBytes = MemoryReport.objectBytes(3 * MemoryReport.REFERENCE_BYTES);
+            long setEntryBytes = MemoryReport.objectBytes(4 + 3 * MemoryReport.REFERENCE_BYTES) + 2 * MemoryReport.REFERENCE_BYTES;
+            // map entry plus a key set with its initial table
+            long keyBytes = setEntryBytes + 256;
+            return numberOfAdded * (tripleBytes + 2 * setEntryBytes) + deleted.size() * (tripleBytes + setEntryBytes)
+                    + (addedBySubject.size() + addedByObject.size()) * keyBytes;
+        }
+    }
+}
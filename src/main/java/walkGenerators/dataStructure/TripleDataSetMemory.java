@@ -1,30 +1,127 @@
 package walkGenerators.dataStructure;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * For reasons of performance, deletions are not possible currently.
+ *
+ * Adding triples does not require a lock: each loading thread stages its triples in its own buffers which are
+ * partitioned by the hash of the subject, predicate, and object. The buffers are merged into the indexes by
+ * {@link TripleDataSetMemory#compile()} where each partition is processed by a separate thread. Compilation is
+ * triggered automatically upon the first lookup. Adding triples while other threads read from the data set is not
+ * supported.
+ *
+ * Only the indexes of the given {@link IndexProfile} are built.
+ *
+ * Optionally, duplicate triples are removed upon compilation: the lists of the keys that received new triples are
+ * sorted by the other two components, so that duplicates are adjacent and can be removed without an additional set.
+ *
+ * The indexes can be pre-sized from an estimate of the graph size (see {@link TripleDataSetMemory#presize(GraphSizeEstimate)}),
+ * the lists of the indexes are trimmed to their size upon compilation.
  */
-public class TripleDataSetMemory {
+public class TripleDataSetMemory implements TripleDataSet {
 
     /**
-     * Constructor
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripleDataSetMemory.class);
+
+    /**
+     * Number of hash partitions of the staging buffers (power of two).
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * Constructor (all indexes are built).
      */
     public TripleDataSetMemory(){
-        subjectToTriple = new HashMap<>();
-        predicateToTriple = new HashMap<>();
-        objectToTriple = new HashMap<>();
+        this(IndexProfile.FULL);
+    }
+
+    /**
+     * Constructor
+     * @param indexProfile The indexes to be built.
+     */
+    public TripleDataSetMemory(IndexProfile indexProfile){
+        this(indexProfile, false);
+    }
+
+    /**
+     * Constructor
+     * @param indexProfile The indexes to be built.
+     * @param isDuplicateFree True if duplicate triples shall be removed upon compilation.
+     */
+    public TripleDataSetMemory(IndexProfile indexProfile, boolean isDuplicateFree){
+        this.indexProfile = indexProfile;
+        this.isDuplicateFree = isDuplicateFree;
+        subjectToTriple = new ConcurrentHashMap<>();
+        predicateToTriple = new ConcurrentHashMap<>();
+        objectToTriple = new ConcurrentHashMap<>();
         //triples = new HashSet<>(); // disabled for reasons of performance
     }
 
-    HashMap<String, ArrayList<Triple>> subjectToTriple;
-    HashMap<String, ArrayList<Triple>> predicateToTriple;
-    HashMap<String, ArrayList<Triple>> objectToTriple;
+    ConcurrentHashMap<String, ArrayList<Triple>> subjectToTriple;
+    ConcurrentHashMap<String, ArrayList<Triple>> predicateToTriple;
+    ConcurrentHashMap<String, ArrayList<Triple>> objectToTriple;
     //HashSet<Triple> triples;
-    private long size = 0;
+    private final IndexProfile indexProfile;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Indicator whether duplicate triples are removed upon compilation.
+     */
+    private final boolean isDuplicateFree;
+
+    /**
+     * Number of duplicate triples removed so far.
+     */
+    private final LongAdder numberOfRemovedDuplicates = new LongAdder();
+
+    /**
+     * Order of the triples within the lists of the subject, predicate, and object index (by the other two components).
+     */
+    private static final List<Comparator<Triple>> LIST_ORDER = Arrays.asList(
+            Comparator.<Triple, String>comparing(t -> t.predicate).thenComparing(t -> t.object),
+            Comparator.<Triple, String>comparing(t -> t.subject).thenComparing(t -> t.object),
+            Comparator.<Triple, String>comparing(t -> t.subject).thenComparing(t -> t.predicate)
+    );
+
+    /**
+     * Initial capacity of the lists of the subject, predicate, and object index (see
+     * {@link TripleDataSetMemory#presize(GraphSizeEstimate)}).
+     */
+    private final int[] listCapacities = {4, 4, 4};
+
+    /**
+     * Number of map entries per task when the lists are trimmed in parallel.
+     */
+    private static final long TRIM_PARALLELISM_THRESHOLD = 1 << 14;
+
+    /**
+     * The staging buffers of all threads that added triples.
+     */
+    private final List<Staging> stagings = new ArrayList<>();
+
+    /**
+     * The staging buffer of the current thread.
+     */
+    private final ThreadLocal<Staging> staging = ThreadLocal.withInitial(this::registerStaging);
+
+    /**
+     * Indicator whether there are no staged triples.
+     */
+    private volatile boolean isCompiled = true;
 
     /**
      * Add the given triple as specified by its components.
@@ -32,65 +129,353 @@ public class TripleDataSetMemory {
      * @param predicate Predicate
      * @param object Object
      */
+    @Override
     public void add(String subject, String predicate, String object){
         add(new Triple(subject, predicate, object));
     }
 
     /**
-     * Add the given triple.
+     * Add the given triple. This method is thread-safe and does not block.
      * @param tripleToAdd Triple to be added.
      */
-    public synchronized void add(Triple tripleToAdd){
-        ArrayList<Triple> subjectToTripleList = subjectToTriple.get(tripleToAdd.subject);
-        if(subjectToTripleList == null){
-            ArrayList<Triple> newList = new ArrayList<>();
-            newList.add(tripleToAdd);
-            subjectToTriple.put(tripleToAdd.subject, newList);
-        } else subjectToTripleList.add(tripleToAdd);
-
-        ArrayList<Triple> predicateToTripleList = predicateToTriple.get(tripleToAdd.predicate);
-        if(predicateToTripleList == null){
-            ArrayList<Triple> newList = new ArrayList<>();
-            newList.add(tripleToAdd);
-            predicateToTriple.put(tripleToAdd.predicate, newList);
-        } else predicateToTripleList.add(tripleToAdd);
-
-        ArrayList<Triple> objectToTripleList = objectToTriple.get(tripleToAdd.object);
-        if(objectToTripleList == null){
-            ArrayList<Triple> newList = new ArrayList<>();
-            newList.add(tripleToAdd);
-            objectToTriple.put(tripleToAdd.object, newList);
-        } else objectToTripleList.add(tripleToAdd);
+    @Override
+    public void add(Triple tripleToAdd){
+        Staging buffer = staging.get();
+        buffer.subjects[stripe(tripleToAdd.subject)].add(tripleToAdd);
+        if(indexProfile.isPredicateIndex()) buffer.predicates[stripe(tripleToAdd.predicate)].add(tripleToAdd);
+        if(indexProfile.isObjectIndex()) buffer.objects[stripe(tripleToAdd.object)].add(tripleToAdd);
         //triples.add(tripleToAdd);
-        size++;
+        size.increment();
+        if(isCompiled) isCompiled = false;
+    }
+
+    /**
+     * Merge all staged triples into the indexes. Call this method once loading is completed (i.e., after all loading
+     * threads have been joined). It is also called lazily upon the first lookup.
+     */
+    @Override
+    public synchronized void compile(){
+        if(isCompiled) return;
+        Staging[] buffers;
+        synchronized (stagings) {
+            buffers = stagings.toArray(new Staging[0]);
+        }
+        long removedBefore = numberOfRemovedDuplicates.sum();
+        // tasks [0, STRIPES) build the subject index, then predicate, then object
+        ParallelExecution.run(3 * STRIPES, task -> {
+            int stripe = task % STRIPES;
+            int position = task / STRIPES;
+            Set<String> changedKeys = isDuplicateFree ? new HashSet<>() : null;
+            for(Staging buffer : buffers){
+                switch (position){
+                    case 0:
+                        merge(buffer.subjects, stripe, subjectToTriple, 0, listCapacities[0], changedKeys);
+                        break;
+                    case 1:
+                        merge(buffer.predicates, stripe, predicateToTriple, 1, listCapacities[1], changedKeys);
+                        break;
+                    default:
+                        merge(buffer.objects, stripe, objectToTriple, 2, listCapacities[2], changedKeys);
+                }
+            }
+            if(changedKeys != null){
+                Map<String, ArrayList<Triple>> index = position == 0 ? subjectToTriple : position == 1 ? predicateToTriple : objectToTriple;
+                long removed = removeDuplicates(index, changedKeys, LIST_ORDER.get(position));
+                // every index contains each triple, the subject index is always built
+                if(position == 0) numberOfRemovedDuplicates.add(removed);
+            }
+        });
+        // release the unused capacity of the lists (they grow by 50 % when full)
+        for(ConcurrentHashMap<String, ArrayList<Triple>> index : Arrays.asList(subjectToTriple, predicateToTriple, objectToTriple)){
+            index.forEachValue(TRIM_PARALLELISM_THRESHOLD, ArrayList::trimToSize);
+        }
+        long removed = numberOfRemovedDuplicates.sum() - removedBefore;
+        if(removed > 0){
+            size.add(-removed);
+            LOGGER.info("Removed " + removed + " duplicate triples.");
+        }
+        isCompiled = true;
+    }
+
+    /**
+     * Remove duplicate triples from the lists of the given keys.
+     * @param index The index.
+     * @param keys The keys whose lists shall be checked.
+     * @param order Order by the two components that are not the key.
+     * @return The number of removed triples.
+     */
+    private static long removeDuplicates(Map<String, ArrayList<Triple>> index, Set<String> keys, Comparator<Triple> order){
+        long removed = 0;
+        for(String key : keys){
+            ArrayList<Triple> list = index.get(key);
+            if(list.size() < 2) continue;
+            list.sort(order);
+            int write = 1;
+            for(int read = 1; read < list.size(); read++){
+                if(order.compare(list.get(read), list.get(write - 1)) != 0){
+                    list.set(write++, list.get(read));
+                }
+            }
+            removed += list.size() - write;
+            list.subList(write, list.size()).clear();
+        }
+        return removed;
+    }
+
+    /**
+     * Merge one partition of a staging buffer into an index. The keys of a partition are disjoint from the keys of
+     * all other partitions, so partitions can be merged concurrently.
+     * @param buffer Staging buffer (one list per partition).
+     * @param stripe The partition to be merged.
+     * @param index The index to be extended.
+     * @param position 0 for subject, 1 for predicate, 2 for object.
+     * @param listCapacity Initial capacity of new lists.
+     * @param changedKeys Set to which the keys of the merged triples are added (null if not required).
+     */
+    private static void merge(ArrayList<Triple>[] buffer, int stripe, Map<String, ArrayList<Triple>> index, int position, int listCapacity, Set<String> changedKeys){
+        for(Triple triple : buffer[stripe]){
+            String key = position == 0 ? triple.subject : position == 1 ? triple.predicate : triple.object;
+            ArrayList<Triple> list = index.get(key);
+            if(list == null){
+                list = new ArrayList<>(listCapacity);
+                index.put(key, list);
+            }
+            list.add(triple);
+            if(changedKeys != null) changedKeys.add(key);
+        }
+        buffer[stripe] = new ArrayList<>();
+    }
+
+    /**
+     * Pre-size the subject and object index for the expected number of keys and let new lists start with the median
+     * degree of the graph. The lists are trimmed to their size upon compilation.
+     * @param estimate Expected size of the graph.
+     */
+    @Override
+    public synchronized void presize(GraphSizeEstimate estimate){
+        if(getSize() > 0) return;
+        subjectToTriple = new ConcurrentHashMap<>(GraphSizeEstimate.toCapacity(estimate.getNumberOfSubjects()));
+        listCapacities[0] = Math.max(1, estimate.getTypicalOutDegree());
+        if(indexProfile.isObjectIndex()){
+            objectToTriple = new ConcurrentHashMap<>(GraphSizeEstimate.toCapacity(estimate.getNumberOfObjects()));
+            listCapacities[2] = Math.max(1, estimate.getTypicalInDegree());
+        }
+    }
+
+    /**
+     * Make sure that all staged triples are indexed.
+     */
+    private void ensureCompiled(){
+        if(!isCompiled) compile();
     }
 
+    /**
+     * Create and register the staging buffer of the current thread.
+     * @return New staging buffer.
+     */
+    private Staging registerStaging(){
+        Staging result = new Staging();
+        synchronized (stagings) {
+            stagings.add(result);
+        }
+        return result;
+    }
+
+    /**
+     * Obtain the partition of the given key.
+     * @param key Key
+     * @return Partition number in [0, STRIPES).
+     */
+    private static int stripe(String key){
+        int h = key.hashCode() * 0x9E3779B9;
+        return h >>> (32 - Integer.numberOfTrailingZeros(STRIPES));
+    }
+
+    @Override
     public ArrayList<Triple> getTriplesInvolvingSubject(String subject){
+        ensureCompiled();
         return subjectToTriple.get(subject);
     }
 
     public ArrayList<Triple> getTriplesInvolvingPredicate(String predicate){
+        if(!indexProfile.isPredicateIndex()){
+            throw new UnsupportedOperationException("The predicate index is not built (index profile: " + indexProfile + ").");
+        }
+        ensureCompiled();
         return predicateToTriple.get(predicate);
     }
 
+    @Override
     public ArrayList<Triple> getTriplesInvolvingObject(String object){
+        if(!indexProfile.isObjectIndex()){
+            throw new UnsupportedOperationException("The object index is not built (index profile: " + indexProfile + ").");
+        }
+        ensureCompiled();
         return objectToTriple.get(object);
     }
 
     /**
-     * Returns the number of managed triples.
+     * Returns the number of managed triples (including triples that are not yet indexed).
      * @return The number of managed triples.
      */
+    @Override
     public long getSize(){
-        return size;
+        return size.sum();
+    }
+
+    @Override
+    public long getNumberOfRemovedDuplicates(){
+        return numberOfRemovedDuplicates.sum();
     }
 
     /**
      * Obtain a set of all subjects.
      * @return Subject set.
      */
+    @Override
     public Set<String> getUniqueSubjects(){
+        ensureCompiled();
         return subjectToTriple.keySet();
     }
 
+    @Override
+    public IndexProfile getIndexProfile(){
+        return indexProfile;
+    }
+
+    @Override
+    public TripleDataSet createEmpty() {
+        return new TripleDataSetMemory(indexProfile, isDuplicateFree);
+    }
+
+    /**
+     * Estimate the memory footprint of the triples, the indexes, the Strings, and the staging buffers. The size of the
+     * Strings is estimated from a sample. Strings are shared by the triples (the parsers intern
+     * them), so they are counted once per distinct key of the subject and object index. The Strings of triples that
+     * are not yet compiled are not covered, nor are objects that never occur as subject if there is no object index.
+     * @return Memory report.
+     */
+    @Override
+    public MemoryReport getMemoryReport(){
+        long stagedTriples = 0;
+        long stagingBytes = 0;
+        synchronized (stagings) {
+            for(Staging buffer : stagings){
+                for(ArrayList<Triple> list : buffer.subjects) stagedTriples += list.size();
+                stagingBytes += estimateBufferBytes(buffer.subjects) + estimateBufferBytes(buffer.predicates) + estimateBufferBytes(buffer.objects);
+            }
+        }
+        long compiledTriples = Math.max(0, getSize() - stagedTriples);
+        MemoryReport result = new MemoryReport(getSize());
+        result.add("triples", getSize() * MemoryReport.objectBytes(3 * MemoryReport.REFERENCE_BYTES), 0);
+        result.add("subject index", estimateIndexBytes(subjectToTriple, compiledTriples), 0);
+        if(indexProfile.isPredicateIndex()) result.add("predicate index", estimateIndexBytes(predicateToTriple, compiledTriples), 0);
+        if(indexProfile.isObjectIndex()) result.add("object index", estimateIndexBytes(objectToTriple, compiledTriples), 0);
+        result.add("strings", estimateStringBytes(), 0);
+        result.add("staging", stagingBytes, 0);
+        return result;
+    }
+
+    /**
+     * Heap bytes of an {@link ArrayList} object without its array.
+     */
+    private static final long ARRAY_LIST_BYTES = MemoryReport.objectBytes(8 + MemoryReport.REFERENCE_BYTES);
+
+    /**
+     * Heap bytes of an entry of a {@link ConcurrentHashMap}.
+     */
+    private static final long MAP_ENTRY_BYTES = MemoryReport.objectBytes(4 + 3 * MemoryReport.REFERENCE_BYTES);
+
+    /**
+     * Estimate the heap bytes of an index (map entries, lists, and list arrays). The lists are trimmed to their size
+     * upon compilation.
+     * @param index The index.
+     * @param numberOfTriples Number of triples in the lists of the index.
+     * @return Bytes.
+     */
+    private static long estimateIndexBytes(Map<String, ArrayList<Triple>> index, long numberOfTriples){
+        long numberOfKeys = index.size();
+        if(numberOfKeys == 0) return 0;
+        long tableSize = Long.highestOneBit(Math.max(1, numberOfKeys * 4 / 3)) << 1;
+        return MemoryReport.arrayBytes(tableSize, MemoryReport.REFERENCE_BYTES)
+                + numberOfKeys * (MAP_ENTRY_BYTES + ARRAY_LIST_BYTES + MemoryReport.ARRAY_HEADER_BYTES)
+                + numberOfTriples * MemoryReport.REFERENCE_BYTES;
+    }
+
+    /**
+     * Estimate the heap bytes of a staging buffer.
+     * @param buffer Staging buffer (one list per partition).
+     * @return Bytes.
+     */
+    private static long estimateBufferBytes(ArrayList<Triple>[] buffer){
+        long result = MemoryReport.arrayBytes(buffer.length, MemoryReport.REFERENCE_BYTES);
+        for(ArrayList<Triple> list : buffer){
+            result += ARRAY_LIST_BYTES + MemoryReport.arrayBytes(estimateCapacity(list.size(), 10), MemoryReport.REFERENCE_BYTES);
+        }
+        return result;
+    }
+
+    /**
+     * Estimate the capacity of an {@link ArrayList} that grew to the given size.
+     * @param size Number of elements.
+     * @param initialCapacity Initial capacity of the list.
+     * @return Capacity.
+     */
+    private static long estimateCapacity(int size, int initialCapacity){
+        long capacity = initialCapacity;
+        while(capacity < size) capacity += capacity >> 1;
+        return capacity;
+    }
+
+    /**
+     * Estimate the heap bytes of the distinct Strings from a sample of the keys of the subject and object index.
+     * @return Bytes.
+     */
+    private long estimateStringBytes(){
+        long numberOfStrings = subjectToTriple.size();
+        long sampledBytes = 0;
+        int sampled = 0;
+        for(String subject : subjectToTriple.keySet()){
+            sampledBytes += MemoryReport.stringBytes(subject);
+            if(++sampled == MemoryReport.SAMPLE_SIZE) break;
+        }
+        if(indexProfile.isObjectIndex() && !objectToTriple.isEmpty()){
+            // objects that are also subjects are already counted
+            int sampledObjects = 0;
+            int objectsOnly = 0;
+            for(String object : objectToTriple.keySet()){
+                if(!subjectToTriple.containsKey(object)){
+                    sampledBytes += MemoryReport.stringBytes(object);
+                    sampled++;
+                    objectsOnly++;
+                }
+                if(++sampledObjects == MemoryReport.SAMPLE_SIZE) break;
+            }
+            numberOfStrings += (long) ((double) objectsOnly / sampledObjects * objectToTriple.size());
+        }
+        if(indexProfile.isPredicateIndex()){
+            for(String predicate : predicateToTriple.keySet()){
+                sampledBytes += MemoryReport.stringBytes(predicate);
+                sampled++;
+                numberOfStrings++;
+            }
+        }
+        return sampled == 0 ? 0 : (long) ((double) sampledBytes / sampled * numberOfStrings);
+    }
+
+    /**
+     * Triples added by a single thread, partitioned by the hash of the subject, predicate, and object.
+     */
+    private static class Staging {
+        final ArrayList<Triple>[] subjects = newBuffer();
+        final ArrayList<Triple>[] predicates = newBuffer();
+        final ArrayList<Triple>[] objects = newBuffer();
+
+        @SuppressWarnings("unchecked")
+        private static ArrayList<Triple>[] newBuffer(){
+            ArrayList<Triple>[] result = new ArrayList[STRIPES];
+            for(int i = 0; i < STRIPES; i++) result[i] = new ArrayList<>();
+            return result;
+        }
+    }
 }
@@ -85,4 +85,46 @@ class WalkGeneratorDefaultTest {
         generatedFile.delete();
     }
 
+    @Test
+    void generateRandomMidWalksTtl() throws IOException {
+        File pizzaOntology = new File(getClass().getResource("/pizza.ttl").getFile());
+
+        String generatedFilePath = "./test_walks3.gz";
+        WalkGeneratorDefault generator = new WalkGeneratorDefault(pizzaOntology);
+        generator.generateRandomMidWalks(8, 5, 5, generatedFilePath);
+
+        File generatedFile = new File(generatedFilePath);
+        assertTrue(generatedFile.exists(), "Assert that a walk file has been generated.");
+        assertTrue(readNumberOfWalks(generatedFile) > 0, "Assert that mid walks have been generated.");
+        generatedFile.delete();
+    }
+
+    @Test
+    void generateRandomWalksTtl() throws IOException {
+        File pizzaOntology = new File(getClass().getResource("/pizza.ttl").getFile());
+
+        String generatedFilePath = "./test_walks4.gz";
+        WalkGeneratorDefault generator = new WalkGeneratorDefault(pizzaOntology);
+        generator.generateRandomWalks(8, 5, 5, generatedFilePath);
+
+        File generatedFile = new File(generatedFilePath);
+        assertTrue(generatedFile.exists(), "Assert that a walk file has been generated.");
+        assertTrue(readNumberOfWalks(generatedFile) > 0, "Assert that random walks have been generated.");
+        generatedFile.delete();
+    }
+
+    /**
+     * Count the walks in the given gzipped walk file.
+     * @param walkFile The walk file.
+     * @return Number of walks (lines).
+     * @throws IOException If the file cannot be read.
+     */
+    private static int readNumberOfWalks(File walkFile) throws IOException {
+        int numberOfWalks = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(walkFile))))) {
+            while (reader.readLine() != null) numberOfWalks++;
+        }
+        return numberOfWalks;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package walkGenerators.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteMatcherTest {
+
+    @Test
+    void match() {
+        ByteMatcher matcher = new ByteMatcher(Arrays.asList("he", "she", "his", "hers", "http://ä.org/"));
+        assertTrue(contains(matcher, "ushers"));
+        assertTrue(contains(matcher, "xxhis"));
+        assertTrue(contains(matcher, "<http://ä.org/a>"));
+        assertFalse(contains(matcher, "hxsxhi"));
+        assertFalse(contains(matcher, ""));
+
+        assertTrue(prefix(matcher, "hers and more"));
+        assertTrue(prefix(matcher, "http://ä.org/a"));
+        assertFalse(prefix(matcher, "ushers"));
+        assertFalse(prefix(matcher, "http://a.org/"));
+        assertFalse(prefix(matcher, "h"));
+
+        assertTrue(exact(matcher, "she"));
+        assertTrue(exact(matcher, "he"));
+        assertFalse(exact(matcher, "her"));
+        assertFalse(exact(matcher, "shes"));
+        assertFalse(exact(matcher, "ashe"));
+    }
+
+    private static boolean contains(ByteMatcher matcher, String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        return matcher.containsAny(bytes, 0, bytes.length);
+    }
+
+    private static boolean prefix(ByteMatcher matcher, String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        return matcher.matchesPrefix(bytes, 0, bytes.length);
+    }
+
+    private static boolean exact(ByteMatcher matcher, String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        return matcher.matchesExactly(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,65 @@
+package walkGenerators.base;
+
+import org.junit.jupiter.api.Test;
+import walkGenerators.dataStructure.GraphSizeEstimate;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSizeEstimatorTest {
+
+    @Test
+    void estimateCompleteFile() {
+        File file = new File(getClass().getResource("/dummyGraph_3.nt").getFile());
+        GraphSizeEstimate estimate = GraphSizeEstimator.estimate(Collections.singletonList(file));
+        assertNotNull(estimate);
+        assertEquals(29, estimate.getNumberOfTriples());
+        assertEquals(16, estimate.getNumberOfSubjects());
+        assertEquals(28, estimate.getNumberOfObjects());
+        assertEquals(30, estimate.getNumberOfNodes());
+        assertTrue(estimate.getTypicalOutDegree() >= 1);
+        assertEquals(1, estimate.getTypicalInDegree());
+    }
+
+    @Test
+    void estimateSample() throws IOException {
+        // 10,000 subjects with 5 triples each; 1,000 lines are sampled per file
+        File plain = File.createTempFile("graph", ".nt");
+        File gzipped = File.createTempFile("graph", ".nt.gz");
+        plain.deleteOnExit();
+        gzipped.deleteOnExit();
+        try (BufferedWriter plainWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(plain), StandardCharsets.UTF_8));
+             BufferedWriter gzipWriter = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(gzipped)), StandardCharsets.UTF_8))) {
+            for (int subject = 0; subject < 10_000; subject++) {
+                for (int i = 0; i < 5; i++) {
+                    plainWriter.write("<http://example.org/s" + subject + "> <http://example.org/p" + i + "> <http://example.org/o" + (subject * 5 + i) + "> .\n");
+                    gzipWriter.write("<http://example.org/t" + subject + "> <http://example.org/p" + i + "> <http://example.org/u" + (subject * 5 + i) + "> .\n");
+                }
+            }
+        }
+        GraphSizeEstimate estimate = GraphSizeEstimator.estimate(Arrays.asList(plain, gzipped), 2000);
+        assertNotNull(estimate);
+        assertEquals(100_000, estimate.getNumberOfTriples(), 20_000);
+        assertEquals(20_000, estimate.getNumberOfSubjects(), 4_000);
+        assertEquals(5, estimate.getTypicalOutDegree());
+        assertEquals(1, estimate.getTypicalInDegree());
+
+        assertNull(GraphSizeEstimator.estimate(Collections.singletonList(new File("./does_not_exist.nt"))));
+    }
+
+    @Test
+    void split() {
+        assertArrayEquals(new String[]{"<s>", "<p>", "\"a b\"@en"}, GraphSizeEstimator.split("<s> <p> \"a b\"@en ."));
+        assertNull(GraphSizeEstimator.split("# comment"));
+        assertNull(GraphSizeEstimator.split(""));
+    }
+}
@@ -0,0 +1,99 @@
+package walkGenerators.base;
+
+import org.junit.jupiter.api.Test;
+import walkGenerators.dataStructure.TripleDataSetMemory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadMetricsTest {
+
+    private static final String CONTENT = "# comment\n"
+            + "<http://a> <http://p> <http://b> .\n"
+            + "<http://a> <http://p> \"literal\" .\n"
+            + "<http://a> <http://p> .\n"
+            + "<http://b> <http://p> <http://c> .\n";
+
+    @Test
+    void readNTriples() throws IOException {
+        File file = File.createTempFile("metrics", ".nt");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        parser.setNumberOfParsingThreads(1);
+        parser.readNTriples(file, false);
+
+        LoadMetrics metrics = parser.getLoadMetrics();
+        assertFalse(metrics.isRunning());
+        assertEquals(1, metrics.getFilesCompleted());
+        assertEquals(0, metrics.getFilesInProgress().length);
+        assertEquals(file.length(), metrics.getBytesRead());
+        assertEquals(file.length(), metrics.getBytesTotal());
+        assertEquals(5, metrics.getLinesRead());
+        assertEquals(2, metrics.getTriplesAccepted());
+        assertEquals(2, metrics.getTriplesRejectedBySkipCondition());
+        assertEquals(1, metrics.getTriplesRejectedAsMalformed());
+        assertEquals(0, metrics.getTriplesRejectedByException());
+        assertEquals(0, metrics.getEstimatedSecondsRemaining());
+        // a, b, c, and p
+        assertEquals(4, metrics.getDictionarySize());
+        assertEquals(4, metrics.getDictionaryGrowth());
+    }
+
+    @Test
+    void readNTriplesPipelined() throws IOException {
+        File file = File.createTempFile("metrics", ".nt.gz");
+        file.deleteOnExit();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        parser.readNTriplesPipelined(file, 2);
+
+        // bytes are counted before decompression
+        LoadMetrics.FileMetrics metrics = parser.getLoadMetrics().getFiles().get(0);
+        assertFalse(metrics.isRunning());
+        assertEquals(file.length(), metrics.getBytesRead());
+        assertEquals(5, metrics.getLinesRead());
+        assertEquals(2, metrics.getTriplesAccepted());
+        assertEquals(2, metrics.getTriplesRejectedBySkipCondition());
+        assertEquals(1, metrics.getTriplesRejectedAsMalformed());
+    }
+
+    @Test
+    void registration() throws Exception {
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("walkGenerators:type=LoadMetrics,*");
+        int registered = server.queryNames(pattern, null).size();
+
+        // nested loads share the metrics, which are registered until the outermost load ends
+        LoadMetrics metrics = parser.startLoad(Collections.emptyList());
+        assertSame(metrics, parser.startLoad(Collections.emptyList()));
+        assertEquals(registered + 1, server.queryNames(pattern, null).size());
+        parser.finishLoad();
+        assertTrue(metrics.isRunning());
+        parser.finishLoad();
+        assertFalse(metrics.isRunning());
+        assertEquals(registered, server.queryNames(pattern, null).size());
+    }
+
+    @Test
+    void estimateSecondsRemaining() {
+        assertEquals(-1, LoadMetrics.estimateSecondsRemaining(1000, 0, 100));
+        assertEquals(3, LoadMetrics.estimateSecondsRemaining(1000, 25, 100));
+        assertEquals(0, LoadMetrics.estimateSecondsRemaining(1000, 100, 100));
+    }
+}
@@ -0,0 +1,85 @@
+package walkGenerators.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSchedulerTest {
+
+    @Test
+    void load() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int size : new int[]{10, 1000, 100}) {
+            File file = File.createTempFile("load" + size + "_", ".nt");
+            file.deleteOnExit();
+            Files.write(file.toPath(), new byte[size]);
+            files.add(file);
+        }
+
+        // largest first, failures do not stop the load
+        List<File> loaded = Collections.synchronizedList(new ArrayList<>());
+        List<LoadScheduler.FileStatistics> statistics = new LoadScheduler(1).load(files, file -> {
+            loaded.add(file);
+            if (file.length() == 100) throw new IllegalStateException("test");
+        });
+        assertEquals(files.get(1), loaded.get(0));
+        assertEquals(files.get(2), loaded.get(1));
+        assertEquals(files.get(0), loaded.get(2));
+        assertEquals(3, statistics.size());
+        assertEquals(1000, statistics.get(0).getBytes());
+        assertFalse(statistics.get(0).isFailed());
+        assertTrue(statistics.get(1).isFailed());
+        for (LoadScheduler.FileStatistics file : statistics) {
+            assertTrue(file.getEnd() >= file.getStart());
+        }
+
+        // bounded parallelism
+        List<File> manyFiles = new ArrayList<>();
+        for (int i = 0; i < 4; i++) manyFiles.addAll(files);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        new LoadScheduler(2).load(manyFiles, file -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        });
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void loadError() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int size : new int[]{1000, 100}) {
+            File file = File.createTempFile("loadError" + size + "_", ".nt");
+            file.deleteOnExit();
+            Files.write(file.toPath(), new byte[size]);
+            files.add(file);
+        }
+
+        // the error is thrown after the running file is finished
+        AtomicInteger finished = new AtomicInteger();
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new LoadScheduler(2).load(files, file -> {
+            if (file.length() == 100) throw new AssertionError("test");
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.incrementAndGet();
+        }));
+        assertTrue(exception.getCause() instanceof AssertionError);
+        assertEquals(1, finished.get());
+    }
+}
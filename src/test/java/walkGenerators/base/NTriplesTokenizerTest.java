@@ -0,0 +1,83 @@
+package walkGenerators.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NTriplesTokenizerTest {
+
+    @Test
+    void tokenize() throws IOException {
+        NTriplesTokenizer tokenizer = tokenizer("<http://a.org/S> <http://a.org/p> <http://a.org/Ö> .\n"
+                + "_:b1 <http://a.org/p> _:b2 .\r\n"
+                + "# comment\n"
+                + "   \n"
+                + "<http://a.org/S> <http://a.org/p> \"a literal\"@en .\n"
+                + "<http://a.org/S> <http://a.org/p>  <http://a.org/O> .\n"
+                + "<http://a.org/S> <http://a.org/p> <http://a.org/O>.");
+
+        assertTrue(tokenizer.nextLine());
+        assertFalse(tokenizer.isCommentOrBlank());
+        assertFalse(tokenizer.containsLiteral());
+        assertTrue(tokenizer.tokenize(false));
+        assertEquals("http://a.org/S", tokenizer.getTerm(0));
+        assertEquals("http://a.org/p", tokenizer.getTerm(1));
+        assertEquals("http://a.org/Ö", tokenizer.getTerm(2));
+
+        assertTrue(tokenizer.nextLine());
+        assertTrue(tokenizer.tokenize(false));
+        assertEquals("_:b1", tokenizer.getTerm(0));
+        assertEquals("_:b2", tokenizer.getTerm(2));
+
+        assertTrue(tokenizer.nextLine());
+        assertTrue(tokenizer.isCommentOrBlank());
+        assertTrue(tokenizer.nextLine());
+        assertTrue(tokenizer.isCommentOrBlank());
+
+        assertTrue(tokenizer.nextLine());
+        assertTrue(tokenizer.containsLiteral());
+        // without datatype properties, the spaces of the literal are separators
+        assertFalse(tokenizer.tokenize(false));
+        assertTrue(tokenizer.tokenize(true));
+        assertEquals("http://a.org/S", tokenizer.getTerm(0));
+        assertEquals("\"a_literal\"@en", tokenizer.getTerm(2));
+
+        // two spaces: four tokens
+        assertTrue(tokenizer.nextLine());
+        assertFalse(tokenizer.tokenize(false));
+
+        // last line without line break and without space in front of the dot
+        assertTrue(tokenizer.nextLine());
+        assertEquals("<http://a.org/S> <http://a.org/p> <http://a.org/O>.", tokenizer.getLine());
+        assertTrue(tokenizer.tokenize(false));
+        assertEquals("http://a.org/O", tokenizer.getTerm(2));
+        assertFalse(tokenizer.nextLine());
+    }
+
+    @Test
+    void longLines() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder longObject = new StringBuilder("http://a.org/");
+        for (int i = 0; i < 200_000; i++) longObject.append('x');
+        for (int i = 0; i < 1000; i++) {
+            input.append("<http://a.org/S").append(i).append("> <http://a.org/p> <").append(i == 500 ? longObject : "http://a.org/O").append("> .\n");
+        }
+        NTriplesTokenizer tokenizer = tokenizer(input.toString());
+        int lines = 0;
+        while (tokenizer.nextLine()) {
+            assertTrue(tokenizer.tokenize(false));
+            assertEquals("http://a.org/S" + lines, tokenizer.getTerm(0));
+            assertEquals(lines == 500 ? longObject.toString() : "http://a.org/O", tokenizer.getTerm(2));
+            lines++;
+        }
+        assertEquals(1000, lines);
+    }
+
+    private static NTriplesTokenizer tokenizer(String input) {
+        return new NTriplesTokenizer(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+    }
+}
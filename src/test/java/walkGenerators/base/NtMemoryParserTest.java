@@ -7,10 +7,25 @@ import org.rdfhdt.hdt.hdt.HDTManager;
 import org.rdfhdt.hdt.triples.IteratorTripleString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import walkGenerators.dataStructure.GraphSizeEstimate;
+import walkGenerators.dataStructure.Triple;
+import walkGenerators.dataStructure.TripleDataSetCsr;
+import walkGenerators.dataStructure.TripleDataSetDelta;
+import walkGenerators.dataStructure.TripleDataSetMemory;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,7 +52,14 @@ class NtMemoryParserTest {
      * @param graphPath Path to NT file.
      */
     public static void testWalkForEntity(String graphPath){
-        NtMemoryParser parser = new NtMemoryParser(graphPath, new DummyWalkGenerator());
+        testWalkForEntity(new NtMemoryParser(graphPath, new DummyWalkGenerator()));
+    }
+
+    /**
+     * For repeated tests.
+     * @param parser Parser into which one of the dummy graphs has been loaded.
+     */
+    public static void testWalkForEntity(NtMemoryParser parser){
         List<String> result_1 = parser.generateDuplicateFreeRandomWalksForEntity("A", 100, 8);
         System.out.println("Walks 1");
         for(String s : result_1) System.out.println(s);
@@ -104,6 +126,184 @@ class NtMemoryParserTest {
     }
 
 
+    @Test
+    void generateWalkForEntityCsr(){
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetCsr());
+        parser.readNTriples(getClass().getResource("/dummyGraph_2.nt").getFile());
+        testWalkForEntity(parser);
+
+        // mid walks are generated on the ID level
+        for (int i = 0; i < 20; i++) {
+            List<String> walk = parser.generateMidWalkForEntity("E", 3);
+            assertTrue(walk.contains("E"));
+            assertEquals(1, walk.size() % 2);
+            for (int j = 2; j < walk.size(); j += 2) {
+                assertTrue(parser.getData().getTriplesInvolvingSubject(walk.get(j - 2)).contains(new Triple(walk.get(j - 2), walk.get(j - 1), walk.get(j))),
+                        "Triple not in graph: " + walk);
+            }
+        }
+
+        Triple triple = parser.getRandomTripleForSubjectWithoutTags("A");
+        assertEquals("A", triple.subject);
+        assertTrue(triple.object.equals("B") || triple.object.equals("E"));
+        assertNull(parser.getRandomTripleForSubjectWithoutTags("D"));
+
+        // duplicate-free walks are generated on the ID level
+        NtMemoryParser deepParser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetCsr());
+        deepParser.readNTriples(getClass().getResource("/dummyGraph_3.nt").getFile());
+        for (int depth : new int[]{1, 8}) {
+            int maxLength = 0;
+            for (String walk : deepParser.generateDuplicateFreeRandomWalksForEntity("W", 100, depth)) {
+                assertTrue(walk.startsWith("W P7 V"));
+                maxLength = Math.max(maxLength, walk.split(" ").length);
+            }
+            assertEquals(1 + 2 * depth, maxLength);
+        }
+        assertEquals(3, deepParser.generateDuplicateFreeRandomWalksForEntity("Z", 3, 8).size());
+        assertTrue(deepParser.generateDuplicateFreeRandomWalksForEntity("X", 3, 8).isEmpty());
+
+        // random walks are generated on the ID level
+        assertTrue(parser.isIdBased());
+        assertFalse(new NtMemoryParser(new DummyWalkGenerator()).isIdBased());
+        List<String> walks = parser.generateRandomWalksForEntityIdBased("A", 50, 3);
+        assertEquals(50, walks.size());
+        int maxLength = 0;
+        for (String walk : walks) {
+            String[] elements = walk.split(" ");
+            assertEquals("A", elements[0]);
+            assertEquals(1, elements.length % 2);
+            for (int j = 2; j < elements.length; j += 2) {
+                assertTrue(parser.getData().getTriplesInvolvingSubject(elements[j - 2]).contains(new Triple(elements[j - 2], elements[j - 1], elements[j])),
+                        "Triple not in graph: " + walk);
+            }
+            maxLength = Math.max(maxLength, elements.length);
+        }
+        assertEquals(7, maxLength);
+        assertTrue(parser.generateRandomWalksForEntityIdBased("D", 5, 3).isEmpty());
+        assertTrue(parser.generateRandomWalksForEntityIdBased("unknown", 5, 3).isEmpty());
+    }
+
+    @Test
+    void applyDiff(){
+        TripleDataSetDelta data = new TripleDataSetDelta(new TripleDataSetMemory(), TripleDataSetMemory::new);
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), data);
+        parser.readNTriples(getClass().getResource("/dummyGraph_2.nt").getFile());
+        long size = data.getSize();
+        parser.applyDiff(new File(getClass().getResource("/dummyGraph_2.diff").getFile()));
+        assertEquals(size + 1, data.getSize());
+        assertEquals(3, data.getDeltaSize());
+
+        for (int i = 0; i < 20; i++) {
+            Triple triple = parser.getRandomTripleForSubjectWithoutTags("A");
+            assertTrue(triple.object.equals("E") || triple.object.equals("G"));
+        }
+        assertEquals("H", parser.getRandomTripleForSubjectWithoutTags("G").object);
+    }
+
+    @Test
+    void readNTriplesParallel(){
+        File file = new File(getClass().getResource("/pizza.owl.nt").getFile());
+        NtMemoryParser sequentialParser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        sequentialParser.setNumberOfParsingThreads(1);
+        sequentialParser.readNTriples(file, false);
+        TripleDataSetMemory sequential = (TripleDataSetMemory) sequentialParser.getData();
+
+        // 3 threads with 4 chunks each: several chunk boundaries fall into the middle of a line
+        NtMemoryParser parallelParser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        parallelParser.readNTriplesParallel(file, 3);
+        TripleDataSetMemory parallel = (TripleDataSetMemory) parallelParser.getData();
+
+        assertTrue(sequential.getSize() > 0);
+        assertEquals(sequential.getSize(), parallel.getSize());
+        assertEquals(sequential.getUniqueSubjects(), parallel.getUniqueSubjects());
+        for (String subject : sequential.getUniqueSubjects()) {
+            assertEquals(new HashSet<>(sequential.getTriplesInvolvingSubject(subject)),
+                    new HashSet<>(parallel.getTriplesInvolvingSubject(subject)));
+        }
+    }
+
+    @Test
+    void readNTriplesPipelinedParserFailure() throws IOException {
+        File gzippedFile = File.createTempFile("failure", ".nt.gz");
+        gzippedFile.deleteOnExit();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gzippedFile))) {
+            for (int i = 0; i < 10_000; i++) {
+                out.write(("<http://a" + i + "> <http://p> <http://b" + i + "> .\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // a parser thread dies with an Error: neither the inflater nor the other parser must wait forever
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator() {
+            @Override
+            public String shortenUri(String uri) {
+                if (uri.equals("http://a5000")) throw new StackOverflowError("test");
+                return uri;
+            }
+        }, new TripleDataSetMemory());
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> parser.readNTriplesPipelined(gzippedFile, 2, 100));
+        assertTrue(parser.getData().getSize() < 10_000);
+
+        NtMemoryParser singleParser = new NtMemoryParser(new DummyWalkGenerator() {
+            @Override
+            public String shortenUri(String uri) {
+                throw new StackOverflowError("test");
+            }
+        }, new TripleDataSetMemory());
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> singleParser.readNTriplesPipelined(gzippedFile, 1, 100));
+        assertEquals(0, singleParser.getData().getSize());
+    }
+
+    @Test
+    void readNTriplesPipelined() throws IOException {
+        File file = new File(getClass().getResource("/pizza.owl.nt").getFile());
+        File gzippedFile = File.createTempFile("pizza", ".nt.gz");
+        gzippedFile.deleteOnExit();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gzippedFile))) {
+            Files.copy(file.toPath(), out);
+        }
+        NtMemoryParser sequentialParser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        sequentialParser.readNTriples(file, false);
+        TripleDataSetMemory sequential = (TripleDataSetMemory) sequentialParser.getData();
+
+        // small blocks: many block boundaries and lines that are longer than a block
+        NtMemoryParser pipelinedParser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        pipelinedParser.readNTriplesPipelined(gzippedFile, 3, 100);
+        TripleDataSetMemory pipelined = (TripleDataSetMemory) pipelinedParser.getData();
+
+        assertTrue(sequential.getSize() > 0);
+        assertEquals(sequential.getSize(), pipelined.getSize());
+        for (String subject : sequential.getUniqueSubjects()) {
+            assertEquals(new HashSet<>(sequential.getTriplesInvolvingSubject(subject)),
+                    new HashSet<>(pipelined.getTriplesInvolvingSubject(subject)));
+        }
+    }
+
+    @Test
+    void getChunkBoundaries() throws IOException {
+        File file = File.createTempFile("chunks", ".nt");
+        file.deleteOnExit();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("<http://a.org/S").append(i).append("> <http://a.org/p> <http://a.org/O").append(i).append("> .\n");
+        }
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(file.toPath(), bytes);
+        try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+            long[] boundaries = NtMemoryParser.getChunkBoundaries(channel, 7);
+            assertEquals(0, boundaries[0]);
+            assertEquals(bytes.length, boundaries[boundaries.length - 1]);
+            for (int i = 1; i < boundaries.length - 1; i++) {
+                assertTrue(boundaries[i] >= boundaries[i - 1]);
+                assertEquals('\n', bytes[(int) boundaries[i] - 1]);
+            }
+
+            // more chunks than lines: empty chunks at the end
+            boundaries = NtMemoryParser.getChunkBoundaries(channel, 1000);
+            for (int i = 1; i < boundaries.length - 1; i++) {
+                assertTrue(boundaries[i] == bytes.length || bytes[(int) boundaries[i] - 1] == '\n');
+            }
+        }
+    }
+
     @Test
     void generateMidWalksForEntity(){
         try {
@@ -162,6 +362,26 @@ class NtMemoryParserTest {
         }
     }
 
+    @Test
+    void readNTriplesPresize() throws IOException {
+        File file = File.createTempFile("presize", ".nt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "<http://a> <http://p> <http://b> .\n<http://b> <http://p> <http://c> .\n".getBytes(StandardCharsets.UTF_8));
+        List<GraphSizeEstimate> estimates = new ArrayList<>();
+        TripleDataSetMemory data = new TripleDataSetMemory() {
+            @Override
+            public synchronized void presize(GraphSizeEstimate estimate) {
+                estimates.add(estimate);
+                super.presize(estimate);
+            }
+        };
+
+        // the File constructor pre-sizes as well (not only the String overload)
+        new NtMemoryParser(file, new DummyWalkGenerator(), data);
+        assertEquals(1, estimates.size());
+        assertEquals(2, data.getSize());
+    }
+
     @Test
     public void generateMidWalkForEntity() {
         try {
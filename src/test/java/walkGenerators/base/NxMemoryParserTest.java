@@ -10,8 +10,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashSet;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +49,75 @@ class NxMemoryParserTest {
         assertEquals(7, result_3.size());
     }
 
+    @Test
+    void readGzippedFilesAndDirectories() throws IOException {
+        File file2 = new File(getClass().getResource("/dummyGraph_2.nt").getFile());
+        File file3 = new File(getClass().getResource("/dummyGraph_3.nt").getFile());
+        File directory = Files.createTempDirectory("nx").toFile();
+        directory.deleteOnExit();
+        File gzippedFile = new File(directory, "dummyGraph_2.nt.gz");
+        gzippedFile.deleteOnExit();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gzippedFile))) {
+            Files.copy(file2.toPath(), out);
+        }
+        File plainFile = new File(directory, "dummyGraph_3.nt");
+        plainFile.deleteOnExit();
+        Files.copy(file3.toPath(), plainFile.toPath());
+        File otherFile = new File(directory, "readme.txt");
+        otherFile.deleteOnExit();
+        Files.write(otherFile.toPath(), "not parsed".getBytes());
+
+        NxMemoryParser expected = new NxMemoryParser(new DummyWalkGenerator());
+        expected.readNtriples(file2);
+        long size2 = expected.getData().getSize();
+        assertTrue(size2 > 0);
+        expected.readNtriples(file3);
+
+        // gzipped file
+        NxMemoryParser gzipParser = new NxMemoryParser(gzippedFile, new DummyWalkGenerator());
+        assertEquals(size2, gzipParser.getData().getSize());
+
+        // directory (parallel)
+        NxMemoryParser directoryParser = new NxMemoryParser(new DummyWalkGenerator());
+        directoryParser.setNumberOfThreads(2);
+        directoryParser.readNtriples(directory);
+        assertEquals(expected.getData().getSize(), directoryParser.getData().getSize());
+        for (String subject : expected.getData().getUniqueSubjects()) {
+            assertEquals(new HashSet<>(expected.getData().getTriplesInvolvingSubject(subject)),
+                    new HashSet<>(directoryParser.getData().getTriplesInvolvingSubject(subject)));
+        }
+    }
+
+    @Test
+    void readNtriplesFailure() throws IOException {
+        File directory = Files.createTempDirectory("nxFailure").toFile();
+        directory.deleteOnExit();
+        File goodFile = new File(directory, "good.nt");
+        goodFile.deleteOnExit();
+        Files.write(goodFile.toPath(), "<http://a> <http://p> <http://b> .\n".getBytes());
+        File badFile = new File(directory, "bad.nt");
+        badFile.deleteOnExit();
+        Files.write(badFile.toPath(), "<http://a> <http://p> <http://fail> .\n".getBytes());
+        WalkGenerator failingGenerator = new DummyWalkGenerator() {
+            @Override
+            public String shortenUri(String uri) {
+                if (uri.equals("http://fail")) throw new IllegalStateException("test");
+                return uri;
+            }
+        };
+
+        // single files: the failure is thrown so that the caller can fall back to another parser
+        assertThrows(IllegalStateException.class, () -> new NxMemoryParser(badFile, failingGenerator));
+
+        // directories: the other files are loaded, the failure is thrown afterwards
+        NxMemoryParser directoryParser = new NxMemoryParser(failingGenerator);
+        assertThrows(IllegalStateException.class, () -> directoryParser.readNtriples(directory));
+        assertEquals(1, directoryParser.getData().getSize());
+
+        // no optimized files exist for the directory
+        assertFalse(new NtMemoryParser(failingGenerator).hasOptimizedFiles(directory));
+    }
+
     @Test
     void generateMidWalksForEntity(){
         try {
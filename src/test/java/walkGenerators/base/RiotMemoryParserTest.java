@@ -0,0 +1,62 @@
+package walkGenerators.base;
+
+import org.apache.jena.riot.Lang;
+import org.junit.jupiter.api.Test;
+import walkGenerators.dataStructure.Triple;
+import walkGenerators.dataStructure.TripleDataSetMemory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiotMemoryParserTest {
+
+    @Test
+    void readTurtle() {
+        File pizzaFile = new File(getClass().getClassLoader().getResource("pizza.ttl").getPath());
+        RiotMemoryParser parser = new RiotMemoryParser(pizzaFile, Lang.TURTLE, new DummyWalkGenerator(), new TripleDataSetMemory());
+        TripleDataSetMemory data = (TripleDataSetMemory) parser.getData();
+        assertTrue(data.getSize() > 0);
+        assertTrue(data.getUniqueSubjects().contains("http://www.co-ode.org/ontologies/pizza/pizza.owl#AmericanHot"));
+        for (String subject : data.getUniqueSubjects()) {
+            for (Triple triple : data.getTriplesInvolvingSubject(subject)) {
+                assertFalse(triple.object.startsWith("\""));
+            }
+        }
+    }
+
+    @Test
+    void readRdf() throws IOException {
+        File file = File.createTempFile("riot", ".nt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), ("<http://example.org/a> <http://example.org/p> <http://example.org/b> .\n"
+                + "<http://example.org/a> <http://example.org/label> \"a\"@en .\n"
+                + "<http://example.org/b> <http://example.org/p> _:node .\n").getBytes(StandardCharsets.UTF_8));
+        RiotMemoryParser parser = new RiotMemoryParser(new DummyWalkGenerator());
+        parser.readRdf(file);
+        TripleDataSetMemory data = (TripleDataSetMemory) parser.getData();
+        assertEquals(2, data.getSize());
+        HashSet<Triple> expected = new HashSet<>();
+        expected.add(new Triple("http://example.org/b", "http://example.org/p", "_:node"));
+        assertEquals(expected, new HashSet<>(data.getTriplesInvolvingSubject("http://example.org/b")));
+        assertEquals(1, data.getTriplesInvolvingSubject("http://example.org/a").size());
+    }
+
+    @Test
+    void readRdfMalformed() throws IOException {
+        File file = File.createTempFile("riotMalformed", ".nt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), ("<http://example.org/a> <http://example.org/p> <http://example.org/b> .\n"
+                + "<http://example.org/b> <http://example.org/p> .\n"
+                + "<http://example.org/b> <http://example.org/p> <http://example.org/c> .\n").getBytes(StandardCharsets.UTF_8));
+        RiotMemoryParser parser = new RiotMemoryParser(new DummyWalkGenerator());
+
+        // a truncated graph is not passed on silently
+        assertThrows(RuntimeException.class, () -> parser.readRdf(file));
+        assertEquals(1, parser.getLoadMetrics().getTriplesRejectedAsMalformed());
+    }
+}
@@ -0,0 +1,68 @@
+package walkGenerators.base;
+
+import org.junit.jupiter.api.Test;
+import walkGenerators.dataStructure.TripleDataSetMemory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementFilterTest {
+
+    @Test
+    void isHit() {
+        StatementFilter filter = new StatementFilter();
+        assertTrue(filter.isHit("# comment"));
+        assertTrue(filter.isHit("   "));
+        assertTrue(filter.isHit("<http://a.org/s> <http://a.org/p> \"literal\"@en ."));
+        assertFalse(filter.isHit("<http://a.org/s> <http://a.org/p> <http://a.org/o> ."));
+
+        filter.setSkipLiterals(false);
+        assertFalse(filter.isHit("<http://a.org/s> <http://a.org/p> \"literal\"@en ."));
+
+        filter.addDeniedPattern("_Gloss1");
+        assertTrue(filter.isHit("<http://a.org/s> <http://a.org/p> <http://a.org/o_Gloss1_EN> ."));
+
+        filter.addDeniedPredicate("http://purl.org/dc/terms/license");
+        assertTrue(filter.isHit("<http://a.org/s> <http://purl.org/dc/terms/license> <http://a.org/o> ."));
+        assertFalse(filter.isHit("<http://a.org/s> <http://purl.org/dc/terms/licenseX> <http://a.org/o> ."));
+
+        filter.addDeniedNamespace("http://b.org/");
+        assertTrue(filter.isHit("<http://b.org/s> <http://a.org/p> <http://a.org/o> ."));
+        assertTrue(filter.isHit("<http://a.org/s> <http://a.org/p> <http://b.org/o> ."));
+        assertFalse(filter.isHit("<http://a.org/s> <http://b.org/p> <http://a.org/o> ."));
+
+        filter.addAllowedNamespace("http://a.org/");
+        assertTrue(filter.isHit("<http://c.org/s> <http://a.org/p> <http://a.org/o> ."));
+        assertTrue(filter.isHit("_:node <http://a.org/p> <http://a.org/o> ."));
+        assertFalse(filter.isHit("<http://a.org/s> <http://a.org/p> \"literal\" ."));
+
+        filter.addAllowedPredicate("http://a.org/p");
+        assertTrue(filter.isHit("<http://a.org/s> <http://a.org/q> <http://a.org/o> ."));
+        assertFalse(filter.isHit("<http://a.org/s> <http://a.org/p> <http://a.org/o> ."));
+        assertTrue(filter.toString().contains("allowedPredicates=[http://a.org/p]"));
+    }
+
+    @Test
+    void readNTriplesWithFilter() throws IOException {
+        File file = File.createTempFile("filter", ".nt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), ("<http://a.org/A> <http://a.org/p> <http://a.org/B> .\n"
+                + "<http://a.org/A> <http://purl.org/dc/terms/license> <http://a.org/L> .\n"
+                + "<http://a.org/A> <http://a.org/p> \"a\" .\n"
+                + "<http://a.org/A> <http://a.org/p> <http://a.org/B_Gloss2_EN> .\n"
+                + "# comment\n"
+                + "<http://a.org/B> <http://a.org/p> <http://a.org/C> .\n").getBytes(StandardCharsets.UTF_8));
+        StatementFilter filter = new StatementFilter();
+        filter.addDeniedPredicate("http://purl.org/dc/terms/license");
+        filter.addDeniedPattern("_Gloss2");
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator(), new TripleDataSetMemory());
+        parser.setSkipCondition(filter);
+        parser.readNTriples(file, false);
+        assertEquals(2, parser.getData().getSize());
+        assertEquals(1, parser.getData().getTriplesInvolvingSubject("http://a.org/A").size());
+    }
+}
@@ -0,0 +1,81 @@
+package walkGenerators.base;
+
+import org.junit.jupiter.api.Test;
+import walkGenerators.dataStructure.Triple;
+import walkGenerators.dataStructure.TripleDataSetMemory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripleCacheTest {
+
+    @Test
+    void read() throws IOException {
+        File sourceFile = createSourceFile();
+        File cacheFile = createCacheFile(sourceFile);
+        TripleDataSetMemory data = new TripleDataSetMemory();
+        assertTrue(TripleCache.read(cacheFile, sourceFile, "config", data));
+        assertEquals(4, data.getSize());
+        HashSet<Triple> expected = new HashSet<>();
+        expected.add(new Triple("B", "p", "\"a_literal\"@en"));
+        expected.add(new Triple("B", "q", "Ä😀"));
+        assertEquals(expected, new HashSet<>(data.getTriplesInvolvingSubject("B")));
+        assertEquals(2, data.getTriplesInvolvingSubject("A").size());
+    }
+
+    @Test
+    void invalidCache() throws IOException {
+        File sourceFile = createSourceFile();
+        File cacheFile = createCacheFile(sourceFile);
+        TripleDataSetMemory data = new TripleDataSetMemory();
+        assertTrue(TripleCache.isUpToDate(cacheFile, sourceFile, "config"));
+        // different parser configuration
+        assertFalse(TripleCache.read(cacheFile, sourceFile, "other config", data));
+        assertFalse(TripleCache.isUpToDate(cacheFile, sourceFile, "other config"));
+
+        // corrupt body
+        try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+            file.seek(file.length() - 10);
+            int value = file.read();
+            file.seek(file.length() - 10);
+            file.write(value ^ 0xFF);
+        }
+        assertFalse(TripleCache.read(cacheFile, sourceFile, "config", data));
+
+        // changed source
+        Files.write(sourceFile.toPath(), "<a> <p> <c> .\n<a> <p> <d> .\n".getBytes(StandardCharsets.UTF_8));
+        assertFalse(TripleCache.read(cacheFile, sourceFile, "config", data));
+        assertFalse(TripleCache.isUpToDate(cacheFile, sourceFile, "config"));
+
+        // no cache file
+        assertFalse(TripleCache.read(sourceFile, sourceFile, "config", data));
+        assertFalse(TripleCache.isUpToDate(sourceFile, sourceFile, "config"));
+        assertFalse(TripleCache.isUpToDate(new File(cacheFile.getParentFile(), "missing"), sourceFile, "config"));
+        assertEquals(0, data.getSize());
+    }
+
+    private static File createSourceFile() throws IOException {
+        File sourceFile = File.createTempFile("source", ".nt");
+        sourceFile.deleteOnExit();
+        Files.write(sourceFile.toPath(), "<a> <p> <b> .\n".getBytes(StandardCharsets.UTF_8));
+        return sourceFile;
+    }
+
+    private static File createCacheFile(File sourceFile) throws IOException {
+        File cacheFile = File.createTempFile("cache", ".nt");
+        cacheFile.deleteOnExit();
+        try (TripleCache.Writer writer = new TripleCache.Writer(cacheFile, sourceFile, "config")) {
+            writer.add("A", "p", "B");
+            writer.add("B", "p", "\"a_literal\"@en");
+            writer.add("B", "q", "Ä😀");
+            writer.add("A", "p", "C");
+        }
+        return cacheFile;
+    }
+}
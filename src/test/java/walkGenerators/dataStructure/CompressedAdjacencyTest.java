@@ -0,0 +1,68 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedAdjacencyTest {
+
+    @Test
+    void compress() {
+        Random random = new Random(1);
+        int numberOfNodes = 200;
+        BigIntArray sources = new BigIntArray();
+        BigIntArray targets = new BigIntArray();
+        BigIntArray predicates = new BigIntArray();
+        for (int i = 0; i < 5000; i++) {
+            // node 0 gets many edges (multiple blocks), the others few
+            sources.add(i % 3 == 0 ? 0 : random.nextInt(numberOfNodes));
+            targets.add(random.nextInt(numberOfNodes));
+            predicates.add(random.nextInt(5));
+        }
+        // large IDs
+        sources.add(7);
+        targets.add(Integer.MAX_VALUE);
+        predicates.add(Integer.MAX_VALUE);
+
+        CsrAdjacency csr = CsrAdjacency.build(numberOfNodes, new BigIntArray[]{sources}, new BigIntArray[]{targets}, new BigIntArray[]{predicates});
+        CompressedAdjacency compressed = CompressedAdjacency.compress(csr);
+
+        assertEquals(csr.getNumberOfNodes(), compressed.getNumberOfNodes());
+        assertEquals(csr.getNumberOfEdges(), compressed.getNumberOfEdges());
+        assertTrue(csr.getDegree(0) > 10 * CompressedAdjacency.BLOCK_SIZE);
+        for (int node = 0; node < numberOfNodes; node++) {
+            assertEquals(csr.getDegree(node), compressed.getDegree(node));
+            for (int i = 0; i < csr.getDegree(node); i++) {
+                assertEquals(csr.getEdge(node, i), compressed.getEdge(node, i));
+            }
+        }
+        assertEquals(0, compressed.getDegree(-1));
+        assertEquals(0, compressed.getDegree(numberOfNodes));
+        assertTrue(compressed.getDataSize() < 8 * csr.getNumberOfEdges());
+    }
+
+    @Test
+    void compressedDataSet() {
+        TripleDataSetCsr ds = new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT, true);
+        for (int i = 0; i < 100; i++) {
+            ds.add("A", "P" + (i % 4), "O" + i);
+        }
+        ds.add("O1", "P1", "A");
+        assertEquals(100, ds.getTriplesInvolvingSubject("A").size());
+        assertTrue(ds.getTriplesInvolvingSubject("A").contains(new Triple("A", "P3", "O99")));
+        assertEquals(1, ds.getTriplesInvolvingObject("A").size());
+        assertEquals(101, ds.getSize());
+
+        // node dictionary is front-coded
+        assertEquals("O42", ds.getNode(ds.getNodeId("O42")));
+        assertEquals(-1, ds.getNodeId("O100"));
+
+        // add after compile
+        ds.add("O100", "P1", "A");
+        assertEquals(2, ds.getTriplesInvolvingObject("A").size());
+        assertEquals(100, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals("O100", ds.getNode(ds.getNodeId("O100")));
+    }
+}
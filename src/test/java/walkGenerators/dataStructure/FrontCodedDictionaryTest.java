@@ -0,0 +1,60 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrontCodedDictionaryTest {
+
+    @Test
+    void build() {
+        NodeDictionary source = new NodeDictionary();
+        for (int i = 0; i < 1000; i++) {
+            source.getOrAdd("http://dbpedia.org/resource/Entity_" + (i * 7919 % 1000));
+        }
+        source.getOrAdd("http://dbpedia.org/resource/Köln");
+        source.getOrAdd("http://dbpedia.org/resource/😀");
+        source.getOrAdd("http://dbpedia.org/resource/Ａ");
+        source.getOrAdd("");
+
+        int[] sortedIds = FrontCodedDictionary.sortIds(source);
+        FrontCodedDictionary dictionary = FrontCodedDictionary.build(source, sortedIds);
+        assertEquals(source.size(), dictionary.size());
+
+        for (int id = 0; id < dictionary.size(); id++) {
+            String value = source.getString(sortedIds[id]);
+            assertEquals(value, dictionary.getString(id));
+            assertEquals(id, dictionary.getId(value));
+            if (id > 0) {
+                // sort order is the order of the UTF-8 bytes
+                byte[] previous = dictionary.getString(id - 1).getBytes(StandardCharsets.UTF_8);
+                byte[] current = value.getBytes(StandardCharsets.UTF_8);
+                assertTrue(compareUnsigned(previous, current) < 0);
+            }
+        }
+        assertEquals(-1, dictionary.getId("http://dbpedia.org/resource/Entity_1000"));
+        assertEquals(-1, dictionary.getId("http://dbpedia.org/resource/Entity_"));
+        assertEquals(-1, dictionary.getId("zzz"));
+        assertEquals(-1, dictionary.getId(null));
+
+        // shared prefixes are stored only once per bucket
+        assertTrue(dictionary.getDataSize() < 1000L * "http://dbpedia.org/resource/Entity_".length() / 4);
+    }
+
+    @Test
+    void empty() {
+        FrontCodedDictionary dictionary = FrontCodedDictionary.build(new NodeDictionary(), new int[0]);
+        assertEquals(0, dictionary.size());
+        assertEquals(-1, dictionary.getId("A"));
+    }
+
+    private static int compareUnsigned(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (difference != 0) return difference;
+        }
+        return a.length - b.length;
+    }
+}
@@ -0,0 +1,149 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSnapshotTest {
+
+    private static final String CONFIGURATION = "shortener=test";
+
+    @Test
+    void writeAndOpen() throws IOException {
+        File directory = new File("./snapshotTest");
+        File source = createSource();
+        try {
+            TripleDataSetCsr ds = new TripleDataSetCsr();
+            ds.add("A", "P1", "B");
+            ds.add("A", "P2", "C");
+            ds.add("C", "P1", "B");
+            ds.add("Zürich", "P2", "\"Ünïcödé\"@de");
+            assertFalse(GraphSnapshot.exists(directory));
+            GraphSnapshot.write(ds, directory, source, CONFIGURATION);
+            assertTrue(GraphSnapshot.exists(directory));
+
+            TripleDataSetCsr snapshot = GraphSnapshot.open(directory, source, CONFIGURATION);
+            assertNotNull(snapshot);
+            assertEquals(4, snapshot.getSize());
+            assertEquals(ds.getNumberOfNodes(), snapshot.getNumberOfNodes());
+            assertEquals(3, snapshot.getUniqueSubjects().size());
+            assertTrue(snapshot.getUniqueSubjects().contains("Zürich"));
+            assertFalse(snapshot.getUniqueSubjects().contains("B"));
+
+            List<Triple> triples = snapshot.getTriplesInvolvingSubject("A");
+            assertEquals(2, triples.size());
+            assertTrue(triples.contains(new Triple("A", "P1", "B")));
+            assertTrue(triples.contains(new Triple("A", "P2", "C")));
+            assertEquals(2, snapshot.getTriplesInvolvingObject("B").size());
+            assertTrue(snapshot.getTriplesInvolvingObject("\"Ünïcödé\"@de").contains(new Triple("Zürich", "P2", "\"Ünïcödé\"@de")));
+            assertEquals(ds.getNodeId("\"Ünïcödé\"@de"), snapshot.getNodeId("\"Ünïcödé\"@de"));
+            assertEquals("\"Ünïcödé\"@de", snapshot.getNode(snapshot.getNodeId("\"Ünïcödé\"@de")));
+            assertNull(snapshot.getTriplesInvolvingSubject("X"));
+
+            for (int node = 0; node < ds.getNumberOfNodes(); node++) {
+                assertEquals(node, snapshot.getNodeId(ds.getNode(node)));
+                assertEquals(ds.getOutDegree(node), snapshot.getOutDegree(node));
+                assertEquals(ds.getInDegree(node), snapshot.getInDegree(node));
+                for (int i = 0; i < ds.getOutDegree(node); i++) {
+                    assertEquals(ds.getOutEdge(node, i), snapshot.getOutEdge(node, i));
+                }
+            }
+
+            assertThrows(UnsupportedOperationException.class, () -> snapshot.add("A", "P1", "D"));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void writeAndOpenSubjectIndexOnly() throws IOException {
+        File directory = new File("./snapshotTestSubjectIndex");
+        File source = createSource();
+        try {
+            TripleDataSetCsr ds = new TripleDataSetCsr(IndexProfile.SUBJECT);
+            ds.add("A", "P1", "B");
+            GraphSnapshot.write(ds, directory, source, CONFIGURATION);
+            assertFalse(new File(directory, GraphSnapshot.BACKWARD_FILE).exists());
+
+            TripleDataSetCsr snapshot = GraphSnapshot.open(directory, source, CONFIGURATION);
+            assertNotNull(snapshot);
+            assertEquals(IndexProfile.SUBJECT, snapshot.getIndexProfile());
+            assertFalse(snapshot.getIndexProfile().covers(IndexProfile.SUBJECT_OBJECT));
+            assertEquals(1, snapshot.getTriplesInvolvingSubject("A").size());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void openIncompatible() throws IOException {
+        File directory = new File("./snapshotTestIncompatible");
+        File source = createSource();
+        try {
+            assertNull(GraphSnapshot.open(directory, source, CONFIGURATION));
+
+            TripleDataSetCsr ds = new TripleDataSetCsr();
+            ds.add("A", "P1", "B");
+            GraphSnapshot.write(ds, directory, source, CONFIGURATION);
+
+            // change the format version
+            try (RandomAccessFile meta = new RandomAccessFile(new File(directory, GraphSnapshot.META_FILE), "rw")) {
+                meta.seek(4);
+                meta.writeInt(GraphSnapshot.FORMAT_VERSION + 1);
+            }
+            assertNull(GraphSnapshot.open(directory, source, CONFIGURATION));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void openOutdated() throws IOException {
+        File directory = new File("./snapshotTestOutdated");
+        File source = createSource();
+        try {
+            TripleDataSetCsr ds = new TripleDataSetCsr();
+            ds.add("A", "P1", "B");
+            GraphSnapshot.write(ds, directory, source, CONFIGURATION);
+            assertTrue(GraphSnapshot.isUpToDate(directory, source, CONFIGURATION));
+
+            // different URI shortener
+            assertFalse(GraphSnapshot.isUpToDate(directory, source, "shortener=other"));
+            assertNull(GraphSnapshot.open(directory, source, "shortener=other"));
+            // the configuration is checked later by the caller
+            assertNotNull(GraphSnapshot.open(directory, source, null));
+
+            // different resource
+            File otherSource = createSource();
+            assertNull(GraphSnapshot.open(directory, otherSource, CONFIGURATION));
+
+            // changed resource
+            Files.write(source.toPath(), "<http://a> <http://p1> <http://b> .\n<http://a> <http://p1> <http://c> .\n".getBytes());
+            assertFalse(GraphSnapshot.isUpToDate(directory, source, CONFIGURATION));
+            assertNull(GraphSnapshot.open(directory, source, CONFIGURATION));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static File createSource() throws IOException {
+        File source = File.createTempFile("snapshotSource", ".nt");
+        source.deleteOnExit();
+        Files.write(source.toPath(), "<http://a> <http://p1> <http://b> .\n".getBytes());
+        return source;
+    }
+
+    private static void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        directory.delete();
+    }
+}
@@ -0,0 +1,61 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HdtImporterTest {
+
+    @Test
+    void importHdt() throws IOException, NotFoundException {
+        HDT hdt = HDTManager.loadHDT(getClass().getClassLoader().getResource("swdf-2012-11-28.hdt").getPath());
+        TripleDataSetCsr data = HdtImporter.importHdt(hdt, IndexProfile.SUBJECT_OBJECT, false);
+        String concept = "http://data.semanticweb.org/person/amelie-cordier";
+
+        // outgoing edges without literals
+        Set<String> expected = new HashSet<>();
+        IteratorTripleString iterator = hdt.search(concept, "", "");
+        while (iterator.hasNext()) {
+            TripleString triple = iterator.next();
+            if (triple.getObject().charAt(0) != '"') expected.add(triple.getPredicate() + " " + triple.getObject());
+        }
+        int conceptId = data.getNodeId(concept);
+        assertEquals(concept, data.getNode(conceptId));
+        Set<String> actual = new HashSet<>();
+        for (int i = 0; i < data.getOutDegree(conceptId); i++) {
+            long edge = data.getOutEdge(conceptId, i);
+            actual.add(data.getPredicate(PackedEdge.getPredicate(edge)) + " " + data.getNode(PackedEdge.getNode(edge)));
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+
+        // incoming edges
+        expected.clear();
+        iterator = hdt.search("", "", concept);
+        while (iterator.hasNext()) {
+            TripleString triple = iterator.next();
+            expected.add(triple.getSubject() + " " + triple.getPredicate());
+        }
+        actual.clear();
+        for (int i = 0; i < data.getInDegree(conceptId); i++) {
+            long edge = data.getInEdge(conceptId, i);
+            actual.add(data.getNode(PackedEdge.getNode(edge)) + " " + data.getPredicate(PackedEdge.getPredicate(edge)));
+        }
+        assertEquals(expected, actual);
+        assertTrue(data.getUniqueSubjects().contains(concept));
+
+        // with literals, all triples are imported
+        TripleDataSetCsr dataWithLiterals = HdtImporter.importHdt(hdt, IndexProfile.SUBJECT, true);
+        assertEquals(hdt.getTriples().getNumberOfElements(), dataWithLiterals.getSize());
+        assertTrue(dataWithLiterals.getSize() > data.getSize());
+    }
+}
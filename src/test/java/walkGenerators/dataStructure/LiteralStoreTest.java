@@ -0,0 +1,60 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiteralStoreTest {
+
+    @Test
+    void getOrAdd() {
+        LiteralStore store = new LiteralStore();
+        String[] literals = {"\"a_dog\"@en", "\"ein_Hund\"@de", "\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>",
+                "\"plain\"", "\"\"", "\"Ünïcödé_😀\"@de", "\"with \\\"quotes\\\"\"@en"};
+        for (int i = 0; i < literals.length; i++) {
+            assertEquals(i, store.getOrAdd(literals[i]));
+        }
+        assertEquals(literals.length, store.size());
+        for (int i = 0; i < literals.length; i++) {
+            assertEquals(literals[i], store.getString(i));
+            assertEquals(i, store.getId(literals[i]));
+            // de-duplicated
+            assertEquals(i, store.getOrAdd(literals[i]));
+        }
+        assertEquals(literals.length, store.size());
+        assertEquals(-1, store.getId("\"a_dog\"@de"));
+        assertEquals(-1, store.getId("\"a_dog\"@fr"));
+        assertEquals(-1, store.getId("a_dog"));
+        assertEquals(-1, store.getId(null));
+    }
+
+    @Test
+    void manyLiterals() {
+        LiteralStore store = new LiteralStore();
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, store.getOrAdd("\"value_" + i + "\"^^<http://www.w3.org/2001/XMLSchema#string>"));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, store.getId("\"value_" + i + "\"^^<http://www.w3.org/2001/XMLSchema#string>"));
+        }
+        // the datatype is stored only once
+        assertTrue(store.getHeapBytes() < 10000L * 40);
+    }
+
+    @Test
+    void isLiteral() {
+        assertTrue(LiteralStore.isLiteral("\"a\"@en"));
+        assertTrue(LiteralStore.isLiteral("\"\""));
+        assertFalse(LiteralStore.isLiteral("http://example.org/a"));
+        assertFalse(LiteralStore.isLiteral("\""));
+        assertFalse(LiteralStore.isLiteral(""));
+    }
+
+    @Test
+    void nodeIds() {
+        assertTrue(LiteralStore.isLiteralId(LiteralStore.toNodeId(0)));
+        assertFalse(LiteralStore.isLiteralId(-1));
+        assertFalse(LiteralStore.isLiteralId(0));
+        assertEquals(7, LiteralStore.toLiteralId(LiteralStore.toNodeId(7)));
+    }
+}
@@ -0,0 +1,46 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryReportTest {
+
+    @Test
+    void add() {
+        MemoryReport report = new MemoryReport(10);
+        report.add("node dictionary", 100, 0);
+        report.add("forward adjacency", 50, 200);
+        report.add("node dictionary", 20, 10);
+        assertEquals(2, report.getComponents().size());
+        assertEquals("node dictionary", report.getComponents().get(0));
+        assertEquals(120, report.getHeapBytes("node dictionary"));
+        assertEquals(10, report.getMappedBytes("node dictionary"));
+        assertEquals(0, report.getHeapBytes("unknown"));
+        assertEquals(170, report.getTotalHeapBytes());
+        assertEquals(210, report.getTotalMappedBytes());
+        assertEquals(17.0, report.getHeapBytesPerTriple(), 0.001);
+        assertEquals(0.0, new MemoryReport(0).getHeapBytesPerTriple());
+    }
+
+    @Test
+    void toJson() {
+        MemoryReport report = new MemoryReport(4);
+        report.add("subject index", 10, 0);
+        report.add("\"quoted\"", 0, 5);
+        assertEquals("{\"triples\": 4, \"heapBytes\": 10, \"mappedBytes\": 5, \"heapBytesPerTriple\": 2.5, \"components\": {"
+                + "\"subject index\": {\"heapBytes\": 10, \"mappedBytes\": 0}, "
+                + "\"\\\"quoted\\\"\": {\"heapBytes\": 0, \"mappedBytes\": 5}}}", report.toJson());
+    }
+
+    @Test
+    void sizes() {
+        assertEquals(16, MemoryReport.arrayBytes(0, 8));
+        assertEquals(24, MemoryReport.arrayBytes(1, 8));
+        assertEquals(24, MemoryReport.arrayBytes(5, 1));
+        assertTrue(MemoryReport.stringBytes("äöü") <= MemoryReport.stringBytes("ĀāĂ"));
+        assertEquals(0, MemoryReport.estimateStringBytes(new String[0], 0));
+        String[] values = {"a", "b", null, null};
+        assertEquals(2 * MemoryReport.stringBytes("a"), MemoryReport.estimateStringBytes(values, 2));
+    }
+}
@@ -0,0 +1,60 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    @Test
+    void canonicalize() {
+        StringPool pool = new StringPool();
+        String a = new String("http://example.org/a");
+        String b = new String("http://example.org/a");
+        assertSame(a, pool.canonicalize(a));
+        assertSame(a, pool.canonicalize(b));
+        assertSame(a, pool.canonicalize(a));
+        assertEquals(1, pool.size());
+        assertEquals(3, pool.getLookups());
+        assertEquals(2, pool.getHits());
+        assertEquals(2.0 / 3, pool.getHitRate(), 1e-9);
+
+        int code = pool.getOrAddCode(new String("http://example.org/b"));
+        assertEquals(code, pool.getOrAddCode("http://example.org/b"));
+        assertEquals("http://example.org/b", pool.getString(code));
+        assertSame(a, pool.getString(pool.getOrAddCode(b)));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void concurrentCanonicalize() throws InterruptedException {
+        StringPool pool = new StringPool(16);
+        int numberOfThreads = 4;
+        int numberOfStrings = 20000;
+        String[][] results = new String[numberOfThreads][numberOfStrings];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numberOfThreads; t++) {
+            final int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < numberOfStrings; i++) {
+                    results[thread][i] = pool.canonicalize(new String("node_" + i));
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(numberOfStrings, pool.size());
+        assertEquals((long) numberOfThreads * numberOfStrings, pool.getLookups());
+        assertEquals((long) (numberOfThreads - 1) * numberOfStrings, pool.getHits());
+        for (int i = 0; i < numberOfStrings; i++) {
+            assertEquals("node_" + i, results[0][i]);
+            for (int t = 1; t < numberOfThreads; t++) {
+                assertSame(results[0][i], results[t][i]);
+            }
+        }
+    }
+}
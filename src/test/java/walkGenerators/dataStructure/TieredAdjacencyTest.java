@@ -0,0 +1,102 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredAdjacencyTest {
+
+    @Test
+    void build() throws IOException {
+        Random random = new Random(1);
+        int numberOfNodes = 300;
+        BigIntArray sources = new BigIntArray();
+        BigIntArray targets = new BigIntArray();
+        BigIntArray predicates = new BigIntArray();
+        for (int i = 0; i < 5000; i++) {
+            // skewed degrees
+            sources.add((int) (numberOfNodes * Math.pow(random.nextDouble(), 3)));
+            targets.add(random.nextInt(numberOfNodes));
+            predicates.add(random.nextInt(5));
+        }
+        CsrAdjacency csr = CsrAdjacency.build(numberOfNodes, new BigIntArray[]{sources}, new BigIntArray[]{targets}, new BigIntArray[]{predicates});
+
+        File spillFile = File.createTempFile("adjacency", ".spill");
+        for (long heapBudget : new long[]{0, 8 * 1000, Long.MAX_VALUE}) {
+            TieredAdjacency tiered = TieredAdjacency.build(numberOfNodes, new BigIntArray[]{sources}, new BigIntArray[]{targets},
+                    new BigIntArray[]{predicates}, false, heapBudget, spillFile);
+            assertEquals(csr.getNumberOfNodes(), tiered.getNumberOfNodes());
+            assertEquals(csr.getNumberOfEdges(), tiered.getNumberOfEdges());
+            assertTrue(8 * tiered.getNumberOfHotEdges() <= heapBudget);
+            for (int node = 0; node < numberOfNodes; node++) {
+                assertEquals(csr.getDegree(node), tiered.getDegree(node));
+                for (int i = 0; i < csr.getDegree(node); i++) {
+                    assertEquals(csr.getEdge(node, i), tiered.getEdge(node, i));
+                }
+            }
+            assertEquals(csr.getNumberOfEdges(), tiered.getHotReads() + tiered.getColdReads());
+            if (heapBudget == 0) {
+                assertEquals(0, tiered.getNumberOfHotNodes());
+            } else if (heapBudget == Long.MAX_VALUE) {
+                assertEquals(0, tiered.getColdReads());
+            } else {
+                // the hot nodes are the ones with the highest degree
+                assertTrue(tiered.getNumberOfHotNodes() > 0);
+                int nodesWithEdges = 0;
+                for (int node = 0; node < numberOfNodes; node++) {
+                    if (csr.getDegree(node) > 0) nodesWithEdges++;
+                }
+                assertTrue(tiered.getNumberOfHotEdges() / (double) tiered.getNumberOfHotNodes() > 2.0 * csr.getNumberOfEdges() / nodesWithEdges);
+            }
+        }
+        spillFile.delete();
+    }
+
+    @Test
+    void tieredDataSet() {
+        File directory = new File(System.getProperty("java.io.tmpdir"), "spillTest");
+        TripleDataSetCsr ds = new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT, true, directory, 1024);
+        for (int i = 0; i < 1000; i++) {
+            ds.add("A", "P" + (i % 4), "O" + i);
+        }
+        ds.add("O1", "P1", "A");
+        ds.add("O1", "P1", "A");
+        assertEquals(1000, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals(1, ds.getTriplesInvolvingSubject("O1").size());
+        assertEquals(1, ds.getTriplesInvolvingObject("A").size());
+        assertEquals(1001, ds.getSize());
+        assertEquals(1, ds.getNumberOfRemovedDuplicates());
+        assertTrue(ds.getForward() instanceof TieredAdjacency);
+
+        // add after compile
+        ds.add("O2", "P1", "A");
+        assertEquals(2, ds.getTriplesInvolvingObject("A").size());
+        assertEquals(1000, ds.getTriplesInvolvingSubject("A").size());
+        assertTrue(ds.getTieringStatistics().startsWith("forward adjacency: "));
+        assertNull(new TripleDataSetCsr().getTieringStatistics());
+    }
+
+    @Test
+    void spillFilesOfReplacedAdjacency() throws IOException {
+        File directory = Files.createTempDirectory("spillFiles").toFile();
+        directory.deleteOnExit();
+        TripleDataSetCsr ds = new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT, true, directory, 0);
+        ds.add("A", "P1", "B");
+        ds.compile();
+        // forward and backward adjacency (there are no literals)
+        assertEquals(2, directory.listFiles().length);
+
+        // the files of the replaced adjacency are deleted upon compile and relabel
+        ds.add("B", "P1", "C");
+        ds.compile();
+        assertEquals(2, directory.listFiles().length);
+        ds.relabel(NodeOrder.DEGREE);
+        assertEquals(2, directory.listFiles().length);
+        assertEquals(1, ds.getTriplesInvolvingSubject("B").size());
+    }
+}
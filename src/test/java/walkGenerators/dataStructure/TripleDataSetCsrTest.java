@@ -0,0 +1,303 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripleDataSetCsrTest {
+
+    @Test
+    void add() {
+        TripleDataSetCsr ds = new TripleDataSetCsr();
+        ds.add("A", "B", "C");
+        ds.add("A", "B2", "D");
+        ds.add("D", "B", "C");
+        assertEquals(3, ds.getSize());
+
+        List<Triple> subjectTriples = ds.getTriplesInvolvingSubject("A");
+        assertEquals(2, subjectTriples.size());
+        assertTrue(subjectTriples.contains(new Triple("A", "B", "C")));
+        assertTrue(subjectTriples.contains(new Triple("A", "B2", "D")));
+
+        List<Triple> objectTriples = ds.getTriplesInvolvingObject("C");
+        assertEquals(2, objectTriples.size());
+        assertTrue(objectTriples.contains(new Triple("A", "B", "C")));
+        assertTrue(objectTriples.contains(new Triple("D", "B", "C")));
+
+        // unknown nodes and nodes that never occur as subject
+        assertNull(ds.getTriplesInvolvingSubject("C"));
+        assertNull(ds.getTriplesInvolvingSubject("X"));
+        assertNull(ds.getTriplesInvolvingObject("A"));
+    }
+
+    @Test
+    void addAfterCompile() {
+        TripleDataSetCsr ds = new TripleDataSetCsr();
+        ds.add("A", "B", "C");
+        assertEquals(1, ds.getTriplesInvolvingSubject("A").size());
+        ds.add("A", "B", "D");
+        ds.add(new Triple("E", "B", "A"));
+        assertEquals(3, ds.getSize());
+        assertEquals(2, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals(1, ds.getTriplesInvolvingObject("A").size());
+    }
+
+    @Test
+    void getUniqueSubjects() {
+        TripleDataSetCsr ds = new TripleDataSetCsr();
+        ds.add("A", "B", "C");
+        ds.add("A", "B", "D");
+        ds.add("D", "B", "E");
+        Set<String> subjects = ds.getUniqueSubjects();
+        assertEquals(2, subjects.size());
+        assertTrue(subjects.contains("A"));
+        assertTrue(subjects.contains("D"));
+        assertFalse(subjects.contains("C"));
+        assertFalse(subjects.contains("X"));
+        int count = 0;
+        for (String subject : subjects) {
+            assertTrue(subject.equals("A") || subject.equals("D"));
+            count++;
+        }
+        assertEquals(2, count);
+    }
+
+    @Test
+    void idApi() {
+        TripleDataSetCsr ds = new TripleDataSetCsr();
+        ds.add("A", "P1", "B");
+        ds.add("A", "P2", "C");
+        ds.add("C", "P1", "B");
+
+        int a = ds.getNodeId("A");
+        int b = ds.getNodeId("B");
+        assertEquals(-1, ds.getNodeId("X"));
+        assertEquals("A", ds.getNode(a));
+        assertEquals(3, ds.getNumberOfNodes());
+
+        assertEquals(2, ds.getOutDegree(a));
+        assertEquals(0, ds.getOutDegree(b));
+        assertEquals(2, ds.getInDegree(b));
+        assertEquals(0, ds.getInDegree(a));
+
+        for (int i = 0; i < ds.getInDegree(b); i++) {
+            long edge = ds.getInEdge(b, i);
+            assertEquals("P1", ds.getPredicate(PackedEdge.getPredicate(edge)));
+            String subject = ds.getNode(PackedEdge.getNode(edge));
+            assertTrue(subject.equals("A") || subject.equals("C"));
+        }
+    }
+
+    @Test
+    void addConcurrently() throws InterruptedException {
+        TripleDataSetCsr ds = new TripleDataSetCsr();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int threadNumber = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ds.add("S" + i, "P" + (i % 3), "O" + threadNumber);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(8000, ds.getSize());
+        ds.compile();
+        assertEquals(1008, ds.getNumberOfNodes());
+        assertEquals(1000, ds.getUniqueSubjects().size());
+        assertEquals(1000, ds.getTriplesInvolvingObject("O3").size());
+        List<Triple> triples = ds.getTriplesInvolvingSubject("S5");
+        assertEquals(8, triples.size());
+        for (int t = 0; t < 8; t++) {
+            assertTrue(triples.contains(new Triple("S5", "P2", "O" + t)));
+        }
+        for (int node = 0; node < ds.getNumberOfNodes(); node++) {
+            assertEquals(node, ds.getNodeId(ds.getNode(node)));
+        }
+
+        // add after compilation: IDs are re-assigned, the compiled triples must be kept
+        ds.add("S5", "P0", "X");
+        assertEquals(9, ds.getTriplesInvolvingSubject("S5").size());
+        assertEquals(1000, ds.getTriplesInvolvingObject("O3").size());
+        assertEquals(8001, ds.getSize());
+    }
+
+    @Test
+    void indexProfile() {
+        TripleDataSetCsr ds = new TripleDataSetCsr(IndexProfile.SUBJECT);
+        ds.add("A", "B", "C");
+        assertEquals(1, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals(IndexProfile.SUBJECT, ds.getIndexProfile());
+        assertNull(ds.getBackward());
+        assertThrows(UnsupportedOperationException.class, () -> ds.getTriplesInvolvingObject("C"));
+        assertThrows(UnsupportedOperationException.class, () -> ds.getInDegree(0));
+        assertEquals(IndexProfile.SUBJECT_OBJECT, new TripleDataSetCsr(IndexProfile.FULL).getIndexProfile());
+    }
+
+    @Test
+    void packedEdge() {
+        long edge = PackedEdge.pack(7, Integer.MAX_VALUE);
+        assertEquals(7, PackedEdge.getPredicate(edge));
+        assertEquals(Integer.MAX_VALUE, PackedEdge.getNode(edge));
+        edge = PackedEdge.pack(Integer.MAX_VALUE, 0);
+        assertEquals(Integer.MAX_VALUE, PackedEdge.getPredicate(edge));
+        assertEquals(0, PackedEdge.getNode(edge));
+    }
+
+    @Test
+    void removeDuplicates() {
+        for (boolean isCompressed : new boolean[]{false, true}) {
+            TripleDataSetCsr ds = new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT, isCompressed, true);
+            ds.add("A", "B", "C");
+            ds.add("A", "B", "C");
+            ds.add("A", "B", "D");
+            ds.add("E", "B", "C");
+            ds.add("E", "B", "C");
+            assertEquals(2, ds.getTriplesInvolvingSubject("A").size());
+            assertEquals(2, ds.getTriplesInvolvingObject("C").size());
+            assertEquals(1, ds.getTriplesInvolvingSubject("E").size());
+            assertEquals(3, ds.getSize());
+            assertEquals(2, ds.getNumberOfRemovedDuplicates());
+
+            // duplicate of an already compiled triple
+            ds.add("A", "B", "D");
+            assertEquals(2, ds.getTriplesInvolvingSubject("A").size());
+            assertEquals(3, ds.getSize());
+            assertEquals(3, ds.getNumberOfRemovedDuplicates());
+        }
+    }
+
+    @Test
+    void getMemoryReport() {
+        TripleDataSetCsr ds = new TripleDataSetCsr();
+        for (int i = 0; i < 10000; i++) ds.add("http://example.org/node" + i, "P", "http://example.org/node" + (i + 1));
+
+        // staged triples
+        MemoryReport staged = ds.getMemoryReport();
+        assertEquals(10000, staged.getNumberOfTriples());
+        assertTrue(staged.getHeapBytes("staging") >= 3 * 4 * 10000);
+        assertTrue(staged.getHeapBytes("node dictionary") > 10001 * 20);
+        assertEquals(0, staged.getHeapBytes("forward adjacency"));
+
+        ds.compile();
+        MemoryReport compiled = ds.getMemoryReport();
+        assertTrue(compiled.getHeapBytes("forward adjacency") >= 8 * 10000);
+        assertTrue(compiled.getHeapBytes("backward adjacency") >= 8 * 10000);
+        assertTrue(compiled.getHeapBytes("staging") < staged.getHeapBytes("staging"));
+        assertEquals(0, compiled.getTotalMappedBytes());
+        assertTrue(compiled.getHeapBytesPerTriple() > 16);
+
+        // compressed data sets use the front-coded dictionary
+        TripleDataSetCsr compressed = new TripleDataSetCsr(IndexProfile.SUBJECT, true);
+        for (int i = 0; i < 10000; i++) compressed.add("http://example.org/node" + i, "P", "http://example.org/node" + (i + 1));
+        compressed.compile();
+        MemoryReport compressedReport = compressed.getMemoryReport();
+        assertTrue(compressedReport.getHeapBytes("node dictionary") < compiled.getHeapBytes("node dictionary"));
+        assertFalse(compressedReport.getComponents().contains("backward adjacency"));
+    }
+
+    @Test
+    void presize() {
+        TripleDataSetCsr ds = new TripleDataSetCsr();
+        long emptyBytes = ds.getMemoryReport().getHeapBytes("node dictionary");
+        ds.presize(new GraphSizeEstimate(1_000_000, 100_000, 500_000, 550_000, 10, 2));
+        long presizedBytes = ds.getMemoryReport().getHeapBytes("node dictionary");
+        assertTrue(presizedBytes > emptyBytes + 550_000 * 4);
+        for (int i = 0; i < 1000; i++) ds.add("S" + (i % 100), "P", "O" + (i % 500));
+        assertEquals(10, ds.getTriplesInvolvingSubject("S1").size());
+        assertEquals(2, ds.getTriplesInvolvingObject("O1").size());
+
+        // the unused capacity is released upon compilation
+        assertTrue(ds.getMemoryReport().getHeapBytes("node dictionary") < presizedBytes - 500_000 * 4);
+    }
+
+    @Test
+    void relabel() {
+        for (NodeOrder order : NodeOrder.values()) {
+            TripleDataSetCsr ds = new TripleDataSetCsr();
+            for (int i = 0; i < 100; i++) ds.add("N" + i, "P" + (i % 3), "N" + ((i * 7) % 100));
+            for (int i = 1; i < 20; i++) ds.add("Hub", "P0", "N" + i);
+            Set<Triple> before = new HashSet<>();
+            for (String subject : ds.getUniqueSubjects()) before.addAll(ds.getTriplesInvolvingSubject(subject));
+
+            ds.relabel(order);
+            Set<Triple> after = new HashSet<>();
+            for (String subject : ds.getUniqueSubjects()) after.addAll(ds.getTriplesInvolvingSubject(subject));
+            assertEquals(before, after);
+            assertEquals(119, ds.getSize());
+            assertEquals(19, ds.getTriplesInvolvingSubject("Hub").size());
+            assertEquals(2, ds.getTriplesInvolvingObject("N7").size());
+
+            // the hub has the highest degree
+            int hub = ds.getNodeId("Hub");
+            assertEquals(0, hub);
+            assertEquals("Hub", ds.getNode(hub));
+            if (order == NodeOrder.BFS) {
+                // the neighbours of the hub follow the hub
+                for (int i = 0; i < ds.getOutDegree(hub); i++) {
+                    assertTrue(PackedEdge.getNode(ds.getOutEdge(hub, i)) <= 19);
+                }
+            }
+
+            // triples added after relabeling
+            ds.add("Hub", "P1", "N1");
+            assertEquals(20, ds.getTriplesInvolvingSubject("Hub").size());
+            assertEquals(2, ds.getTriplesInvolvingObject("N7").size());
+            assertEquals(120, ds.getSize());
+        }
+        assertThrows(UnsupportedOperationException.class, () -> new TripleDataSetCsr(IndexProfile.SUBJECT, true).relabel(NodeOrder.DEGREE));
+    }
+
+    @Test
+    void literals() {
+        for (boolean isCompressed : new boolean[]{false, true}) {
+            TripleDataSetCsr ds = new TripleDataSetCsr(IndexProfile.SUBJECT_OBJECT, isCompressed, true);
+            ds.add("A", "label", "\"a_dog\"@en");
+            ds.add("A", "label", "\"a_dog\"@en");
+            ds.add("B", "label", "\"a_dog\"@en");
+            ds.add("A", "P", "B");
+            ds.add("B", "value", "\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>");
+            // literals are not part of the node dictionary
+            assertEquals(2, ds.getNumberOfNodes());
+            assertEquals(4, ds.getSize());
+            assertEquals(2, ds.getUniqueSubjects().size());
+            assertTrue(ds.getTriplesInvolvingSubject("A").contains(new Triple("A", "label", "\"a_dog\"@en")));
+            assertNull(ds.getTriplesInvolvingSubject("\"a_dog\"@en"));
+            assertEquals(2, ds.getTriplesInvolvingObject("\"a_dog\"@en").size());
+            assertTrue(ds.getTriplesInvolvingObject("\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>")
+                    .contains(new Triple("B", "value", "\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>")));
+            assertNull(ds.getTriplesInvolvingObject("\"unknown\"@en"));
+
+            // ID API: walks end on a literal
+            int literal = ds.getNodeId("\"a_dog\"@en");
+            assertTrue(LiteralStore.isLiteralId(literal));
+            assertEquals("\"a_dog\"@en", ds.getNode(literal));
+            assertEquals(0, ds.getOutDegree(literal));
+            assertEquals(2, ds.getInDegree(literal));
+            assertEquals("A", ds.getNode(PackedEdge.getNode(ds.getInEdge(literal, 0))));
+            assertEquals(-1, ds.getNodeId("\"unknown\"@en"));
+            assertTrue(ds.getMemoryReport().getHeapBytes("literals") > 0);
+
+            // literal IDs are stable when further triples are compiled
+            ds.add("C", "label", "\"a_dog\"@en");
+            ds.add("C", "label", "\"ein_Hund\"@de");
+            assertEquals(literal, ds.getNodeId("\"a_dog\"@en"));
+            assertEquals(3, ds.getTriplesInvolvingObject("\"a_dog\"@en").size());
+            assertEquals(2, ds.getTriplesInvolvingSubject("C").size());
+            assertEquals(3, ds.getNumberOfNodes());
+
+            if (!isCompressed) {
+                ds.relabel(NodeOrder.BFS);
+                assertEquals(3, ds.getTriplesInvolvingObject("\"a_dog\"@en").size());
+                assertTrue(ds.getTriplesInvolvingSubject("C").contains(new Triple("C", "label", "\"ein_Hund\"@de")));
+            }
+        }
+    }
+}
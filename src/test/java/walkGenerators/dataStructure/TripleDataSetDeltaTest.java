@@ -0,0 +1,131 @@
+package walkGenerators.dataStructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripleDataSetDeltaTest {
+
+    @Test
+    void addAndDelete() {
+        TripleDataSetDelta ds = new TripleDataSetDelta(new TripleDataSetMemory(), TripleDataSetMemory::new);
+
+        // initial load into the base
+        ds.add("A", "P1", "B");
+        ds.add("A", "P2", "C");
+        ds.add("C", "P1", "B");
+        ds.compile();
+        assertEquals(3, ds.getSize());
+        assertEquals(0, ds.getDeltaSize());
+        assertEquals(3, ds.getBase().getSize());
+
+        // updates
+        ds.add("A", "P3", "D");
+        ds.add("A", "P1", "B"); // already contained
+        assertTrue(ds.delete("A", "P2", "C"));
+        assertFalse(ds.delete("X", "P2", "C"));
+        assertTrue(ds.delete("C", "P1", "B"));
+        assertEquals(3, ds.getDeltaSize());
+        assertEquals(3, ds.getBase().getSize());
+        assertEquals(2, ds.getSize());
+
+        List<Triple> triples = ds.getTriplesInvolvingSubject("A");
+        assertEquals(2, triples.size());
+        assertTrue(triples.contains(new Triple("A", "P1", "B")));
+        assertTrue(triples.contains(new Triple("A", "P3", "D")));
+        assertNull(ds.getTriplesInvolvingSubject("C"));
+        assertEquals(1, ds.getTriplesInvolvingObject("B").size());
+        assertEquals(1, ds.getTriplesInvolvingObject("D").size());
+        assertNull(ds.getTriplesInvolvingObject("C"));
+        assertEquals(1, ds.getUniqueSubjects().size());
+        assertTrue(ds.getUniqueSubjects().contains("A"));
+
+        // re-add a deleted triple, delete an added triple
+        ds.add("C", "P1", "B");
+        assertTrue(ds.delete("A", "P3", "D"));
+        assertNull(ds.getTriplesInvolvingObject("D"));
+        assertEquals(2, ds.getSize());
+        assertEquals(1, ds.getDeltaSize());
+        assertTrue(ds.getUniqueSubjects().contains("C"));
+    }
+
+    @Test
+    void compact() {
+        TripleDataSetDelta ds = new TripleDataSetDelta(new TripleDataSetCsr(), TripleDataSetCsr::new);
+        for (int i = 0; i < 100; i++) {
+            ds.add("S" + (i % 10), "P", "O" + i);
+        }
+        ds.compile();
+        TripleDataSet oldBase = ds.getBase();
+        for (int i = 0; i < 100; i += 2) {
+            ds.delete("S" + (i % 10), "P", "O" + i);
+        }
+        ds.add("S10", "P", "O0");
+        assertEquals(51, ds.getSize());
+        assertEquals(51, ds.getDeltaSize());
+
+        ds.compact();
+        assertNotSame(oldBase, ds.getBase());
+        assertEquals(0, ds.getDeltaSize());
+        assertEquals(51, ds.getSize());
+        assertEquals(51, ds.getBase().getSize());
+        assertEquals(10, ds.getTriplesInvolvingSubject("S1").size());
+        assertNull(ds.getTriplesInvolvingSubject("S0"));
+        assertEquals(1, ds.getTriplesInvolvingObject("O0").size());
+        assertEquals(6, ds.getUniqueSubjects().size());
+
+        // updates after compaction
+        ds.add("S0", "P", "O0");
+        assertEquals(2, ds.getTriplesInvolvingObject("O0").size());
+        assertEquals(52, ds.getSize());
+    }
+
+    @Test
+    void compactInBackground() throws InterruptedException {
+        TripleDataSetDelta ds = new TripleDataSetDelta(new TripleDataSetMemory(), TripleDataSetMemory::new, 10);
+        ds.add("A", "P", "B");
+        ds.compile();
+        for (int i = 0; i < 1000; i++) {
+            ds.add("A", "P", "C" + i);
+            if (i % 100 == 0) {
+                // lookups during compaction
+                assertEquals(i + 2, ds.getTriplesInvolvingSubject("A").size());
+            }
+        }
+        // compactions may still be running in the background
+        for (int i = 0; i < 1000 && ds.getDeltaSize() > 0; i++) {
+            ds.compactInBackground().join();
+            Thread.sleep(10);
+        }
+        assertEquals(1001, ds.getSize());
+        assertEquals(1001, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals(0, ds.getDeltaSize());
+    }
+
+    @Test
+    void withBase() {
+        TripleDataSetDelta ds = new TripleDataSetDelta(new TripleDataSetCsr(), TripleDataSetCsr::new);
+        // e.g. an imported graph
+        TripleDataSetCsr imported = new TripleDataSetCsr();
+        imported.add("A", "P", "B");
+        imported.add("A", "P", "C");
+        imported.compile();
+
+        TripleDataSetDelta delta = ds.withBase(imported);
+        assertSame(imported, delta.getBase());
+        assertEquals(2, delta.getSize());
+        delta.delete("A", "P", "B");
+        delta.add("B", "P", "C");
+        assertEquals(2, delta.getDeltaSize());
+        assertEquals(2, delta.getSize());
+
+        // compaction uses the base factory of the original delta
+        delta.compact();
+        assertNotSame(imported, delta.getBase());
+        assertTrue(delta.getBase() instanceof TripleDataSetCsr);
+        assertEquals(1, delta.getTriplesInvolvingSubject("A").size());
+        assertEquals(1, delta.getTriplesInvolvingSubject("B").size());
+    }
+}
@@ -2,6 +2,9 @@ package walkGenerators.dataStructure;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TripleDataSetMemoryTest {
@@ -26,4 +29,112 @@ class TripleDataSetMemoryTest {
 
         assertEquals(1, ds.getSize());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addConcurrently() throws InterruptedException {
+        TripleDataSetMemory ds = new TripleDataSetMemory();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int threadNumber = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ds.add("S" + i, "P" + (i % 3), "O" + threadNumber);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(8000, ds.getSize());
+        ds.compile();
+        assertEquals(1000, ds.getUniqueSubjects().size());
+        assertEquals(8, ds.getTriplesInvolvingSubject("S5").size());
+        assertEquals(1000, ds.getTriplesInvolvingObject("O3").size());
+        assertEquals(8 * 334, ds.getTriplesInvolvingPredicate("P0").size());
+
+        // add after compilation
+        ds.add("S5", "P0", "X");
+        assertEquals(9, ds.getTriplesInvolvingSubject("S5").size());
+        assertEquals(8001, ds.getSize());
+    }
+
+    @Test
+    void indexProfile() {
+        TripleDataSetMemory ds = new TripleDataSetMemory(IndexProfile.SUBJECT);
+        ds.add("A", "B", "C");
+        assertEquals(1, ds.getTriplesInvolvingSubject("A").size());
+        assertThrows(UnsupportedOperationException.class, () -> ds.getTriplesInvolvingObject("C"));
+        assertThrows(UnsupportedOperationException.class, () -> ds.getTriplesInvolvingPredicate("B"));
+        assertTrue(ds.predicateToTriple.isEmpty());
+        assertTrue(ds.objectToTriple.isEmpty());
+
+        TripleDataSetMemory ds2 = new TripleDataSetMemory(IndexProfile.SUBJECT_OBJECT);
+        ds2.add("A", "B", "C");
+        assertEquals(1, ds2.getTriplesInvolvingObject("C").size());
+        assertTrue(ds2.predicateToTriple.isEmpty());
+    }
+
+    @Test
+    void removeDuplicates() {
+        TripleDataSetMemory ds = new TripleDataSetMemory(IndexProfile.FULL, true);
+        ds.add("A", "B", "C");
+        ds.add("A", "B", "C");
+        ds.add("A", "B", "D");
+        ds.add("E", "B", "C");
+        assertEquals(2, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals(3, ds.getTriplesInvolvingPredicate("B").size());
+        assertEquals(2, ds.getTriplesInvolvingObject("C").size());
+        assertEquals(3, ds.getSize());
+        assertEquals(1, ds.getNumberOfRemovedDuplicates());
+
+        // duplicate of an already compiled triple
+        ds.add(new Triple("A", "B", "D"));
+        assertEquals(2, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals(1, ds.getTriplesInvolvingObject("D").size());
+        assertEquals(3, ds.getSize());
+        assertEquals(2, ds.getNumberOfRemovedDuplicates());
+
+        // disabled by default
+        TripleDataSetMemory ds2 = new TripleDataSetMemory();
+        ds2.add("A", "B", "C");
+        ds2.add("A", "B", "C");
+        assertEquals(2, ds2.getTriplesInvolvingSubject("A").size());
+        assertEquals(0, ds2.getNumberOfRemovedDuplicates());
+    }
+
+    @Test
+    void getMemoryReport() {
+        TripleDataSetMemory ds = new TripleDataSetMemory();
+        for (int i = 0; i < 1000; i++) ds.add("http://example.org/node" + i, "P", "http://example.org/node" + (i + 1));
+        MemoryReport staged = ds.getMemoryReport();
+        assertEquals(1000, staged.getNumberOfTriples());
+        assertEquals(1000 * 24, staged.getHeapBytes("triples"));
+        assertTrue(staged.getHeapBytes("staging") >= 3 * 4 * 1000);
+        assertEquals(0, staged.getHeapBytes("subject index"));
+
+        ds.compile();
+        MemoryReport compiled = ds.getMemoryReport();
+        assertTrue(compiled.getHeapBytes("subject index") > 1000 * 4);
+        assertTrue(compiled.getHeapBytes("predicate index") > 1000 * 4);
+        assertTrue(compiled.getHeapBytes("object index") > 1000 * 4);
+        // 1001 distinct nodes and one predicate
+        long nodeBytes = MemoryReport.stringBytes("http://example.org/node0");
+        assertTrue(compiled.getHeapBytes("strings") > 900 * nodeBytes);
+        assertTrue(compiled.getHeapBytes("strings") < 1200 * MemoryReport.stringBytes("http://example.org/node1000"));
+    }
+
+    @Test
+    void presize() {
+        TripleDataSetMemory ds = new TripleDataSetMemory();
+        ds.presize(new GraphSizeEstimate(1000, 100, 500, 550, 10, 2));
+        for (int i = 0; i < 1000; i++) ds.add("S" + (i % 100), "P", "O" + (i % 500));
+        assertEquals(10, ds.getTriplesInvolvingSubject("S1").size());
+        assertEquals(2, ds.getTriplesInvolvingObject("O1").size());
+        assertEquals(1000, ds.getTriplesInvolvingPredicate("P").size());
+        assertEquals(1000, ds.getSize());
+
+        // no effect once triples are added
+        ds.presize(new GraphSizeEstimate(10, 10, 10, 10, 1, 1));
+        assertEquals(10, ds.getTriplesInvolvingSubject("S1").size());
+    }
+}
@@ -23,5 +23,9 @@ class TripleTest {
         Triple t2 = new Triple("C", "B", "A");
         assertTrue(t1.hashCode() == t2.hashCode());
 
+        // same value as the String-based definition
+        Triple t3 = new Triple("http://dbpedia.org/resource/Mannheim", "http://dbpedia.org/ontology/country", "Ünïcödé");
+        assertEquals(("http://dbpedia.org/resource/Mannheim" + "_1").hashCode() + ("http://dbpedia.org/ontology/country" + "_2").hashCode()
+                + ("Ünïcödé" + "_2").hashCode(), t3.hashCode());
     }
 }
\ No newline at end of file